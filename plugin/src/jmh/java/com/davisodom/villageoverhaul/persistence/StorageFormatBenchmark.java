@@ -0,0 +1,104 @@
+package com.davisodom.villageoverhaul.persistence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Encode/decode throughput of the JsonStore formats on a wallet balance table
+ *
+ *   ./gradlew jmh
+ *
+ * Encoded sizes are printed once per trial ("[size] ..." lines); results go to
+ * build/reports/jmh/results.json, which BenchmarkGate can compare between runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageFormatBenchmark {
+
+    @Param({"JSON", "SMILE"})
+    public StorageFormat format;
+
+    @Param({"1000", "20000"})
+    public int wallets;
+
+    private JsonStore store;
+    private WalletTable table;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        store = new JsonStore(Files.createTempDirectory("storage-bench").toFile(), Logger.getLogger("bench"));
+        table = WalletTable.generate(wallets, 42L);
+        encoded = store.encode(table, 1, format);
+        System.out.printf("%n[size] %s, %d wallets: %,d bytes (%.1f per wallet)%n",
+                format, wallets, encoded.length, encoded.length / (double) wallets);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return store.encode(table, 1, format);
+    }
+
+    @Benchmark
+    public WalletTable decode() throws IOException {
+        return store.decode(encoded, WalletTable.class, "bench");
+    }
+
+    /**
+     * Shape of the wallet snapshot: one row per village/player wallet with a short history
+     */
+    public static class WalletTable {
+        public long createdAt;
+        public List<WalletRow> wallets = new ArrayList<>();
+
+        static WalletTable generate(int count, long seed) {
+            Random random = new Random(seed);
+            WalletTable table = new WalletTable();
+            table.createdAt = 1_700_000_000_000L;
+            for (int i = 0; i < count; i++) {
+                WalletRow row = new WalletRow();
+                row.ownerId = new UUID(random.nextLong(), random.nextLong()).toString();
+                row.ownerType = random.nextInt(4) == 0 ? "PLAYER" : "VILLAGE";
+                row.balanceMillz = random.nextInt(10_000_000);
+                row.updatedAt = table.createdAt + random.nextInt(86_400_000);
+                int entries = random.nextInt(4);
+                for (int j = 0; j < entries; j++) {
+                    row.recentDeltas.add((long) (random.nextGaussian() * 5000));
+                }
+                table.wallets.add(row);
+            }
+            return table;
+        }
+    }
+
+    public static class WalletRow {
+        public String ownerId;
+        public String ownerType;
+        public long balanceMillz;
+        public long updatedAt;
+        public List<Long> recentDeltas = new ArrayList<>();
+    }
+}
@@ -1,5 +1,9 @@
 package com.davisodom.villageoverhaul;
 
+import com.davisodom.villageoverhaul.obs.log.EventLog;
+import com.davisodom.villageoverhaul.obs.log.EventLogger;
+import com.davisodom.villageoverhaul.obs.log.LogCategory;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.plugin.Plugin;
 
@@ -8,6 +12,10 @@ import java.util.logging.Logger;
 /**
  * Debug flags and structured logging utilities.
  * Provides [STRUCT] logging for structure placement observability.
+ * 
+ * Each flag switches on the debug events of the matching {@link LogCategory}; messages are
+ * routed through {@link EventLog}, so they are sampled/rate limited per
+ * logging.categories.&lt;key&gt; and written off the main thread once the async appender runs.
  */
 public class DebugFlags {
     
@@ -17,6 +25,11 @@ public class DebugFlags {
     private static boolean debugPerformance = false;
     private static boolean debugTick = false;
     private static Logger logger;
+    private static EventLogger structureLog;
+    private static EventLogger pathLog;
+    private static EventLogger terraformLog;
+    private static EventLogger performanceLog;
+    private static EventLogger tickLog;
     
     /**
      * Initialize debug flags from plugin configuration.
@@ -31,6 +44,20 @@ public class DebugFlags {
         debugPerformance = config.getBoolean("debug.performance", false);
         debugTick = config.getBoolean("debug.tick", false);
         
+        for (LogCategory category : LogCategory.values()) {
+            ConfigurationSection section = config.getConfigurationSection("logging.categories." + category.getKey());
+            if (section != null) {
+                EventLog.configure(category, new EventLog.CategorySettings(
+                        section.getInt("sampleRate", 1),
+                        section.getInt("maxPerSecond", 0)));
+            }
+        }
+        structureLog = EventLog.getLogger(LogCategory.STRUCTURES, logger);
+        pathLog = EventLog.getLogger(LogCategory.PATHS, logger);
+        terraformLog = EventLog.getLogger(LogCategory.TERRAFORMING, logger);
+        performanceLog = EventLog.getLogger(LogCategory.PERFORMANCE, logger);
+        tickLog = EventLog.getLogger(LogCategory.TICK, logger);
+        
         if (isAnyDebugEnabled()) {
             logger.info("[STRUCT] Debug flags initialized: structures=" + debugStructures + 
                        ", paths=" + debugPaths + 
@@ -54,8 +81,8 @@ public class DebugFlags {
      * Log structure placement event with [STRUCT] marker.
      */
     public static void logStructure(String message) {
-        if (logger != null) {
-            logger.info("[STRUCT] " + message);
+        if (structureLog != null) {
+            structureLog.info("structure", "[STRUCT] " + message);
         }
     }
     
@@ -63,8 +90,8 @@ public class DebugFlags {
      * Log structure placement error with [STRUCT] marker.
      */
     public static void logStructureError(String message) {
-        if (logger != null) {
-            logger.warning("[STRUCT] ERROR: " + message);
+        if (structureLog != null) {
+            structureLog.warn("structure.error", "[STRUCT] ERROR: " + message);
         }
     }
     
@@ -72,8 +99,8 @@ public class DebugFlags {
      * Log structure placement event if debug enabled.
      */
     public static void debugStructure(String message) {
-        if (debugStructures && logger != null) {
-            logger.info("[STRUCT] DEBUG: " + message);
+        if (structureLog != null) {
+            structureLog.debug("structure.debug", () -> "[STRUCT] DEBUG: " + message);
         }
     }
     
@@ -81,8 +108,8 @@ public class DebugFlags {
      * Log path generation event with [STRUCT] marker.
      */
     public static void logPath(String message) {
-        if (logger != null) {
-            logger.info("[STRUCT] Path: " + message);
+        if (pathLog != null) {
+            pathLog.info("path", "[STRUCT] Path: " + message);
         }
     }
     
@@ -90,8 +117,8 @@ public class DebugFlags {
      * Log path generation event if debug enabled.
      */
     public static void debugPath(String message) {
-        if (debugPaths && logger != null) {
-            logger.info("[STRUCT] Path DEBUG: " + message);
+        if (pathLog != null) {
+            pathLog.debug("path.debug", () -> "[STRUCT] Path DEBUG: " + message);
         }
     }
     
@@ -99,8 +126,8 @@ public class DebugFlags {
      * Log terraforming event if debug enabled.
      */
     public static void debugTerraforming(String message) {
-        if (debugTerraforming && logger != null) {
-            logger.info("[STRUCT] Terraforming: " + message);
+        if (terraformLog != null) {
+            terraformLog.debug("terraform.debug", () -> "[STRUCT] Terraforming: " + message);
         }
     }
     
@@ -108,8 +135,8 @@ public class DebugFlags {
      * Log performance metric with [STRUCT] marker.
      */
     public static void logPerformance(String operation, long durationMs) {
-        if (logger != null) {
-            logger.info(String.format("[STRUCT] Performance: %s took %dms", operation, durationMs));
+        if (performanceLog != null) {
+            performanceLog.info("performance", () -> String.format("[STRUCT] Performance: %s took %dms", operation, durationMs));
         }
     }
     
@@ -117,8 +144,9 @@ public class DebugFlags {
      * Log performance metric if debug enabled.
      */
     public static void debugPerformance(String operation, long durationMs) {
-        if (debugPerformance && logger != null) {
-            logger.info(String.format("[STRUCT] Performance DEBUG: %s took %dms", operation, durationMs));
+        if (performanceLog != null) {
+            performanceLog.debug("performance.debug",
+                    () -> String.format("[STRUCT] Performance DEBUG: %s took %dms", operation, durationMs));
         }
     }
     
@@ -126,8 +154,8 @@ public class DebugFlags {
      * Log site validation result.
      */
     public static void logSiteValidation(String result, String reason) {
-        if (logger != null) {
-            logger.info(String.format("[STRUCT] Site validation: %s (%s)", result, reason));
+        if (structureLog != null) {
+            structureLog.info("site.validation", () -> String.format("[STRUCT] Site validation: %s (%s)", result, reason));
         }
     }
     
@@ -135,8 +163,8 @@ public class DebugFlags {
      * Log building placement summary.
      */
     public static void logBuildingPlaced(String structureId, String location, int blocksPlaced) {
-        if (logger != null) {
-            logger.info(String.format("[STRUCT] Building placed: %s at %s (%d blocks)", 
+        if (structureLog != null) {
+            structureLog.info("building.placed", () -> String.format("[STRUCT] Building placed: %s at %s (%d blocks)", 
                 structureId, location, blocksPlaced));
         }
     }
@@ -145,8 +173,8 @@ public class DebugFlags {
      * Log village generation summary.
      */
     public static void logVillageGenerated(String villageId, String cultureId, int buildingCount, long durationMs) {
-        if (logger != null) {
-            logger.info(String.format("[STRUCT] Village generated: %s (culture: %s, buildings: %d, took %dms)", 
+        if (structureLog != null) {
+            structureLog.info("village.generated", () -> String.format("[STRUCT] Village generated: %s (culture: %s, buildings: %d, took %dms)", 
                 villageId, cultureId, buildingCount, durationMs));
         }
     }
@@ -155,8 +183,8 @@ public class DebugFlags {
      * Log tick engine lifecycle event with [TICK] marker.
      */
     public static void logTick(String message) {
-        if (debugTick && logger != null) {
-            logger.info("[TICK] " + message);
+        if (tickLog != null) {
+            tickLog.debug("tick", () -> "[TICK] " + message);
         }
     }
 }
@@ -4,23 +4,53 @@ import com.davisodom.villageoverhaul.admin.AdminHttpServer;
 import com.davisodom.villageoverhaul.commands.ProjectCommands;
 import com.davisodom.villageoverhaul.commands.TestCommands;
 import com.davisodom.villageoverhaul.commands.VillageCommands;
+import com.davisodom.villageoverhaul.core.SystemCircuitBreaker;
 import com.davisodom.villageoverhaul.core.TickEngine;
 import com.davisodom.villageoverhaul.cultures.CultureService;
 import com.davisodom.villageoverhaul.data.SchemaValidator;
 import com.davisodom.villageoverhaul.economy.TradeListener;
 import com.davisodom.villageoverhaul.economy.WalletService;
+import com.davisodom.villageoverhaul.economy.ledger.WalletLedger;
 import com.davisodom.villageoverhaul.npc.CustomVillagerService;
 import com.davisodom.villageoverhaul.npc.VillagerAppearanceAdapter;
 import com.davisodom.villageoverhaul.npc.VillagerInteractionController;
 import com.davisodom.villageoverhaul.obs.Metrics;
+import com.davisodom.villageoverhaul.obs.ThreadResources;
+import com.davisodom.villageoverhaul.obs.jfr.JfrEvents;
+import com.davisodom.villageoverhaul.obs.log.AsyncLogAppender;
+import com.davisodom.villageoverhaul.obs.log.EventLog;
+import com.davisodom.villageoverhaul.obs.log.JsonLinesFileSink;
+import com.davisodom.villageoverhaul.obs.log.LogSink;
+import com.davisodom.villageoverhaul.obs.log.LoggerSink;
+import com.davisodom.villageoverhaul.obs.stream.LiveEventHub;
+import com.davisodom.villageoverhaul.obs.stream.LiveEvents;
+import com.davisodom.villageoverhaul.obs.trace.Tracer;
+import com.davisodom.villageoverhaul.obs.trace.Tracing;
+import com.davisodom.villageoverhaul.perf.PerformanceController;
+import com.davisodom.villageoverhaul.perf.PerformanceProfile;
 import com.davisodom.villageoverhaul.persistence.JsonStore;
+import com.davisodom.villageoverhaul.persistence.StorageFormat;
+import com.davisodom.villageoverhaul.persistence.WriteBehindQueue;
 import com.davisodom.villageoverhaul.projects.ProjectGenerator;
 import com.davisodom.villageoverhaul.projects.ProjectService;
+import com.davisodom.villageoverhaul.villages.PlayerChunkIndex;
+import com.davisodom.villageoverhaul.villages.ProximityLodPolicy;
 import com.davisodom.villageoverhaul.villages.VillageMetadataStore;
 import com.davisodom.villageoverhaul.villages.VillageService;
 import com.davisodom.villageoverhaul.worldgen.VillageWorldgenAdapter;
+import com.davisodom.villageoverhaul.worldgen.impl.PathServiceImpl;
 import org.bukkit.command.PluginCommand;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
 import java.util.logging.Logger;
 
 /**
@@ -48,13 +78,19 @@ public class VillageOverhaulPlugin extends JavaPlugin {
     // Core services (Phase 2)
     private TickEngine tickEngine;
     private WalletService walletService;
+    private WalletLedger walletLedger;
     private JsonStore jsonStore;
     private SchemaValidator schemaValidator;
     private Metrics metrics;
     private CultureService cultureService;
     private AdminHttpServer adminServer;
     private VillageService villageService;
+    private PlayerChunkIndex playerChunkIndex;
+    private ProximityLodPolicy lodPolicy;
+    private PerformanceController performanceController;
+    private volatile int pathNodeLimit = PathServiceImpl.DEFAULT_MAX_NODES_EXPLORED;
     private VillageMetadataStore metadataStore;
+    private BukkitTask metadataAutosaveTask;
     private VillageWorldgenAdapter worldgenAdapter;
     private ProjectService projectService;
     private ProjectGenerator projectGenerator;
@@ -82,6 +118,10 @@ public class VillageOverhaulPlugin extends JavaPlugin {
                 ", minVillageSpacing=" + minVillageSpacing + 
                 ", spawnProximityRadius=" + spawnProximityRadius + ")");
         
+        // Debug flags and the async event log (before any worldgen logging)
+        DebugFlags.initialize(this);
+        initializeLogging();
+        
         // Initialize foundational services
         initializeFoundation();
         
@@ -107,13 +147,105 @@ public class VillageOverhaulPlugin extends JavaPlugin {
             tickEngine.stop();
         }
         
+        LiveEventHub hub = LiveEvents.getHub();
+        LiveEvents.setHub(null);
+        if (hub != null) {
+            hub.stop();
+        }
+        
         if (adminServer != null) {
             adminServer.stop();
         }
         
-        // TODO: Save all state via JsonStore
+        if (metadataAutosaveTask != null) {
+            metadataAutosaveTask.cancel();
+            metadataAutosaveTask = null;
+        }
+        if (metadataStore != null) {
+            metadataStore.saveAll();
+        }
+        
+        // Final ledger snapshot so the next start has nothing to replay
+        if (walletLedger != null) {
+            if (walletService != null) {
+                walletService.setJournal(null);
+            }
+            walletLedger.close();
+            walletLedger = null;
+        }
+        
+        // Flush queued writes before the plugin is unloaded
+        if (jsonStore != null && !jsonStore.shutdown()) {
+            logger.severe("Some data files were not written before shutdown");
+        }
+        if (metadataStore != null) {
+            metadataStore.close();
+        }
+        
+        // TODO: Save remaining state (projects) via JsonStore
+        
+        Tracing.setTracer(null);
         
         logger.info("Village Overhaul disabled.");
+        
+        // Drain buffered log events last
+        EventLog.shutdown();
+    }
+    
+    /**
+     * Start the async event log appender (logging.*): console output for worldgen and
+     * debug events is written from a background thread instead of the caller
+     */
+    private void initializeLogging() {
+        if (!getConfig().getBoolean("logging.async", true)) {
+            logger.info("OK Event log running synchronously (logging.async=false)");
+            return;
+        }
+        try {
+            List<LogSink> sinks = new ArrayList<>();
+            sinks.add(new LoggerSink());
+            if (getConfig().getBoolean("logging.file.enabled", false)) {
+                File file = new File(getDataFolder(), getConfig().getString("logging.file.path", "logs/events.jsonl"));
+                long maxBytes = getConfig().getLong("logging.file.maxMegabytes", 16) * 1024 * 1024;
+                sinks.add(new JsonLinesFileSink(file, maxBytes));
+            }
+            AsyncLogAppender appender = new AsyncLogAppender(logger, sinks,
+                    getConfig().getInt("logging.bufferSize", AsyncLogAppender.DEFAULT_CAPACITY),
+                    getConfig().getLong("logging.flushIntervalMs", AsyncLogAppender.DEFAULT_FLUSH_INTERVAL_MS));
+            EventLog.start(appender);
+            logger.info("OK Async event log started (buffer=" + appender.getCapacity() + ", sinks=" + sinks.size() + ")");
+        } catch (IllegalArgumentException e) {
+            logger.warning("Invalid logging settings, event log stays synchronous: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Start the live event hub behind GET /v1/stream (admin.stream.*)
+     */
+    private void initializeLiveStream() {
+        if (!getConfig().getBoolean("admin.stream.enabled", true)) {
+            return;
+        }
+        try {
+            LiveEventHub.Settings settings = new LiveEventHub.Settings(
+                    getConfig().getLong("admin.stream.intervalMs", LiveEventHub.Settings.DEFAULT_INTERVAL_MS),
+                    getConfig().getInt("admin.stream.bufferEvents", LiveEventHub.Settings.DEFAULT_BUFFER_EVENTS),
+                    getConfig().getInt("admin.stream.maxSubscribers", LiveEventHub.Settings.DEFAULT_MAX_SUBSCRIBERS));
+            // Sampled off the main thread; a value one tick stale is fine for a dashboard
+            LiveEventHub hub = new LiveEventHub(logger, metrics, settings, () -> {
+                Map<String, Number> values = new LinkedHashMap<>();
+                values.put("engine.lastTickMicros", tickEngine.getLastTickMicros());
+                values.put("engine.jobQueueDepth", tickEngine.getJobQueueDepth());
+                values.put("villages.count", villageService.getVillageIds().size());
+                return values;
+            });
+            hub.start();
+            LiveEvents.setHub(hub);
+            logger.info("OK Live stream enabled at /v1/stream (interval=" + settings.getIntervalMs() +
+                        "ms, buffer=" + settings.getBufferEvents() + " frames)");
+        } catch (IllegalArgumentException e) {
+            logger.warning("Invalid admin.stream settings, live stream disabled: " + e.getMessage());
+        }
     }
     
     /**
@@ -123,10 +255,45 @@ public class VillageOverhaulPlugin extends JavaPlugin {
         // Metrics and observability
     metrics = new Metrics(logger);
     logger.info("OK Metrics initialized");
+    
+    // Thread CPU time and allocated bytes per system tick, job step and placement batch
+    if (getConfig().getBoolean("performance.resourceAccounting.enabled", true)) {
+        if (ThreadResources.setEnabled(true)) {
+            logger.info("OK Resource accounting enabled (cpu=" + ThreadResources.isCpuTimeEnabled() +
+                    ", allocation=" + ThreadResources.isAllocationEnabled() + ")");
+        } else {
+            logger.warning("Resource accounting not supported by this JVM (no com.sun.management.ThreadMXBean)");
+        }
+    }
+    
+    // JDK Flight Recorder events (worldgen, placement, economy)
+    if (getConfig().getBoolean("performance.jfr.enabled", false)) {
+        JfrEvents.setEnabled(true);
+        if (!new File(getDataFolder(), "villageoverhaul.jfc").exists()) {
+            saveResource("villageoverhaul.jfc", false);
+        }
+        logger.info("OK JFR events enabled (settings: " + new File(getDataFolder(), "villageoverhaul.jfc").getPath() + ")");
+    }
+    
+    // Trace spans for village generation (export with /vo perf trace or GET /v1/perf/trace)
+    if (getConfig().getBoolean("performance.tracing.enabled", true)) {
+        int bufferSize = Math.max(1, getConfig().getInt("performance.tracing.bufferSize", Tracer.DEFAULT_CAPACITY));
+        Tracing.setTracer(new Tracer(bufferSize));
+        logger.info("OK Tracing enabled (buffer=" + bufferSize + " spans)");
+    }
         
         // Persistence layer
     jsonStore = new JsonStore(getDataFolder(), logger);
-    logger.info("OK JSON store initialized");
+    if (getConfig().getBoolean("persistence.writeBehind.enabled", true)) {
+        WriteBehindQueue.Settings writeBehind = new WriteBehindQueue.Settings(
+            Math.max(0, getConfig().getLong("persistence.writeBehind.coalesceMillis", WriteBehindQueue.Settings.DEFAULT_COALESCE_MILLIS)),
+            Math.max(1, getConfig().getInt("persistence.writeBehind.maxPendingFiles", WriteBehindQueue.Settings.DEFAULT_MAX_PENDING)),
+            Math.max(0, getConfig().getLong("persistence.writeBehind.shutdownTimeoutMillis", WriteBehindQueue.Settings.DEFAULT_SHUTDOWN_TIMEOUT_MILLIS)));
+        jsonStore.startWriteBehind(writeBehind, metrics);
+        logger.info("OK JSON store initialized (write-behind, coalesce=" + writeBehind.getCoalesceMillis() + "ms)");
+    } else {
+        logger.info("OK JSON store initialized");
+    }
         
         // Schema validator
     schemaValidator = new SchemaValidator(logger);
@@ -139,18 +306,58 @@ public class VillageOverhaulPlugin extends JavaPlugin {
 
         // Wallet service (economy)
     walletService = new WalletService();
-    logger.info("OK Wallet service initialized");
+    if (getConfig().getBoolean("economy.ledger.enabled", true)) {
+        WalletLedger.Settings ledgerSettings = new WalletLedger.Settings(
+            Math.max(0, getConfig().getLong("economy.ledger.commitIntervalMillis", WalletLedger.Settings.DEFAULT_COMMIT_INTERVAL_MILLIS)),
+            Math.max(1, getConfig().getLong("economy.ledger.segmentMegabytes", WalletLedger.Settings.DEFAULT_SEGMENT_BYTES >> 20)) << 20,
+            Math.max(0, getConfig().getLong("economy.ledger.snapshotIntervalSeconds", WalletLedger.Settings.DEFAULT_SNAPSHOT_INTERVAL_MILLIS / 1000)) * 1000,
+            WalletLedger.Settings.DEFAULT_SHUTDOWN_TIMEOUT_MILLIS);
+        WalletLedger ledger = new WalletLedger(new File(getDataFolder(), "ledger"), logger, ledgerSettings, metrics);
+        try {
+            Map<UUID, Long> balances = ledger.open();
+            balances.forEach(walletService::loadWallet);
+            walletService.setJournal(ledger);
+            walletLedger = ledger;
+            logger.info("OK Wallet service initialized (ledger: " + balances.size() + " wallet(s) restored, seq " + ledger.getLastSeq() + ")");
+        } catch (IOException e) {
+            // Leave the ledger files untouched for manual recovery
+            logger.severe("Wallet ledger could not be opened, balances will NOT be persisted: " + e.getMessage());
+        }
+    } else {
+        logger.info("OK Wallet service initialized");
+    }
         
         // Village service (minimal for Phase 2.5)
     villageService = new VillageService();
     logger.info("OK Village service initialized");
         
         // Metadata store (Phase 2.1: inter-village spacing enforcement)
-    metadataStore = new VillageMetadataStore(this);
-    logger.info("OK Village metadata store initialized");
+    StorageFormat villageFormat = StorageFormat.SMILE;
+    try {
+        villageFormat = StorageFormat.fromConfig(getConfig().getString("persistence.villages.format", "smile"));
+    } catch (IllegalArgumentException e) {
+        logger.warning(e.getMessage() + ", using smile");
+    }
+    metadataStore = new VillageMetadataStore(this, jsonStore, villageFormat);
+    try {
+        metadataStore.loadAll();
+    } catch (IOException e) {
+        logger.warning("Failed to load village metadata: " + e.getMessage());
+    }
+    // Villages load with the chunks around them; start with the ones already loaded
+    metadataStore.loadLoadedChunks();
+    getServer().getPluginManager().registerEvents(metadataStore, this);
+    int autosaveSeconds = getConfig().getInt("village.autosaveSeconds", 60);
+    if (autosaveSeconds > 0) {
+        long period = autosaveSeconds * 20L;
+        metadataAutosaveTask = getServer().getScheduler().runTaskTimer(this, metadataStore::saveAll, period, period);
+    }
+    logger.info("OK Village metadata store initialized (autosave=" + autosaveSeconds + "s, format=" + 
+                villageFormat.name().toLowerCase(Locale.ROOT) + ")");
         
         // Project service (US1)
     projectService = new ProjectService(logger);
+    projectService.setCostProfiler(metrics.getVillageCosts());
     logger.info("OK Project service initialized");
         
         // Project generator (auto-create projects for villages)
@@ -175,8 +382,73 @@ public class VillageOverhaulPlugin extends JavaPlugin {
     logger.info("OK Villager interaction controller registered");
         
         // Tick engine
-    tickEngine = new TickEngine(this);
-    logger.info("OK Tick engine initialized");
+    tickEngine = new TickEngine(this, metrics);
+    tickEngine.setVillageBudgetMicros(getConfig().getLong("performance.villageTickBudgetMicros",
+            TickEngine.DEFAULT_VILLAGE_BUDGET_MICROS));
+    tickEngine.setVillageSource(villageService::getVillageIds, villageService::getVersion);
+    tickEngine.setParallelism(getConfig().getInt("performance.parallelism", TickEngine.DEFAULT_PARALLELISM));
+    tickEngine.setVillageChunkSize(getConfig().getInt("performance.villageChunkSize", 16));
+    tickEngine.setWorkTargetMicros(getConfig().getLong("performance.workTargetMicros",
+            tickEngine.getWorkTargetMicros()));
+    tickEngine.setBreakersEnabled(getConfig().getBoolean("performance.breaker.enabled", true));
+    SystemCircuitBreaker.Settings breakerDefaults = TickEngine.DEFAULT_BREAKER_SETTINGS;
+    tickEngine.setBreakerSettings(new SystemCircuitBreaker.Settings(
+            getConfig().getLong("performance.breaker.overrunMicros", breakerDefaults.getOverrunMicros()),
+            getConfig().getInt("performance.breaker.degradeAfter", breakerDefaults.getDegradeAfter()),
+            getConfig().getInt("performance.breaker.suspendAfter", breakerDefaults.getSuspendAfter()),
+            getConfig().getInt("performance.breaker.degradedInterval", breakerDefaults.getDegradedInterval()),
+            getConfig().getInt("performance.breaker.recoverAfter", breakerDefaults.getRecoverAfter()),
+            getConfig().getLong("performance.breaker.suspendTicks", breakerDefaults.getSuspendTicks())));
+    
+    // Per-village cost attribution (village ticks, paths, placement, NPCs, projects)
+    boolean villageProfiling = getConfig().getBoolean("performance.villageProfiler.enabled", true);
+    metrics.getVillageCosts().setEnabled(villageProfiling);
+    metrics.getVillageCosts().setSampleInterval(Math.max(1, getConfig().getInt("performance.villageProfiler.sampleInterval", 1)));
+    tickEngine.setVillageProfiling(villageProfiling);
+    logger.info("OK Tick engine initialized (village budget=" + tickEngine.getVillageBudgetMicros() + 
+                "us, parallelism=" + tickEngine.getParallelism() + ")");
+    
+    // Village tick LOD (player proximity / chunk load state)
+    if (getConfig().getBoolean("performance.lod.enabled", true)) {
+        playerChunkIndex = new PlayerChunkIndex();
+        getServer().getPluginManager().registerEvents(playerChunkIndex, this);
+        playerChunkIndex.seed();
+        lodPolicy = new ProximityLodPolicy(villageService, playerChunkIndex,
+                getConfig().getInt("performance.lod.fullRadiusChunks", 8),
+                getConfig().getInt("performance.lod.reducedRadiusChunks", 16));
+        lodPolicy.setInvalidator(tickEngine::invalidateLod);
+        playerChunkIndex.setListener(lodPolicy::onPlayerChunkChanged);
+        tickEngine.setLodPolicy(lodPolicy);
+        logger.info("OK Village tick LOD enabled (full<=" + lodPolicy.getFullRadiusChunks() +
+                    " chunks, reduced<=" + lodPolicy.getReducedRadiusChunks() + " chunks)");
+    }
+    
+    // Adaptive performance profile (off = keep the static settings above)
+    String profileMode = getConfig().getString("performance.profile.mode", "off").toLowerCase(Locale.ROOT);
+    if (!profileMode.equals("off")) {
+        PerformanceProfile initial = PerformanceProfile.parse(getConfig().getString("performance.profile.initial", "medium"));
+        PerformanceProfile pinned = PerformanceProfile.parse(profileMode);
+        PerformanceController.Settings profileDefaults = PerformanceController.DEFAULT_SETTINGS;
+        performanceController = new PerformanceController(logger, metrics,
+                () -> getServer().getAverageTickTime(),
+                tickEngine::getLastTickMicros,
+                this::applyPerformanceProfile,
+                pinned != null ? pinned : (initial != null ? initial : PerformanceProfile.MEDIUM),
+                new PerformanceController.Settings(
+                        getConfig().getDouble("performance.profile.escalateMspt", profileDefaults.getEscalateMspt()),
+                        getConfig().getDouble("performance.profile.relaxMspt", profileDefaults.getRelaxMspt()),
+                        getConfig().getLong("performance.profile.escalateEngineMicros", profileDefaults.getEscalateEngineMicros()),
+                        getConfig().getLong("performance.profile.relaxEngineMicros", profileDefaults.getRelaxEngineMicros()),
+                        getConfig().getInt("performance.profile.escalateAfterSeconds", profileDefaults.getEscalateAfter()),
+                        getConfig().getInt("performance.profile.relaxAfterSeconds", profileDefaults.getRelaxAfter()),
+                        getConfig().getLong("performance.profile.minDwellSeconds", profileDefaults.getMinDwellTicks() / 20) * 20));
+        if (pinned != null) {
+            performanceController.pin(pinned);
+        }
+        tickEngine.registerSystem(PerformanceController.SYSTEM_NAME, performanceController);
+        logger.info("OK Performance profile controller " + (pinned != null ? "pinned at " : "started at ") +
+                    performanceController.getProfile());
+    }
         
         // Trade listener (US1: route trade proceeds to projects for vanilla villagers)
     tradeListener = new TradeListener(this);
@@ -188,6 +460,7 @@ public class VillageOverhaulPlugin extends JavaPlugin {
             adminServer = new AdminHttpServer(logger, 8080);
             adminServer.start();
             logger.info("OK Admin HTTP server started on port 8080");
+            initializeLiveStream();
         } catch (Exception e) {
             logger.warning("Failed to start admin HTTP server: " + e.getMessage());
             logger.warning("  (This is optional for CI testing)");
@@ -264,6 +537,17 @@ public class VillageOverhaulPlugin extends JavaPlugin {
     public VillageService getVillageService() { return villageService; }
     
     public VillageMetadataStore getMetadataStore() { return metadataStore; }
+    
+    public PlayerChunkIndex getPlayerChunkIndex() { return playerChunkIndex; }
+    
+    public ProximityLodPolicy getLodPolicy() { return lodPolicy; }
+    
+    public PerformanceController getPerformanceController() { return performanceController; }
+
+    /**
+     * A* node limit for new path searches (set by the performance profile)
+     */
+    public int getPathNodeLimit() { return pathNodeLimit; }
 
     public VillageWorldgenAdapter getWorldgenAdapter() { return worldgenAdapter; }
     
@@ -302,4 +586,19 @@ public class VillageOverhaulPlugin extends JavaPlugin {
     public int getSpawnProximityRadius() {
         return spawnProximityRadius;
     }
+    
+    /**
+     * Apply a performance profile's budgets, batch sizes, LOD radii, path limits and NPC caps
+     */
+    private void applyPerformanceProfile(PerformanceProfile profile) {
+        tickEngine.setVillageBudgetMicros(profile.getVillageSliceMicros());
+        tickEngine.setVillageChunkSize(profile.getVillageChunkSize());
+        tickEngine.setWorkTargetMicros(profile.getWorkTargetMicros());
+        if (lodPolicy != null) {
+            lodPolicy.setRadii(profile.getFullRadiusChunks(), profile.getReducedRadiusChunks());
+        }
+        pathNodeLimit = profile.getPathNodeLimit();
+        customVillagerService.setMaxVillagersPerVillage(profile.getNpcCapPerVillage());
+        metrics.setVillageBudgetMicros(profile.getPerVillageBudgetMicros());
+    }
 }
@@ -1,7 +1,18 @@
 package com.davisodom.villageoverhaul.admin;
 
 import com.davisodom.villageoverhaul.VillageOverhaulPlugin;
+import com.davisodom.villageoverhaul.core.TickEngine;
 import com.davisodom.villageoverhaul.economy.WalletService;
+import com.davisodom.villageoverhaul.npc.CustomVillagerService;
+import com.davisodom.villageoverhaul.obs.Metrics;
+import com.davisodom.villageoverhaul.obs.OpenMetricsWriter;
+import com.davisodom.villageoverhaul.obs.VillageCostProfiler;
+import com.davisodom.villageoverhaul.obs.stream.LiveEventHub;
+import com.davisodom.villageoverhaul.obs.stream.LiveEvents;
+import com.davisodom.villageoverhaul.obs.stream.LiveSubscriber;
+import com.davisodom.villageoverhaul.obs.trace.ChromeTraceWriter;
+import com.davisodom.villageoverhaul.obs.trace.Tracer;
+import com.davisodom.villageoverhaul.obs.trace.Tracing;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -9,9 +20,13 @@ import com.sun.net.httpserver.HttpServer;
 import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpExchange;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.util.logging.Logger;
 
 /**
@@ -45,6 +60,10 @@ public class AdminHttpServer {
         
         // Register endpoints per OpenAPI spec
         server.createContext("/healthz", new HealthCheckHandler());
+        server.createContext("/metrics", new MetricsHandler());
+        server.createContext("/v1/perf/villages", new VillageCostsHandler());
+        server.createContext("/v1/perf/trace", new TraceHandler());
+        server.createContext("/v1/stream", new StreamHandler());
         server.createContext("/v1/wallets", new WalletsHandler());
         server.createContext("/v1/villages", new VillagesHandler());
         server.createContext("/v1/contracts", new ContractsHandler());
@@ -80,6 +99,220 @@ public class AdminHttpServer {
         }
     }
     
+    /**
+     * Metrics endpoint (OpenMetrics text format, Prometheus scrape target)
+     * GET /metrics - Counters, gauges, tick histograms, village scheduler and NPC state
+     * 
+     * The response is chunked and written as it is produced, never buffered whole. Tick
+     * engine state comes from the gauges it publishes each tick (vo_village_backlog,
+     * vo_village_lod_&lt;tier&gt;, vo_tick_work_queue_depth), never from the engine itself.
+     */
+    private static class MetricsHandler implements HttpHandler {
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+                String msg = "{\"error\":\"Method Not Allowed\"}";
+                exchange.getResponseHeaders().add("Allow", "GET");
+                exchange.sendResponseHeaders(405, msg.length());
+                try (OutputStream os = exchange.getResponseBody()) { os.write(msg.getBytes()); }
+                return;
+            }
+            
+            VillageOverhaulPlugin plugin = VillageOverhaulPlugin.getInstance();
+            if (plugin == null || plugin.getMetrics() == null) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            
+            exchange.getResponseHeaders().add("Content-Type", OpenMetricsWriter.CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, 0); // Chunked
+            try (Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+                OpenMetricsWriter metrics = new OpenMetricsWriter(writer, plugin.getLogger());
+                metrics.writeMetrics(plugin.getMetrics());
+                
+                if (plugin.getVillageService() != null) {
+                    metrics.gauge("vo_villages", "Registered villages", plugin.getVillageService().getVillageIds().size());
+                }
+                TickEngine engine = plugin.getTickEngine();
+                if (engine != null) {
+                    metrics.gauge("vo_tick_engine_last_tick_seconds", "Tick engine time of the last tick",
+                            engine.getLastTickMicros() / 1e6);
+                }
+                CustomVillagerService npcs = plugin.getCustomVillagerService();
+                if (npcs != null) {
+                    metrics.gauge("vo_npc_active", "Active custom villagers", npcs.getActiveVillagerCount());
+                    metrics.gauge("vo_npc_max_per_village", "Custom villager cap per village",
+                            npcs.getMaxVillagersPerVillage());
+                }
+                metrics.finish();
+            }
+        }
+    }
+    
+    /**
+     * Recorded trace spans as Chrome trace JSON (GET /v1/perf/trace[?trace=<hex id>])
+     */
+    private static class TraceHandler implements HttpHandler {
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+                String msg = "{\"error\":\"Method Not Allowed\"}";
+                exchange.getResponseHeaders().add("Allow", "GET");
+                exchange.sendResponseHeaders(405, msg.length());
+                try (OutputStream os = exchange.getResponseBody()) { os.write(msg.getBytes()); }
+                return;
+            }
+            
+            Tracer tracer = Tracing.getTracer();
+            if (tracer == null) {
+                String msg = "{\"error\":\"Tracing disabled (performance.tracing.enabled)\"}";
+                exchange.sendResponseHeaders(503, msg.length());
+                try (OutputStream os = exchange.getResponseBody()) { os.write(msg.getBytes()); }
+                return;
+            }
+            
+            long traceId = 0;
+            String query = exchange.getRequestURI().getQuery();
+            if (query != null && query.startsWith("trace=")) {
+                try {
+                    traceId = Long.parseUnsignedLong(query.substring("trace=".length()), 16);
+                } catch (NumberFormatException e) {
+                    String msg = "{\"error\":\"trace must be a hex trace ID\"}";
+                    exchange.sendResponseHeaders(400, msg.length());
+                    try (OutputStream os = exchange.getResponseBody()) { os.write(msg.getBytes()); }
+                    return;
+                }
+            }
+            
+            exchange.getResponseHeaders().add("Content-Type", ChromeTraceWriter.CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, 0); // Chunked
+            try (Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+                ChromeTraceWriter.write(tracer, traceId, writer);
+            }
+        }
+    }
+    
+    /**
+     * Server-Sent Events stream of metric deltas and domain events
+     * 
+     * Returns right after the headers; the subscriber's own thread writes the body, so a
+     * long-lived stream never holds the HTTP dispatcher.
+     */
+    private static class StreamHandler implements HttpHandler {
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+                String msg = "{\"error\":\"Method Not Allowed\"}";
+                exchange.getResponseHeaders().add("Allow", "GET");
+                exchange.sendResponseHeaders(405, msg.length());
+                try (OutputStream os = exchange.getResponseBody()) { os.write(msg.getBytes()); }
+                return;
+            }
+            
+            LiveEventHub hub = LiveEvents.getHub();
+            if (hub == null) {
+                String msg = "{\"error\":\"Streaming disabled (admin.stream.enabled)\"}";
+                exchange.sendResponseHeaders(503, msg.length());
+                try (OutputStream os = exchange.getResponseBody()) { os.write(msg.getBytes()); }
+                return;
+            }
+            
+            LiveSubscriber subscriber = hub.subscribe(exchange.getResponseBody(), exchange::close);
+            if (subscriber == null) {
+                String msg = "{\"error\":\"Too many stream subscribers\"}";
+                exchange.getResponseHeaders().add("Retry-After", "30");
+                exchange.sendResponseHeaders(503, msg.length());
+                try (OutputStream os = exchange.getResponseBody()) { os.write(msg.getBytes()); }
+                return;
+            }
+            
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream; charset=utf-8");
+            exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+            exchange.sendResponseHeaders(200, 0); // Chunked, open until the client leaves
+            Thread writer = new Thread(subscriber, "VillageOverhaul-SSE-" + subscriber.getId());
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+    
+    /**
+     * Per-village cost attribution
+     * GET /v1/perf/villages?limit=N - Most expensive villages by attributed CPU time (default 10)
+     */
+    private static class VillageCostsHandler implements HttpHandler {
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+                String msg = "{\"error\":\"Method Not Allowed\"}";
+                exchange.getResponseHeaders().add("Allow", "GET");
+                exchange.sendResponseHeaders(405, msg.length());
+                try (OutputStream os = exchange.getResponseBody()) { os.write(msg.getBytes()); }
+                return;
+            }
+            
+            VillageOverhaulPlugin plugin = VillageOverhaulPlugin.getInstance();
+            if (plugin == null || plugin.getMetrics() == null) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            
+            int limit = 10;
+            String query = exchange.getRequestURI().getQuery();
+            if (query != null && query.startsWith("limit=")) {
+                try {
+                    limit = Math.max(1, Math.min(100, Integer.parseInt(query.substring("limit=".length()))));
+                } catch (NumberFormatException ignored) {
+                    // Keep the default
+                }
+            }
+            
+            Metrics metrics = plugin.getMetrics();
+            VillageCostProfiler profiler = metrics.getVillageCosts();
+            ObjectMapper om = new ObjectMapper();
+            ObjectNode root = om.createObjectNode();
+            root.put("enabled", profiler.isEnabled());
+            root.put("sampleInterval", profiler.getSampleInterval());
+            root.put("since", profiler.getResetAtMillis());
+            root.put("trackedVillages", profiler.getTrackedVillages());
+            root.put("totalMicros", profiler.getTotalNanos() / 1000);
+            ArrayNode arr = om.createArrayNode();
+            for (VillageCostProfiler.Entry entry : profiler.top(limit)) {
+                ObjectNode node = om.createObjectNode();
+                node.put("id", entry.getVillageId().toString());
+                if (entry.isUnattributed()) {
+                    node.put("unattributed", true);
+                } else {
+                    plugin.getVillageService().getVillage(entry.getVillageId())
+                            .ifPresent(village -> node.put("name", village.getName()));
+                }
+                node.put("totalMicros", entry.getTotalNanos() / 1000);
+                node.put("dominantSource", entry.getDominantSource().getKey());
+                Metrics.TickTimeStats tickStats = metrics.getVillageTickTimeStats(entry.getVillageId());
+                if (tickStats != null) {
+                    node.put("tickP99Micros", tickStats.getP99Micros());
+                }
+                ObjectNode sources = om.createObjectNode();
+                for (VillageCostProfiler.Source source : VillageCostProfiler.Source.values()) {
+                    ObjectNode sourceNode = om.createObjectNode();
+                    sourceNode.put("micros", entry.getNanos(source) / 1000);
+                    sourceNode.put("events", entry.getEvents(source));
+                    sources.set(source.getKey(), sourceNode);
+                }
+                node.set("sources", sources);
+                arr.add(node);
+            }
+            root.set("villages", arr);
+            byte[] bytes = root.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) { os.write(bytes); }
+        }
+    }
+    
     /**
      * Wallets endpoints
      * TODO: Wire to WalletService in Phase 2/3
@@ -1,9 +1,11 @@
 package com.davisodom.villageoverhaul.commands;
 
 import com.davisodom.villageoverhaul.VillageOverhaulPlugin;
+import com.davisodom.villageoverhaul.core.TickEngine;
+import com.davisodom.villageoverhaul.obs.trace.Span;
+import com.davisodom.villageoverhaul.obs.trace.Tracing;
 import com.davisodom.villageoverhaul.villages.Village;
 import com.davisodom.villageoverhaul.villages.VillageMetadataStore;
-import com.davisodom.villageoverhaul.villages.VillagePlacementService;
 import com.davisodom.villageoverhaul.villages.impl.VillagePlacementServiceImpl;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -25,7 +27,8 @@ import java.util.logging.Logger;
  * 1. Finds suitable terrain near the player (or specified location)
  * 2. Creates a village in the VillageService with the given culture and name
  * 3. Uses VillagePlacementService to place structures
- * 4. Logs [STRUCT] summary of placement results
+ * 4. Logs [STRUCT] summary of placement results (placement runs as a tick engine job,
+ *    spread across ticks, when the engine is available)
  * 5. (Future) When US2 is complete, also invokes path network generation
  */
 public class GenerateCommand {
@@ -126,94 +129,161 @@ public class GenerateCommand {
         final World finalWorld = world;
         final int minVillageSpacing = plugin.getMinVillageSpacing();
         Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            Location suitableLocation = findSuitableVillageLocation(finalWorld, finalSearchOrigin, 
-                    isFirstVillage ? spawnProximityRadius : 512, metadataStore, minVillageSpacing);
-            
-            if (suitableLocation == null) {
-                sender.sendMessage("§cNo suitable terrain found. Try a different location.");
-                return;
+            // Root span for the whole build. Each stage ends it in a finally block unless it
+            // handed it on to the next stage (main-thread task, then the placement job)
+            Span trace = Tracing.startTrace("village.generate");
+            trace.setAttribute("source", "command").setAttribute("culture", cultureId)
+                    .setAttribute("name", villageName);
+            boolean handedOff = false;
+            try {
+                Location suitableLocation;
+                try (Span search = Tracing.startSpan("village.site_search", trace)) {
+                    suitableLocation = findSuitableVillageLocation(finalWorld, finalSearchOrigin, 
+                            isFirstVillage ? spawnProximityRadius : 512, metadataStore, minVillageSpacing);
+                    search.setAttribute("found", suitableLocation != null);
+                }
+                
+                if (suitableLocation == null) {
+                    sender.sendMessage("§cNo suitable terrain found. Try a different location.");
+                    return;
+                }
+                
+                int baseX = suitableLocation.getBlockX();
+                int baseZ = suitableLocation.getBlockZ();
+                int baseY = world.getHighestBlockYAt(baseX, baseZ);
+                
+                sender.sendMessage("§aFound suitable terrain at (" + baseX + ", " + baseY + ", " + baseZ + ")");
+                
+                // Calculate seed (use provided seed or generate from world + location)
+                final long villageSeed = seedArg != null ? seedArg : 
+                    world.getSeed() ^ (((long)baseX << 32) | (baseZ & 0xFFFFFFFFL));
+                
+                // Return to main thread for village creation and structure placement
+                Bukkit.getScheduler().runTask(plugin, () -> createVillage(sender, trace, world, metadataStore,
+                        cultureId, villageName, baseX, baseY, baseZ, villageSeed));
+                handedOff = true;
+            } finally {
+                if (!handedOff) {
+                    trace.end();
+                }
             }
+        });
+        
+        return true;
+    }
+    
+    /**
+     * Create the village and place its structures (main thread)
+     * Ends the root span unless the placement job took it over.
+     */
+    private void createVillage(CommandSender sender, Span trace, World world, VillageMetadataStore metadataStore,
+                               String cultureId, String villageName, int baseX, int baseY, int baseZ,
+                               long villageSeed) {
+        boolean handedOff = false;
+        try (Tracing.Scope scope = Tracing.activate(trace)) {
+            // Create village in VillageService
+            Village village = plugin.getVillageService().createVillage(
+                cultureId, 
+                villageName, 
+                world.getName(), 
+                baseX, 
+                baseY + 1, 
+                baseZ
+            );
             
-            int baseX = suitableLocation.getBlockX();
-            int baseZ = suitableLocation.getBlockZ();
-            int baseY = world.getHighestBlockYAt(baseX, baseZ);
+            UUID villageId = village.getId();
+            trace.setAttribute("villageId", villageId.toString());
             
-            sender.sendMessage("§aFound suitable terrain at (" + baseX + ", " + baseY + ", " + baseZ + ")");
+            // Set up placement service with shared metadata store (T012l)
+            VillagePlacementServiceImpl placementService = new VillagePlacementServiceImpl(plugin, metadataStore);
             
-            // Calculate seed (use provided seed or generate from world + location)
-            final long villageSeed = seedArg != null ? seedArg : 
-                world.getSeed() ^ (((long)baseX << 32) | (baseZ & 0xFFFFFFFFL));
+            // Log start
+            // Note: Village registration now happens INSIDE placeVillage() after spacing validation
+            logger.info("[STRUCT] User-triggered village generation: '" + villageName + "' (culture=" + 
+                cultureId + ", seed=" + villageSeed + ")");
+            sender.sendMessage("§7Generating village '" + villageName + "' (ID: " + villageId + ")...");
             
-            // Return to main thread for village creation and structure placement
-            Bukkit.getScheduler().runTask(plugin, () -> {
-                try {
-                    // Create village in VillageService
-                    Village village = plugin.getVillageService().createVillage(
-                        cultureId, 
-                        villageName, 
-                        world.getName(), 
-                        baseX, 
-                        baseY + 1, 
-                        baseZ
-                    );
-                    
-                    UUID villageId = village.getId();
-                    
-                    // Set up placement service with shared metadata store (T012l)
-                    VillagePlacementService placementService = new VillagePlacementServiceImpl(plugin, metadataStore);
-                    
-                    // Log start
-                    // Note: Village registration now happens INSIDE placeVillage() after spacing validation
-                    logger.info("[STRUCT] User-triggered village generation: '" + villageName + "' (culture=" + 
-                        cultureId + ", seed=" + villageSeed + ")");
-                    sender.sendMessage("§7Generating village '" + villageName + "' (ID: " + villageId + ")...");
-                    
-                    // Place structures
-                    Location villageOrigin = new Location(world, baseX, baseY, baseZ);
-                    Optional<UUID> placedVillageId = placementService.placeVillage(
-                        world, villageOrigin, cultureId, villageSeed);
-                    
-                    // Report results
-                    if (placedVillageId.isPresent()) {
-                        int buildingCount = metadataStore.getVillageBuildings(villageId).size();
-                        
-                        sender.sendMessage("§aOK Village '" + villageName + "' generated successfully!");
-                        sender.sendMessage("§7  Culture: " + cultureId);
-                        sender.sendMessage("§7  Location: " + baseX + ", " + baseY + ", " + baseZ);
-                        sender.sendMessage("§7  Buildings: " + buildingCount);
-                        sender.sendMessage("§7  Seed: " + villageSeed);
-                        
-                        logger.info("[STRUCT] Successfully generated village '" + villageName + "' with " + 
-                            buildingCount + " buildings");
-                        
-                        // TODO: When US2 is complete, invoke path network generation here
-                        // For now, report that paths are not yet available
-                        sender.sendMessage("§7  Paths: Not yet available (US2 in progress)");
-                        
-                    } else {
-                        sender.sendMessage("§cX Failed to place structures for village '" + villageName + "'");
-                        sender.sendMessage("§7Check server logs for details.");
-                        
-                        // Place marker pillar as fallback
-                        world.getBlockAt(baseX, baseY, baseZ).setType(Material.STONE, false);
-                        world.getBlockAt(baseX, baseY + 1, baseZ).setType(Material.STONE, false);
-                        world.getBlockAt(baseX, baseY + 2, baseZ).setType(Material.TORCH, false);
-                        
-                        sender.sendMessage("§7Placed marker pillar at village center.");
-                        
-                        logger.warning("[STRUCT] Failed to place structures for village '" + villageName + "' " +
-                            "(ID: " + villageId + "), placed marker pillar");
-                    }
-                    
-                } catch (Exception e) {
-                    sender.sendMessage("§cError generating village: " + e.getMessage());
-                    logger.severe("[STRUCT] Error during village generation: " + e.getMessage());
-                    e.printStackTrace();
-                }
-            });
-        });
+            // Place structures
+            Location villageOrigin = new Location(world, baseX, baseY, baseZ);
+            TickEngine tickEngine = plugin.getTickEngine();
+            if (tickEngine != null) {
+                // Spread placement across ticks (one building / path per step)
+                VillagePlacementServiceImpl.PlacementJob job = placementService.newPlacementJob(
+                    world, villageOrigin, cultureId, villageSeed);
+                tickEngine.submitJob("generate:" + villageName, job).getCompletion()
+                    .whenComplete((ignored, error) -> {
+                        try (Tracing.Scope reportScope = Tracing.activate(trace)) {
+                            if (error != null) {
+                                sender.sendMessage("§cError generating village: " + error.getMessage());
+                                trace.setAttribute("error", String.valueOf(error));
+                                return;
+                            }
+                            reportPlacement(sender, world, job.getResult(), villageId, villageName, cultureId,
+                                baseX, baseY, baseZ, villageSeed);
+                        } finally {
+                            trace.end();
+                        }
+                    });
+                handedOff = true;
+            } else {
+                Optional<UUID> placedVillageId = placementService.placeVillage(
+                    world, villageOrigin, cultureId, villageSeed);
+                reportPlacement(sender, world, placedVillageId, villageId, villageName, cultureId,
+                    baseX, baseY, baseZ, villageSeed);
+            }
+            
+        } catch (Exception e) {
+            sender.sendMessage("§cError generating village: " + e.getMessage());
+            logger.severe("[STRUCT] Error during village generation: " + e.getMessage());
+            e.printStackTrace();
+            trace.setAttribute("error", String.valueOf(e));
+        } finally {
+            if (!handedOff) {
+                trace.end();
+            }
+        }
+    }
+    
+    /**
+     * Report the outcome of a village placement to the sender
+     * Places a marker pillar at the village center if no structures were placed.
+     */
+    private void reportPlacement(CommandSender sender, World world, Optional<UUID> placedVillageId, UUID villageId,
+                                 String villageName, String cultureId, int baseX, int baseY, int baseZ,
+                                 long villageSeed) {
+        VillageMetadataStore metadataStore = plugin.getMetadataStore();
         
-        return true;
+        // Report results
+        if (placedVillageId.isPresent()) {
+            int buildingCount = metadataStore.getVillageBuildings(villageId).size();
+            
+            sender.sendMessage("§aOK Village '" + villageName + "' generated successfully!");
+            sender.sendMessage("§7  Culture: " + cultureId);
+            sender.sendMessage("§7  Location: " + baseX + ", " + baseY + ", " + baseZ);
+            sender.sendMessage("§7  Buildings: " + buildingCount);
+            sender.sendMessage("§7  Seed: " + villageSeed);
+            
+            logger.info("[STRUCT] Successfully generated village '" + villageName + "' with " + 
+                buildingCount + " buildings");
+            
+            // TODO: When US2 is complete, invoke path network generation here
+            // For now, report that paths are not yet available
+            sender.sendMessage("§7  Paths: Not yet available (US2 in progress)");
+            
+        } else {
+            sender.sendMessage("§cX Failed to place structures for village '" + villageName + "'");
+            sender.sendMessage("§7Check server logs for details.");
+            
+            // Place marker pillar as fallback
+            world.getBlockAt(baseX, baseY, baseZ).setType(Material.STONE, false);
+            world.getBlockAt(baseX, baseY + 1, baseZ).setType(Material.STONE, false);
+            world.getBlockAt(baseX, baseY + 2, baseZ).setType(Material.TORCH, false);
+            
+            sender.sendMessage("§7Placed marker pillar at village center.");
+            
+            logger.warning("[STRUCT] Failed to place structures for village '" + villageName + "' " +
+                "(ID: " + villageId + "), placed marker pillar");
+        }
     }
     
     /**
@@ -331,12 +401,7 @@ public class GenerateCommand {
      * @return true if no villages exist in this world yet
      */
     private boolean isFirstVillage(World world, VillageMetadataStore metadataStore) {
-        for (VillageMetadataStore.VillageMetadata village : metadataStore.getAllVillages()) {
-            if (village.getOrigin().getWorld().equals(world)) {
-                return false;
-            }
-        }
-        return true;
+        return !metadataStore.hasVillages(world);
     }
     
     /**
@@ -353,7 +418,7 @@ public class GenerateCommand {
         int minDistance = Integer.MAX_VALUE;
         
         for (VillageMetadataStore.VillageMetadata village : metadataStore.getAllVillages()) {
-            if (!village.getOrigin().getWorld().equals(world)) {
+            if (!village.isInWorld(world)) {
                 continue;
             }
             
@@ -388,9 +453,12 @@ public class GenerateCommand {
             proposedOrigin.getBlockX(), proposedOrigin.getBlockX(),
             proposedOrigin.getBlockZ(), proposedOrigin.getBlockZ());
         
+        // Only loaded villages are visible; load every region a conflicting border could come from
+        metadataStore.loadAround(proposedOrigin, minVillageSpacing + VillageMetadataStore.REGION_SIZE);
+        
         // Check against all existing villages in same world
         for (VillageMetadataStore.VillageMetadata existingVillage : metadataStore.getAllVillages()) {
-            if (!existingVillage.getOrigin().getWorld().equals(world)) {
+            if (!existingVillage.isInWorld(world)) {
                 continue;
             }
             
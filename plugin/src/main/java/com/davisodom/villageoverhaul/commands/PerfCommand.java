@@ -0,0 +1,273 @@
+package com.davisodom.villageoverhaul.commands;
+
+import com.davisodom.villageoverhaul.VillageOverhaulPlugin;
+import com.davisodom.villageoverhaul.obs.LatencyHistogram;
+import com.davisodom.villageoverhaul.obs.Metrics;
+import com.davisodom.villageoverhaul.obs.ThreadResources;
+import com.davisodom.villageoverhaul.obs.VillageCostProfiler;
+import com.davisodom.villageoverhaul.obs.WindowedHistogram;
+import com.davisodom.villageoverhaul.obs.trace.ChromeTraceWriter;
+import com.davisodom.villageoverhaul.obs.trace.Tracer;
+import com.davisodom.villageoverhaul.obs.trace.Tracing;
+import com.davisodom.villageoverhaul.perf.PerformanceController;
+import com.davisodom.villageoverhaul.perf.PerformanceProfile;
+import com.davisodom.villageoverhaul.villages.Village;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Admin command for the adaptive performance profile.
+ *
+ * Usage:
+ * - /vo perf status - Current profile, load signals and profile settings
+ * - /vo perf profile <auto|low|medium|high> - Pin a profile, or return to automatic control
+ * - /vo perf villages [reset] - The 10 most expensive villages by attributed CPU time
+ * - /vo perf resources - Allocation rate and CPU time per subsystem over the last minute
+ * - /vo perf trace [clear|<trace id>] - Write recorded spans to traces/ as Chrome trace JSON
+ */
+public class PerfCommand {
+
+    private final VillageOverhaulPlugin plugin;
+
+    public PerfCommand(VillageOverhaulPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Handle /vo perf <status|profile|villages|resources|trace>
+     *
+     * @param sender Command sender
+     * @param args Command arguments (after "perf")
+     * @return true if command executed successfully
+     */
+    public boolean execute(CommandSender sender, String[] args) {
+        String action = args.length > 0 ? args[0].toLowerCase(Locale.ROOT) : "status";
+        if (action.equals("villages")) {
+            return handleVillages(sender, args);
+        }
+        if (action.equals("resources")) {
+            return handleResources(sender);
+        }
+        if (action.equals("trace")) {
+            return handleTrace(sender, args);
+        }
+
+        PerformanceController controller = plugin.getPerformanceController();
+        if (controller == null) {
+            sender.sendMessage("§cPerformance profiles are disabled (performance.profile.mode: off)");
+            return true;
+        }
+
+        switch (action) {
+            case "status":
+                return handleStatus(sender, controller);
+            case "profile":
+                return handleProfile(sender, controller, args);
+            default:
+                sender.sendMessage("§cUnknown perf action: " + action);
+                sender.sendMessage("§7Usage: /vo perf <status|profile|villages|resources|trace>");
+                return false;
+        }
+    }
+
+    private boolean handleStatus(CommandSender sender, PerformanceController controller) {
+        PerformanceProfile profile = controller.getProfile();
+        PerformanceController.Settings settings = controller.getSettings();
+        sender.sendMessage("§6═══ Performance Profile ═══");
+        sender.sendMessage("§eProfile: §f" + profile + (controller.getPinned() != null ? " §c(pinned)" : " §7(auto)") +
+                " §7- " + controller.getTransitions() + " transitions, last at tick " + controller.getLastTransitionTick());
+        sender.sendMessage(String.format("§eLoad: §7mspt %.2fms, engine %.2fms avg",
+                controller.getLastMspt(), controller.getEngineAverageMicros() / 1000.0));
+        sender.sendMessage(String.format("§eThresholds: §7tighten > %.0f mspt or %.1fms engine for %ds (streak %d), " +
+                        "loosen < %.0f mspt and %.1fms engine for %ds (streak %d)",
+                settings.getEscalateMspt(), settings.getEscalateEngineMicros() / 1000.0, settings.getEscalateAfter(),
+                controller.getPressureStreak(), settings.getRelaxMspt(), settings.getRelaxEngineMicros() / 1000.0,
+                settings.getRelaxAfter(), controller.getReliefStreak()));
+        sender.sendMessage(String.format("§eSettings: §7village %.1fms/tick (%.1fms each, chunk %d), jobs to %.1fms, " +
+                        "LOD %d/%d chunks, A* %d nodes, %d NPCs/village",
+                profile.getVillageSliceMicros() / 1000.0, profile.getPerVillageBudgetMicros() / 1000.0,
+                profile.getVillageChunkSize(), profile.getWorkTargetMicros() / 1000.0, profile.getFullRadiusChunks(),
+                profile.getReducedRadiusChunks(), profile.getPathNodeLimit(), profile.getNpcCapPerVillage()));
+        return true;
+    }
+
+    private boolean handleProfile(CommandSender sender, PerformanceController controller, String[] args) {
+        if (args.length < 2) {
+            sender.sendMessage("§cUsage: /vo perf profile <auto|low|medium|high>");
+            return false;
+        }
+        if (args[1].equalsIgnoreCase("auto")) {
+            controller.pin(null);
+            sender.sendMessage("§aPerformance profile unpinned (currently " + controller.getProfile() + ")");
+            return true;
+        }
+        PerformanceProfile target = PerformanceProfile.parse(args[1]);
+        if (target == null) {
+            sender.sendMessage("§cUnknown profile: " + args[1]);
+            return false;
+        }
+        controller.pin(target);
+        sender.sendMessage("§aPerformance profile pinned at " + target);
+        return true;
+    }
+
+    private boolean handleVillages(CommandSender sender, String[] args) {
+        Metrics metrics = plugin.getMetrics();
+        if (metrics == null) {
+            sender.sendMessage("§cMetrics are not available");
+            return true;
+        }
+        VillageCostProfiler profiler = metrics.getVillageCosts();
+        if (args.length > 1 && args[1].equalsIgnoreCase("reset")) {
+            profiler.reset();
+            sender.sendMessage("§aVillage cost totals reset");
+            return true;
+        }
+        if (!profiler.isEnabled()) {
+            sender.sendMessage("§cVillage cost profiling is disabled (performance.villageProfiler.enabled: false)");
+            return true;
+        }
+
+        List<VillageCostProfiler.Entry> top = profiler.top(10);
+        long total = profiler.getTotalNanos();
+        long seconds = Math.max(1, (System.currentTimeMillis() - profiler.getResetAtMillis()) / 1000);
+        sender.sendMessage("§6═══ Most Expensive Villages ═══");
+        sender.sendMessage(String.format("§7%d villages tracked over %ds, %.1fms attributed (sample 1/%d)",
+                profiler.getTrackedVillages(), seconds, total / 1e6, profiler.getSampleInterval()));
+        if (top.isEmpty()) {
+            sender.sendMessage("§7No village work recorded yet");
+            return true;
+        }
+
+        int rank = 1;
+        for (VillageCostProfiler.Entry entry : top) {
+            Metrics.TickTimeStats tickStats = metrics.getVillageTickTimeStats(entry.getVillageId());
+            sender.sendMessage(String.format("§e%d. §f%s §7- %.1fms (%.0f%%), %.2fms/s, tick p99 %dμs, mostly %s",
+                    rank++, villageName(entry), entry.getTotalNanos() / 1e6,
+                    total > 0 ? entry.getTotalNanos() * 100.0 / total : 0.0,
+                    entry.getTotalNanos() / 1e6 / seconds,
+                    tickStats != null ? tickStats.getP99Micros() : 0L,
+                    entry.getDominantSource().getKey()));
+            StringBuilder breakdown = new StringBuilder("§7   ");
+            for (VillageCostProfiler.Source source : VillageCostProfiler.Source.values()) {
+                if (entry.getEvents(source) > 0) {
+                    breakdown.append(String.format("%s %.1fms/%d  ", source.getKey(),
+                            entry.getNanos(source) / 1e6, entry.getEvents(source)));
+                }
+            }
+            sender.sendMessage(breakdown.toString().trim());
+        }
+        return true;
+    }
+
+    private boolean handleResources(CommandSender sender) {
+        Metrics metrics = plugin.getMetrics();
+        if (metrics == null) {
+            sender.sendMessage("§cMetrics are not available");
+            return true;
+        }
+        if (!ThreadResources.isEnabled()) {
+            sender.sendMessage("§cResource accounting is disabled (performance.resourceAccounting.enabled: false)");
+            return true;
+        }
+
+        // Heaviest allocators over the 1-minute window first
+        WindowedHistogram.Window window = WindowedHistogram.Window.ONE_MINUTE;
+        double seconds = window.getMinutes() * 60.0;
+        List<Map.Entry<String, Metrics.ResourceStats>> entries = new ArrayList<>(metrics.getAllResourceStats().entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue().getAllocationSnapshot(window).getSum(),
+                a.getValue().getAllocationSnapshot(window).getSum()));
+        sender.sendMessage("§6═══ Allocation and CPU by Subsystem (1m) ═══");
+        if (entries.isEmpty()) {
+            sender.sendMessage("§7No measured work yet");
+            return true;
+        }
+        for (Map.Entry<String, Metrics.ResourceStats> entry : entries) {
+            LatencyHistogram.Snapshot alloc = entry.getValue().getAllocationSnapshot(window);
+            LatencyHistogram.Snapshot cpu = entry.getValue().getCpuSnapshot(window);
+            if (alloc.getCount() == 0 && cpu.getCount() == 0) {
+                continue;
+            }
+            sender.sendMessage(String.format("§e%s §7- §f%.2f MB/s §7alloc (p99 %dKB/run), §f%.1f ms/s §7cpu (p99 %dμs/run), %d runs",
+                    entry.getKey(), alloc.getSum() / seconds / (1024 * 1024), alloc.getPercentile(99) / 1024,
+                    cpu.getSum() / seconds / 1000.0, cpu.getPercentile(99), Math.max(alloc.getCount(), cpu.getCount())));
+        }
+        return true;
+    }
+
+    private boolean handleTrace(CommandSender sender, String[] args) {
+        Tracer tracer = Tracing.getTracer();
+        if (tracer == null) {
+            sender.sendMessage("§cTracing is disabled (performance.tracing.enabled: false)");
+            return true;
+        }
+        if (args.length > 1 && args[1].equalsIgnoreCase("clear")) {
+            tracer.clear();
+            sender.sendMessage("§aTrace buffer cleared");
+            return true;
+        }
+        long traceId = 0;
+        if (args.length > 1) {
+            try {
+                traceId = Long.parseUnsignedLong(args[1], 16);
+            } catch (NumberFormatException e) {
+                sender.sendMessage("§cUsage: /vo perf trace [clear|<trace id>]");
+                return false;
+            }
+        }
+
+        File dir = new File(plugin.getDataFolder(), "traces");
+        File file = new File(dir, "trace-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".json");
+        int finished = tracer.getFinishedSpans().size();
+        int open = tracer.getOpenSpans().size();
+        long filter = traceId;
+        // Spans are snapshotted by the writer; the file is written off the main thread
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                sender.sendMessage("§cCould not create " + dir.getPath());
+                return;
+            }
+            try (Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+                ChromeTraceWriter.write(tracer, filter, writer);
+            } catch (IOException e) {
+                sender.sendMessage("§cFailed to write trace: " + e.getMessage());
+                plugin.getLogger().severe("Failed to write trace " + file.getPath() + ": " + e.getMessage());
+                e.printStackTrace();
+                return;
+            }
+            sender.sendMessage(String.format("§aWrote %s §7(%d finished, %d open spans, %d evicted)",
+                    file.getPath(), finished, open, tracer.getEvicted()));
+            sender.sendMessage("§7Open in chrome://tracing or ui.perfetto.dev");
+        });
+        return true;
+    }
+
+    private String villageName(VillageCostProfiler.Entry entry) {
+        if (entry.isUnattributed()) {
+            return "(unattributed)";
+        }
+        if (plugin.getVillageService() != null) {
+            Optional<Village> village = plugin.getVillageService().getVillage(entry.getVillageId());
+            if (village.isPresent()) {
+                return village.get().getName() + " §8(" + entry.getVillageId().toString().substring(0, 8) + ")";
+            }
+        }
+        return entry.getVillageId().toString();
+    }
+}
@@ -1,10 +1,14 @@
 package com.davisodom.villageoverhaul.commands;
 
 import com.davisodom.villageoverhaul.VillageOverhaulPlugin;
+import com.davisodom.villageoverhaul.core.TickEngine;
+import com.davisodom.villageoverhaul.core.TickInput;
 import com.davisodom.villageoverhaul.projects.Project;
 import com.davisodom.villageoverhaul.projects.ProjectService;
 import com.davisodom.villageoverhaul.villages.Village;
 import com.davisodom.villageoverhaul.villages.VillageService;
+import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -25,6 +29,10 @@ import java.util.stream.Collectors;
  * - /vo project status <projectId> - Show detailed project status
  * - /vo project create <villageId> <building> <cost> - Create a new project
  * - /vo project activate <projectId> - Activate a project
+ * 
+ * State-changing subcommands (project create/activate, villager spawn/despawn) are
+ * applied as tick inputs at the start of the next tick by {@link QueuedCommandHandler}, so
+ * they are captured by input recording and replay in order with other inputs.
  */
 public class ProjectCommands implements CommandExecutor, TabCompleter {
     
@@ -32,12 +40,36 @@ public class ProjectCommands implements CommandExecutor, TabCompleter {
     private final ProjectService projectService;
     private final VillageService villageService;
     private final GenerateCommand generateCommand;
+    private final TickCommand tickCommand;
+    private final PerfCommand perfCommand;
+    private final QueuedCommandHandler queuedCommands;
     
     public ProjectCommands(VillageOverhaulPlugin plugin) {
         this.plugin = plugin;
         this.projectService = plugin.getProjectService();
         this.villageService = plugin.getVillageService();
         this.generateCommand = new GenerateCommand(plugin);
+        this.tickCommand = new TickCommand(plugin);
+        this.perfCommand = new PerfCommand(plugin);
+        this.queuedCommands = new QueuedCommandHandler(plugin.getLogger(), projectService, villageService)
+                .setReplies((senderId, message) -> resolveSender(senderId).sendMessage(message))
+                .setServerCommands(new QueuedCommandHandler.ServerCommands() {
+                    @Override
+                    public void dispatch(UUID senderId, String[] args) {
+                        ProjectCommands.this.dispatch(resolveSender(senderId), args);
+                    }
+                    
+                    @Override
+                    public void spawn(UUID senderId, String cultureId, String profession, UUID villageId,
+                                      String worldName, double x, double y, double z) {
+                        spawnVillager(resolveSender(senderId), cultureId, profession, villageId, worldName, x, y, z);
+                    }
+                });
+        
+        TickEngine tickEngine = plugin.getTickEngine();
+        if (tickEngine != null) {
+            queuedCommands.register(tickEngine);
+        }
     }
     
     @Override
@@ -49,9 +81,37 @@ public class ProjectCommands implements CommandExecutor, TabCompleter {
             sender.sendMessage("  §7/vo project list [villageId] §f- List projects");
             sender.sendMessage("  §7/vo project status <projectId> §f- Show project status");
             sender.sendMessage("  §7/vo villager list [villageId] §f- List villagers");
+            sender.sendMessage("  §7/vo tick <status|schedule|breaker|record|jobs> §f- Inspect the tick engine");
+            sender.sendMessage("  §7/vo perf <status|profile|villages|resources|trace> §f- Performance profile, costs and traces");
             return true;
         }
         
+        TickEngine tickEngine = plugin.getTickEngine();
+        if (tickEngine != null && QueuedCommandHandler.isQueued(args)) {
+            tickEngine.submitInput(QueuedCommandHandler.command(senderId(sender), args));
+            return true;
+        }
+        return dispatch(sender, args);
+    }
+    
+    private static UUID senderId(CommandSender sender) {
+        return sender instanceof Player ? ((Player) sender).getUniqueId() : QueuedCommandHandler.CONSOLE_SENDER;
+    }
+    
+    /**
+     * Resolve the sender of a queued command (console if the player has left)
+     */
+    private CommandSender resolveSender(UUID senderId) {
+        if (!QueuedCommandHandler.CONSOLE_SENDER.equals(senderId)) {
+            Player player = plugin.getServer().getPlayer(senderId);
+            if (player != null) {
+                return player;
+            }
+        }
+        return plugin.getServer().getConsoleSender();
+    }
+    
+    private boolean dispatch(CommandSender sender, String[] args) {
         String subcommand = args[0].toLowerCase();
         
         switch (subcommand) {
@@ -61,6 +121,10 @@ public class ProjectCommands implements CommandExecutor, TabCompleter {
                 return handleProjectCommand(sender, Arrays.copyOfRange(args, 1, args.length));
             case "villager":
                 return handleVillagerCommand(sender, Arrays.copyOfRange(args, 1, args.length));
+            case "tick":
+                return tickCommand.execute(sender, Arrays.copyOfRange(args, 1, args.length));
+            case "perf":
+                return perfCommand.execute(sender, Arrays.copyOfRange(args, 1, args.length));
             default:
                 sender.sendMessage("§cUnknown subcommand: " + subcommand);
                 sender.sendMessage("§7Type /vo for help");
@@ -86,9 +150,9 @@ public class ProjectCommands implements CommandExecutor, TabCompleter {
             case "status":
                 return handleProjectStatus(sender, args);
             case "create":
-                return handleCreateProject(sender, args);
+                return queuedCommands.createProject(args, sender::sendMessage);
             case "activate":
-                return handleActivateProject(sender, args);
+                return queuedCommands.activateProject(args, sender::sendMessage);
             default:
                 sender.sendMessage("§cUnknown project action: " + action);
                 return false;
@@ -170,84 +234,6 @@ public class ProjectCommands implements CommandExecutor, TabCompleter {
         return true;
     }
     
-    private boolean handleCreateProject(CommandSender sender, String[] args) {
-        if (args.length < 4) {
-            sender.sendMessage("§cUsage: /vo project create <villageId|name> <building> <costMillz>");
-            return false;
-        }
-        
-        try {
-            // Try to parse as UUID first, then fall back to name lookup
-            UUID villageId;
-            try {
-                villageId = UUID.fromString(args[1]);
-            } catch (IllegalArgumentException e) {
-                // Not a UUID, try to find by name
-                String villageName = args[1];
-                var village = villageService.getAllVillages().stream()
-                        .filter(v -> v.getName().equalsIgnoreCase(villageName))
-                        .findFirst()
-                        .orElse(null);
-                
-                if (village == null) {
-                    sender.sendMessage("§cVillage not found: " + villageName);
-                    sender.sendMessage("§7Use §e/villages §7to see all villages");
-                    return false;
-                }
-                villageId = village.getId();
-            }
-            
-            String buildingRef = args[2];
-            long costMillz = Long.parseLong(args[3]);
-            
-            // Verify village exists
-            var villageOpt = villageService.getVillage(villageId);
-            if (villageOpt.isEmpty()) {
-                sender.sendMessage("§cVillage not found: " + villageId);
-                return false;
-            }
-            
-            List<String> unlockEffects = new ArrayList<>();
-            if (args.length > 4) {
-                unlockEffects = Arrays.asList(Arrays.copyOfRange(args, 4, args.length));
-            }
-            
-            Project project = projectService.createProject(villageId, buildingRef, costMillz, unlockEffects);
-            sender.sendMessage("§aOK Created project for " + villageOpt.get().getName() + ": " + project.getId());
-            sender.sendMessage("§7Use §e/vo project activate " + project.getId() + " §7to make it active");
-            
-        } catch (IllegalArgumentException e) {
-            sender.sendMessage("§cInvalid arguments: " + e.getMessage());
-            return false;
-        }
-        
-        return true;
-    }
-    
-    private boolean handleActivateProject(CommandSender sender, String[] args) {
-        if (args.length < 2) {
-            sender.sendMessage("§cUsage: /vo project activate <projectId>");
-            return false;
-        }
-        
-        try {
-            UUID projectId = UUID.fromString(args[1]);
-            boolean activated = projectService.activateProject(projectId);
-            
-                if (activated) {
-                sender.sendMessage("§aOK Project activated: " + projectId);
-            } else {
-                sender.sendMessage("§cFailed to activate project (not found or already active)");
-            }
-            
-        } catch (IllegalArgumentException e) {
-            sender.sendMessage("§cInvalid project ID");
-            return false;
-        }
-        
-        return true;
-    }
-    
     /**
      * Handle /vo villager commands
      */
@@ -316,6 +302,30 @@ public class ProjectCommands implements CommandExecutor, TabCompleter {
             }
         }
         
+        Location location = player.getLocation();
+        TickInput spawn = QueuedCommandHandler.spawn(player.getUniqueId(), cultureId, profession, villageId,
+                location.getWorld().getName(), location.getX(), location.getY(), location.getZ());
+        TickEngine tickEngine = plugin.getTickEngine();
+        if (tickEngine != null) {
+            tickEngine.submitInput(spawn);
+        } else {
+            queuedCommands.applySpawn(spawn, 0);
+        }
+        return true;
+    }
+    
+    /**
+     * Spawn a villager for a queued spawn input (at a tick boundary)
+     */
+    private void spawnVillager(CommandSender sender, String cultureId, String profession, UUID villageId,
+                               String worldName, double x, double y, double z) {
+        World world = plugin.getServer().getWorld(worldName);
+        if (world == null) {
+            sender.sendMessage("§cWorld not loaded: " + worldName);
+            return;
+        }
+        Location location = new Location(world, x, y, z);
+        
         String definitionId = cultureId + "_" + profession;
         var npcService = plugin.getCustomVillagerService();
         var appearanceAdapter = plugin.getVillagerAppearanceAdapter();
@@ -325,12 +335,12 @@ public class ProjectCommands implements CommandExecutor, TabCompleter {
             cultureId,
             profession,
             villageId,
-            player.getLocation()
+            location
         );
         
         if (customVillager != null) {
             // Apply appearance
-            var entity = player.getServer().getEntity(customVillager.getEntityId());
+            var entity = plugin.getServer().getEntity(customVillager.getEntityId());
             if (entity != null) {
                 appearanceAdapter.applyAppearance(entity, definitionId);
             }
@@ -340,8 +350,6 @@ public class ProjectCommands implements CommandExecutor, TabCompleter {
         } else {
             sender.sendMessage("§cFailed to spawn villager (village cap reached or error)");
         }
-        
-        return true;
     }
     
     private boolean handleVillagerList(CommandSender sender, String[] args) {
@@ -414,6 +422,8 @@ public class ProjectCommands implements CommandExecutor, TabCompleter {
             completions.add("generate");
             completions.add("project");
             completions.add("villager");
+            completions.add("tick");
+            completions.add("perf");
         } else if (args.length == 2 && args[0].equalsIgnoreCase("generate")) {
             // Suggest available culture IDs
             completions.addAll(plugin.getCultureService().all().stream()
@@ -423,6 +433,22 @@ public class ProjectCommands implements CommandExecutor, TabCompleter {
             completions.addAll(Arrays.asList("list", "status", "create", "activate"));
         } else if (args.length == 2 && args[0].equalsIgnoreCase("villager")) {
             completions.addAll(Arrays.asList("spawn", "list", "despawn"));
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("tick")) {
+            completions.addAll(Arrays.asList("status", "schedule", "breaker", "record", "jobs"));
+        } else if (args.length == 3 && args[0].equalsIgnoreCase("tick") && args[1].equalsIgnoreCase("breaker")) {
+            completions.add("reset");
+        } else if (args.length == 3 && args[0].equalsIgnoreCase("tick") && args[1].equalsIgnoreCase("record")) {
+            completions.addAll(Arrays.asList("start", "stop"));
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("perf")) {
+            completions.addAll(Arrays.asList("status", "profile", "villages", "resources", "trace"));
+        } else if (args.length == 3 && args[0].equalsIgnoreCase("perf") && args[1].equalsIgnoreCase("profile")) {
+            completions.addAll(Arrays.asList("auto", "low", "medium", "high"));
+        } else if (args.length == 3 && args[0].equalsIgnoreCase("perf") && args[1].equalsIgnoreCase("trace")) {
+            completions.add("clear");
+        } else if (args.length == 4 && args[0].equalsIgnoreCase("tick") && args[2].equalsIgnoreCase("reset")
+                && plugin.getTickEngine() != null) {
+            completions.add("all");
+            plugin.getTickEngine().getBreakers().forEach(b -> completions.add(b.getSystemName()));
         }
         
         return completions.stream()
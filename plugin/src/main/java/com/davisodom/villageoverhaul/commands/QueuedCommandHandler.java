@@ -0,0 +1,247 @@
+package com.davisodom.villageoverhaul.commands;
+
+import com.davisodom.villageoverhaul.core.TickEngine;
+import com.davisodom.villageoverhaul.core.TickInput;
+import com.davisodom.villageoverhaul.projects.Project;
+import com.davisodom.villageoverhaul.projects.ProjectService;
+import com.davisodom.villageoverhaul.villages.Village;
+import com.davisodom.villageoverhaul.villages.VillageService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Applies the tick inputs queued by /vo: state-changing commands ({@value #COMMAND_INPUT})
+ * and villager spawns ({@value #SPAWN_INPUT})
+ *
+ * Bukkit-free, so the plugin ({@link ProjectCommands}) and headless replay register the same
+ * handlers. Project create/activate are applied here; commands that need the server
+ * (villager despawn and spawn) go to the {@link ServerCommands} hook and are skipped when
+ * replaying without one.
+ */
+public final class QueuedCommandHandler {
+
+    // command.vo: payload = senderId (nil UUID for console), args
+    // npc.spawn: payload = senderId, cultureId, profession, villageId, world, x, y, z
+    public static final String COMMAND_INPUT = "command.vo";
+    public static final String SPAWN_INPUT = "npc.spawn";
+    public static final UUID CONSOLE_SENDER = new UUID(0L, 0L);
+
+    /**
+     * Delivers command feedback to the sender (console if the player has left)
+     */
+    public interface Replies {
+        void send(UUID senderId, String message);
+    }
+
+    /**
+     * Commands that act on the world and need a running server
+     */
+    public interface ServerCommands {
+        void dispatch(UUID senderId, String[] args);
+
+        void spawn(UUID senderId, String cultureId, String profession, UUID villageId,
+                   String worldName, double x, double y, double z);
+    }
+
+    private final Logger logger;
+    private final ProjectService projectService;
+    private final VillageService villageService;
+    private Replies replies = (senderId, message) -> { };
+    private ServerCommands serverCommands;
+
+    public QueuedCommandHandler(Logger logger, ProjectService projectService, VillageService villageService) {
+        this.logger = logger;
+        this.projectService = projectService;
+        this.villageService = villageService;
+    }
+
+    public QueuedCommandHandler setReplies(Replies replies) {
+        this.replies = replies;
+        return this;
+    }
+
+    public QueuedCommandHandler setServerCommands(ServerCommands serverCommands) {
+        this.serverCommands = serverCommands;
+        return this;
+    }
+
+    public void register(TickEngine engine) {
+        engine.registerInputHandler(COMMAND_INPUT, this::applyCommand);
+        engine.registerInputHandler(SPAWN_INPUT, this::applySpawn);
+    }
+
+    /**
+     * Whether a /vo command changes state and is applied as a tick input
+     * (villager spawn is validated immediately and queued as its own input)
+     */
+    public static boolean isQueued(String[] args) {
+        if (args.length < 2) {
+            return false;
+        }
+        String subcommand = args[0].toLowerCase();
+        String action = args[1].toLowerCase();
+        return (subcommand.equals("project") && (action.equals("create") || action.equals("activate")))
+                || (subcommand.equals("villager") && action.equals("despawn"));
+    }
+
+    public static TickInput command(UUID senderId, String[] args) {
+        return TickInput.builder(COMMAND_INPUT)
+                .uuid(senderId)
+                .strings(args)
+                .build();
+    }
+
+    public static TickInput spawn(UUID senderId, String cultureId, String profession, UUID villageId,
+                                  String worldName, double x, double y, double z) {
+        return TickInput.builder(SPAWN_INPUT)
+                .uuid(senderId)
+                .string(cultureId)
+                .string(profession)
+                .uuid(villageId)
+                .string(worldName)
+                .float64(x)
+                .float64(y)
+                .float64(z)
+                .build();
+    }
+
+    public void applyCommand(TickInput input, long tick) {
+        TickInput.Reader payload = input.reader();
+        UUID senderId = payload.uuid();
+        String[] args = payload.strings();
+        Consumer<String> reply = message -> replies.send(senderId, message);
+
+        if (args.length >= 2 && args[0].equalsIgnoreCase("project")) {
+            String[] projectArgs = Arrays.copyOfRange(args, 1, args.length);
+            if (args[1].equalsIgnoreCase("create")) {
+                createProject(projectArgs, reply);
+                return;
+            }
+            if (args[1].equalsIgnoreCase("activate")) {
+                activateProject(projectArgs, reply);
+                return;
+            }
+        }
+        if (serverCommands != null) {
+            serverCommands.dispatch(senderId, args);
+        } else {
+            logger.fine("Skipped command without a server: /vo " + String.join(" ", args));
+        }
+    }
+
+    public void applySpawn(TickInput input, long tick) {
+        TickInput.Reader payload = input.reader();
+        UUID senderId = payload.uuid();
+        String cultureId = payload.string();
+        String profession = payload.string();
+        UUID villageId = payload.uuid();
+        String worldName = payload.string();
+        double x = payload.float64();
+        double y = payload.float64();
+        double z = payload.float64();
+        if (serverCommands != null) {
+            serverCommands.spawn(senderId, cultureId, profession, villageId, worldName, x, y, z);
+        } else {
+            logger.fine("Skipped villager spawn without a server: " + cultureId + "_" + profession);
+        }
+    }
+
+    /**
+     * /vo project create &lt;villageId|name&gt; &lt;building&gt; &lt;costMillz&gt; [effects...]
+     *
+     * @param args Arguments after "project"
+     */
+    public boolean createProject(String[] args, Consumer<String> reply) {
+        if (args.length < 4) {
+            reply.accept("§cUsage: /vo project create <villageId|name> <building> <costMillz>");
+            return false;
+        }
+
+        try {
+            // Try to parse as UUID first, then fall back to name lookup
+            UUID villageId;
+            try {
+                villageId = UUID.fromString(args[1]);
+            } catch (IllegalArgumentException e) {
+                Village village = villageService.findVillageByName(args[1]);
+                if (village == null) {
+                    reply.accept("§cVillage not found: " + args[1]);
+                    reply.accept("§7Use §e/villages §7to see all villages");
+                    return false;
+                }
+                villageId = village.getId();
+            }
+
+            String buildingRef = args[2];
+            long costMillz = Long.parseLong(args[3]);
+
+            Optional<Village> villageOpt = villageService.getVillage(villageId);
+            if (villageOpt.isEmpty()) {
+                reply.accept("§cVillage not found: " + villageId);
+                return false;
+            }
+
+            List<String> unlockEffects = new ArrayList<>();
+            if (args.length > 4) {
+                unlockEffects = Arrays.asList(Arrays.copyOfRange(args, 4, args.length));
+            }
+
+            Project project = projectService.createProject(nextProjectId(villageId), villageId, buildingRef,
+                    costMillz, unlockEffects);
+            reply.accept("§aOK Created project for " + villageOpt.get().getName() + ": " + project.getId());
+            reply.accept("§7Use §e/vo project activate " + project.getId() + " §7to make it active");
+
+        } catch (IllegalArgumentException e) {
+            reply.accept("§cInvalid arguments: " + e.getMessage());
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * /vo project activate &lt;projectId&gt;
+     *
+     * @param args Arguments after "project"
+     */
+    public boolean activateProject(String[] args, Consumer<String> reply) {
+        if (args.length < 2) {
+            reply.accept("§cUsage: /vo project activate <projectId>");
+            return false;
+        }
+
+        try {
+            UUID projectId = UUID.fromString(args[1]);
+            if (projectService.activateProject(projectId)) {
+                reply.accept("§aOK Project activated: " + projectId);
+            } else {
+                reply.accept("§cFailed to activate project (not found or already active)");
+            }
+        } catch (IllegalArgumentException e) {
+            reply.accept("§cInvalid project ID");
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Project ID derived from the village's project count, so a replay of the same inputs
+     * creates the same IDs (later inputs such as activate refer to them)
+     */
+    private UUID nextProjectId(UUID villageId) {
+        for (int n = projectService.getVillageProjects(villageId).size(); ; n++) {
+            UUID id = UUID.nameUUIDFromBytes(("project:" + villageId + ":" + n).getBytes(StandardCharsets.UTF_8));
+            if (projectService.getProject(id).isEmpty()) {
+                return id;
+            }
+        }
+    }
+}
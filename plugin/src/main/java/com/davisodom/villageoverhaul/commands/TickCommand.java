@@ -0,0 +1,213 @@
+package com.davisodom.villageoverhaul.commands;
+
+import com.davisodom.villageoverhaul.VillageOverhaulPlugin;
+import com.davisodom.villageoverhaul.core.JobHandle;
+import com.davisodom.villageoverhaul.core.SystemCircuitBreaker;
+import com.davisodom.villageoverhaul.core.TickEngine;
+import com.davisodom.villageoverhaul.sim.StateSnapshot;
+import org.bukkit.command.CommandSender;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Admin command for inspecting the tick engine.
+ *
+ * Usage:
+ * - /vo tick status   - Current tick, per-system timings and village backlog
+ * - /vo tick schedule - Computed phase schedule with per-phase timings and critical path
+ * - /vo tick breaker  - Circuit breaker state per system
+ * - /vo tick breaker reset <system|all> - Force breakers closed
+ * - /vo tick record <start|stop> - Record tick inputs to plugins/VillageOverhaul/recordings
+ * - /vo tick jobs     - Queued work jobs with progress
+ */
+public class TickCommand {
+
+    private final VillageOverhaulPlugin plugin;
+
+    public TickCommand(VillageOverhaulPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Handle /vo tick <status|schedule|breaker|record|jobs>
+     *
+     * @param sender Command sender
+     * @param args Command arguments (after "tick")
+     * @return true if command executed successfully
+     */
+    public boolean execute(CommandSender sender, String[] args) {
+        TickEngine engine = plugin.getTickEngine();
+        if (engine == null) {
+            sender.sendMessage("§cTick engine not initialized");
+            return true;
+        }
+
+        String action = args.length > 0 ? args[0].toLowerCase() : "status";
+        switch (action) {
+            case "status":
+                return handleStatus(sender, engine);
+            case "schedule":
+                return handleSchedule(sender, engine);
+            case "breaker":
+                return handleBreaker(sender, engine, args);
+            case "record":
+                return handleRecord(sender, engine, args);
+            case "jobs":
+                return handleJobs(sender, engine);
+            default:
+                sender.sendMessage("§cUnknown tick action: " + action);
+                sender.sendMessage("§7Usage: /vo tick <status|schedule|breaker|record|jobs>");
+                return false;
+        }
+    }
+
+    private boolean handleStatus(CommandSender sender, TickEngine engine) {
+        sender.sendMessage("§6═══ Tick Engine ═══");
+        sender.sendMessage("§eTick: §7" + engine.getCurrentTick());
+        sender.sendMessage("§eVillages: §7" + engine.getVillagesTickedLastTick() + " ticked last tick, " +
+                engine.getVillageBacklog() + " pending (budget " + engine.getVillageBudgetMicros() + "us)");
+        int[] tiers = engine.getLodTierCounts();
+        StringBuilder lod = new StringBuilder();
+        for (TickEngine.LodTier tier : TickEngine.LodTier.values()) {
+            lod.append(tier.name().toLowerCase()).append('=').append(tiers[tier.ordinal()]).append(' ');
+        }
+        sender.sendMessage("§eLOD: §7" + lod.toString().trim() + " (" + engine.getVillagesSkippedLastTick() +
+                " skipped last tick)");
+        sender.sendMessage("§eParallelism: §7" + engine.getParallelism());
+        sender.sendMessage("§eInputs: §7" + engine.getInputsAppliedLastTick() + " applied last tick, " +
+                engine.getPendingInputCount() + " pending" + (engine.isRecording() ? " §c(recording)" : ""));
+        sender.sendMessage("§eJobs: §7" + engine.getJobQueueDepth() + " queued, " + engine.getJobStepsLastTick() +
+                " steps last tick (target " + engine.getWorkTargetMicros() + "us)");
+        for (Map.Entry<String, Long> entry : engine.getTickTimeMicros().entrySet()) {
+            sender.sendMessage(String.format("  §7%s: §f%.2fms", entry.getKey(), entry.getValue() / 1000.0));
+        }
+        return true;
+    }
+
+    private boolean handleSchedule(CommandSender sender, TickEngine engine) {
+        String dump = engine.describeSchedule();
+        sender.sendMessage("§6═══ Tick Schedule ═══");
+        for (String line : dump.split("\n")) {
+            sender.sendMessage("§7" + line);
+        }
+        plugin.getLogger().info("[TICK] Schedule dump:\n" + dump);
+        return true;
+    }
+
+    private boolean handleBreaker(CommandSender sender, TickEngine engine, String[] args) {
+        if (args.length >= 2 && args[1].equalsIgnoreCase("reset")) {
+            if (args.length < 3) {
+                sender.sendMessage("§cUsage: /vo tick breaker reset <system|all>");
+                return false;
+            }
+            if (args[2].equalsIgnoreCase("all")) {
+                for (SystemCircuitBreaker breaker : engine.getBreakers()) {
+                    engine.resetBreaker(breaker.getSystemName());
+                }
+                sender.sendMessage("§aAll circuit breakers reset");
+            } else if (engine.resetBreaker(args[2])) {
+                sender.sendMessage("§aCircuit breaker reset: " + args[2]);
+            } else {
+                sender.sendMessage("§cUnknown system: " + args[2]);
+                return false;
+            }
+            return true;
+        }
+
+        sender.sendMessage("§6═══ Circuit Breakers ═══" + (engine.isBreakersEnabled() ? "" : " §c(disabled)"));
+        if (engine.getBreakers().isEmpty()) {
+            sender.sendMessage("§7No global systems registered");
+            return true;
+        }
+        long tick = engine.getCurrentTick();
+        for (SystemCircuitBreaker breaker : engine.getBreakers()) {
+            String color;
+            String detail;
+            switch (breaker.getState()) {
+                case DEGRADED:
+                    color = "§e";
+                    detail = "next run in " + Math.max(0, breaker.getNextRunTick() - tick) + " ticks";
+                    break;
+                case SUSPENDED:
+                    color = "§c";
+                    detail = "probe in " + Math.max(0, breaker.getNextRunTick() - tick) + " ticks";
+                    break;
+                default:
+                    color = "§a";
+                    detail = "full rate";
+                    break;
+            }
+            sender.sendMessage(String.format("  §7%s: %s%s §7(%s, %d overruns total, last %.2fms)",
+                    breaker.getSystemName(), color, breaker.getState(), detail,
+                    breaker.getTotalOverruns(), breaker.getLastOverrunMicros() / 1000.0));
+        }
+        return true;
+    }
+
+    private boolean handleJobs(CommandSender sender, TickEngine engine) {
+        sender.sendMessage("§6═══ Work Queue ═══");
+        if (engine.getJobs().isEmpty()) {
+            sender.sendMessage("§7No jobs queued");
+            return true;
+        }
+        long tick = engine.getCurrentTick();
+        for (JobHandle job : engine.getJobs()) {
+            double progress = job.getProgress();
+            sender.sendMessage(String.format("  §7%s: §f%s §7(%s, %d steps, %.2fms work, queued %d ticks ago)",
+                    job.getName(), job.getState(), progress < 0 ? "progress unknown" : String.format("%.0f%%", progress * 100),
+                    job.getSteps(), job.getWorkMicros() / 1000.0, tick - job.getSubmittedTick()));
+        }
+        return true;
+    }
+
+    private boolean handleRecord(CommandSender sender, TickEngine engine, String[] args) {
+        String mode = args.length > 1 ? args[1].toLowerCase() : "";
+        if (mode.equals("start")) {
+            if (engine.isRecording()) {
+                sender.sendMessage("§cAlready recording tick inputs");
+                return true;
+            }
+            File dir = new File(plugin.getDataFolder(), "recordings");
+            if (!dir.exists() && !dir.mkdirs()) {
+                sender.sendMessage("§cFailed to create " + dir.getPath());
+                return true;
+            }
+            File file = new File(dir, "tick-" + System.currentTimeMillis() + ".votl");
+            FileOutputStream out = null;
+            try {
+                out = new FileOutputStream(file);
+                // Villages, projects and wallets at the head of the log, for headless replay
+                engine.startRecording(out, StateSnapshot.capture(plugin.getVillageService(),
+                        plugin.getProjectService(), plugin.getWalletService()));
+            } catch (IOException | RuntimeException e) {
+                if (out != null) {
+                    try {
+                        out.close();
+                    } catch (IOException closeError) {
+                        e.addSuppressed(closeError);
+                    }
+                }
+                plugin.getLogger().severe("Failed to start tick input recording: " + e.getMessage());
+                e.printStackTrace();
+                sender.sendMessage("§cFailed to start recording: " + e.getMessage());
+                return true;
+            }
+            sender.sendMessage("§aRecording tick inputs to " + file.getName() + " from tick " + engine.getCurrentTick());
+            return true;
+        }
+        if (mode.equals("stop")) {
+            long records = engine.stopRecording();
+            if (records < 0) {
+                sender.sendMessage("§cNot recording");
+            } else {
+                sender.sendMessage("§aRecording stopped at tick " + engine.getCurrentTick() + " (" + records + " inputs)");
+            }
+            return true;
+        }
+        sender.sendMessage("§cUsage: /vo tick record <start|stop>");
+        return false;
+    }
+}
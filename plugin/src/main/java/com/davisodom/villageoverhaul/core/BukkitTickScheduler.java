@@ -0,0 +1,42 @@
+package com.davisodom.villageoverhaul.core;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Ticks the engine from a repeating Bukkit task (every server tick, main thread)
+ *
+ * The only Bukkit dependency of the tick engine; headless runs use
+ * {@link ManualTickScheduler} instead.
+ */
+public final class BukkitTickScheduler implements TickScheduler {
+
+    private final Plugin plugin;
+
+    public BukkitTickScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public Task scheduleEveryTick(Runnable tick) {
+        BukkitTask task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                tick.run();
+            }
+        }.runTaskTimer(plugin, 0L, 1L); // Every server tick
+
+        return new Task() {
+            @Override
+            public void cancel() {
+                task.cancel();
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return task.isCancelled();
+            }
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package com.davisodom.villageoverhaul.core;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handle to a {@link TickJob} submitted to the tick engine work queue
+ *
+ * The completion future is completed on the main thread when the job finishes, fails
+ * (exceptionally) or is cancelled.
+ */
+public final class JobHandle {
+
+    /**
+     * Job lifecycle
+     */
+    public enum State {
+        QUEUED,     // Submitted, no step run yet
+        RUNNING,    // At least one step run
+        DONE,
+        FAILED,
+        CANCELLED
+    }
+
+    private final String name;
+    private final TickJob job;
+    private final long submittedTick;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private volatile State state = State.QUEUED;
+    private volatile boolean cancelRequested = false;
+    private long steps = 0;
+    private long workNanos = 0;
+
+    JobHandle(String name, TickJob job, long submittedTick) {
+        this.name = name;
+        this.job = job;
+        this.submittedTick = submittedTick;
+    }
+
+    /**
+     * Run one step, accounting its time on the engine clock (main thread)
+     *
+     * @return true when the job is complete
+     */
+    boolean step(long tick, TickClock clock) throws Exception {
+        state = State.RUNNING;
+        steps++;
+        long start = clock.nanoTime();
+        try {
+            return job.step(tick);
+        } finally {
+            workNanos += clock.nanoTime() - start;
+        }
+    }
+
+    void complete() {
+        state = State.DONE;
+        completion.complete(null);
+    }
+
+    void fail(Exception e) {
+        state = State.FAILED;
+        completion.completeExceptionally(e);
+    }
+
+    void cancelled() {
+        state = State.CANCELLED;
+        try {
+            job.cancelled();
+        } finally {
+            completion.cancel(false);
+        }
+    }
+
+    /**
+     * Request cancellation; the job is dropped before its next step
+     */
+    public void cancel() {
+        cancelRequested = true;
+    }
+
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    public String getName() { return name; }
+    public State getState() { return state; }
+    public long getSubmittedTick() { return submittedTick; }
+    public long getSteps() { return steps; }
+    public long getWorkMicros() { return workNanos / 1000; }
+    public double getProgress() { return state == State.DONE ? 1.0 : job.getProgress(); }
+    public CompletableFuture<Void> getCompletion() { return completion; }
+
+    public boolean isFinished() {
+        return state == State.DONE || state == State.FAILED || state == State.CANCELLED;
+    }
+}
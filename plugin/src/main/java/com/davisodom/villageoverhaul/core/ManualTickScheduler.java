@@ -0,0 +1,102 @@
+package com.davisodom.villageoverhaul.core;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs scheduled ticks on the caller's thread (no server)
+ *
+ * After {@link TickEngine#start()}, call {@link #runTicks(long, long)} to drive the engine,
+ * either back to back (period 0, as fast as possible) or paced to a fixed tick period
+ * (50ms = 20 TPS). Not thread-safe: schedule and run from the same thread.
+ */
+public final class ManualTickScheduler implements TickScheduler {
+
+    // Vanilla server tick period (20 TPS)
+    public static final long SERVER_TICK_NANOS = 50_000_000L;
+
+    private ManualTask task;
+    private long lastTickNanos = 0;
+
+    @Override
+    public Task scheduleEveryTick(Runnable tick) {
+        if (task != null && !task.cancelled) {
+            throw new IllegalStateException("A tick task is already scheduled");
+        }
+        task = new ManualTask(tick);
+        return task;
+    }
+
+    /**
+     * Run ticks until the count is reached or the task is cancelled
+     *
+     * @param count Number of ticks to run
+     * @param periodNanos Minimum time between tick starts (0 = back to back)
+     * @return Number of ticks run
+     */
+    public long runTicks(long count, long periodNanos) {
+        return runTicks(count, periodNanos, null);
+    }
+
+    /**
+     * Run ticks, calling afterTick once each tick completes (e.g. to sample engine state)
+     *
+     * @param count Number of ticks to run
+     * @param periodNanos Minimum time between tick starts (0 = back to back)
+     * @param afterTick Called after every tick (nullable)
+     * @return Number of ticks run
+     */
+    public long runTicks(long count, long periodNanos, Runnable afterTick) {
+        if (task == null) {
+            throw new IllegalStateException("Nothing scheduled (start the engine first)");
+        }
+        long next = System.nanoTime();
+        long ran = 0;
+        while (ran < count && !task.cancelled) {
+            if (periodNanos > 0) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                next += periodNanos;
+            }
+            long start = System.nanoTime();
+            task.tick.run();
+            lastTickNanos = System.nanoTime() - start;
+            ran++;
+            if (afterTick != null) {
+                afterTick.run();
+            }
+        }
+        return ran;
+    }
+
+    /**
+     * Wall time of the last tick run (nanoseconds, independent of the engine clock)
+     */
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    public boolean isScheduled() {
+        return task != null && !task.cancelled;
+    }
+
+    private static final class ManualTask implements Task {
+        private final Runnable tick;
+        private boolean cancelled = false;
+
+        ManualTask(Runnable tick) {
+            this.tick = tick;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.davisodom.villageoverhaul.core;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Re-drives a tick engine from a recorded {@link TickInputLog}
+ *
+ * The engine must be freshly built with the same systems and input handlers as the
+ * recording server, and must not be started (no scheduler task). The runner positions the
+ * tick counter at the recording's start tick, then for every tick up to the final tick
+ * submits the inputs recorded for it and calls {@link TickEngine#tick()}. Plugin recordings
+ * replay without a server via {@code SimulationMain --replay}, which registers the plugin's
+ * Bukkit-free input handlers and loads the state snapshot logged at the recording's head.
+ *
+ * Uses:
+ * - Reproduce lag spikes offline: per-tick wall time is returned in the {@link Result}
+ * - A/B performance changes against the same real traffic
+ * - Determinism checks: an optional {@link StateProbe} digests the final state so runs with
+ *   different parallelism can be compared byte for byte. Village time-slicing depends on
+ *   wall-clock budgets, so use a fixed schedule (village budget 0, or an engine built on
+ *   {@link TickClock#FROZEN}) for such comparisons.
+ */
+public final class ReplayRunner {
+
+    /**
+     * Serializes the state to compare after replay (e.g. wallets, projects, villages)
+     * Output MUST be deterministic (stable ordering, no timestamps).
+     */
+    public interface StateProbe {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private final TickEngine engine;
+    private StateProbe stateProbe;
+
+    public ReplayRunner(TickEngine engine) {
+        this.engine = engine;
+    }
+
+    public ReplayRunner withStateProbe(StateProbe stateProbe) {
+        this.stateProbe = stateProbe;
+        return this;
+    }
+
+    /**
+     * Replay a whole log
+     */
+    public Result run(InputStream log) throws IOException {
+        try (TickInputLog.Reader reader = new TickInputLog.Reader(log)) {
+            engine.resetTick(reader.getStartTick());
+
+            long[] tickNanos = new long[1024];
+            int ticks = 0;
+            long inputs = 0;
+            TickInputLog.Record next = reader.next();
+
+            while (next != null || engine.getCurrentTick() < reader.getFinalTick()) {
+                long upcoming = engine.getCurrentTick() + 1;
+                if (next != null && next.getTick() < upcoming) {
+                    throw new IOException("Tick input log out of order at tick " + next.getTick());
+                }
+                while (next != null && next.getTick() == upcoming) {
+                    engine.submitInput(next.getInput());
+                    inputs++;
+                    next = reader.next();
+                }
+
+                long start = System.nanoTime();
+                engine.tick();
+                if (ticks == tickNanos.length) {
+                    tickNanos = Arrays.copyOf(tickNanos, ticks * 2);
+                }
+                tickNanos[ticks++] = System.nanoTime() - start;
+            }
+
+            String digest = stateProbe != null ? digest(stateProbe) : null;
+            return new Result(reader.getStartTick(), Arrays.copyOf(tickNanos, ticks), inputs, digest);
+        }
+    }
+
+    private static String digest(StateProbe probe) throws IOException {
+        MessageDigest sha;
+        try {
+            sha = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (DataOutputStream out = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), sha))) {
+            probe.write(out);
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : sha.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Outcome of a replay
+     */
+    public static final class Result {
+        private final long startTick;
+        private final long[] tickNanos;
+        private final long inputs;
+        private final String stateDigest;
+
+        Result(long startTick, long[] tickNanos, long inputs, String stateDigest) {
+            this.startTick = startTick;
+            this.tickNanos = tickNanos;
+            this.inputs = inputs;
+            this.stateDigest = stateDigest;
+        }
+
+        public int getTickCount() { return tickNanos.length; }
+        public long getInputCount() { return inputs; }
+
+        /**
+         * SHA-256 of the state probe output after the last tick (null without a probe)
+         */
+        public String getStateDigest() { return stateDigest; }
+
+        /**
+         * Wall time of each replayed tick, in order (nanoseconds)
+         */
+        public long[] getTickNanos() { return tickNanos.clone(); }
+
+        public long getTotalMicros() {
+            long total = 0;
+            for (long nanos : tickNanos) {
+                total += nanos;
+            }
+            return total / 1000;
+        }
+
+        public long getPercentileMicros(double percentile) {
+            if (tickNanos.length == 0) {
+                return 0;
+            }
+            long[] sorted = tickNanos.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(sorted.length * percentile / 100.0) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1000;
+        }
+
+        /**
+         * Tick number of the slowest replayed tick (for lag spike investigation)
+         */
+        public long getSlowestTick() {
+            int slowest = 0;
+            for (int i = 1; i < tickNanos.length; i++) {
+                if (tickNanos[i] > tickNanos[slowest]) {
+                    slowest = i;
+                }
+            }
+            return startTick + 1 + slowest;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Replay: %d ticks, %d inputs, total %.2fms, p99 %.2fms, slowest tick %d%s",
+                    tickNanos.length, inputs, getTotalMicros() / 1000.0, getPercentileMicros(99) / 1000.0,
+                    getSlowestTick(), stateDigest != null ? ", state " + stateDigest : "");
+        }
+    }
+}
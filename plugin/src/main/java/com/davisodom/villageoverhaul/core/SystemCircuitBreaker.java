@@ -0,0 +1,214 @@
+package com.davisodom.villageoverhaul.core;
+
+/**
+ * Circuit breaker guarding one global tick system
+ *
+ * A run counts as an overrun when it exceeds the overrun threshold or throws.
+ * - CLOSED: runs every tick; after degradeAfter consecutive overruns -> DEGRADED
+ * - DEGRADED: runs every degradedInterval ticks; after recoverAfter consecutive healthy
+ *   runs -> CLOSED, once the overrun streak reaches suspendAfter -> SUSPENDED
+ * - SUSPENDED: not run; after the cooldown a single probe run is allowed (half-open).
+ *   A healthy probe moves back to DEGRADED, a failed probe doubles the cooldown.
+ *   The overrun streak counts from CLOSED and is only reset when the system closes again
+ *   (healthy DEGRADED runs don't clear it), so a probed system that overruns again before
+ *   recovering goes straight back to SUSPENDED.
+ *
+ * Each breaker is only touched by the thread running its system, and is read by the
+ * main thread after the phase barrier.
+ */
+public final class SystemCircuitBreaker {
+
+    /**
+     * Breaker state
+     */
+    public enum State {
+        CLOSED,     // Healthy, full rate
+        DEGRADED,   // Throttled to the degraded interval
+        SUSPENDED   // Not ticked until the next probe
+    }
+
+    // Cap on probe backoff, as a multiple of the base suspension
+    private static final long MAX_BACKOFF = 16;
+
+    private final String systemName;
+    private Settings settings;
+    private State state = State.CLOSED;
+    private State previousState = State.CLOSED;
+    private int consecutiveOverruns = 0;
+    private int consecutiveHealthy = 0;
+    private long nextRunTick = 0;
+    private long cooldownTicks;
+    private long totalOverruns = 0;
+    private long lastOverrunMicros = 0;
+
+    SystemCircuitBreaker(String systemName, Settings settings) {
+        this.systemName = systemName;
+        this.settings = settings;
+        this.cooldownTicks = settings.suspendTicks;
+    }
+
+    /**
+     * Whether the system should run this tick (SUSPENDED returns true for the probe tick)
+     */
+    boolean shouldRun(long tick) {
+        return state == State.CLOSED || tick >= nextRunTick;
+    }
+
+    /**
+     * Record the outcome of a run
+     *
+     * @param tick Tick the system ran in
+     * @param micros Elapsed time of the run
+     * @param failed Whether the run threw
+     * @return true if the state changed
+     */
+    boolean record(long tick, long micros, boolean failed) {
+        boolean overrun = failed || micros > settings.overrunMicros;
+        if (overrun) {
+            totalOverruns++;
+            lastOverrunMicros = micros;
+        }
+        State before = state;
+
+        switch (state) {
+            case CLOSED:
+                if (overrun) {
+                    consecutiveOverruns++;
+                    if (consecutiveOverruns >= settings.suspendAfter) {
+                        suspend(tick);
+                    } else if (consecutiveOverruns >= settings.degradeAfter) {
+                        degrade(tick);
+                    }
+                } else {
+                    consecutiveOverruns = 0;
+                }
+                break;
+
+            case DEGRADED:
+                nextRunTick = tick + settings.degradedInterval;
+                if (overrun) {
+                    consecutiveHealthy = 0;
+                    consecutiveOverruns++;
+                    if (consecutiveOverruns >= settings.suspendAfter) {
+                        suspend(tick);
+                    }
+                } else {
+                    consecutiveHealthy++;
+                    if (consecutiveHealthy >= settings.recoverAfter) {
+                        close();
+                    }
+                }
+                break;
+
+            case SUSPENDED:
+                // Probe run
+                if (overrun) {
+                    cooldownTicks = Math.min(cooldownTicks * 2, settings.suspendTicks * MAX_BACKOFF);
+                    nextRunTick = tick + cooldownTicks;
+                } else {
+                    degrade(tick);
+                }
+                break;
+        }
+
+        if (state != before) {
+            previousState = before;
+            return true;
+        }
+        return false;
+    }
+
+    private void degrade(long tick) {
+        state = State.DEGRADED;
+        consecutiveHealthy = 0;
+        nextRunTick = tick + settings.degradedInterval;
+    }
+
+    private void suspend(long tick) {
+        state = State.SUSPENDED;
+        consecutiveHealthy = 0;
+        nextRunTick = tick + cooldownTicks;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        consecutiveOverruns = 0;
+        consecutiveHealthy = 0;
+        cooldownTicks = settings.suspendTicks;
+    }
+
+    /**
+     * Force the breaker closed (operator override)
+     *
+     * @return true if the state changed
+     */
+    boolean reset() {
+        State before = state;
+        close();
+        if (before != State.CLOSED) {
+            previousState = before;
+            return true;
+        }
+        return false;
+    }
+
+    void setSettings(Settings settings) {
+        this.settings = settings;
+        this.cooldownTicks = Math.max(cooldownTicks, settings.suspendTicks);
+    }
+
+    public String getSystemName() { return systemName; }
+    public State getState() { return state; }
+    public State getPreviousState() { return previousState; }
+    public int getConsecutiveOverruns() { return consecutiveOverruns; }
+    public long getTotalOverruns() { return totalOverruns; }
+    public long getLastOverrunMicros() { return lastOverrunMicros; }
+
+    /**
+     * Tick at which a degraded system runs next, or a suspended system is probed
+     */
+    public long getNextRunTick() { return nextRunTick; }
+
+    /**
+     * Breaker thresholds (shared by all systems of an engine)
+     */
+    public static final class Settings {
+        final long overrunMicros;
+        final int degradeAfter;
+        final int suspendAfter;
+        final int degradedInterval;
+        final int recoverAfter;
+        final long suspendTicks;
+
+        /**
+         * @param overrunMicros Run time above which a run counts as an overrun
+         * @param degradeAfter Consecutive overruns before degrading
+         * @param suspendAfter Consecutive overruns before suspending
+         * @param degradedInterval Ticks between runs while degraded
+         * @param recoverAfter Consecutive healthy degraded runs before closing
+         * @param suspendTicks Base cooldown before probing a suspended system
+         */
+        public Settings(long overrunMicros, int degradeAfter, int suspendAfter,
+                        int degradedInterval, int recoverAfter, long suspendTicks) {
+            if (degradeAfter < 1 || suspendAfter < degradeAfter) {
+                throw new IllegalArgumentException("Require 1 <= degradeAfter <= suspendAfter");
+            }
+            if (degradedInterval < 1 || recoverAfter < 1 || suspendTicks < 1) {
+                throw new IllegalArgumentException("Breaker intervals must be positive");
+            }
+            this.overrunMicros = overrunMicros;
+            this.degradeAfter = degradeAfter;
+            this.suspendAfter = suspendAfter;
+            this.degradedInterval = degradedInterval;
+            this.recoverAfter = recoverAfter;
+            this.suspendTicks = suspendTicks;
+        }
+
+        public long getOverrunMicros() { return overrunMicros; }
+        public int getDegradeAfter() { return degradeAfter; }
+        public int getSuspendAfter() { return suspendAfter; }
+        public int getDegradedInterval() { return degradedInterval; }
+        public int getRecoverAfter() { return recoverAfter; }
+        public long getSuspendTicks() { return suspendTicks; }
+    }
+}
@@ -0,0 +1,24 @@
+package com.davisodom.villageoverhaul.core;
+
+/**
+ * Time source for tick budgets and timings
+ *
+ * Everything the engine measures or budgets (system times, village slice deadlines, job
+ * slices) reads this clock, so headless runs can swap it out:
+ * - {@link #SYSTEM}: wall time, used on a live server
+ * - {@link #FROZEN}: time never advances, so every budget has room and the village and job
+ *   slices no longer depend on machine speed (deterministic replays and simulations;
+ *   engine timings read zero)
+ */
+@FunctionalInterface
+public interface TickClock {
+
+    TickClock SYSTEM = System::nanoTime;
+
+    TickClock FROZEN = () -> 0L;
+
+    /**
+     * Current time in nanoseconds (arbitrary origin, like System.nanoTime())
+     */
+    long nanoTime();
+}
@@ -1,12 +1,22 @@
 package com.davisodom.villageoverhaul.core;
 
 import com.davisodom.villageoverhaul.DebugFlags;
+import com.davisodom.villageoverhaul.obs.Metrics;
+import com.davisodom.villageoverhaul.obs.ThreadResources;
+import com.davisodom.villageoverhaul.obs.VillageCostProfiler;
 import org.bukkit.plugin.Plugin;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -18,26 +28,115 @@ import java.util.logging.Logger;
  * - Performance budgeting (p95/p99 targets from constitution)
  * - Tick time metrics per subsystem
  * 
+ * Each tick applies queued {@link TickInput}s, runs the global systems in dependency phases
+ * (see {@link SystemAccess}), each behind a {@link SystemCircuitBreaker}, then a budgeted
+ * slice of per-village work (see {@link VillageTickableSystem} and
+ * {@link ParallelTickableSystem}), then steps queued {@link TickJob}s with the time left.
+ * Ticks are driven by a {@link TickScheduler} and timed on a {@link TickClock}, so the
+ * engine also runs headless. The tick loop does not allocate in steady state.
+ * 
  * Constitution compliance: Principle II (Deterministic Multiplayer Sync)
  */
 public class TickEngine {
     
-    private final Plugin plugin;
     private final Logger logger;
+    private final Metrics metrics;
+    private final TickScheduler scheduler;
+    private final TickClock clock;
     private final Map<String, TickableSystem> systems;
-    private final Map<String, Long> tickTimeMicros;
-    private BukkitTask tickTask;
+    private final Map<String, SystemAccess> systemAccess;
+    private TickSchedule schedule;
+    private SystemTask[] systemTasks = new SystemTask[0];
+    private final Map<String, SystemCircuitBreaker> breakers;
+    private SystemCircuitBreaker[] scheduleBreakers = new SystemCircuitBreaker[0];
+    private SystemCircuitBreaker.Settings breakerSettings = DEFAULT_BREAKER_SETTINGS;
+    private boolean breakersEnabled = true;
+    private long[] systemNanos = new long[0];
+    private long[] systemCpuNanos = new long[0];
+    private long[] systemAllocBytes = new long[0];
+    private Metrics.ResourceStats[] systemResources = new Metrics.ResourceStats[0];
+    private final Metrics.ResourceStats villageResources;
+    private Metrics.TickTimeStats[] systemStats = new Metrics.TickTimeStats[0];
+    private Metrics.TickTimeStats[] villageSystemStats = new Metrics.TickTimeStats[0];
+    private Metrics.TickTimeStats tickStats;
+    private Metrics.TickTimeStats villagePhaseStats;
+    private long[] phaseNanos = new long[0];
+    private long villagePhaseNanos = 0;
+    private final VillageTickScheduler villageScheduler;
+    private long[] villageSystemNanos = new long[0];
+    private long villageBudgetMicros = DEFAULT_VILLAGE_BUDGET_MICROS;
+    private int villagesTickedLastTick = 0;
+    private int parallelism = DEFAULT_PARALLELISM;
+    private ForkJoinPool computePool;
+    private final Map<String, InputHandler> inputHandlers;
+    private final Queue<TickInput> pendingInputs;
+    private TickInputLog.Writer recorder;
+    private int inputsAppliedLastTick = 0;
+    private Thread tickThread;
+    private final WorkQueue workQueue;
+    private long workTargetMicros = BUDGET_WARNING_MICROS;
+    private long workNanos = 0;
+    private int jobStepsLastTick = 0;
+    private boolean workMetricsActive = false;
+    private long workCompletedPublished = 0;
+    private long workFailedPublished = 0;
+    private final WorkMetrics workMetrics;
+    private final VillageMetrics villageMetrics;
+    private TickScheduler.Task tickTask;
     private long currentTick = 0;
+    private volatile long lastTickMicros = 0;
     
     // Performance budgets (microseconds)
     private static final long BUDGET_WARNING_MICROS = 8000; // 8ms p95 target
     private static final long BUDGET_CRITICAL_MICROS = 12000; // 12ms p99 target
     
+    // Default share of the tick given to per-village work (microseconds)
+    public static final long DEFAULT_VILLAGE_BUDGET_MICROS = BUDGET_WARNING_MICROS / 2;
+    
+    // Default worker count for the compute phase of parallel systems (0 = serial)
+    public static final int DEFAULT_PARALLELISM = Math.max(0, Runtime.getRuntime().availableProcessors() - 1);
+    
+    // Default breaker: degrade after 3 consecutive p99 overruns (run every 20 ticks),
+    // suspend after 10, recover after 20 healthy runs, probe every 30s (600 ticks)
+    public static final SystemCircuitBreaker.Settings DEFAULT_BREAKER_SETTINGS =
+            new SystemCircuitBreaker.Settings(BUDGET_CRITICAL_MICROS, 3, 10, 20, 20, 600);
+    
     public TickEngine(Plugin plugin) {
-        this.plugin = plugin;
-        this.logger = plugin.getLogger();
+        this(plugin, null);
+    }
+    
+    /**
+     * @param plugin Owning plugin
+     * @param metrics Metrics sink for circuit breaker transitions (nullable)
+     */
+    public TickEngine(Plugin plugin, Metrics metrics) {
+        this(plugin.getLogger(), metrics, new BukkitTickScheduler(plugin), TickClock.SYSTEM);
+    }
+    
+    /**
+     * Engine without a server (headless simulation, replay, benchmarks)
+     * 
+     * @param logger Logger for engine messages
+     * @param metrics Metrics sink (nullable)
+     * @param scheduler Drives {@link #tick()} once started (e.g. {@link ManualTickScheduler})
+     * @param clock Time source for budgets and timings
+     */
+    public TickEngine(Logger logger, Metrics metrics, TickScheduler scheduler, TickClock clock) {
+        this.logger = logger;
+        this.metrics = metrics;
+        this.scheduler = Objects.requireNonNull(scheduler, "scheduler cannot be null");
+        this.clock = Objects.requireNonNull(clock, "clock cannot be null");
+        this.breakers = new LinkedHashMap<>();
+        this.inputHandlers = new HashMap<>();
+        this.pendingInputs = new ConcurrentLinkedQueue<>();
         this.systems = new LinkedHashMap<>(); // Preserve registration order for determinism
-        this.tickTimeMicros = new ConcurrentHashMap<>();
+        this.systemAccess = new HashMap<>();
+        this.villageScheduler = new VillageTickScheduler(logger, clock);
+        this.workQueue = new WorkQueue(logger, clock);
+        this.workMetrics = metrics != null ? new WorkMetrics(metrics) : null;
+        this.villageMetrics = metrics != null ? new VillageMetrics(metrics) : null;
+        this.villageResources = metrics != null ? metrics.resources("villages") : null;
+        setVillageProfiling(true);
     }
     
     /**
@@ -48,17 +147,160 @@ public class TickEngine {
      * @param system Tickable system implementation
      */
     public void registerSystem(String name, TickableSystem system) {
-        if (systems.containsKey(name)) {
+        registerSystem(name, system, SystemAccess.exclusive());
+    }
+    
+    /**
+     * Register a tickable system with declared data access
+     * Systems whose access does not conflict may share a phase and run concurrently.
+     * 
+     * @param name Unique system identifier
+     * @param system Tickable system implementation
+     * @param access Declared reads/writes/dependencies (dependencies must already be registered)
+     */
+    public void registerSystem(String name, TickableSystem system, SystemAccess access) {
+        if (systems.containsKey(name) || villageScheduler.hasSystem(name)) {
             throw new IllegalArgumentException("System already registered: " + name);
         }
+        for (String dependency : access.getDependsOn()) {
+            if (!systems.containsKey(dependency)) {
+                throw new IllegalArgumentException("System " + name + " depends on unregistered system: " + dependency);
+            }
+        }
         systems.put(name, system);
-        tickTimeMicros.put(name, 0L);
+        systemAccess.put(name, access);
+        breakers.put(name, new SystemCircuitBreaker(name, breakerSettings));
+        schedule = null; // Rebuilt on next tick
         logger.info("Registered tickable system: " + name);
     }
     
+    /**
+     * Register a per-village system
+     * Villages are visited round-robin under the village budget; within a village,
+     * systems run in registration order for determinism
+     * 
+     * @param name Unique system identifier
+     * @param system Per-village system implementation
+     */
+    public void registerVillageSystem(String name, VillageTickableSystem system) {
+        if (systems.containsKey(name) || villageScheduler.hasSystem(name)) {
+            throw new IllegalArgumentException("System already registered: " + name);
+        }
+        villageScheduler.register(name, system);
+        villageSystemNanos = new long[villageScheduler.getSystemCount()];
+        logger.info("Registered village system: " + name);
+    }
+    
+    /**
+     * Register a two-phase per-village system
+     * Snapshot and apply run on the main thread; compute runs on the fork-join pool.
+     * Shares the round-robin schedule and registration order with other village systems.
+     * 
+     * @param name Unique system identifier
+     * @param system Parallel system implementation
+     */
+    public void registerParallelSystem(String name, ParallelTickableSystem<?, ?> system) {
+        if (systems.containsKey(name) || villageScheduler.hasSystem(name)) {
+            throw new IllegalArgumentException("System already registered: " + name);
+        }
+        villageScheduler.registerParallel(name, system);
+        villageSystemNanos = new long[villageScheduler.getSystemCount()];
+        logger.info("Registered parallel village system: " + name);
+    }
+    
+    /**
+     * Set the number of compute workers for parallel systems
+     * 0 runs the compute phase inline on the main thread (serial mode).
+     * Output is identical in both modes; only wall-clock time differs.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("parallelism must not be negative");
+        }
+        if (parallelism != this.parallelism) {
+            shutdownComputePool();
+        }
+        this.parallelism = parallelism;
+    }
+    
+    public int getParallelism() {
+        return parallelism;
+    }
+    
+    /**
+     * Set the number of villages processed per chunk when parallel systems are registered
+     * Larger chunks give the pool more work per fork; the budget is checked between chunks.
+     */
+    public void setVillageChunkSize(int chunkSize) {
+        villageScheduler.setChunkSize(chunkSize);
+    }
+    
+    /**
+     * Set the source of village IDs visited by village systems
+     * Queried once per round-robin pass, not every tick
+     */
+    public void setVillageSource(Supplier<? extends Collection<UUID>> villageSource) {
+        villageScheduler.setVillageSource(villageSource, null);
+    }
+    
+    /**
+     * Set the source of village IDs along with a version counter
+     * The village set is only re-read when the version changes, so passes over an
+     * unchanged set reuse the previous snapshot without allocating.
+     */
+    public void setVillageSource(Supplier<? extends Collection<UUID>> villageSource, LongSupplier version) {
+        villageScheduler.setVillageSource(villageSource, version);
+    }
+    
+    /**
+     * Set the level-of-detail policy deciding how often each village is ticked
+     * Default: every village at {@link LodTier#FULL}
+     */
+    public void setLodPolicy(VillageLodPolicy lodPolicy) {
+        villageScheduler.setLodPolicy(lodPolicy);
+    }
+    
+    /**
+     * Re-evaluate a village's LOD tier when it next comes up (e.g. a player moved near it)
+     * Main thread only.
+     */
+    public void invalidateLod(UUID villageId) {
+        villageScheduler.invalidateTier(villageId);
+    }
+    
+    /**
+     * Time every village visit and charge it to the village: per-village tick stats and
+     * budget warnings ({@link Metrics#recordVillageTickTime}) and the village cost profiler
+     * On by default when a metrics sink is set; costs two clock reads per village per system.
+     */
+    public void setVillageProfiling(boolean enabled) {
+        villageScheduler.setVisitListener(enabled && metrics != null ? this::recordVillageVisit : null);
+    }
+    
+    private void recordVillageVisit(UUID villageId, long nanos) {
+        metrics.recordVillageTickTime(villageId, nanos / 1000);
+        metrics.getVillageCosts().charge(villageId, VillageCostProfiler.Source.TICK, nanos);
+    }
+    
+    /**
+     * Set the per-tick budget for village systems (microseconds)
+     * The effective slice is also capped so the whole tick stays under the p95 target.
+     * At least one village is always visited per tick so passes make progress.
+     */
+    public void setVillageBudgetMicros(long budgetMicros) {
+        if (budgetMicros < 0) {
+            throw new IllegalArgumentException("budgetMicros must not be negative");
+        }
+        this.villageBudgetMicros = budgetMicros;
+    }
+    
+    public long getVillageBudgetMicros() {
+        return villageBudgetMicros;
+    }
+    
     /**
      * Start the tick engine
-     * Runs at 20 TPS (every tick = 50ms)
+     * Runs at 20 TPS (every tick = 50ms) on a server, or as driven by the scheduler
      */
     public void start() {
         if (tickTask != null && !tickTask.isCancelled()) {
@@ -66,12 +308,7 @@ public class TickEngine {
             return;
         }
         
-        tickTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                tick();
-            }
-        }.runTaskTimer(plugin, 0L, 1L); // Every server tick
+        tickTask = scheduler.scheduleEveryTick(this::tick);
         
         DebugFlags.logTick("engine started");
         logger.info("Tick engine started");
@@ -85,6 +322,9 @@ public class TickEngine {
             tickTask.cancel();
             tickTask = null;
         }
+        shutdownComputePool();
+        stopRecording();
+        workQueue.cancelAll();
         DebugFlags.logTick("engine stopped");
         logger.info("Tick engine stopped");
     }
@@ -98,60 +338,691 @@ public class TickEngine {
      */
     public void tick() {
         currentTick++;
-        long tickStart = System.nanoTime();
+        tickThread = Thread.currentThread();
+        try {
+            runTick();
+        } finally {
+            tickThread = null;
+        }
+    }
+    
+    private void runTick() {
+        long tickStart = clock.nanoTime();
+        applyInputs();
         
-        // Tick all systems in deterministic order
-        for (Map.Entry<String, TickableSystem> entry : systems.entrySet()) {
-            String systemName = entry.getKey();
-            TickableSystem system = entry.getValue();
-            
-            long systemStart = System.nanoTime();
-            try {
-                system.tick(currentTick);
-            } catch (Exception e) {
-                logger.severe("Error ticking system " + systemName + ": " + e.getMessage());
-                e.printStackTrace();
-            }
-            long systemEnd = System.nanoTime();
-            
-            long systemMicros = (systemEnd - systemStart) / 1000;
-            tickTimeMicros.put(systemName, systemMicros);
+        // Tick all systems phase by phase (barrier between phases)
+        TickSchedule current = getSchedule();
+        ForkJoinPool pool = parallelism > 0 ? getComputePool() : null;
+        for (int phase = 0; phase < current.getPhaseCount(); phase++) {
+            long phaseStart = clock.nanoTime();
+            runPhase(current, current.getPhase(phase), pool);
+            phaseNanos[phase] = clock.nanoTime() - phaseStart;
         }
         
-        long tickEnd = System.nanoTime();
+        tickVillages(tickStart);
+        runJobs(tickStart);
+        
+        long tickEnd = clock.nanoTime();
         long totalMicros = (tickEnd - tickStart) / 1000;
+        lastTickMicros = totalMicros;
+        if (metrics != null) {
+            recordTimings(totalMicros);
+        }
         
         // Budget violation warnings
         if (totalMicros > BUDGET_CRITICAL_MICROS) {
             logger.warning(String.format(
-                "CRITICAL: Tick %d took %.2fms (budget: %.2fms p99). Systems: %s",
+                "CRITICAL: Tick %d took %.2fms (budget: %.2fms p99). Systems: %s (villages: %d ticked, %d pending)",
                 currentTick,
                 totalMicros / 1000.0,
                 BUDGET_CRITICAL_MICROS / 1000.0,
-                formatSystemTimes()
+                formatSystemTimes(),
+                villagesTickedLastTick,
+                villageScheduler.getBacklog()
             ));
-        } else if (totalMicros > BUDGET_WARNING_MICROS) {
+        } else if (totalMicros > BUDGET_WARNING_MICROS && logger.isLoggable(Level.FINE)) {
             logger.fine(String.format(
-                "WARNING: Tick %d took %.2fms (budget: %.2fms p95). Systems: %s",
+                "WARNING: Tick %d took %.2fms (budget: %.2fms p95). Systems: %s (villages: %d ticked, %d pending)",
                 currentTick,
                 totalMicros / 1000.0,
                 BUDGET_WARNING_MICROS / 1000.0,
-                formatSystemTimes()
+                formatSystemTimes(),
+                villagesTickedLastTick,
+                villageScheduler.getBacklog()
             ));
         }
     }
     
+    /**
+     * Feed this tick's timings into the metrics histograms (handles cached, no allocation)
+     * Systems skipped by their breaker (0ns) are not recorded. Thread CPU time and allocated
+     * bytes per system are recorded alongside (-1 while {@link ThreadResources} is off).
+     */
+    private void recordTimings(long totalMicros) {
+        if (tickStats == null) {
+            tickStats = metrics.getOrCreateTickTimeStats("tick");
+            villagePhaseStats = metrics.getOrCreateTickTimeStats("villages");
+        }
+        tickStats.record(totalMicros);
+        
+        long[] nanos = systemNanos;
+        Metrics.TickTimeStats[] stats = systemStats;
+        Metrics.ResourceStats[] resources = systemResources;
+        for (int i = 0; i < nanos.length && i < stats.length; i++) {
+            if (nanos[i] > 0) {
+                stats[i].record(nanos[i] / 1000);
+                resources[i].record(systemCpuNanos[i], systemAllocBytes[i]);
+            }
+        }
+        
+        if (villagesTickedLastTick > 0) {
+            villagePhaseStats.record(villagePhaseNanos / 1000);
+            if (villageSystemStats.length != villageSystemNanos.length) {
+                villageSystemStats = new Metrics.TickTimeStats[villageSystemNanos.length];
+                for (int i = 0; i < villageSystemStats.length; i++) {
+                    villageSystemStats[i] = metrics.getOrCreateTickTimeStats(villageScheduler.getSystemName(i));
+                }
+            }
+            for (int i = 0; i < villageSystemStats.length; i++) {
+                villageSystemStats[i].record(villageSystemNanos[i] / 1000);
+            }
+        }
+    }
+    
+    /**
+     * Apply inputs submitted since the last tick, recording them if enabled
+     */
+    private void applyInputs() {
+        int applied = 0;
+        TickInput input;
+        while ((input = pendingInputs.poll()) != null) {
+            applied++;
+            if (recorder != null) {
+                try {
+                    recorder.record(currentTick, input);
+                } catch (IOException e) {
+                    logger.severe("Failed to record tick input, recording stopped: " + e.getMessage());
+                    e.printStackTrace();
+                    closeRecorderQuietly();
+                }
+            }
+            
+            InputHandler handler = inputHandlers.get(input.getType());
+            if (handler == null) {
+                logger.warning("No handler registered for tick input type: " + input.getType());
+                continue;
+            }
+            try {
+                handler.handle(input, currentTick);
+            } catch (Exception e) {
+                logger.severe("Error applying tick input " + input.getType() + ": " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+        inputsAppliedLastTick = applied;
+    }
+    
+    /**
+     * Register the handler applying inputs of one type
+     * 
+     * @param type Input type (e.g. "economy.trade")
+     * @param handler Applies the input's state changes on the main thread
+     */
+    public void registerInputHandler(String type, InputHandler handler) {
+        if (inputHandlers.putIfAbsent(type, Objects.requireNonNull(handler, "handler cannot be null")) != null) {
+            throw new IllegalArgumentException("Input handler already registered: " + type);
+        }
+        logger.info("Registered tick input handler: " + type);
+    }
+    
+    /**
+     * Queue an external input for the start of the next tick
+     * Safe to call from any thread. Inputs are external by definition: systems and input
+     * handlers must not submit inputs while ticking, since replay would apply them twice.
+     */
+    public void submitInput(TickInput input) {
+        Objects.requireNonNull(input, "input cannot be null");
+        if (tickThread != null && Thread.currentThread() == tickThread) {
+            throw new IllegalStateException("Tick inputs cannot be submitted from inside a tick: " + input.getType());
+        }
+        pendingInputs.add(input);
+    }
+    
+    /**
+     * Start recording applied inputs to a binary log (see {@link TickInputLog})
+     * The log starts at the current tick; replaying it re-drives the following ticks.
+     */
+    public void startRecording(OutputStream out) throws IOException {
+        startRecording(out, Collections.emptyList());
+    }
+    
+    /**
+     * Start recording, writing a state snapshot ahead of the first tick's inputs
+     * The snapshot inputs are only logged, not applied: the live state already holds them.
+     * A headless replay registers handlers that load them into empty services.
+     */
+    public void startRecording(OutputStream out, Collection<TickInput> snapshot) throws IOException {
+        if (recorder != null) {
+            throw new IllegalStateException("Already recording");
+        }
+        TickInputLog.Writer writer = new TickInputLog.Writer(out, currentTick);
+        try {
+            for (TickInput input : snapshot) {
+                writer.record(currentTick + 1, input);
+            }
+        } catch (IOException | RuntimeException e) {
+            writer.close();
+            throw e;
+        }
+        recorder = writer;
+        logger.info("[TICK] Input recording started at tick " + currentTick +
+                (snapshot.isEmpty() ? "" : " (" + snapshot.size() + " snapshot inputs)"));
+    }
+    
+    /**
+     * Finish the recording at the current tick
+     * 
+     * @return Number of inputs recorded, or -1 if not recording
+     */
+    public long stopRecording() {
+        if (recorder == null) {
+            return -1;
+        }
+        long records = recorder.getRecordCount();
+        try {
+            recorder.finish(currentTick);
+            logger.info("[TICK] Input recording stopped at tick " + currentTick + " (" + records + " inputs)");
+        } catch (IOException e) {
+            logger.severe("Failed to finish tick input recording: " + e.getMessage());
+            e.printStackTrace();
+        }
+        recorder = null;
+        return records;
+    }
+    
+    private void closeRecorderQuietly() {
+        try {
+            recorder.close();
+        } catch (IOException ignored) {
+            // Already failing; the log stays readable up to the last whole record
+        }
+        recorder = null;
+    }
+    
+    public boolean isRecording() {
+        return recorder != null;
+    }
+    
+    /**
+     * Get number of inputs applied at the start of the last tick
+     */
+    public int getInputsAppliedLastTick() {
+        return inputsAppliedLastTick;
+    }
+    
+    public int getPendingInputCount() {
+        return pendingInputs.size();
+    }
+    
+    /**
+     * Position the tick counter (replay only, before the first replayed tick)
+     */
+    void resetTick(long tick) {
+        this.currentTick = tick;
+    }
+    
+    /**
+     * Run one phase: concurrent systems on the pool, main-thread systems inline, then join
+     */
+    private void runPhase(TickSchedule current, int[] members, ForkJoinPool pool) {
+        if (pool == null || members.length == 1) {
+            for (int index : members) {
+                runSystem(current, index);
+            }
+            return;
+        }
+        
+        // Tasks are created once per schedule and reinitialized, so forking does not allocate
+        for (int index : members) {
+            if (current.isConcurrent(index)) {
+                SystemTask task = systemTasks[index];
+                task.reinitialize();
+                pool.execute(task);
+            }
+        }
+        for (int index : members) {
+            if (!current.isConcurrent(index)) {
+                runSystem(current, index);
+            }
+        }
+        for (int index : members) {
+            if (current.isConcurrent(index)) {
+                systemTasks[index].join();
+            }
+        }
+    }
+    
+    private void runSystem(TickSchedule current, int index) {
+        SystemCircuitBreaker breaker = scheduleBreakers[index];
+        if (breakersEnabled && !breaker.shouldRun(currentTick)) {
+            systemNanos[index] = 0;
+            return;
+        }
+        
+        long cpuStart = ThreadResources.cpuNanos();
+        long allocStart = ThreadResources.allocatedBytes();
+        long systemStart = clock.nanoTime();
+        boolean failed = false;
+        try {
+            current.getSystem(index).tick(currentTick);
+        } catch (Exception e) {
+            failed = true;
+            logger.severe("Error ticking system " + current.getName(index) + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+        long elapsed = clock.nanoTime() - systemStart;
+        systemNanos[index] = elapsed;
+        // Measured on the thread that ran the system (main or compute worker)
+        systemCpuNanos[index] = cpuStart >= 0 ? ThreadResources.cpuNanos() - cpuStart : -1L;
+        systemAllocBytes[index] = allocStart >= 0 ? ThreadResources.allocatedBytes() - allocStart : -1L;
+        
+        if (breakersEnabled && breaker.record(currentTick, elapsed / 1000, failed)) {
+            onBreakerTransition(breaker);
+        }
+    }
+    
+    /**
+     * Log and publish a breaker state change (may run on a compute worker)
+     */
+    private void onBreakerTransition(SystemCircuitBreaker breaker) {
+        String name = breaker.getSystemName();
+        SystemCircuitBreaker.State state = breaker.getState();
+        String detail;
+        if (state == SystemCircuitBreaker.State.CLOSED) {
+            detail = "healthy for " + breakerSettings.getRecoverAfter() + " runs, back to full rate";
+        } else if (breaker.getPreviousState() == SystemCircuitBreaker.State.SUSPENDED) {
+            detail = "probe healthy, running every " + breakerSettings.getDegradedInterval() + " ticks";
+        } else {
+            detail = String.format("%d consecutive overrun(s), last %.2fms; %s",
+                    breaker.getConsecutiveOverruns(), breaker.getLastOverrunMicros() / 1000.0,
+                    state == SystemCircuitBreaker.State.SUSPENDED
+                            ? "next probe at tick " + breaker.getNextRunTick()
+                            : "running every " + breakerSettings.getDegradedInterval() + " ticks");
+        }
+        String message = "[TICK] Circuit breaker " + name + ": " + breaker.getPreviousState() + " -> " + state +
+                " (" + detail + ")";
+        if (state == SystemCircuitBreaker.State.CLOSED) {
+            logger.info(message);
+        } else {
+            logger.warning(message);
+        }
+        
+        if (metrics != null) {
+            metrics.increment("tick.breaker.transitions");
+            metrics.increment("tick.breaker." + name + "." + state.name().toLowerCase());
+            metrics.setGauge("tick.breaker." + name + ".state", state.ordinal());
+            publishOpenBreakers();
+        }
+    }
+    
+    private void publishOpenBreakers() {
+        int degraded = 0;
+        int suspended = 0;
+        for (SystemCircuitBreaker breaker : breakers.values()) {
+            if (breaker.getState() == SystemCircuitBreaker.State.DEGRADED) {
+                degraded++;
+            } else if (breaker.getState() == SystemCircuitBreaker.State.SUSPENDED) {
+                suspended++;
+            }
+        }
+        metrics.setGauge("tick.breaker.degraded", degraded);
+        metrics.setGauge("tick.breaker.suspended", suspended);
+    }
+    
+    /**
+     * Enable or disable circuit breakers (disabled: every system runs every tick)
+     */
+    public void setBreakersEnabled(boolean enabled) {
+        this.breakersEnabled = enabled;
+    }
+    
+    public boolean isBreakersEnabled() {
+        return breakersEnabled;
+    }
+    
+    /**
+     * Replace breaker thresholds for all systems (current states are kept)
+     */
+    public void setBreakerSettings(SystemCircuitBreaker.Settings settings) {
+        this.breakerSettings = Objects.requireNonNull(settings, "settings cannot be null");
+        for (SystemCircuitBreaker breaker : breakers.values()) {
+            breaker.setSettings(settings);
+        }
+    }
+    
+    public SystemCircuitBreaker.Settings getBreakerSettings() {
+        return breakerSettings;
+    }
+    
+    /**
+     * Get circuit breakers of global systems, in registration order (main thread)
+     */
+    public Collection<SystemCircuitBreaker> getBreakers() {
+        return Collections.unmodifiableCollection(breakers.values());
+    }
+    
+    /**
+     * Force a system's breaker closed (admin override)
+     * 
+     * @return false if no such system is registered
+     */
+    public boolean resetBreaker(String name) {
+        SystemCircuitBreaker breaker = breakers.get(name);
+        if (breaker == null) {
+            return false;
+        }
+        if (breaker.reset()) {
+            logger.info("[TICK] Circuit breaker " + name + " reset by operator (was " + breaker.getPreviousState() + ")");
+            if (metrics != null) {
+                metrics.increment("tick.breaker.resets");
+                metrics.setGauge("tick.breaker." + name + ".state", breaker.getState().ordinal());
+                publishOpenBreakers();
+            }
+        }
+        return true;
+    }
+    
+    private TickSchedule getSchedule() {
+        if (schedule == null) {
+            schedule = TickSchedule.build(systems, systemAccess);
+            systemNanos = new long[schedule.getSystemCount()];
+            systemCpuNanos = new long[schedule.getSystemCount()];
+            systemAllocBytes = new long[schedule.getSystemCount()];
+            phaseNanos = new long[schedule.getPhaseCount()];
+            systemTasks = new SystemTask[schedule.getSystemCount()];
+            scheduleBreakers = new SystemCircuitBreaker[schedule.getSystemCount()];
+            systemStats = new Metrics.TickTimeStats[schedule.getSystemCount()];
+            systemResources = new Metrics.ResourceStats[schedule.getSystemCount()];
+            for (int i = 0; i < systemTasks.length; i++) {
+                systemTasks[i] = new SystemTask(schedule, i);
+                scheduleBreakers[i] = breakers.get(schedule.getName(i));
+                if (metrics != null) {
+                    systemStats[i] = metrics.getOrCreateTickTimeStats(schedule.getName(i));
+                    systemResources[i] = metrics.resources(schedule.getName(i));
+                }
+            }
+            DebugFlags.logTick("schedule rebuilt: " + schedule.getPhaseCount() + " phase(s), " +
+                    schedule.getSystemCount() + " system(s)");
+        }
+        return schedule;
+    }
+    
+    /**
+     * Dump the computed phase schedule with last-tick timings (debug/admin)
+     */
+    public String describeSchedule() {
+        TickSchedule current = getSchedule();
+        long[] systemMicros = new long[systemNanos.length];
+        for (int i = 0; i < systemMicros.length; i++) {
+            systemMicros[i] = systemNanos[i] / 1000;
+        }
+        StringBuilder sb = new StringBuilder(current.describe(systemMicros, getPhaseTimeMicros()));
+        if (villageScheduler.getSystemCount() > 0) {
+            sb.append(String.format("%nvillage phase [%.2fms]:", villagePhaseNanos / 1_000_000.0));
+            for (int i = 0; i < villageScheduler.getSystemCount(); i++) {
+                String name = villageScheduler.getSystemName(i);
+                sb.append(String.format(" %s(%.2fms)", name, villageSystemNanos[i] / 1_000_000.0));
+            }
+            sb.append(String.format(" villages=%d pending=%d", villagesTickedLastTick, villageScheduler.getBacklog()));
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Get last measured wall time per global phase (microseconds)
+     */
+    public long[] getPhaseTimeMicros() {
+        long[] micros = new long[phaseNanos.length];
+        for (int i = 0; i < micros.length; i++) {
+            micros[i] = phaseNanos[i] / 1000;
+        }
+        return micros;
+    }
+    
+    /**
+     * Run the per-village slice for this tick
+     * Slice = min(village budget, time left before the p95 warning threshold)
+     */
+    private void tickVillages(long tickStart) {
+        if (villageScheduler.getSystemCount() == 0) {
+            villagesTickedLastTick = 0;
+            villagePhaseNanos = 0;
+            return;
+        }
+        
+        long villageStart = clock.nanoTime();
+        long usedMicros = (clock.nanoTime() - tickStart) / 1000;
+        long sliceMicros = Math.max(0, Math.min(villageBudgetMicros, BUDGET_WARNING_MICROS - usedMicros));
+        long deadline = clock.nanoTime() + sliceMicros * 1000;
+        
+        Arrays.fill(villageSystemNanos, 0L);
+        villageScheduler.setPool(parallelism > 0 ? getComputePool() : null);
+        long cpuStart = ThreadResources.cpuNanos();
+        long allocStart = ThreadResources.allocatedBytes();
+        villagesTickedLastTick = villageScheduler.run(currentTick, deadline, villageSystemNanos);
+        
+        villagePhaseNanos = clock.nanoTime() - villageStart;
+        publishVillageMetrics();
+        // Main thread only: the compute phase of parallel systems is charged to the pool workers
+        if (villageResources != null && villagesTickedLastTick > 0) {
+            villageResources.recordSince(cpuStart, allocStart);
+        }
+        
+        if (DebugFlags.isDebugTick() && villagesTickedLastTick > 0 && villageScheduler.getBacklog() == 0) {
+            DebugFlags.logTick("village pass " + villageScheduler.getPassesCompleted() + " complete at tick " + currentTick);
+        }
+    }
+    
+    /**
+     * Step queued jobs with whatever is left of the tick before the work target
+     */
+    private void runJobs(long tickStart) {
+        if (workQueue.isEmpty()) {
+            workNanos = 0;
+            jobStepsLastTick = 0;
+            if (workMetricsActive) {
+                publishWorkMetrics(); // Drop depth gauges back to zero once
+                workMetricsActive = false;
+            }
+            return;
+        }
+        
+        long usedMicros = (clock.nanoTime() - tickStart) / 1000;
+        long sliceMicros = Math.max(0, workTargetMicros - usedMicros);
+        long cpuStart = ThreadResources.cpuNanos();
+        long allocStart = ThreadResources.allocatedBytes();
+        jobStepsLastTick = workQueue.run(currentTick, clock.nanoTime() + sliceMicros * 1000);
+        workNanos = workQueue.getNanosLastRun();
+        if (workMetrics != null && jobStepsLastTick > 0) {
+            workMetrics.resources.recordSince(cpuStart, allocStart);
+        }
+        
+        workMetricsActive = true;
+        publishWorkMetrics();
+    }
+    
+    private void publishWorkMetrics() {
+        if (workMetrics == null) {
+            return;
+        }
+        workMetrics.steps.add(jobStepsLastTick);
+        long completed = workQueue.getCompletedTotal();
+        long failed = workQueue.getFailedTotal();
+        if (completed != workCompletedPublished) {
+            workMetrics.completed.add(completed - workCompletedPublished);
+            workCompletedPublished = completed;
+        }
+        if (failed != workFailedPublished) {
+            workMetrics.failed.add(failed - workFailedPublished);
+            workFailedPublished = failed;
+        }
+        workMetrics.queueDepth.set(workQueue.getDepth());
+        workMetrics.oldestAge.set(workQueue.getOldestAge(currentTick));
+        workMetrics.stepsLastTick.set(jobStepsLastTick);
+        if (jobStepsLastTick > 0) {
+            workMetrics.time.record(workNanos / 1000);
+        }
+    }
+    
+    /**
+     * Publish the scheduler state as gauges so other threads never read the scheduler
+     */
+    private void publishVillageMetrics() {
+        if (villageMetrics == null) {
+            return;
+        }
+        villageMetrics.backlog.set(villageScheduler.getBacklog());
+        for (int i = 0; i < villageMetrics.tiers.length; i++) {
+            villageMetrics.tiers[i].set(villageScheduler.getTierCount(i));
+        }
+    }
+    
+    /**
+     * Village scheduler metric handles, published every tick
+     */
+    private static final class VillageMetrics {
+        final Metrics.Gauge backlog;
+        final Metrics.Gauge[] tiers;
+        
+        VillageMetrics(Metrics metrics) {
+            backlog = metrics.gauge("village.backlog");
+            LodTier[] values = LodTier.values();
+            tiers = new Metrics.Gauge[values.length];
+            for (LodTier tier : values) {
+                tiers[tier.ordinal()] = metrics.gauge("village.lod." + tier.name().toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+    
+    /**
+     * Work queue metric handles, published every tick
+     */
+    private static final class WorkMetrics {
+        final Metrics.Counter steps;
+        final Metrics.Counter completed;
+        final Metrics.Counter failed;
+        final Metrics.Gauge queueDepth;
+        final Metrics.Gauge oldestAge;
+        final Metrics.Gauge stepsLastTick;
+        final Metrics.TickTimeStats time;
+        final Metrics.ResourceStats resources;
+        
+        WorkMetrics(Metrics metrics) {
+            steps = metrics.counter("tick.work.steps");
+            completed = metrics.counter("tick.work.completed");
+            failed = metrics.counter("tick.work.failed");
+            queueDepth = metrics.gauge("tick.work.queue_depth");
+            oldestAge = metrics.gauge("tick.work.oldest_age_ticks");
+            stepsLastTick = metrics.gauge("tick.work.steps_last_tick");
+            time = metrics.timer("work");
+            resources = metrics.resources("work");
+        }
+    }
+    
+    /**
+     * Submit a resumable job to the work queue
+     * 
+     * Jobs are stepped on the main thread after the global systems and the village slice,
+     * while the tick is under the work target (default: the 8ms p95 target). At least one
+     * step runs per tick while jobs are queued. Safe to call from any thread; the job is
+     * picked up at the next tick.
+     * 
+     * @param name Job name for logs and status output
+     * @param job Resumable job
+     * @return Handle for progress, cancellation and completion
+     */
+    public JobHandle submitJob(String name, TickJob job) {
+        JobHandle handle = new JobHandle(name, job, currentTick);
+        workQueue.submit(handle);
+        DebugFlags.logTick("job queued: " + name);
+        return handle;
+    }
+    
+    /**
+     * Queued and running jobs, in round-robin order
+     */
+    public List<JobHandle> getJobs() {
+        return workQueue.getJobs();
+    }
+    
+    public int getJobQueueDepth() {
+        return workQueue.getDepth();
+    }
+    
+    public int getJobStepsLastTick() {
+        return jobStepsLastTick;
+    }
+    
+    /**
+     * Set the tick time (microseconds) up to which queued jobs may run
+     * Jobs only use what the systems and village slice left of it.
+     */
+    public void setWorkTargetMicros(long targetMicros) {
+        if (targetMicros < 0) {
+            throw new IllegalArgumentException("targetMicros must not be negative");
+        }
+        this.workTargetMicros = targetMicros;
+    }
+    
+    public long getWorkTargetMicros() {
+        return workTargetMicros;
+    }
+    
+    /**
+     * Lazily create the compute pool (daemon workers, never touch Bukkit state)
+     */
+    private ForkJoinPool getComputePool() {
+        if (computePool == null) {
+            computePool = new ForkJoinPool(parallelism, pool -> {
+                ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                worker.setName("VillageOverhaul-Compute-" + worker.getPoolIndex());
+                worker.setDaemon(true);
+                return worker;
+            }, null, false);
+        }
+        return computePool;
+    }
+    
+    private void shutdownComputePool() {
+        if (computePool != null) {
+            computePool.shutdown();
+            try {
+                computePool.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            computePool = null;
+        }
+    }
+    
     /**
      * Format system tick times for logging
      */
     private String formatSystemTimes() {
         StringBuilder sb = new StringBuilder();
-        for (Map.Entry<String, Long> entry : tickTimeMicros.entrySet()) {
+        for (Map.Entry<String, Long> entry : getTickTimeMicros().entrySet()) {
             sb.append(String.format("%s=%.2fms ", entry.getKey(), entry.getValue() / 1000.0));
         }
         return sb.toString().trim();
     }
     
+    /**
+     * Total engine time of the last completed tick (microseconds)
+     */
+    public long getLastTickMicros() {
+        return lastTickMicros;
+    }
+    
     /**
      * Get current tick number
      */
@@ -160,10 +1031,83 @@ public class TickEngine {
     }
     
     /**
-     * Get tick time metrics
+     * Get number of villages visited during the last tick
+     */
+    public int getVillagesTickedLastTick() {
+        return villagesTickedLastTick;
+    }
+    
+    /**
+     * Get number of villages still pending in the current round-robin pass
+     */
+    public int getVillageBacklog() {
+        return villageScheduler.getBacklog();
+    }
+    
+    /**
+     * Get number of villages skipped by the LOD policy during the last tick
+     */
+    public int getVillagesSkippedLastTick() {
+        return villageScheduler.getSkippedLastRun();
+    }
+    
+    /**
+     * Get number of known villages per LOD tier (indexed by {@link LodTier#ordinal()})
+     */
+    public int[] getLodTierCounts() {
+        return villageScheduler.getTierCounts();
+    }
+    
+    /**
+     * Get tick time metrics (microseconds per system, last tick)
+     * Snapshot built on request; the tick loop only writes the flat timing arrays.
      */
     public Map<String, Long> getTickTimeMicros() {
-        return new HashMap<>(tickTimeMicros);
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        TickSchedule current = schedule;
+        if (current != null) {
+            long[] nanos = systemNanos;
+            for (int i = 0; i < current.getSystemCount() && i < nanos.length; i++) {
+                snapshot.put(current.getName(i), nanos[i] / 1000);
+            }
+        }
+        for (String name : systems.keySet()) {
+            snapshot.putIfAbsent(name, 0L); // Registered since the last tick
+        }
+        long[] villageNanos = villageSystemNanos;
+        for (int i = 0; i < villageNanos.length; i++) {
+            snapshot.put(villageScheduler.getSystemName(i), villageNanos[i] / 1000);
+        }
+        if (workNanos > 0) {
+            snapshot.put("jobs", workNanos / 1000);
+        }
+        return snapshot;
+    }
+    
+    /**
+     * Reusable fork-join task running one concurrent global system
+     */
+    private final class SystemTask extends RecursiveAction {
+        private final TickSchedule owner;
+        private final int index;
+        
+        SystemTask(TickSchedule owner, int index) {
+            this.owner = owner;
+            this.index = index;
+        }
+        
+        @Override
+        protected void compute() {
+            runSystem(owner, index);
+        }
+    }
+    
+    /**
+     * Applies one type of external input at a tick boundary
+     * MUST be deterministic given the input and current state
+     */
+    public interface InputHandler {
+        void handle(TickInput input, long tick);
     }
     
     /**
@@ -178,4 +1122,140 @@ public class TickEngine {
          */
         void tick(long tick);
     }
+    
+    /**
+     * Declared data access of a global tick system
+     * 
+     * Resources are free-form names (e.g. "projects", "npc.appearance"). Two systems conflict
+     * when one writes a resource the other reads or writes; conflicting systems run in
+     * registration order in separate phases. Only systems marked concurrent() are run off the
+     * main thread, so they MUST NOT call the Bukkit API.
+     */
+    public static final class SystemAccess {
+        private final Set<String> reads = new LinkedHashSet<>();
+        private final Set<String> writes = new LinkedHashSet<>();
+        private final Set<String> dependsOn = new LinkedHashSet<>();
+        private boolean concurrent = false;
+        private boolean exclusive = false;
+        
+        /**
+         * Undeclared access: conflicts with every other system (strict registration order)
+         */
+        public static SystemAccess exclusive() {
+            SystemAccess access = new SystemAccess();
+            access.exclusive = true;
+            return access;
+        }
+        
+        public SystemAccess reads(String... resources) {
+            reads.addAll(Arrays.asList(resources));
+            return this;
+        }
+        
+        public SystemAccess writes(String... resources) {
+            writes.addAll(Arrays.asList(resources));
+            return this;
+        }
+        
+        public SystemAccess dependsOn(String... systemNames) {
+            dependsOn.addAll(Arrays.asList(systemNames));
+            return this;
+        }
+        
+        /**
+         * Mark the system safe to run on a worker thread alongside its phase
+         */
+        public SystemAccess concurrent() {
+            this.concurrent = true;
+            return this;
+        }
+        
+        public Set<String> getReads() { return Collections.unmodifiableSet(reads); }
+        public Set<String> getWrites() { return Collections.unmodifiableSet(writes); }
+        public Set<String> getDependsOn() { return Collections.unmodifiableSet(dependsOn); }
+        public boolean isConcurrent() { return concurrent; }
+        public boolean isExclusive() { return exclusive; }
+    }
+    
+    /**
+     * Interface for systems that do per-village work
+     * Called for each village when the round-robin scheduler reaches it
+     */
+    public interface VillageTickableSystem {
+        /**
+         * Called at most once per tick for a given village
+         * MUST be deterministic; use elapsedTicks to amortize work missed between visits.
+         * After a village thaws from {@link LodTier#FROZEN}, elapsedTicks covers the whole
+         * frozen span, so catch-up should be closed-form rather than a per-tick loop.
+         * 
+         * @param villageId Village being ticked
+         * @param tick Current tick number
+         * @param elapsedTicks Ticks since this village was last visited (1 on first visit)
+         */
+        void tickVillage(UUID villageId, long tick, long elapsedTicks);
+    }
+    
+    /**
+     * Two-phase per-village system: parallel compute, serial apply
+     * 
+     * Contract:
+     * - snapshot() runs on the main thread and MUST return an immutable view of the inputs
+     * - compute() runs on a worker thread and MUST be a pure function of its arguments
+     *   (no Bukkit API, no shared mutable state)
+     * - apply() runs on the main thread, in ascending village-UUID order within a chunk
+     * 
+     * A null snapshot or result skips the village for this tick.
+     * 
+     * @param <S> Snapshot type
+     * @param <R> Result (mutation set) type
+     */
+    public interface ParallelTickableSystem<S, R> {
+        S snapshot(UUID villageId, long tick);
+        
+        R compute(UUID villageId, S snapshot, long tick, long elapsedTicks);
+        
+        void apply(UUID villageId, R result, long tick);
+    }
+    
+    /**
+     * Village tick level of detail
+     * Interval is the minimum number of ticks between visits (0 = not ticked)
+     */
+    public enum LodTier {
+        FULL(1),
+        REDUCED(20),
+        DISTANT(100),
+        FROZEN(0);
+        
+        private final int interval;
+        
+        LodTier(int interval) {
+            this.interval = interval;
+        }
+        
+        public int getInterval() {
+            return interval;
+        }
+    }
+    
+    /**
+     * Decides the LOD tier of a village
+     * 
+     * Evaluated on the main thread when a village is reached in the round-robin pass and
+     * its interval has elapsed, the generation changed or {@link #invalidateLod} was called
+     * for it. Implementations should be cheap (index lookups, no distance scans over all
+     * villages).
+     */
+    public interface VillageLodPolicy {
+        LodTier tierOf(UUID villageId);
+        
+        /**
+         * Counter bumped whenever inputs to tierOf() change for every village (e.g. new
+         * radii). All cached tiers are re-evaluated early when it changes; changes that only
+         * affect a few villages should go through {@link TickEngine#invalidateLod} instead.
+         */
+        default long getGeneration() {
+            return 0L;
+        }
+    }
 }
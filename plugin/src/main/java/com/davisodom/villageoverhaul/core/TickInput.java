@@ -0,0 +1,214 @@
+package com.davisodom.villageoverhaul.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * External input applied by the tick engine at a tick boundary
+ *
+ * Inputs (trades, commands, spawn requests, ...) are submitted to the engine and handled
+ * at the start of the next tick in submission order, so that a recording of inputs per
+ * tick is enough to re-drive the same state changes offline (see {@link TickInputLog}).
+ *
+ * The payload is an opaque byte string; {@link #builder(String)} and {@link #reader()}
+ * provide a compact varint encoding for the common field types.
+ */
+public final class TickInput {
+
+    private final String type;
+    private final byte[] payload;
+
+    public TickInput(String type, byte[] payload) {
+        this.type = Objects.requireNonNull(type, "type cannot be null");
+        this.payload = Objects.requireNonNull(payload, "payload cannot be null");
+    }
+
+    public static Builder builder(String type) {
+        return new Builder(type);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Raw payload bytes (not copied; do not modify)
+     */
+    byte[] getPayload() {
+        return payload;
+    }
+
+    public int getPayloadSize() {
+        return payload.length;
+    }
+
+    /**
+     * Read the payload fields in the order they were written
+     */
+    public Reader reader() {
+        return new Reader(payload);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TickInput)) return false;
+        TickInput other = (TickInput) o;
+        return type.equals(other.type) && Arrays.equals(payload, other.payload);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + Arrays.hashCode(payload);
+    }
+
+    @Override
+    public String toString() {
+        return "TickInput{" + type + ", " + payload.length + " bytes}";
+    }
+
+    /**
+     * Fluent payload encoder
+     */
+    public static final class Builder {
+        private final String type;
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(32);
+
+        private Builder(String type) {
+            this.type = type;
+        }
+
+        public Builder varLong(long value) {
+            writeVarLong(out, value);
+            return this;
+        }
+
+        public Builder bool(boolean value) {
+            out.write(value ? 1 : 0);
+            return this;
+        }
+
+        public Builder float64(double value) {
+            writeFixedLong(Double.doubleToRawLongBits(value));
+            return this;
+        }
+
+        public Builder uuid(UUID value) {
+            writeFixedLong(value.getMostSignificantBits());
+            writeFixedLong(value.getLeastSignificantBits());
+            return this;
+        }
+
+        public Builder string(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(out, bytes.length);
+            out.write(bytes, 0, bytes.length);
+            return this;
+        }
+
+        public Builder strings(String[] values) {
+            writeVarLong(out, values.length);
+            for (String value : values) {
+                string(value);
+            }
+            return this;
+        }
+
+        private void writeFixedLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                out.write((int) (value >>> shift));
+            }
+        }
+
+        public TickInput build() {
+            return new TickInput(type, out.toByteArray());
+        }
+    }
+
+    /**
+     * Sequential payload decoder
+     */
+    public static final class Reader {
+        private final byte[] data;
+        private int position = 0;
+
+        private Reader(byte[] data) {
+            this.data = data;
+        }
+
+        public long varLong() {
+            long zigzag = 0;
+            int shift = 0;
+            while (true) {
+                int b = next();
+                zigzag |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+                shift += 7;
+            }
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        public boolean bool() {
+            return next() != 0;
+        }
+
+        public double float64() {
+            return Double.longBitsToDouble(fixedLong());
+        }
+
+        public UUID uuid() {
+            return new UUID(fixedLong(), fixedLong());
+        }
+
+        public String string() {
+            int length = (int) varLong();
+            if (length < 0 || position + length > data.length) {
+                throw new IllegalStateException("Malformed input payload");
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        public String[] strings() {
+            String[] values = new String[(int) varLong()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = string();
+            }
+            return values;
+        }
+
+        private long fixedLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | next();
+            }
+            return value;
+        }
+
+        private int next() {
+            if (position >= data.length) {
+                throw new IllegalStateException("Input payload exhausted", new EOFException());
+            }
+            return data[position++] & 0xFF;
+        }
+    }
+
+    /**
+     * Zigzag varint (small magnitudes of either sign take one byte)
+     */
+    static void writeVarLong(ByteArrayOutputStream out, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.write((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.write((int) zigzag);
+    }
+}
@@ -0,0 +1,242 @@
+package com.davisodom.villageoverhaul.core;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary log of tick inputs
+ *
+ * Layout (all integers are unsigned LEB128 varints unless noted):
+ * <pre>
+ * header  := magic(int32 "VOTL") version(u8) startTick
+ * record  := tickDelta typeIndex [typeName] payloadLength payload
+ * end     := tickDelta 0
+ * </pre>
+ * tickDelta is relative to the previous record (or startTick). Type names are interned:
+ * the first record of a type uses the next free index (starting at 1) followed by the
+ * UTF-8 name; later records only carry the index. Index 0 marks the end of the recording
+ * at the final tick. A log truncated by a crash is still readable up to the last whole
+ * record.
+ */
+public final class TickInputLog {
+
+    static final int MAGIC = 0x564F544C; // "VOTL"
+    static final int VERSION = 1;
+    static final int MAX_TYPE_NAME_BYTES = 1024;
+    static final int MAX_PAYLOAD_BYTES = 16 * 1024 * 1024;
+
+    private TickInputLog() {
+    }
+
+    /**
+     * Streaming log writer (not thread-safe; used from the main thread by the engine)
+     */
+    public static final class Writer implements Closeable {
+        private final DataOutputStream out;
+        private final Map<String, Integer> typeIndex = new HashMap<>();
+        private long lastTick;
+        private long records = 0;
+        private boolean closed = false;
+
+        public Writer(OutputStream stream, long startTick) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(stream, 64 * 1024));
+            this.lastTick = startTick;
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            writeVarLong(out, startTick);
+        }
+
+        /**
+         * Append an input applied at the given tick (ticks must not decrease)
+         */
+        public void record(long tick, TickInput input) throws IOException {
+            if (tick < lastTick) {
+                throw new IllegalArgumentException("Ticks must not decrease: " + tick + " < " + lastTick);
+            }
+            if (input.getPayloadSize() > MAX_PAYLOAD_BYTES) {
+                throw new IllegalArgumentException("Input payload too large: " + input.getPayloadSize() + " bytes");
+            }
+            Integer index = typeIndex.get(input.getType());
+            byte[] name = index == null ? input.getType().getBytes(StandardCharsets.UTF_8) : null;
+            if (name != null && name.length > MAX_TYPE_NAME_BYTES) {
+                throw new IllegalArgumentException("Input type name too long: " + input.getType());
+            }
+            writeVarLong(out, tick - lastTick);
+            lastTick = tick;
+
+            if (index == null) {
+                index = typeIndex.size() + 1;
+                typeIndex.put(input.getType(), index);
+                writeVarLong(out, index);
+                writeVarLong(out, name.length);
+                out.write(name);
+            } else {
+                writeVarLong(out, index);
+            }
+
+            byte[] payload = input.getPayload();
+            writeVarLong(out, payload.length);
+            out.write(payload);
+            records++;
+        }
+
+        public long getRecordCount() {
+            return records;
+        }
+
+        /**
+         * Write the end marker at the final tick and close the stream
+         */
+        public void finish(long finalTick) throws IOException {
+            if (closed) {
+                return;
+            }
+            writeVarLong(out, Math.max(0, finalTick - lastTick));
+            writeVarLong(out, 0);
+            lastTick = Math.max(lastTick, finalTick);
+            close();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                out.close();
+            }
+        }
+    }
+
+    /**
+     * One recorded input
+     */
+    public static final class Record {
+        private final long tick;
+        private final TickInput input;
+
+        Record(long tick, TickInput input) {
+            this.tick = tick;
+            this.input = input;
+        }
+
+        public long getTick() { return tick; }
+        public TickInput getInput() { return input; }
+    }
+
+    /**
+     * Streaming log reader
+     */
+    public static final class Reader implements Closeable {
+        private final DataInputStream in;
+        private final List<String> types = new ArrayList<>();
+        private final long startTick;
+        private long lastTick;
+        private long finalTick = -1;
+
+        public Reader(InputStream stream) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(stream, 64 * 1024));
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a tick input log (bad magic)");
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported tick input log version: " + version);
+            }
+            this.startTick = readVarLong(in);
+            this.lastTick = startTick;
+        }
+
+        public long getStartTick() {
+            return startTick;
+        }
+
+        /**
+         * Final tick of the recording; known once {@link #next()} has returned null
+         * (last record tick if the log was truncated)
+         */
+        public long getFinalTick() {
+            return finalTick;
+        }
+
+        /**
+         * @return Next record, or null at the end of the log
+         */
+        public Record next() throws IOException {
+            if (finalTick >= 0) {
+                return null;
+            }
+            try {
+                long delta = readVarLong(in);
+                if (delta < 0 || lastTick + delta < lastTick) {
+                    throw new IOException("Corrupt tick input log: tick delta " + delta + " after tick " + lastTick);
+                }
+                long tick = lastTick + delta;
+                int index = readBounded(types.size() + 1, "type index");
+                if (index == 0) {
+                    finalTick = tick;
+                    return null;
+                }
+                if (index == types.size() + 1) {
+                    byte[] name = new byte[readBounded(MAX_TYPE_NAME_BYTES, "type name length")];
+                    in.readFully(name);
+                    types.add(new String(name, StandardCharsets.UTF_8));
+                }
+                byte[] payload = new byte[readBounded(MAX_PAYLOAD_BYTES, "payload length")];
+                in.readFully(payload);
+                lastTick = tick;
+                return new Record(tick, new TickInput(types.get(index - 1), payload));
+            } catch (EOFException e) {
+                finalTick = lastTick; // Truncated log: replay up to the last whole record
+                return null;
+            }
+        }
+
+        private int readBounded(int max, String what) throws IOException {
+            long value = readVarLong(in);
+            if (value < 0 || value > max) {
+                throw new IOException("Corrupt tick input log: " + what + " " + value + " (max " + max + ")");
+            }
+            return (int) value;
+        }
+
+        /**
+         * Read all remaining records
+         */
+        public List<Record> readAll() throws IOException {
+            List<Record> records = new ArrayList<>();
+            Record record;
+            while ((record = next()) != null) {
+                records.add(record);
+            }
+            return records;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,38 @@
+package com.davisodom.villageoverhaul.core;
+
+/**
+ * Resumable unit of large main-thread work (village generation, path networks, ...)
+ *
+ * A job is written as a state machine: each call to {@link #step(long)} does one bounded
+ * piece of work (one building, one path segment, one batch of blocks), keeps whatever it
+ * needs to continue in its own fields, and returns. The engine calls step() from the work
+ * queue only while there is budget left in the current tick (see {@link TickEngine#submitJob}).
+ *
+ * Steps run on the main thread and may use the Bukkit API. Keep each step well under a
+ * millisecond: the budget is only checked between steps.
+ */
+public interface TickJob {
+
+    /**
+     * Run the next step
+     *
+     * @param tick Current tick number
+     * @return true when the job is complete (step() is not called again)
+     * @throws Exception to fail the job (reported through its handle)
+     */
+    boolean step(long tick) throws Exception;
+
+    /**
+     * Called on the main thread when the job is dropped before finishing (cancelled through
+     * its handle or engine shutdown), so it can release what it holds
+     */
+    default void cancelled() {
+    }
+
+    /**
+     * Fraction of the work done, 0..1, or -1 if unknown
+     */
+    default double getProgress() {
+        return -1;
+    }
+}
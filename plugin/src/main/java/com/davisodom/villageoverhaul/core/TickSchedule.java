@@ -0,0 +1,171 @@
+package com.davisodom.villageoverhaul.core;
+
+import java.util.*;
+
+/**
+ * Phase schedule computed from the declared access of global tick systems
+ *
+ * Builds a DAG over registered systems and groups them into phases:
+ * - Edge A -> B when B declares dependsOn(A)
+ * - Edge A -> B when A and B touch the same resource and at least one of them writes it
+ * - Edge A -> B when either system is exclusive (undeclared access)
+ *
+ * Dependencies may only point at systems registered earlier, so every edge runs forward in
+ * registration order and the graph is acyclic by construction. A system's phase is one past
+ * the deepest phase among its predecessors; systems in the same phase are independent and
+ * may run concurrently, with a barrier between phases.
+ *
+ * Immutable once built; rebuilt by the engine whenever a system is registered.
+ */
+final class TickSchedule {
+
+    private final String[] names;
+    private final TickEngine.TickableSystem[] systems;
+    private final TickEngine.SystemAccess[] access;
+    private final int[][] predecessors;
+    private final int[][] phases;
+
+    private TickSchedule(String[] names, TickEngine.TickableSystem[] systems,
+                         TickEngine.SystemAccess[] access, int[][] predecessors, int[][] phases) {
+        this.names = names;
+        this.systems = systems;
+        this.access = access;
+        this.predecessors = predecessors;
+        this.phases = phases;
+    }
+
+    /**
+     * Build a schedule from systems in registration order
+     */
+    static TickSchedule build(Map<String, TickEngine.TickableSystem> registered,
+                              Map<String, TickEngine.SystemAccess> declared) {
+        int n = registered.size();
+        String[] names = registered.keySet().toArray(new String[0]);
+        TickEngine.TickableSystem[] systems = registered.values().toArray(new TickEngine.TickableSystem[0]);
+        TickEngine.SystemAccess[] access = new TickEngine.SystemAccess[n];
+        Map<String, Integer> indexOf = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            access[i] = declared.get(names[i]);
+            indexOf.put(names[i], i);
+        }
+
+        int[][] predecessors = new int[n][];
+        int[] level = new int[n];
+        int phaseCount = 0;
+        for (int j = 0; j < n; j++) {
+            List<Integer> preds = new ArrayList<>();
+            for (int i = 0; i < j; i++) {
+                if (access[j].getDependsOn().contains(names[i]) || conflicts(access[i], access[j])) {
+                    preds.add(i);
+                }
+            }
+            predecessors[j] = preds.stream().mapToInt(Integer::intValue).toArray();
+            for (int p : predecessors[j]) {
+                level[j] = Math.max(level[j], level[p] + 1);
+            }
+            phaseCount = Math.max(phaseCount, level[j] + 1);
+        }
+
+        int[][] phases = new int[phaseCount][];
+        for (int p = 0; p < phaseCount; p++) {
+            List<Integer> members = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                if (level[i] == p) {
+                    members.add(i); // Registration order within a phase
+                }
+            }
+            phases[p] = members.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        return new TickSchedule(names, systems, access, predecessors, phases);
+    }
+
+    private static boolean conflicts(TickEngine.SystemAccess a, TickEngine.SystemAccess b) {
+        if (a.isExclusive() || b.isExclusive()) {
+            return true;
+        }
+        return intersects(a.getWrites(), b.getWrites())
+                || intersects(a.getWrites(), b.getReads())
+                || intersects(a.getReads(), b.getWrites());
+    }
+
+    private static boolean intersects(Set<String> a, Set<String> b) {
+        for (String resource : a) {
+            if (b.contains(resource)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int getSystemCount() {
+        return systems.length;
+    }
+
+    int getPhaseCount() {
+        return phases.length;
+    }
+
+    int[] getPhase(int phase) {
+        return phases[phase];
+    }
+
+    String getName(int index) {
+        return names[index];
+    }
+
+    TickEngine.TickableSystem getSystem(int index) {
+        return systems[index];
+    }
+
+    boolean isConcurrent(int index) {
+        return access[index].isConcurrent();
+    }
+
+    /**
+     * Human-readable dump of the schedule with last-tick timings
+     *
+     * @param systemMicros Last measured time per system (registration index)
+     * @param phaseMicros Last measured wall time per phase
+     */
+    String describe(long[] systemMicros, long[] phaseMicros) {
+        StringBuilder sb = new StringBuilder();
+        List<String> criticalPath = new ArrayList<>();
+        long criticalMicros = 0;
+
+        for (int p = 0; p < phases.length; p++) {
+            long phaseTime = p < phaseMicros.length ? phaseMicros[p] : 0;
+            sb.append(String.format("phase %d [%.2fms]:", p + 1, phaseTime / 1000.0));
+
+            int slowest = -1;
+            for (int i : phases[p]) {
+                long micros = i < systemMicros.length ? systemMicros[i] : 0;
+                sb.append(String.format(" %s(%s, %.2fms", names[i],
+                        access[i].isConcurrent() ? "concurrent" : "main", micros / 1000.0));
+                if (predecessors[i].length > 0) {
+                    sb.append(", after ");
+                    for (int k = 0; k < predecessors[i].length; k++) {
+                        if (k > 0) {
+                            sb.append('+');
+                        }
+                        sb.append(names[predecessors[i][k]]);
+                    }
+                }
+                sb.append(')');
+                if (slowest < 0 || micros > systemMicros[slowest]) {
+                    slowest = i;
+                }
+            }
+            sb.append('\n');
+
+            if (slowest >= 0) {
+                criticalPath.add(names[slowest]);
+            }
+            criticalMicros += phaseTime;
+        }
+
+        sb.append(String.format("critical path: %s [%.2fms]",
+                criticalPath.isEmpty() ? "-" : String.join(" -> ", criticalPath), criticalMicros / 1000.0));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,25 @@
+package com.davisodom.villageoverhaul.core;
+
+/**
+ * Drives the tick engine once per game tick
+ *
+ * The engine itself is plain Java; how ticks are triggered is up to the scheduler:
+ * - {@link BukkitTickScheduler}: a repeating Bukkit task on the server main thread
+ * - {@link ManualTickScheduler}: ticks on the caller's thread (headless simulation, tests)
+ */
+public interface TickScheduler {
+
+    /**
+     * Run the task once per tick until the returned handle is cancelled
+     */
+    Task scheduleEveryTick(Runnable tick);
+
+    /**
+     * Handle to a scheduled tick task
+     */
+    interface Task {
+        void cancel();
+
+        boolean isCancelled();
+    }
+}
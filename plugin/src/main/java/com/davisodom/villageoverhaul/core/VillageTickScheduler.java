@@ -0,0 +1,688 @@
+package com.davisodom.villageoverhaul.core;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Per-village sub-scheduler for the tick engine
+ *
+ * Spreads per-village work across ticks instead of visiting every village every tick:
+ * - Villages are visited round-robin in ascending UUID order (deterministic)
+ * - Villages are processed in chunks; the slice deadline is checked while gathering a chunk
+ *   and between chunks
+ * - Villages not reached this tick are carried over to the next tick
+ * - Each village is visited at most once per tick and at least one village is taken per tick
+ * - Villages are skipped until their LOD interval has elapsed; frozen villages are skipped
+ *   entirely and re-checked every {@link TickEngine.LodTier#DISTANT} interval
+ *
+ * Villages that are not due wait on a timing wheel keyed by the tick of their next visit or
+ * tier check, so a tick only touches the villages that come due (plus all of them when the
+ * LOD generation changes). Due villages queue for the round-robin pass in UUID order; one that
+ * comes due after the pass went past it waits for the next pass.
+ *
+ * Within a chunk, systems run in registration order and each system visits the chunk's
+ * villages in UUID order. Serial systems run on the calling (main) thread. Parallel
+ * systems snapshot on the main thread, compute on the fork-join pool and apply on the
+ * main thread in UUID order, so the outcome is identical with or without a pool.
+ *
+ * With a {@link VisitListener} set, each village's visit is timed across all systems
+ * (snapshot, compute and apply for parallel systems) and reported after its chunk. Compute
+ * time on the pool is included, so visit times can add up to more than the phase's wall time.
+ *
+ * Constitution compliance: Principle II (Deterministic Multiplayer Sync),
+ * Principle III (Performance Budgets: ≤ 2ms amortized per village)
+ */
+final class VillageTickScheduler {
+
+    // Villages per chunk when parallel systems are registered
+    static final int DEFAULT_CHUNK_SIZE = 16;
+
+    // Timing wheel buckets; longer than the longest LOD interval, so no village waits a full rotation
+    static final int WHEEL_SIZE = 128;
+
+    // Current pass first, then UUID order
+    private static final Comparator<VisitState> PASS_ORDER =
+            Comparator.<VisitState>comparingLong(state -> state.pass).thenComparing(state -> state.villageId);
+
+    private final Logger logger;
+    private final TickClock clock;
+    private final List<Stage> stages;
+    private final Map<UUID, VisitState> visits;
+    private final int[] tierCounts = new int[TickEngine.LodTier.values().length];
+    private Supplier<? extends Collection<UUID>> villageSource;
+    private LongSupplier villageVersion;
+    private long sourceVersion = Long.MIN_VALUE;
+    private boolean sourceStale = true;
+    private TickEngine.VillageLodPolicy lodPolicy = villageId -> TickEngine.LodTier.FULL;
+    private long lodGeneration = 0L;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int parallelStageCount = 0;
+    private ForkJoinPool pool;
+
+    // Villages waiting for their next visit or tier check, bucketed by due tick
+    private final VisitState[][] wheel = new VisitState[WHEEL_SIZE][];
+    private final int[] wheelSizes = new int[WHEEL_SIZE];
+    private long expiredThrough = Long.MIN_VALUE;
+
+    // Round-robin pass over the due villages
+    private final PriorityQueue<VisitState> due = new PriorityQueue<>(PASS_ORDER);
+    private long passNumber = 0;
+    private boolean passOpen = false;
+    private UUID cursor; // Last village taken in the current pass (null = none yet)
+    private int backlog = 0; // Queued villages that belong to the current pass
+    private long passesCompleted = 0;
+    private int skippedLastRun = 0;
+    private UUID[] chunk = new UUID[DEFAULT_CHUNK_SIZE];
+    private long[] chunkElapsed = new long[DEFAULT_CHUNK_SIZE];
+    private long[] visitNanos = new long[DEFAULT_CHUNK_SIZE];
+    private VisitListener visitListener;
+    private boolean timingVisits = false;
+
+    VillageTickScheduler(Logger logger, TickClock clock) {
+        this.logger = logger;
+        this.clock = clock;
+        this.stages = new ArrayList<>();
+        this.visits = new HashMap<>();
+        this.villageSource = Collections::emptyList;
+    }
+
+    void register(String name, TickEngine.VillageTickableSystem system) {
+        stages.add(new SerialStage(name, system));
+    }
+
+    void registerParallel(String name, TickEngine.ParallelTickableSystem<?, ?> system) {
+        stages.add(new ParallelStage(name, system));
+        parallelStageCount++;
+    }
+
+    boolean hasSystem(String name) {
+        for (Stage stage : stages) {
+            if (stage.name.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int getSystemCount() {
+        return stages.size();
+    }
+
+    String getSystemName(int index) {
+        return stages.get(index).name;
+    }
+
+    /**
+     * @param villageSource Village IDs to visit
+     * @param villageVersion Change counter for the source (null = re-read every pass)
+     */
+    void setVillageSource(Supplier<? extends Collection<UUID>> villageSource, LongSupplier villageVersion) {
+        this.villageSource = Objects.requireNonNull(villageSource, "villageSource cannot be null");
+        this.villageVersion = villageVersion;
+        this.sourceStale = true;
+    }
+
+    void setLodPolicy(TickEngine.VillageLodPolicy lodPolicy) {
+        this.lodPolicy = Objects.requireNonNull(lodPolicy, "lodPolicy cannot be null");
+        this.lodGeneration = lodPolicy.getGeneration();
+        recheckAll(); // Re-evaluate under the new policy
+    }
+
+    /**
+     * Re-evaluate one village's tier when the pass next reaches it instead of when its cached tier expires
+     */
+    void invalidateTier(UUID villageId) {
+        VisitState state = visits.get(villageId);
+        if (state != null) {
+            markDue(state);
+        }
+    }
+    
+    /**
+     * Set the chunk size used when parallel systems are registered.
+     * Serial-only schedules visit one village per chunk (finest budget granularity).
+     */
+    void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.chunkSize = chunkSize;
+        if (chunk.length < chunkSize) {
+            chunk = new UUID[chunkSize];
+            chunkElapsed = new long[chunkSize];
+            visitNanos = new long[chunkSize];
+        }
+    }
+
+    /**
+     * Set the receiver of per-village visit times (null = visits are not timed)
+     */
+    void setVisitListener(VisitListener visitListener) {
+        this.visitListener = visitListener;
+    }
+
+    /**
+     * Set the pool used for the compute phase of parallel systems (null = compute inline)
+     */
+    void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Process villages from the current pass until the deadline is reached
+     *
+     * @param tick Current tick number
+     * @param deadlineNanos Engine clock time after which no further village is taken
+     * @param systemNanos Accumulator for per-system elapsed time (indexed like registration)
+     * @return Number of villages visited this tick
+     */
+    int run(long tick, long deadlineNanos, long[] systemNanos) {
+        if (stages.isEmpty()) {
+            return 0;
+        }
+        if (!passOpen) {
+            beginPass();
+        }
+        long generation = lodPolicy.getGeneration();
+        if (generation != lodGeneration) {
+            lodGeneration = generation;
+            recheckAll();
+        }
+        expire(tick);
+
+        int effectiveChunk = parallelStageCount > 0 ? chunkSize : 1;
+        int taken = 0;
+        int visited = 0;
+        int skipped = 0;
+        while (backlog > 0) {
+            // Gather the next chunk of villages that are due under their LOD tier
+            int count = 0;
+            while (count < effectiveChunk && backlog > 0) {
+                if (taken > 0 && clock.nanoTime() >= deadlineNanos) {
+                    break;
+                }
+                VisitState state = due.poll();
+                state.queued = false;
+                backlog--;
+                cursor = state.villageId;
+                taken++;
+                if (!checkTier(state, tick)) {
+                    skipped++;
+                    continue;
+                }
+                chunk[count] = state.villageId;
+                chunkElapsed[count] = state.lastVisit >= 0 ? tick - state.lastVisit : 1L;
+                state.lastVisit = tick;
+                count++;
+            }
+            if (count == 0) {
+                break;
+            }
+
+            VisitListener listener = visitListener;
+            timingVisits = listener != null;
+            if (timingVisits) {
+                Arrays.fill(visitNanos, 0, count, 0L);
+            }
+            for (int i = 0; i < stages.size(); i++) {
+                long start = clock.nanoTime();
+                stages.get(i).runChunk(chunk, 0, count, tick, chunkElapsed);
+                systemNanos[i] += clock.nanoTime() - start;
+            }
+            if (timingVisits) {
+                for (int v = 0; v < count; v++) {
+                    listener.onVisit(chunk[v], visitNanos[v]);
+                }
+            }
+            visited += count;
+
+            if (clock.nanoTime() >= deadlineNanos) {
+                break;
+            }
+        }
+
+        if (backlog == 0) {
+            passOpen = false;
+            if (visited > 0) {
+                passesCompleted++;
+            }
+        }
+        skippedLastRun = skipped;
+        return visited;
+    }
+
+    /**
+     * Refresh a taken village's tier and decide whether it is visited this tick; a village
+     * that is not goes back on the wheel until its next visit or check
+     */
+    private boolean checkTier(VisitState state, long tick) {
+        TickEngine.LodTier tier;
+        try {
+            tier = lodPolicy.tierOf(state.villageId);
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error evaluating LOD tier for village " + state.villageId, e);
+            tier = TickEngine.LodTier.FULL;
+        }
+        if (tier != state.tier) {
+            tierCounts[state.tier.ordinal()]--;
+            tierCounts[tier.ordinal()]++;
+            state.tier = tier;
+        }
+
+        if (tier == TickEngine.LodTier.FROZEN) {
+            // Not ticked; lastVisit is kept so the thaw visit sees the full frozen span
+            schedule(state, tick + TickEngine.LodTier.DISTANT.getInterval());
+            return false;
+        }
+        if (state.lastVisit >= 0 && tick - state.lastVisit < tier.getInterval()) {
+            schedule(state, state.lastVisit + tier.getInterval());
+            return false;
+        }
+        schedule(state, tick + tier.getInterval());
+        return true;
+    }
+
+    /**
+     * Start a new pass over the queued villages, first picking up village set changes
+     * An unchanged versioned source is not re-read.
+     */
+    private void beginPass() {
+        if (villageVersion != null) {
+            long version = villageVersion.getAsLong();
+            if (version != sourceVersion) {
+                sourceVersion = version;
+                sourceStale = true;
+            }
+        } else {
+            sourceStale = true;
+        }
+        if (sourceStale) {
+            sourceStale = false;
+            refreshVillages();
+        }
+
+        // Everything queued while no pass was open belongs to this one
+        passNumber++;
+        passOpen = true;
+        cursor = null;
+        backlog = due.size();
+    }
+
+    /**
+     * Forget villages that no longer exist and queue new ones for their first visit
+     */
+    private void refreshVillages() {
+        Collection<UUID> villages = villageSource.get();
+        Set<UUID> current = new HashSet<>(villages);
+        boolean removedQueued = false;
+        Iterator<Map.Entry<UUID, VisitState>> it = visits.entrySet().iterator();
+        while (it.hasNext()) {
+            VisitState state = it.next().getValue();
+            if (!current.contains(state.villageId)) {
+                tierCounts[state.tier.ordinal()]--;
+                unschedule(state);
+                removedQueued |= state.queued;
+                state.removed = true;
+                it.remove();
+            }
+        }
+        if (removedQueued) {
+            due.removeIf(state -> state.removed);
+        }
+
+        for (UUID villageId : current) {
+            if (!visits.containsKey(villageId)) {
+                VisitState state = new VisitState(villageId);
+                visits.put(villageId, state);
+                tierCounts[state.tier.ordinal()]++;
+                markDue(state);
+            }
+        }
+    }
+
+    /**
+     * Queue every known village for a tier check (policy or generation change)
+     */
+    private void recheckAll() {
+        for (VisitState state : visits.values()) {
+            markDue(state);
+        }
+    }
+
+    /**
+     * Queue a village for the current pass if the pass has not gone past it, else for the next
+     */
+    private void markDue(VisitState state) {
+        if (state.queued) {
+            return;
+        }
+        unschedule(state);
+        state.queued = true;
+        if (passOpen && (cursor == null || state.villageId.compareTo(cursor) > 0)) {
+            state.pass = passNumber;
+            backlog++;
+        } else {
+            state.pass = passNumber + 1;
+        }
+        due.add(state);
+    }
+
+    /**
+     * Queue the villages whose due tick has been reached (catching up on ticks without a run)
+     */
+    private void expire(long tick) {
+        long from = Math.max(expiredThrough + 1, tick - WHEEL_SIZE + 1);
+        expiredThrough = tick;
+        for (long t = from; t <= tick; t++) {
+            int bucket = (int) (t & (WHEEL_SIZE - 1));
+            VisitState[] states = wheel[bucket];
+            int i = 0;
+            while (i < wheelSizes[bucket]) {
+                VisitState state = states[i];
+                if (state.dueTick <= tick) {
+                    markDue(state); // Swaps the bucket's last village into slot i
+                } else {
+                    i++;
+                }
+            }
+        }
+    }
+
+    private void schedule(VisitState state, long dueTick) {
+        int bucket = (int) (dueTick & (WHEEL_SIZE - 1));
+        VisitState[] states = wheel[bucket];
+        int size = wheelSizes[bucket];
+        if (states == null || size == states.length) {
+            states = Arrays.copyOf(states != null ? states : new VisitState[0], Math.max(8, size * 2));
+            wheel[bucket] = states;
+        }
+        states[size] = state;
+        wheelSizes[bucket] = size + 1;
+        state.dueTick = dueTick;
+        state.bucket = bucket;
+        state.slot = size;
+    }
+
+    private void unschedule(VisitState state) {
+        if (state.bucket < 0) {
+            return;
+        }
+        VisitState[] states = wheel[state.bucket];
+        int last = --wheelSizes[state.bucket];
+        states[state.slot] = states[last];
+        states[state.slot].slot = state.slot;
+        states[last] = null;
+        state.bucket = -1;
+    }
+
+    /**
+     * Due villages remaining in the current pass (carried over to following ticks)
+     */
+    int getBacklog() {
+        return backlog;
+    }
+
+    long getPassesCompleted() {
+        return passesCompleted;
+    }
+
+    /**
+     * Villages taken during the last run whose LOD tier deferred the visit
+     */
+    int getSkippedLastRun() {
+        return skippedLastRun;
+    }
+
+    /**
+     * Known villages per LOD tier, as of their last evaluation
+     */
+    int[] getTierCounts() {
+        return tierCounts.clone();
+    }
+
+    int getTierCount(int tierOrdinal) {
+        return tierCounts[tierOrdinal];
+    }
+
+    /**
+     * Receives the time spent on one village visit, across all systems (main thread)
+     */
+    @FunctionalInterface
+    interface VisitListener {
+        void onVisit(UUID villageId, long nanos);
+    }
+
+    /**
+     * Scheduling state of one village
+     */
+    private static final class VisitState {
+        final UUID villageId;
+        long lastVisit = -1;
+        TickEngine.LodTier tier = TickEngine.LodTier.FULL;
+
+        // On the wheel (bucket >= 0) or queued for a pass, never both
+        long dueTick;
+        int bucket = -1;
+        int slot;
+        boolean queued;
+        long pass;
+        boolean removed;
+
+        VisitState(UUID villageId) {
+            this.villageId = villageId;
+        }
+    }
+
+    /**
+     * Log a system that threw for one village, with the stack trace (any thread)
+     *
+     * @param phase What the system was doing ("ticking", "computing", ...)
+     */
+    private void logSystemFailure(String phase, String system, UUID villageId, Exception e) {
+        logger.log(Level.SEVERE, "Error " + phase + " village system " + system + " for village " + villageId, e);
+    }
+
+    /**
+     * One registered system, executed over a chunk of villages
+     */
+    private abstract static class Stage {
+        final String name;
+
+        Stage(String name) {
+            this.name = name;
+        }
+
+        abstract void runChunk(UUID[] villages, int from, int to, long tick, long[] elapsed);
+    }
+
+    private final class SerialStage extends Stage {
+        private final TickEngine.VillageTickableSystem system;
+
+        SerialStage(String name, TickEngine.VillageTickableSystem system) {
+            super(name);
+            this.system = system;
+        }
+
+        @Override
+        void runChunk(UUID[] villages, int from, int to, long tick, long[] elapsed) {
+            for (int v = from; v < to; v++) {
+                long start = timingVisits ? clock.nanoTime() : 0L;
+                try {
+                    system.tickVillage(villages[v], tick, elapsed[v - from]);
+                } catch (Exception e) {
+                    logSystemFailure("ticking", name, villages[v], e);
+                }
+                if (timingVisits) {
+                    visitNanos[v - from] += clock.nanoTime() - start;
+                }
+            }
+        }
+    }
+
+    /**
+     * Two-phase stage: snapshot (main) -> compute (pool) -> apply (main, UUID order)
+     */
+    private final class ParallelStage extends Stage {
+        @SuppressWarnings("rawtypes")
+        private final TickEngine.ParallelTickableSystem system;
+        private Object[] snapshots = new Object[0];
+        private Object[] results = new Object[0];
+
+        // Compute-phase tasks and the chunk they work on (set before the slices are submitted)
+        private final AtomicInteger pendingSlices = new AtomicInteger();
+        private ComputeSlice[] slices = new ComputeSlice[0];
+        private volatile Thread waiter;
+        private UUID[] computeVillages;
+        private int computeFrom;
+        private long computeTick;
+        private long[] computeElapsed;
+
+        ParallelStage(String name, TickEngine.ParallelTickableSystem<?, ?> system) {
+            super(name);
+            this.system = system;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void runChunk(UUID[] villages, int from, int to, long tick, long[] elapsed) {
+            int count = to - from;
+            if (snapshots.length < count) {
+                snapshots = new Object[count];
+                results = new Object[count];
+            }
+
+            // Phase 1 (main thread): capture immutable inputs
+            for (int i = 0; i < count; i++) {
+                long start = timingVisits ? clock.nanoTime() : 0L;
+                try {
+                    snapshots[i] = system.snapshot(villages[from + i], tick);
+                } catch (Exception e) {
+                    snapshots[i] = null;
+                    logSystemFailure("snapshotting", name, villages[from + i], e);
+                }
+                if (timingVisits) {
+                    visitNanos[i] += clock.nanoTime() - start;
+                }
+            }
+
+            // Phase 2 (pool): pure computation against the snapshots
+            if (pool != null && count > 1) {
+                computeOnPool(villages, from, count, tick, elapsed);
+            } else {
+                for (int i = 0; i < count; i++) {
+                    computeOne(villages, from, i, tick, elapsed);
+                }
+            }
+
+            // Phase 3 (main thread): apply mutations in deterministic UUID order
+            for (int i = 0; i < count; i++) {
+                Object result = results[i];
+                snapshots[i] = null;
+                results[i] = null;
+                if (result == null) {
+                    continue;
+                }
+                long start = timingVisits ? clock.nanoTime() : 0L;
+                try {
+                    system.apply(villages[from + i], result, tick);
+                } catch (Exception e) {
+                    logSystemFailure("applying", name, villages[from + i], e);
+                }
+                if (timingVisits) {
+                    visitNanos[i] += clock.nanoTime() - start;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void computeOne(UUID[] villages, int from, int i, long tick, long[] elapsed) {
+            if (snapshots[i] == null) {
+                results[i] = null;
+                return;
+            }
+            long start = timingVisits ? clock.nanoTime() : 0L;
+            try {
+                results[i] = system.compute(villages[from + i], snapshots[i], tick, elapsed[i]);
+            } catch (Exception e) {
+                results[i] = null;
+                logSystemFailure("computing", name, villages[from + i], e);
+            }
+            if (timingVisits) {
+                visitNanos[i] += clock.nanoTime() - start; // Own slot per village; joined before apply
+            }
+        }
+
+        /**
+         * Split the chunk into contiguous slices: one per pool worker plus one for the
+         * calling thread, which computes its slice and then waits for the rest
+         *
+         * The slice tasks are reinitialized and reused for every chunk, and the wait parks
+         * on a counter instead of joining, so the compute phase does not allocate.
+         */
+        private void computeOnPool(UUID[] villages, int from, int count, long tick, long[] elapsed) {
+            int sliceCount = Math.min(count, pool.getParallelism() + 1);
+            if (slices.length < sliceCount - 1) {
+                slices = new ComputeSlice[sliceCount - 1];
+                for (int s = 0; s < slices.length; s++) {
+                    slices[s] = new ComputeSlice();
+                }
+            }
+            computeVillages = villages;
+            computeFrom = from;
+            computeTick = tick;
+            computeElapsed = elapsed;
+            waiter = Thread.currentThread();
+            pendingSlices.set(sliceCount - 1);
+            for (int s = 1; s < sliceCount; s++) {
+                ComputeSlice slice = slices[s - 1];
+                slice.reinitialize();
+                slice.lo = s * count / sliceCount;
+                slice.hi = (s + 1) * count / sliceCount;
+                pool.execute(slice);
+            }
+            for (int i = 0; i < count / sliceCount; i++) {
+                computeOne(villages, from, i, tick, elapsed);
+            }
+            while (pendingSlices.get() > 0) {
+                LockSupport.park(this);
+            }
+            // A slice signals just before the pool marks it done; wait for that before reuse
+            for (int s = 0; s < sliceCount - 1; s++) {
+                while (!slices[s].isDone()) {
+                    Thread.onSpinWait();
+                }
+            }
+            waiter = null;
+            computeVillages = null;
+            computeElapsed = null;
+        }
+
+        /**
+         * One pool worker's share of the chunk
+         */
+        private final class ComputeSlice extends RecursiveAction {
+            private int lo;
+            private int hi;
+
+            @Override
+            protected void compute() {
+                try {
+                    for (int i = lo; i < hi; i++) {
+                        computeOne(computeVillages, computeFrom, i, computeTick, computeElapsed);
+                    }
+                } finally {
+                    if (pendingSlices.decrementAndGet() == 0) {
+                        LockSupport.unpark(waiter);
+                    }
+                }
+            }
+        }
+    }
+}
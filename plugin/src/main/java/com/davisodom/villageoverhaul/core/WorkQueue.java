@@ -0,0 +1,150 @@
+package com.davisodom.villageoverhaul.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cooperative work queue drained with the budget left over at the end of a tick
+ *
+ * - Jobs are stepped round-robin in submission order, one step per visit, so a long job
+ *   cannot starve the ones queued behind it
+ * - The deadline is checked between steps; at least one step runs per tick while jobs
+ *   are queued, so jobs always make progress even on a saturated server
+ * - Jobs may be submitted from any thread and are picked up at the next run
+ */
+final class WorkQueue {
+
+    private final Logger logger;
+    private final TickClock clock;
+    private final Queue<JobHandle> incoming = new ConcurrentLinkedQueue<>();
+    private final ArrayDeque<JobHandle> active = new ArrayDeque<>();
+
+    private int stepsLastRun = 0;
+    private long nanosLastRun = 0;
+    private long stepsTotal = 0;
+    private long completedTotal = 0;
+    private long failedTotal = 0;
+
+    WorkQueue(Logger logger, TickClock clock) {
+        this.logger = logger;
+        this.clock = clock;
+    }
+
+    void submit(JobHandle handle) {
+        incoming.add(handle);
+    }
+
+    boolean isEmpty() {
+        return active.isEmpty() && incoming.isEmpty();
+    }
+
+    /**
+     * Step queued jobs until the deadline (main thread)
+     *
+     * @param tick Current tick number
+     * @param deadlineNanos Engine clock time after which no new step starts
+     * @return Number of steps run
+     */
+    int run(long tick, long deadlineNanos) {
+        long start = clock.nanoTime();
+        JobHandle handle;
+        while ((handle = incoming.poll()) != null) {
+            active.addLast(handle);
+        }
+
+        int steps = 0;
+        while (!active.isEmpty() && (steps == 0 || clock.nanoTime() < deadlineNanos)) {
+            handle = active.pollFirst();
+            if (handle.isCancelRequested()) {
+                drop(handle);
+                logger.info("[TICK] Job cancelled: " + handle.getName() + " after " + handle.getSteps() + " steps");
+                continue;
+            }
+
+            steps++;
+            boolean done;
+            try {
+                done = handle.step(tick, clock);
+            } catch (Exception e) {
+                failedTotal++;
+                logger.severe("[TICK] Job " + handle.getName() + " failed at step " + handle.getSteps() + ": " +
+                        e.getMessage());
+                e.printStackTrace();
+                handle.fail(e);
+                continue;
+            }
+
+            if (done) {
+                completedTotal++;
+                handle.complete();
+                logger.info(String.format("[TICK] Job complete: %s (%d steps over %d ticks, %.2fms work)",
+                        handle.getName(), handle.getSteps(), tick - handle.getSubmittedTick(),
+                        handle.getWorkMicros() / 1000.0));
+            } else {
+                active.addLast(handle);
+            }
+        }
+
+        stepsLastRun = steps;
+        stepsTotal += steps;
+        nanosLastRun = clock.nanoTime() - start;
+        return steps;
+    }
+
+    /**
+     * Cancel every queued job (engine shutdown)
+     */
+    void cancelAll() {
+        JobHandle handle;
+        while ((handle = incoming.poll()) != null) {
+            active.addLast(handle);
+        }
+        while ((handle = active.pollFirst()) != null) {
+            drop(handle);
+        }
+    }
+
+    private void drop(JobHandle handle) {
+        try {
+            handle.cancelled();
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "[TICK] Job " + handle.getName() + " failed to clean up after cancel", e);
+        }
+    }
+
+    /**
+     * Jobs waiting or in progress, in round-robin order
+     */
+    List<JobHandle> getJobs() {
+        List<JobHandle> jobs = new ArrayList<>(active);
+        jobs.addAll(incoming);
+        return Collections.unmodifiableList(jobs);
+    }
+
+    int getDepth() {
+        return active.size() + incoming.size();
+    }
+
+    /**
+     * Ticks the oldest queued job has been waiting (0 when empty)
+     */
+    long getOldestAge(long tick) {
+        long oldest = tick;
+        for (JobHandle handle : active) {
+            oldest = Math.min(oldest, handle.getSubmittedTick());
+        }
+        return tick - oldest;
+    }
+
+    int getStepsLastRun() { return stepsLastRun; }
+    long getNanosLastRun() { return nanosLastRun; }
+    long getStepsTotal() { return stepsTotal; }
+    long getCompletedTotal() { return completedTotal; }
+    long getFailedTotal() { return failedTotal; }
+}
@@ -0,0 +1,117 @@
+package com.davisodom.villageoverhaul.economy;
+
+import com.davisodom.villageoverhaul.core.TickEngine;
+import com.davisodom.villageoverhaul.core.TickInput;
+import com.davisodom.villageoverhaul.projects.Project;
+import com.davisodom.villageoverhaul.projects.ProjectService;
+import com.davisodom.villageoverhaul.villages.Village;
+import com.davisodom.villageoverhaul.villages.VillageService;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Applies trade tick inputs: credits the player and funds the village's active project
+ *
+ * Bukkit-free, so the plugin ({@link TradeListener}) and headless replay register the same
+ * handler. Player messages and building upgrades happen through the {@link Observer}.
+ */
+public final class TradeInputHandler implements TickEngine.InputHandler {
+
+    // Payload = playerId, villageId, tradeValueMillz
+    public static final String TRADE_INPUT = "economy.trade";
+
+    static final double PROJECT_CONTRIBUTION_RATE = 0.20; // 20% of trade value goes to village
+
+    /**
+     * Server-side effects of an applied trade (none during headless replay)
+     */
+    public interface Observer {
+        void onContribution(UUID playerId, Village village, Project project, boolean completed);
+    }
+
+    private final Logger logger;
+    private final WalletService walletService;
+    private final ProjectService projectService;
+    private final VillageService villageService;
+    private Observer observer;
+
+    public TradeInputHandler(Logger logger, WalletService walletService, ProjectService projectService,
+                             VillageService villageService) {
+        this.logger = logger;
+        this.walletService = walletService;
+        this.projectService = projectService;
+        this.villageService = villageService;
+    }
+
+    public TradeInputHandler setObserver(Observer observer) {
+        this.observer = observer;
+        return this;
+    }
+
+    public void register(TickEngine engine) {
+        engine.registerInputHandler(TRADE_INPUT, this);
+    }
+
+    public static TickInput encode(UUID playerId, UUID villageId, long tradeValueMillz) {
+        return TickInput.builder(TRADE_INPUT)
+                .uuid(playerId)
+                .uuid(villageId)
+                .varLong(tradeValueMillz)
+                .build();
+    }
+
+    /**
+     * Runs at a tick boundary; the player may be offline (or absent during replay)
+     */
+    @Override
+    public void handle(TickInput input, long tick) {
+        TickInput.Reader payload = input.reader();
+        UUID playerId = payload.uuid();
+        UUID villageId = payload.uuid();
+        long tradeValueMillz = payload.varLong();
+
+        Optional<Village> tradeVillage = villageService.getVillage(villageId);
+        if (tradeVillage.isEmpty()) {
+            logger.fine("Trade for unknown village ignored: " + villageId);
+            return;
+        }
+        Village village = tradeVillage.get();
+
+        long playerEarnings = (long) (tradeValueMillz * (1.0 - PROJECT_CONTRIBUTION_RATE));
+        long projectContribution = tradeValueMillz - playerEarnings;
+
+        if (!walletService.credit(playerId, playerEarnings)) {
+            logger.warning("Failed to credit player wallet: " + playerId);
+            return;
+        }
+        logger.info(String.format("Trade completed: player=%s earned=%d millz", playerId, playerEarnings));
+
+        List<Project> activeProjects = projectService.getActiveVillageProjects(village.getId());
+        if (activeProjects.isEmpty()) {
+            // Store in village treasury for future projects
+            village.addWealth(projectContribution);
+            logger.info(String.format("Added %d millz to village treasury (no active projects)",
+                    projectContribution));
+            return;
+        }
+
+        // Contribute to the first active project
+        Project project = activeProjects.get(0);
+        Optional<Project.ContributionResult> result = projectService.contribute(
+                project.getId(), playerId, projectContribution);
+        if (result.isEmpty()) {
+            return;
+        }
+        Project.ContributionResult cr = result.get();
+        if (cr.getOverflow() > 0) {
+            village.addWealth(cr.getOverflow());
+            logger.fine(String.format("Overflow %d millz added to village treasury", cr.getOverflow()));
+        }
+        if (observer != null) {
+            observer.onContribution(playerId, village, project, cr.isCompleted());
+        }
+    }
+}
@@ -1,8 +1,9 @@
 package com.davisodom.villageoverhaul.economy;
 
 import com.davisodom.villageoverhaul.VillageOverhaulPlugin;
+import com.davisodom.villageoverhaul.core.TickEngine;
+import com.davisodom.villageoverhaul.core.TickInput;
 import com.davisodom.villageoverhaul.projects.Project;
-import com.davisodom.villageoverhaul.projects.ProjectService;
 import com.davisodom.villageoverhaul.villages.Village;
 import com.davisodom.villageoverhaul.villages.VillageService;
 import org.bukkit.entity.Player;
@@ -13,7 +14,6 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerInteractEntityEvent;
 import org.bukkit.inventory.MerchantRecipe;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.logging.Logger;
@@ -27,6 +27,9 @@ import java.util.logging.Logger;
  * 3. Proceeds are credited to the player's wallet
  * 4. A portion is automatically contributed to the village's active project
  * 
+ * Steps 2-4 are applied by {@link TradeInputHandler} as a tick input at the start of the
+ * next tick, so trades are captured by input recording and can be replayed offline.
+ * 
  * This implements the core US1 mechanic: "Player trades directly contribute to
  * village building and expansion goals."
  */
@@ -34,20 +37,23 @@ public class TradeListener implements Listener {
     
     private final VillageOverhaulPlugin plugin;
     private final Logger logger;
-    private final WalletService walletService;
-    private final ProjectService projectService;
     private final VillageService villageService;
+    private final TradeInputHandler tradeHandler;
     
     // Configuration (will be loaded from config later)
     private static final long BASE_TRADE_VALUE_MILLZ = 100L; // 1 Billz per trade
-    private static final double PROJECT_CONTRIBUTION_RATE = 0.20; // 20% of trade value goes to village
     
     public TradeListener(VillageOverhaulPlugin plugin) {
         this.plugin = plugin;
         this.logger = plugin.getLogger();
-        this.walletService = plugin.getWalletService();
-        this.projectService = plugin.getProjectService();
         this.villageService = plugin.getVillageService();
+        this.tradeHandler = new TradeInputHandler(logger, plugin.getWalletService(), plugin.getProjectService(),
+                villageService).setObserver(this::onContribution);
+        
+        TickEngine tickEngine = plugin.getTickEngine();
+        if (tickEngine != null) {
+            tradeHandler.register(tickEngine);
+        }
     }
     
     /**
@@ -83,8 +89,6 @@ public class TradeListener implements Listener {
      * that checks inventory changes and applies server-side rules.
      */
     private void handleSimulatedTrade(Player player, Villager villager) {
-        UUID playerId = player.getUniqueId();
-        
         // Find the nearest village to this villager
         Optional<Village> nearestVillage = findNearestVillage(villager);
         if (nearestVillage.isEmpty()) {
@@ -92,63 +96,33 @@ public class TradeListener implements Listener {
             return;
         }
         
-        Village village = nearestVillage.get();
-        
-        // Calculate trade proceeds
-        long tradeValueMillz = BASE_TRADE_VALUE_MILLZ;
-        long playerEarnings = (long) (tradeValueMillz * (1.0 - PROJECT_CONTRIBUTION_RATE));
-        long projectContribution = tradeValueMillz - playerEarnings;
-        
-        // Credit player wallet
-        boolean credited = walletService.credit(playerId, playerEarnings);
-        if (!credited) {
-            logger.warning("Failed to credit player wallet: " + playerId);
-            return;
+        TickInput trade = TradeInputHandler.encode(player.getUniqueId(), nearestVillage.get().getId(),
+                BASE_TRADE_VALUE_MILLZ);
+        TickEngine tickEngine = plugin.getTickEngine();
+        if (tickEngine != null) {
+            tickEngine.submitInput(trade);
+        } else {
+            tradeHandler.handle(trade, 0);
         }
-        
-        logger.info(String.format("Trade completed: player=%s earned=%d millz",
-                player.getName(), playerEarnings));
-        
-        // Contribute to village project
-        List<Project> activeProjects = projectService.getActiveVillageProjects(village.getId());
-        if (activeProjects.isEmpty()) {
-            logger.fine("No active projects in village: " + village.getName());
-            // Store in village treasury for future projects
-            village.addWealth(projectContribution);
-            logger.info(String.format("Added %d millz to village treasury (no active projects)",
-                    projectContribution));
-            return;
-        }
-        
-        // Contribute to the first active project
-        Project project = activeProjects.get(0);
-        Optional<Project.ContributionResult> result = projectService.contribute(
-                project.getId(), playerId, projectContribution);
-        
-        if (result.isPresent()) {
-            Project.ContributionResult cr = result.get();
-            
-                if (cr.isCompleted()) {
-                // Project just completed!
+    }
+    
+    /**
+     * Tell the player about their contribution and upgrade the village on completion
+     */
+    private void onContribution(UUID playerId, Village village, Project project, boolean completed) {
+        Player player = plugin.getServer().getPlayer(playerId);
+        if (completed) {
+            if (player != null) {
                 player.sendMessage("§a§lOK Village project completed: " + project.getBuildingRef());
                 player.sendMessage("§7The village thanks you for your contributions!");
-                
-                // Trigger upgrade
-                logger.info("Project completed, triggering upgrade: " + project.getId());
-                plugin.getUpgradeExecutor().executeUpgrade(project, village);
-            } else {
-                // Show progress
-                int percent = project.getCompletionPercent();
-                player.sendMessage(String.format("§6Village project: %s §7(%d%% complete)",
-                        project.getBuildingRef(), percent));
             }
             
-            // Handle overflow (contributed more than needed)
-            if (cr.getOverflow() > 0) {
-                village.addWealth(cr.getOverflow());
-                logger.fine(String.format("Overflow %d millz added to village treasury",
-                        cr.getOverflow()));
-            }
+            // Trigger upgrade
+            logger.info("Project completed, triggering upgrade: " + project.getId());
+            plugin.getUpgradeExecutor().executeUpgrade(project, village);
+        } else if (player != null) {
+            player.sendMessage(String.format("§6Village project: %s §7(%d%% complete)",
+                    project.getBuildingRef(), project.getCompletionPercent()));
         }
     }
     
@@ -1,5 +1,8 @@
 package com.davisodom.villageoverhaul.economy;
 
+import com.davisodom.villageoverhaul.obs.jfr.JfrEvents;
+import com.davisodom.villageoverhaul.obs.jfr.WalletTransferEvent;
+
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -20,6 +23,7 @@ import java.util.concurrent.ConcurrentHashMap;
 public class WalletService {
     
     private final Map<UUID, Wallet> wallets;
+    private volatile Journal journal;
     
     // Denomination constants
     public static final long MILLZ_PER_BILLZ = 100L;
@@ -30,6 +34,15 @@ public class WalletService {
         this.wallets = new ConcurrentHashMap<>();
     }
     
+    /**
+     * Record every successful credit, debit and transfer in a journal (e.g. the wallet ledger)
+     * 
+     * @param journal Journal to append to, or null to stop journaling
+     */
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+    
     /**
      * Get or create wallet for an owner
      * 
@@ -53,7 +66,12 @@ public class WalletService {
         }
         
         Wallet wallet = getWallet(ownerId);
-        return wallet.credit(millz);
+        boolean success = wallet.credit(millz);
+        Journal j = journal;
+        if (success && j != null) {
+            j.credited(ownerId, millz);
+        }
+        return success;
     }
     
     /**
@@ -69,7 +87,12 @@ public class WalletService {
         }
         
         Wallet wallet = getWallet(ownerId);
-        return wallet.debit(millz);
+        boolean success = wallet.debit(millz);
+        Journal j = journal;
+        if (success && j != null) {
+            j.debited(ownerId, millz);
+        }
+        return success;
     }
     
     /**
@@ -85,6 +108,23 @@ public class WalletService {
             throw new IllegalArgumentException("Transfer amount must be positive: " + millz);
         }
         
+        WalletTransferEvent jfr = JfrEvents.isEnabled() ? WalletTransferEvent.start() : null;
+        boolean success = doTransfer(fromId, toId, millz);
+        Journal j = journal;
+        if (success && j != null) {
+            j.transferred(fromId, toId, millz);
+        }
+        if (jfr != null && jfr.shouldCommit()) {
+            jfr.from = fromId.toString();
+            jfr.to = toId.toString();
+            jfr.amountMillz = millz;
+            jfr.success = success;
+            jfr.commit();
+        }
+        return success;
+    }
+    
+    private boolean doTransfer(UUID fromId, UUID toId, long millz) {
         Wallet from = getWallet(fromId);
         Wallet to = getWallet(toId);
         
@@ -136,6 +176,27 @@ public class WalletService {
         wallets.put(ownerId, wallet);
     }
     
+    /**
+     * Load a recovered balance (from the wallet ledger) with an empty history
+     */
+    public void loadWallet(UUID ownerId, long balanceMillz) {
+        loadWallet(ownerId, balanceMillz, Collections.emptyList());
+    }
+    
+    /**
+     * Receives every successful wallet mutation, after it has been applied
+     * 
+     * Called on the mutating thread outside the wallet locks; implementations must be
+     * thread-safe and must not block on I/O.
+     */
+    public interface Journal {
+        void credited(UUID ownerId, long millz);
+        
+        void debited(UUID ownerId, long millz);
+        
+        void transferred(UUID fromId, UUID toId, long millz);
+    }
+    
     /**
      * Individual wallet
      */
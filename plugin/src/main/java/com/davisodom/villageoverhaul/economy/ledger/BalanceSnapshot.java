@@ -0,0 +1,98 @@
+package com.davisodom.villageoverhaul.economy.ledger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Compact balance table: every non-zero wallet balance as of one ledger sequence number
+ *
+ * On disk: [int magic][int version][long lastSeq][int count] count x [uuid owner][long balance]
+ * [int crc32c of everything before it]. 24 bytes per wallet, written to a temp file, fsynced
+ * and moved over the previous snapshot.
+ */
+final class BalanceSnapshot {
+
+    static final String FILE_NAME = "balances.snapshot";
+
+    private static final int MAGIC = 0x564F4253; // "VOBS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    private static final int ENTRY_BYTES = 16 + 8;
+
+    final long lastSeq;
+    final Map<UUID, Long> balances;
+
+    BalanceSnapshot(long lastSeq, Map<UUID, Long> balances) {
+        this.lastSeq = lastSeq;
+        this.balances = balances;
+    }
+
+    void write(File dir) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + balances.size() * ENTRY_BYTES + 4);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(lastSeq).putInt(balances.size());
+        for (Map.Entry<UUID, Long> entry : balances.entrySet()) {
+            buffer.putLong(entry.getKey().getMostSignificantBits());
+            buffer.putLong(entry.getKey().getLeastSignificantBits());
+            buffer.putLong(entry.getValue());
+        }
+        buffer.flip();
+        int crc = LedgerRecord.checksum(buffer);
+        buffer.limit(buffer.capacity()).position(buffer.capacity() - 4);
+        buffer.putInt(crc).flip();
+
+        File temp = new File(dir, FILE_NAME + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp.toPath(), new File(dir, FILE_NAME).toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return The snapshot in dir, or an empty one at sequence 0 if there is none
+     * @throws IOException if the snapshot exists but is damaged
+     */
+    static BalanceSnapshot read(File dir) throws IOException {
+        File file = new File(dir, FILE_NAME);
+        if (!file.exists()) {
+            return new BalanceSnapshot(0L, new HashMap<>());
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        if (buffer.remaining() < HEADER_BYTES + 4 || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a balance snapshot: " + file);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported balance snapshot version " + buffer.getInt(4) + ": " + file);
+        }
+        int count = buffer.getInt(16);
+        if (count < 0 || buffer.remaining() != HEADER_BYTES + (long) count * ENTRY_BYTES + 4) {
+            throw new IOException("Truncated balance snapshot: " + file);
+        }
+        int expected = buffer.getInt(buffer.limit() - 4);
+        ByteBuffer body = buffer.duplicate();
+        body.limit(buffer.limit() - 4);
+        if (LedgerRecord.checksum(body) != expected) {
+            throw new IOException("Balance snapshot checksum mismatch: " + file);
+        }
+
+        long lastSeq = buffer.getLong(8);
+        buffer.position(HEADER_BYTES);
+        Map<UUID, Long> balances = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            balances.put(new UUID(buffer.getLong(), buffer.getLong()), buffer.getLong());
+        }
+        return new BalanceSnapshot(lastSeq, balances);
+    }
+}
@@ -0,0 +1,145 @@
+package com.davisodom.villageoverhaul.economy.ledger;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * One wallet mutation in the ledger log
+ *
+ * On disk: [int payloadLength][int crc32c(payload)][payload], payload =
+ * [long seq][long timestampMillis][byte type][uuid from][uuid to][long amountMillz],
+ * where credits and debits only carry the first UUID.
+ */
+final class LedgerRecord {
+
+    static final int HEADER_BYTES = 8;
+    static final int MAX_PAYLOAD_BYTES = 8 + 8 + 1 + 32 + 8;
+
+    enum Type {
+        CREDIT(1), DEBIT(2), TRANSFER(3);
+
+        final byte code;
+
+        Type(int code) {
+            this.code = (byte) code;
+        }
+
+        static Type of(byte code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    final long seq;
+    final long timestampMillis;
+    final Type type;
+    final UUID from;
+    final UUID to;
+    final long amountMillz;
+
+    LedgerRecord(long seq, long timestampMillis, Type type, UUID from, UUID to, long amountMillz) {
+        this.seq = seq;
+        this.timestampMillis = timestampMillis;
+        this.type = type;
+        this.from = from;
+        this.to = to;
+        this.amountMillz = amountMillz;
+    }
+
+    int payloadBytes() {
+        return type == Type.TRANSFER ? MAX_PAYLOAD_BYTES : MAX_PAYLOAD_BYTES - 16;
+    }
+
+    /**
+     * Append the framed record to the buffer (which must have room for it)
+     */
+    void writeTo(ByteBuffer out) {
+        int start = out.position();
+        out.position(start + HEADER_BYTES);
+        out.putLong(seq);
+        out.putLong(timestampMillis);
+        out.put(type.code);
+        out.putLong(from.getMostSignificantBits());
+        out.putLong(from.getLeastSignificantBits());
+        if (type == Type.TRANSFER) {
+            out.putLong(to.getMostSignificantBits());
+            out.putLong(to.getLeastSignificantBits());
+        }
+        out.putLong(amountMillz);
+        int end = out.position();
+
+        ByteBuffer payload = out.duplicate();
+        payload.position(start + HEADER_BYTES).limit(end);
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        out.putInt(start, end - start - HEADER_BYTES);
+        out.putInt(start + 4, (int) crc.getValue());
+    }
+
+    /**
+     * Decode one payload whose checksum has already been verified
+     *
+     * @return null if the payload is not a well-formed record
+     */
+    static LedgerRecord readPayload(ByteBuffer payload) {
+        if (payload.remaining() < MAX_PAYLOAD_BYTES - 16) {
+            return null;
+        }
+        long seq = payload.getLong();
+        long timestamp = payload.getLong();
+        Type type = Type.of(payload.get());
+        if (type == null) {
+            return null;
+        }
+        int expected = type == Type.TRANSFER ? MAX_PAYLOAD_BYTES : MAX_PAYLOAD_BYTES - 16;
+        if (payload.remaining() != expected - 17) {
+            return null;
+        }
+        UUID from = new UUID(payload.getLong(), payload.getLong());
+        UUID to = type == Type.TRANSFER ? new UUID(payload.getLong(), payload.getLong()) : null;
+        return new LedgerRecord(seq, timestamp, type, from, to, payload.getLong());
+    }
+
+    static int checksum(ByteBuffer payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Apply this record to a balance table
+     *
+     * Plain (wrapping) long arithmetic on purpose: records of different operations on the same
+     * wallet may be logged in a different order than they were applied, so a replayed
+     * intermediate balance can leave the valid range, but the final sum is exact.
+     */
+    void applyTo(Map<UUID, Long> balances) {
+        switch (type) {
+            case CREDIT:
+                add(balances, from, amountMillz);
+                break;
+            case DEBIT:
+                add(balances, from, -amountMillz);
+                break;
+            case TRANSFER:
+                add(balances, from, -amountMillz);
+                add(balances, to, amountMillz);
+                break;
+        }
+    }
+
+    private static void add(Map<UUID, Long> balances, UUID ownerId, long delta) {
+        long balance = balances.getOrDefault(ownerId, 0L) + delta;
+        if (balance == 0L) {
+            balances.remove(ownerId);
+        } else {
+            balances.put(ownerId, balance);
+        }
+    }
+}
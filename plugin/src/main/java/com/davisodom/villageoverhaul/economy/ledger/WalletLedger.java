@@ -0,0 +1,619 @@
+package com.davisodom.villageoverhaul.economy.ledger;
+
+import com.davisodom.villageoverhaul.economy.WalletService;
+import com.davisodom.villageoverhaul.obs.Metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Durable wallet ledger: every credit, debit and transfer is appended to a log, so balances
+ * survive a crash without rewriting wallet files on each trade
+ *
+ * - The log is split into segments (ledger/<first seq>.wal) of CRC32C-framed records.
+ * - Group commit: appends only encode into a memory buffer. One I/O thread writes everything
+ *   buffered once per commit interval and fsyncs it with a single force(), so at most one
+ *   interval of mutations is lost on a crash and the main thread never waits for the disk.
+ * - Periodically (and on close) the balances are written to a compact snapshot
+ *   (balances.snapshot) and the segments it covers are deleted.
+ * - {@link #open()} loads the snapshot and replays the segments after it. A torn record at the
+ *   end of the newest segment (crash mid-write) is cut off; damage anywhere else fails the open.
+ *
+ * The ledger keeps its own balance table built from the records it logs, so a snapshot is
+ * always consistent with a sequence number regardless of what WalletService does concurrently.
+ */
+public final class WalletLedger implements WalletService.Journal {
+
+    private static final int SEGMENT_MAGIC = 0x564F574C; // "VOWL"
+    private static final int SEGMENT_VERSION = 1;
+    static final int SEGMENT_HEADER_BYTES = 4 + 4 + 8;
+    static final String SEGMENT_SUFFIX = ".wal";
+
+    private static final int INITIAL_BUFFER_BYTES = 64 * 1024;
+    private static final int MAX_BATCH_BYTES = 1024 * 1024;
+    private static final long RETRY_MILLIS = 1000;
+
+    private final File dir;
+    private final Logger logger;
+    private final Settings settings;
+    private final Object lock = new Object();
+
+    // Guarded by lock
+    private final Map<UUID, Long> balances = new HashMap<>();
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+    private ByteBuffer spare = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+    private long firstPendingNanos;
+    private long lastSeq;     // last record appended
+    private long durableSeq;  // last record fsynced
+    private long snapshotSeq; // last record covered by the snapshot on disk
+    private long lastSnapshotNanos;
+    private long snapshotsRequested;
+    private long snapshotsTaken;
+    private boolean lastSnapshotOk;
+    private int syncing; // callers waiting in sync()
+    private boolean running;
+    private boolean closed;
+
+    // I/O thread only (and open() before it starts)
+    private final TreeMap<Long, File> segments = new TreeMap<>();
+    private FileChannel active;
+    private long activeBase;
+
+    private Thread writer;
+
+    private final Metrics.Counter records;
+    private final Metrics.Counter commits;
+    private final Metrics.Counter snapshots;
+    private final Metrics.Counter failures;
+    private final Metrics.Counter dropped;
+
+    /**
+     * @param dir Ledger directory (created on open)
+     * @param metrics Counters under economy.ledger.* (nullable)
+     */
+    public WalletLedger(File dir, Logger logger, Settings settings, Metrics metrics) {
+        this.dir = dir;
+        this.logger = logger;
+        this.settings = settings;
+        Metrics m = metrics != null ? metrics : new Metrics(logger);
+        this.records = m.counter("economy.ledger.records");
+        this.commits = m.counter("economy.ledger.commits");
+        this.snapshots = m.counter("economy.ledger.snapshots");
+        this.failures = m.counter("economy.ledger.write_failures");
+        this.dropped = m.counter("economy.ledger.dropped");
+    }
+
+    /**
+     * Recover balances from the snapshot and log, then start accepting records
+     *
+     * @return Balance of every wallet with a non-zero balance
+     * @throws IOException if the snapshot or a segment other than the newest is damaged
+     */
+    public Map<UUID, Long> open() throws IOException {
+        synchronized (lock) {
+            if (running || closed) {
+                throw new IllegalStateException("Wallet ledger already opened");
+            }
+        }
+        Files.createDirectories(dir.toPath());
+        BalanceSnapshot snapshot = BalanceSnapshot.read(dir);
+        Map<UUID, Long> recovered = new HashMap<>(snapshot.balances);
+        long last = replay(snapshot.lastSeq, recovered);
+
+        synchronized (lock) {
+            balances.putAll(recovered);
+            lastSeq = last;
+            durableSeq = last;
+            snapshotSeq = snapshot.lastSeq;
+            lastSnapshotNanos = System.nanoTime();
+            running = true;
+        }
+        startSegment(last + 1);
+        writer = new Thread(this::run, "VillageOverhaul-Ledger");
+        writer.setDaemon(true);
+        writer.start();
+        return new HashMap<>(recovered);
+    }
+
+    @Override
+    public void credited(UUID ownerId, long millz) {
+        append(LedgerRecord.Type.CREDIT, ownerId, null, millz);
+    }
+
+    @Override
+    public void debited(UUID ownerId, long millz) {
+        append(LedgerRecord.Type.DEBIT, ownerId, null, millz);
+    }
+
+    @Override
+    public void transferred(UUID fromId, UUID toId, long millz) {
+        append(LedgerRecord.Type.TRANSFER, fromId, toId, millz);
+    }
+
+    private void append(LedgerRecord.Type type, UUID from, UUID to, long millz) {
+        synchronized (lock) {
+            if (!running || closed) {
+                dropped.inc();
+                logger.warning("Wallet ledger is not open, " + type + " of " + millz + " Millz for " + from + " not logged");
+                return;
+            }
+            LedgerRecord record = new LedgerRecord(lastSeq + 1, System.currentTimeMillis(), type, from, to, millz);
+            int size = LedgerRecord.HEADER_BYTES + record.payloadBytes();
+            if (pending.remaining() < size) {
+                ByteBuffer larger = ByteBuffer.allocate(pending.capacity() * 2);
+                pending.flip();
+                larger.put(pending);
+                pending = larger;
+            }
+            if (pending.position() == 0) {
+                firstPendingNanos = System.nanoTime();
+                lock.notifyAll();
+            }
+            record.writeTo(pending);
+            record.applyTo(balances);
+            lastSeq = record.seq;
+            records.inc();
+            if (pending.position() >= MAX_BATCH_BYTES) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Commit everything appended so far without waiting for the commit interval
+     *
+     * @return false if records were still unsynced when the timeout expired
+     */
+    public boolean sync(long timeoutMillis) {
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+        synchronized (lock) {
+            long target = lastSeq;
+            syncing++;
+            lock.notifyAll();
+            try {
+                while (durableSeq < target && running) {
+                    long remaining = (deadline - System.nanoTime()) / 1_000_000L;
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    lock.wait(remaining);
+                }
+                return durableSeq >= target;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                syncing--;
+            }
+        }
+    }
+
+    /**
+     * Commit pending records, write a snapshot and drop the segments it covers
+     *
+     * @return false if the snapshot failed or did not finish within the timeout
+     */
+    public boolean snapshot(long timeoutMillis) {
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+        synchronized (lock) {
+            if (!running) {
+                return false;
+            }
+            long ticket = ++snapshotsRequested;
+            lock.notifyAll();
+            try {
+                while (snapshotsTaken < ticket && running) {
+                    long remaining = (deadline - System.nanoTime()) / 1_000_000L;
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    lock.wait(remaining);
+                }
+                return snapshotsTaken >= ticket && lastSnapshotOk;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Stop accepting records, write a final snapshot and stop the I/O thread
+     *
+     * @return false if the final snapshot could not be written (the log is still intact)
+     */
+    public boolean close() {
+        synchronized (lock) {
+            if (!running || closed) {
+                return true;
+            }
+            closed = true;
+        }
+        boolean ok = snapshot(settings.shutdownTimeoutMillis) || sync(settings.shutdownTimeoutMillis);
+        Thread thread;
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+            thread = writer;
+        }
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!thread.isAlive()) {
+            closeQuietly(active);
+        }
+        if (!ok) {
+            logger.severe("Wallet ledger closed with unsynced records (last=" + getLastSeq() + ", durable=" + getDurableSeq() + ")");
+        }
+        return ok;
+    }
+
+    public long getLastSeq() {
+        synchronized (lock) {
+            return lastSeq;
+        }
+    }
+
+    public long getDurableSeq() {
+        synchronized (lock) {
+            return durableSeq;
+        }
+    }
+
+    public long getSnapshotSeq() {
+        synchronized (lock) {
+            return snapshotSeq;
+        }
+    }
+
+    public Settings getSettings() {
+        return settings;
+    }
+
+    // ==================== I/O thread ====================
+
+    private void run() {
+        while (true) {
+            ByteBuffer batch = null;
+            long firstSeq;
+            long batchLastSeq;
+            boolean snapshotDue;
+            synchronized (lock) {
+                while (true) {
+                    if (!running) {
+                        return;
+                    }
+                    long now = System.nanoTime();
+                    long snapshotWait = snapshotWaitNanos(now);
+                    snapshotDue = snapshotsRequested > snapshotsTaken || snapshotWait == 0;
+                    if (pending.position() > 0) {
+                        long commitWait = firstPendingNanos + settings.commitIntervalMillis * 1_000_000L - now;
+                        if (commitWait <= 0 || syncing > 0 || snapshotDue || pending.position() >= MAX_BATCH_BYTES) {
+                            break;
+                        }
+                        waitQuietly(Math.max(1, commitWait / 1_000_000L));
+                    } else if (snapshotDue) {
+                        break;
+                    } else {
+                        waitQuietly(snapshotWait < 0 ? 0 : Math.max(1, snapshotWait / 1_000_000L));
+                    }
+                }
+                firstSeq = durableSeq + 1;
+                batchLastSeq = lastSeq;
+                if (pending.position() > 0) {
+                    batch = pending;
+                    pending = spare;
+                    spare = null;
+                    batch.flip();
+                }
+            }
+
+            if (batch != null && !commit(batch, firstSeq, batchLastSeq)) {
+                continue;
+            }
+            if (snapshotDue) {
+                takeSnapshot();
+            }
+        }
+    }
+
+    /**
+     * @return 0 if a periodic snapshot is due, -1 if none will be, else nanos until one is
+     */
+    private long snapshotWaitNanos(long now) {
+        if (settings.snapshotIntervalMillis <= 0 || lastSeq == snapshotSeq) {
+            return -1;
+        }
+        return Math.max(0, lastSnapshotNanos + settings.snapshotIntervalMillis * 1_000_000L - now);
+    }
+
+    private boolean commit(ByteBuffer batch, long firstSeq, long batchLastSeq) {
+        long start = -1;
+        try {
+            if (active.size() >= settings.segmentBytes && active.size() > SEGMENT_HEADER_BYTES) {
+                startSegment(firstSeq);
+            }
+            start = active.position();
+            while (batch.hasRemaining()) {
+                active.write(batch);
+            }
+            active.force(false);
+            commits.inc();
+            synchronized (lock) {
+                durableSeq = batchLastSeq;
+                batch.clear();
+                spare = batch;
+                lock.notifyAll();
+            }
+            return true;
+        } catch (IOException e) {
+            failures.inc();
+            logger.log(Level.SEVERE, "Wallet ledger commit failed, retrying", e);
+            try {
+                if (start >= 0) {
+                    active.truncate(start);
+                    active.position(start);
+                }
+            } catch (IOException ignored) {
+                // The torn tail is cut off on the next open
+            }
+            synchronized (lock) {
+                // Put the batch back in front of whatever was appended meanwhile
+                batch.rewind();
+                pending.flip();
+                ByteBuffer merged = ByteBuffer.allocate(Math.max(INITIAL_BUFFER_BYTES, batch.remaining() + pending.remaining() * 2));
+                merged.put(batch).put(pending);
+                pending = merged;
+                spare = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+                firstPendingNanos = System.nanoTime();
+                waitQuietly(RETRY_MILLIS);
+            }
+            return false;
+        }
+    }
+
+    private void takeSnapshot() {
+        BalanceSnapshot snapshot;
+        synchronized (lock) {
+            snapshot = new BalanceSnapshot(lastSeq, new HashMap<>(balances));
+        }
+        boolean ok = false;
+        try {
+            snapshot.write(dir);
+            // Everything already in the log is covered by the snapshot now
+            if (active.size() > SEGMENT_HEADER_BYTES) {
+                startSegment(getDurableSeq() + 1);
+            }
+            for (File old : new HashMap<>(segments.headMap(activeBase)).values()) {
+                Files.deleteIfExists(old.toPath());
+            }
+            segments.headMap(activeBase).clear();
+            snapshots.inc();
+            ok = true;
+            logger.fine("Wallet ledger snapshot at seq " + snapshot.lastSeq + " (" + snapshot.balances.size() + " wallets)");
+        } catch (IOException e) {
+            failures.inc();
+            logger.log(Level.SEVERE, "Wallet ledger snapshot failed", e);
+        }
+        synchronized (lock) {
+            if (ok) {
+                snapshotSeq = snapshot.lastSeq;
+            }
+            lastSnapshotOk = ok;
+            lastSnapshotNanos = System.nanoTime();
+            snapshotsTaken = snapshotsRequested;
+            lock.notifyAll();
+        }
+    }
+
+    private void startSegment(long baseSeq) throws IOException {
+        File file = new File(dir, segmentName(baseSeq));
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES);
+            header.putInt(SEGMENT_MAGIC).putInt(SEGMENT_VERSION).putLong(baseSeq).flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw e;
+        }
+        closeQuietly(active);
+        active = channel;
+        activeBase = baseSeq;
+        segments.put(baseSeq, file);
+    }
+
+    // ==================== Recovery ====================
+
+    /**
+     * Apply every record after snapshotSeq to balances and delete segments the snapshot covers
+     *
+     * @return Sequence number of the last record in the log (or snapshotSeq if it is newer)
+     */
+    private long replay(long snapshotSeq, Map<UUID, Long> balances) throws IOException {
+        TreeMap<Long, File> found = new TreeMap<>();
+        File[] files = dir.listFiles((d, name) -> name.endsWith(SEGMENT_SUFFIX));
+        if (files != null) {
+            for (File file : files) {
+                try {
+                    found.put(Long.parseLong(file.getName().substring(0, file.getName().length() - SEGMENT_SUFFIX.length())), file);
+                } catch (NumberFormatException e) {
+                    logger.warning("Ignoring unexpected file in wallet ledger: " + file.getName());
+                }
+            }
+        }
+
+        long expected = found.isEmpty() ? snapshotSeq + 1 : found.firstKey();
+        if (expected > snapshotSeq + 1) {
+            throw new IOException("Wallet ledger is missing records " + (snapshotSeq + 1) + ".." + (expected - 1));
+        }
+        int applied = 0;
+        int covered = 0;
+        for (Map.Entry<Long, File> entry : found.entrySet()) {
+            File file = entry.getValue();
+            boolean newest = entry.getKey().equals(found.lastKey());
+            ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+            if (data.remaining() < SEGMENT_HEADER_BYTES && newest) {
+                // Crashed while creating the segment
+                Files.delete(file.toPath());
+                continue;
+            }
+            if (data.remaining() < SEGMENT_HEADER_BYTES || data.getInt() != SEGMENT_MAGIC || data.getInt() != SEGMENT_VERSION) {
+                throw new IOException("Not a wallet ledger segment: " + file);
+            }
+            long base = data.getLong();
+            // A snapshot can cover records that were still buffered when it was taken, so the
+            // segment started after it may begin below snapshotSeq + 1 and the next one after
+            // a restart at snapshotSeq + 1; the gap between them is covered by the snapshot
+            if (base != entry.getKey() || base < expected || base > Math.max(expected, snapshotSeq + 1)) {
+                throw new IOException("Wallet ledger segment " + file.getName() + " starts at " + base + ", expected " + expected);
+            }
+            expected = base;
+
+            while (data.hasRemaining()) {
+                int start = data.position();
+                LedgerRecord record = readRecord(data);
+                if (record == null || record.seq != expected) {
+                    if (!newest) {
+                        throw new IOException("Wallet ledger segment " + file.getName() + " is damaged at offset " + start);
+                    }
+                    logger.warning("Cutting off torn wallet ledger tail in " + file.getName() + " at offset " + start +
+                                   " (" + (data.limit() - start) + " bytes)");
+                    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                        channel.truncate(start);
+                        channel.force(true);
+                    }
+                    break;
+                }
+                if (record.seq > snapshotSeq) {
+                    record.applyTo(balances);
+                    applied++;
+                }
+                expected++;
+            }
+            if (expected - 1 <= snapshotSeq) {
+                // Every record is in the snapshot
+                Files.delete(file.toPath());
+                covered++;
+            } else {
+                segments.put(base, file);
+            }
+        }
+        if (covered > 0) {
+            logger.info("Deleted " + covered + " wallet ledger segment(s) covered by snapshot seq " + snapshotSeq);
+        }
+        if (!found.isEmpty()) {
+            logger.info("Replayed " + applied + " wallet ledger record(s) from " + found.size() + " segment(s) after snapshot seq " + snapshotSeq);
+        }
+        return Math.max(snapshotSeq, expected - 1);
+    }
+
+    /**
+     * @return The next record, or null if the rest of the buffer is not a valid record
+     */
+    private static LedgerRecord readRecord(ByteBuffer data) {
+        if (data.remaining() < LedgerRecord.HEADER_BYTES) {
+            return null;
+        }
+        int length = data.getInt();
+        int crc = data.getInt();
+        if (length <= 0 || length > LedgerRecord.MAX_PAYLOAD_BYTES || length > data.remaining()) {
+            return null;
+        }
+        ByteBuffer payload = data.slice();
+        payload.limit(length);
+        if (LedgerRecord.checksum(payload) != crc) {
+            return null;
+        }
+        data.position(data.position() + length);
+        return LedgerRecord.readPayload(payload);
+    }
+
+    static String segmentName(long baseSeq) {
+        return String.format("%020d%s", baseSeq, SEGMENT_SUFFIX);
+    }
+
+    private void waitQuietly(long millis) {
+        try {
+            lock.wait(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Nothing left to flush: every commit is forced
+            }
+        }
+    }
+
+    /**
+     * Ledger tuning
+     */
+    public static final class Settings {
+        public static final long DEFAULT_COMMIT_INTERVAL_MILLIS = 20;
+        public static final long DEFAULT_SEGMENT_BYTES = 16L * 1024 * 1024;
+        public static final long DEFAULT_SNAPSHOT_INTERVAL_MILLIS = 300_000;
+        public static final long DEFAULT_SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+        final long commitIntervalMillis;
+        final long segmentBytes;
+        final long snapshotIntervalMillis;
+        final long shutdownTimeoutMillis;
+
+        /**
+         * @param commitIntervalMillis Group commit window: records are fsynced at most this long after being appended
+         * @param segmentBytes Size at which a new segment is started
+         * @param snapshotIntervalMillis Time between snapshots while records are being logged (0 = only on close)
+         * @param shutdownTimeoutMillis How long close waits for the final snapshot
+         */
+        public Settings(long commitIntervalMillis, long segmentBytes, long snapshotIntervalMillis, long shutdownTimeoutMillis) {
+            if (commitIntervalMillis < 0) {
+                throw new IllegalArgumentException("commitIntervalMillis must not be negative: " + commitIntervalMillis);
+            }
+            if (segmentBytes < SEGMENT_HEADER_BYTES + LedgerRecord.HEADER_BYTES + LedgerRecord.MAX_PAYLOAD_BYTES) {
+                throw new IllegalArgumentException("segmentBytes too small: " + segmentBytes);
+            }
+            if (snapshotIntervalMillis < 0) {
+                throw new IllegalArgumentException("snapshotIntervalMillis must not be negative: " + snapshotIntervalMillis);
+            }
+            if (shutdownTimeoutMillis < 0) {
+                throw new IllegalArgumentException("shutdownTimeoutMillis must not be negative: " + shutdownTimeoutMillis);
+            }
+            this.commitIntervalMillis = commitIntervalMillis;
+            this.segmentBytes = segmentBytes;
+            this.snapshotIntervalMillis = snapshotIntervalMillis;
+            this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        }
+
+        public static Settings defaults() {
+            return new Settings(DEFAULT_COMMIT_INTERVAL_MILLIS, DEFAULT_SEGMENT_BYTES,
+                    DEFAULT_SNAPSHOT_INTERVAL_MILLIS, DEFAULT_SHUTDOWN_TIMEOUT_MILLIS);
+        }
+
+        public long getCommitIntervalMillis() { return commitIntervalMillis; }
+        public long getSegmentBytes() { return segmentBytes; }
+        public long getSnapshotIntervalMillis() { return snapshotIntervalMillis; }
+        public long getShutdownTimeoutMillis() { return shutdownTimeoutMillis; }
+    }
+}
@@ -31,10 +31,12 @@ public class CustomVillagerService {
     
     private final Plugin plugin;
     private final Logger logger;
-    private final Metrics metrics;
+    private final Metrics.Counter spawns;
+    private final Metrics.Counter despawns;
+    private final Metrics.Counter countTotal;
     private final Map<UUID, CustomVillager> villagersByEntityId;
     private final Map<UUID, List<CustomVillager>> villagersByVillageId;
-    private final int maxVillagersPerVillage;
+    private volatile int maxVillagersPerVillage;
     
     public CustomVillagerService(Plugin plugin, Logger logger, Metrics metrics) {
         this(plugin, logger, metrics, 10);
@@ -43,7 +45,9 @@ public class CustomVillagerService {
     public CustomVillagerService(Plugin plugin, Logger logger, Metrics metrics, int maxPerVillage) {
         this.plugin = plugin;
         this.logger = logger;
-        this.metrics = metrics;
+        this.spawns = metrics.counter("npc.spawns");
+        this.despawns = metrics.counter("npc.despawns");
+        this.countTotal = metrics.counter("npc.count.total");
         this.villagersByEntityId = new ConcurrentHashMap<>();
         this.villagersByVillageId = new ConcurrentHashMap<>();
         this.maxVillagersPerVillage = maxPerVillage;
@@ -92,8 +96,8 @@ public class CustomVillagerService {
         villagersByVillageId.computeIfAbsent(villageId, k -> new ArrayList<>()).add(villager);
         
         // Metrics
-        metrics.increment("npc.spawns");
-        metrics.increment("npc.count.total");
+        spawns.inc();
+        countTotal.inc();
         
         logger.info("Spawned custom villager " + definitionId + " (entity: " + entity.getUniqueId() + 
                    ", village: " + villageId + ")");
@@ -126,8 +130,8 @@ public class CustomVillagerService {
         }
         
         // Metrics
-        metrics.increment("npc.despawns");
-        metrics.increment("npc.count.total", -1);
+        despawns.inc();
+        countTotal.add(-1);
         
         logger.info("Despawned custom villager " + villager.getDefinitionId() + 
                    " (entity: " + entityId + ")");
@@ -185,6 +189,19 @@ public class CustomVillagerService {
         return maxVillagersPerVillage;
     }
     
+    /**
+     * Set the per-village cap
+     * Lowering the cap only blocks new spawns; existing villagers are kept.
+     * 
+     * @param maxPerVillage Maximum villagers per village
+     */
+    public void setMaxVillagersPerVillage(int maxPerVillage) {
+        if (maxPerVillage < 0) {
+            throw new IllegalArgumentException("maxPerVillage must not be negative");
+        }
+        this.maxVillagersPerVillage = maxPerVillage;
+    }
+    
     /**
      * Despawn all custom villagers (e.g., on plugin disable)
      */
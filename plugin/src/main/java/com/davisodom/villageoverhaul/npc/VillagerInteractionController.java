@@ -3,6 +3,7 @@ package com.davisodom.villageoverhaul.npc;
 import com.davisodom.villageoverhaul.VillageOverhaulPlugin;
 import com.davisodom.villageoverhaul.economy.WalletService;
 import com.davisodom.villageoverhaul.obs.Metrics;
+import com.davisodom.villageoverhaul.obs.VillageCostProfiler;
 import com.davisodom.villageoverhaul.projects.Project;
 import com.davisodom.villageoverhaul.projects.ProjectService;
 import com.davisodom.villageoverhaul.villages.Village;
@@ -49,7 +50,9 @@ public class VillagerInteractionController implements Listener {
     private final VillageOverhaulPlugin plugin;
     private final Logger logger;
     private final CustomVillagerService villagerService;
-    private final Metrics metrics;
+    private final Metrics.Counter interactions;
+    private final Metrics.Counter interactionsDenied;
+    private final VillageCostProfiler costProfiler;
     private final WalletService walletService;
     private final ProjectService projectService;
     private final VillageService villageService;
@@ -71,7 +74,9 @@ public class VillagerInteractionController implements Listener {
         this.plugin = plugin;
         this.logger = logger;
         this.villagerService = villagerService;
-        this.metrics = metrics;
+        this.interactions = metrics.counter("npc.interactions");
+        this.interactionsDenied = metrics.counter("npc.interaction_denied");
+        this.costProfiler = metrics.getVillageCosts();
         this.playerInteractionTimestamps = new ConcurrentHashMap<>();
         
         // Optional services (may be null for unit tests)
@@ -102,13 +107,13 @@ public class VillagerInteractionController implements Listener {
         Long lastInteraction = playerInteractionTimestamps.get(player.getUniqueId());
         if (lastInteraction != null && (now - lastInteraction) < RATE_LIMIT_MS) {
             logger.fine("Rate limit: Player " + player.getName() + " interacted too quickly");
-            metrics.increment("npc.interaction_denied");
+            interactionsDenied.inc();
             return;
         }
         playerInteractionTimestamps.put(player.getUniqueId(), now);
         
         // Metrics
-        metrics.increment("npc.interactions");
+        interactions.inc();
         
         // Update villager interaction timestamp
         villager.setLastInteractionAt(now);
@@ -124,6 +129,15 @@ public class VillagerInteractionController implements Listener {
      * Future: Open inventory GUI with dialogue/trades/contracts
      */
     private void handleCustomInteraction(Player player, CustomVillager villager, Entity entity) {
+        long start = costProfiler.begin(VillageCostProfiler.Source.NPC);
+        try {
+            runCustomInteraction(player, villager, entity);
+        } finally {
+            costProfiler.end(villager.getVillageId(), VillageCostProfiler.Source.NPC, start);
+        }
+    }
+    
+    private void runCustomInteraction(Player player, CustomVillager villager, Entity entity) {
         // Validation: entity still exists and in same world
         if (!entity.isValid() || entity.isDead()) {
             player.sendMessage(Component.text("This villager has departed.", NamedTextColor.GRAY));
@@ -277,7 +291,7 @@ public class VillagerInteractionController implements Listener {
         }
         
         // Metrics
-        metrics.increment("npc.interactions");
+        interactions.inc();
         
         // Update villager interaction timestamp
         villager.setLastInteractionAt(System.currentTimeMillis());
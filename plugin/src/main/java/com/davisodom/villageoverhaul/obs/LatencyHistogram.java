@@ -0,0 +1,221 @@
+package com.davisodom.villageoverhaul.obs;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear latency histogram (HdrHistogram-style)
+ *
+ * Values are non-negative longs (microseconds by convention). Each power of two is split
+ * into 2^(precisionBits - 1) linear sub-buckets, so every recorded value lands in a bucket
+ * whose width is at most 2^-(precisionBits - 1) of its value; quantiles report the bucket
+ * midpoint, bounding the relative error to half that:
+ * - 5 bits: 16 sub-buckets, ≤ 3.2% error, 368 buckets (~3KB)
+ * - 6 bits: 32 sub-buckets, ≤ 1.6% error, 704 buckets (~6KB)
+ * Values below 2^precisionBits are exact. Values above {@link #MAX_TRACKABLE} are clamped
+ * into the top bucket (the exact maximum is still tracked).
+ *
+ * record() is wait-free apart from the min/max CAS loops and never allocates. Readers take a
+ * {@link Snapshot}; snapshots of histograms with the same precision can be merged, e.g. to
+ * combine time slices into a window. A snapshot taken while writers are active may be
+ * off by the samples in flight (count and buckets are updated separately).
+ */
+public final class LatencyHistogram {
+
+    // Largest value with its own bucket: 2^26 us ~ 67s
+    public static final long MAX_TRACKABLE = (1L << 26) - 1;
+    private static final int MAX_MSB = 25;
+
+    public static final int DEFAULT_PRECISION_BITS = 6;
+
+    private final int precisionBits;
+    private final AtomicLongArray buckets;
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong();
+
+    public LatencyHistogram() {
+        this(DEFAULT_PRECISION_BITS);
+    }
+
+    /**
+     * @param precisionBits Bits of precision per power of two (2..10)
+     */
+    public LatencyHistogram(int precisionBits) {
+        if (precisionBits < 2 || precisionBits > 10) {
+            throw new IllegalArgumentException("precisionBits must be between 2 and 10: " + precisionBits);
+        }
+        this.precisionBits = precisionBits;
+        this.buckets = new AtomicLongArray(bucketCount(precisionBits));
+    }
+
+    /**
+     * Record one value (negative values are recorded as 0)
+     */
+    public void record(long value) {
+        long v = Math.max(0L, value);
+        buckets.incrementAndGet(indexOf(v, precisionBits));
+        count.incrementAndGet();
+        sum.addAndGet(v);
+
+        long current;
+        while (v < (current = min.get()) && !min.compareAndSet(current, v)) {
+            // retry
+        }
+        while (v > (current = max.get()) && !max.compareAndSet(current, v)) {
+            // retry
+        }
+    }
+
+    /**
+     * Clear all recorded values (racing writers may survive the reset)
+     */
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0L);
+        }
+        count.set(0L);
+        sum.set(0L);
+        min.set(Long.MAX_VALUE);
+        max.set(0L);
+    }
+
+    public long getCount() { return count.get(); }
+    public int getPrecisionBits() { return precisionBits; }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[buckets.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = buckets.get(i);
+        }
+        return new Snapshot(precisionBits, copy, count.get(), sum.get(), min.get(), max.get());
+    }
+
+    static int bucketCount(int precisionBits) {
+        int linear = 1 << precisionBits;
+        return linear + (MAX_MSB - precisionBits + 1) * (linear >> 1);
+    }
+
+    /**
+     * Bucket index: exact below 2^p, then 2^(p-1) linear sub-buckets per power of two
+     */
+    static int indexOf(long value, int precisionBits) {
+        int linear = 1 << precisionBits;
+        if (value < linear) {
+            return (int) value;
+        }
+        long v = Math.min(value, MAX_TRACKABLE);
+        int msb = 63 - Long.numberOfLeadingZeros(v);
+        int shift = msb - precisionBits + 1;
+        int half = linear >> 1;
+        return linear + (shift - 1) * half + (int) ((v >>> shift) - half);
+    }
+
+    /**
+     * Smallest value mapping to a bucket
+     */
+    static long lowestValueAt(int index, int precisionBits) {
+        int linear = 1 << precisionBits;
+        if (index < linear) {
+            return index;
+        }
+        int half = linear >> 1;
+        int shift = (index - linear) / half + 1;
+        long mantissa = half + (index - linear) % half;
+        return mantissa << shift;
+    }
+
+    /**
+     * Width of a bucket (1 for exact buckets)
+     */
+    static long widthAt(int index, int precisionBits) {
+        int linear = 1 << precisionBits;
+        if (index < linear) {
+            return 1;
+        }
+        return 1L << ((index - linear) / (linear >> 1) + 1);
+    }
+
+    /**
+     * Immutable point-in-time copy of a histogram
+     */
+    public static final class Snapshot {
+
+        private final int precisionBits;
+        private final long[] buckets;
+        private final long count;
+        private final long sum;
+        private final long min;
+        private final long max;
+
+        Snapshot(int precisionBits, long[] buckets, long count, long sum, long min, long max) {
+            this.precisionBits = precisionBits;
+            this.buckets = buckets;
+            this.count = count;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+        }
+
+        /**
+         * Empty snapshot to merge into
+         */
+        public static Snapshot empty(int precisionBits) {
+            return new Snapshot(precisionBits, new long[bucketCount(precisionBits)], 0, 0, Long.MAX_VALUE, 0);
+        }
+
+        /**
+         * Combined snapshot of this and another with the same precision
+         */
+        public Snapshot merge(Snapshot other) {
+            if (other.precisionBits != precisionBits) {
+                throw new IllegalArgumentException("Cannot merge histograms with precision " + precisionBits +
+                        " and " + other.precisionBits);
+            }
+            long[] merged = buckets.clone();
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] += other.buckets[i];
+            }
+            return new Snapshot(precisionBits, merged, count + other.count, sum + other.sum,
+                    Math.min(min, other.min), Math.max(max, other.max));
+        }
+
+        public long getCount() { return count; }
+        public long getSum() { return sum; }
+        public long getMin() { return count > 0 ? min : 0; }
+        public long getMax() { return max; }
+        public long getMean() { return count > 0 ? sum / count : 0; }
+
+        /**
+         * Value at a percentile (0-100), within the histogram's relative error
+         * Returns 0 when empty; never exceeds the recorded maximum.
+         */
+        public long getPercentile(double percentile) {
+            long total = 0;
+            for (long bucket : buckets) {
+                total += bucket;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(total * Math.min(100.0, Math.max(0.0, percentile)) / 100.0));
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    long width = widthAt(i, precisionBits);
+                    long value = lowestValueAt(i, precisionBits) + (width >> 1);
+                    return Math.max(getMin(), Math.min(value, max));
+                }
+            }
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d mean=%d p50=%d p95=%d p99=%d p99.9=%d max=%d", count, getMean(),
+                    getPercentile(50), getPercentile(95), getPercentile(99), getPercentile(99.9), max);
+        }
+    }
+}
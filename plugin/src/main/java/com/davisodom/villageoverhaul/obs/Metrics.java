@@ -1,83 +1,199 @@
 package com.davisodom.villageoverhaul.obs;
 
+import com.davisodom.villageoverhaul.obs.trace.Span;
+import com.davisodom.villageoverhaul.obs.trace.Tracing;
+
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Logger;
 
 /**
  * Observability infrastructure for metrics and structured logging
  * 
  * Provides:
- * - Tick time counters per subsystem
+ * - Tick time histograms per subsystem and village (see {@link LatencyHistogram})
+ * - CPU time and allocation histograms per subsystem (see {@link ThreadResources})
  * - Operation counters and latencies
+ * - Gauges for current state (e.g. circuit breaker state)
  * - Correlation IDs for tracing
  * - Debug flags
  * 
+ * Counters, gauges and timers are registered handles: hot paths look a handle up once
+ * ({@link #counter(String)}, {@link #gauge(String)}, {@link #timer(String)}) and update it
+ * without a map lookup or allocation. The string methods (increment, setGauge,
+ * recordTickTime) resolve the handle on every call and remain for cold paths.
+ * 
  * Constitution compliance:
  * - Principle VIII: Observability, Testing, and QA Discipline
  */
 public class Metrics {
     
     private final Logger logger;
-    private final Map<String, Long> counters;
+    private final Map<String, Counter> counters;
+    private final Map<String, Gauge> gauges;
     private final Map<String, TickTimeStats> tickTimeStats;
+    private final Map<String, ResourceStats> resourceStats;
     private final Map<UUID, TickTimeStats> villageTickTimeStats; // Per-village metrics for ≤2ms budget
+    private final VillageCostProfiler villageCosts;
+    private final Counter villageBudgetExceeded;
+    private volatile long villageBudgetMicros = 2000;
+    private final Object budgetWarningLock = new Object();
+    private long lastBudgetWarningNanos;
+    private long budgetWarningsSuppressed;
     private boolean debugEnabled;
     
+    // At most one budget warning per interval; overruns in between are counted
+    private static final long BUDGET_WARNING_INTERVAL_NANOS = 10_000_000_000L;
+    
     public Metrics(Logger logger) {
         this.logger = logger;
         this.counters = new ConcurrentHashMap<>();
+        this.gauges = new ConcurrentHashMap<>();
         this.tickTimeStats = new ConcurrentHashMap<>();
+        this.resourceStats = new ConcurrentHashMap<>();
         this.villageTickTimeStats = new ConcurrentHashMap<>();
+        this.villageCosts = new VillageCostProfiler();
+        this.villageBudgetExceeded = counter("village.budget.exceeded");
+        this.lastBudgetWarningNanos = System.nanoTime() - BUDGET_WARNING_INTERVAL_NANOS;
         this.debugEnabled = false;
     }
     
+    /**
+     * Counter handle, registered on first use
+     */
+    public Counter counter(String counterName) {
+        Counter counter = counters.get(counterName);
+        return counter != null ? counter : counters.computeIfAbsent(counterName, Counter::new);
+    }
+    
+    /**
+     * Gauge handle, registered on first use
+     */
+    public Gauge gauge(String gaugeName) {
+        Gauge gauge = gauges.get(gaugeName);
+        return gauge != null ? gauge : gauges.computeIfAbsent(gaugeName, Gauge::new);
+    }
+    
+    /**
+     * Timer (tick time stats) handle, registered on first use
+     */
+    public TickTimeStats timer(String subsystem) {
+        return getOrCreateTickTimeStats(subsystem);
+    }
+    
+    /**
+     * CPU time / allocation handle for a subsystem, registered on first use
+     */
+    public ResourceStats resources(String subsystem) {
+        ResourceStats stats = resourceStats.get(subsystem);
+        return stats != null ? stats : resourceStats.computeIfAbsent(subsystem, k -> new ResourceStats());
+    }
+    
     /**
      * Increment a counter
      */
     public void increment(String counterName) {
-        counters.merge(counterName, 1L, Long::sum);
+        counter(counterName).inc();
     }
     
     /**
      * Increment a counter by a specific amount
      */
     public void increment(String counterName, long amount) {
-        counters.merge(counterName, amount, Long::sum);
+        counter(counterName).add(amount);
     }
     
     /**
      * Get current counter value
      */
     public long getCounter(String counterName) {
-        return counters.getOrDefault(counterName, 0L);
+        Counter counter = counters.get(counterName);
+        return counter != null ? counter.get() : 0L;
+    }
+    
+    /**
+     * Set a gauge to its current value
+     */
+    public void setGauge(String gaugeName, long value) {
+        gauge(gaugeName).set(value);
+    }
+    
+    /**
+     * Get current gauge value
+     */
+    public long getGauge(String gaugeName) {
+        Gauge gauge = gauges.get(gaugeName);
+        return gauge != null ? gauge.get() : 0L;
     }
     
     /**
-     * Record tick time for a subsystem (microseconds)
+     * Record tick time for a subsystem or operation (microseconds)
      */
     public void recordTickTime(String subsystem, long micros) {
-        tickTimeStats.computeIfAbsent(subsystem, k -> new TickTimeStats())
-            .record(micros);
+        getOrCreateTickTimeStats(subsystem).record(micros);
+    }
+    
+    /**
+     * Stats handle for a subsystem, created on first use
+     * Hot paths should keep the handle and record into it directly (no map lookup).
+     */
+    public TickTimeStats getOrCreateTickTimeStats(String subsystem) {
+        TickTimeStats stats = tickTimeStats.get(subsystem);
+        return stats != null ? stats : tickTimeStats.computeIfAbsent(subsystem, k -> new TickTimeStats());
     }
     
     /**
      * Record tick time for a specific village (microseconds)
-     * Constitution: Per-village tick cost ≤ 2ms amortized
+     * Constitution: Per-village tick cost ≤ 2ms amortized (budget follows the performance profile)
      */
     public void recordVillageTickTime(UUID villageId, long micros) {
-        villageTickTimeStats.computeIfAbsent(villageId, k -> new TickTimeStats())
-            .record(micros);
-            
-        // Warn if village exceeds 2ms budget (2000 micros)
-        if (micros > 2000) {
-            logger.warning(String.format("Village %s exceeded 2ms tick budget: %d μs", 
-                villageId, micros));
+        TickTimeStats stats = villageTickTimeStats.get(villageId);
+        if (stats == null) {
+            stats = villageTickTimeStats.computeIfAbsent(villageId, k -> new TickTimeStats(false));
+        }
+        stats.record(micros);
+        
+        // Warn if village exceeds its tick budget (rate limited: a pathological village
+        // would otherwise log on every visit)
+        if (micros > villageBudgetMicros) {
+            villageBudgetExceeded.inc();
+            long now = System.nanoTime();
+            long suppressed;
+            synchronized (budgetWarningLock) {
+                if (now - lastBudgetWarningNanos < BUDGET_WARNING_INTERVAL_NANOS) {
+                    budgetWarningsSuppressed++;
+                    return;
+                }
+                lastBudgetWarningNanos = now;
+                suppressed = budgetWarningsSuppressed;
+                budgetWarningsSuppressed = 0;
+            }
+            logger.warning(String.format("Village %s exceeded %.1fms tick budget: %d μs (%d more overruns since last warning, " +
+                    "see /vo perf villages)", villageId, villageBudgetMicros / 1000.0, micros, suppressed));
         }
     }
     
+    /**
+     * Per-village CPU attribution (ticks, paths, placement, NPC interactions, projects)
+     */
+    public VillageCostProfiler getVillageCosts() {
+        return villageCosts;
+    }
+    
+    /**
+     * Set the per-village tick budget used for budget warnings (microseconds)
+     */
+    public void setVillageBudgetMicros(long budgetMicros) {
+        this.villageBudgetMicros = budgetMicros;
+    }
+    
+    public long getVillageBudgetMicros() {
+        return villageBudgetMicros;
+    }
+    
     /**
      * Get tick time statistics for a specific village
      */
@@ -107,9 +223,28 @@ public class Metrics {
     }
     
     /**
-     * Generate a correlation ID for tracing
+     * Get CPU time / allocation stats for a subsystem
+     */
+    public ResourceStats getResourceStats(String subsystem) {
+        return resourceStats.get(subsystem);
+    }
+    
+    /**
+     * Get all CPU time / allocation stats
+     */
+    public Map<String, ResourceStats> getAllResourceStats() {
+        return new HashMap<>(resourceStats);
+    }
+    
+    /**
+     * Correlation ID for log lines: the current trace ID when a span is active on this
+     * thread (matches args.trace in the trace export), otherwise a random UUID
      */
     public String generateCorrelationId() {
+        Span span = Tracing.current();
+        if (span.isRecording()) {
+            return span.getTraceIdHex();
+        }
         return UUID.randomUUID().toString();
     }
     
@@ -148,68 +283,246 @@ public class Metrics {
      * Get metrics snapshot for reporting
      */
     public MetricsSnapshot getSnapshot() {
-        return new MetricsSnapshot(
-            new HashMap<>(counters),
-            new HashMap<>(tickTimeStats)
-        );
+        Map<String, Long> counterValues = new HashMap<>();
+        counters.forEach((name, counter) -> counterValues.put(name, counter.get()));
+        Map<String, Long> gaugeValues = new HashMap<>();
+        gauges.forEach((name, gauge) -> gaugeValues.put(name, gauge.get()));
+        return new MetricsSnapshot(counterValues, gaugeValues, new HashMap<>(tickTimeStats),
+                new HashMap<>(resourceStats));
     }
     
     /**
      * Reset all metrics (for testing)
      */
     public void reset() {
-        counters.clear();
-        tickTimeStats.clear();
+        // Handles may be cached by callers, so reset them in place rather than dropping them
+        counters.values().forEach(Counter::reset);
+        gauges.values().forEach(Gauge::reset);
+        tickTimeStats.values().forEach(TickTimeStats::reset);
+        resourceStats.values().forEach(ResourceStats::reset);
+        villageTickTimeStats.clear();
+        villageCosts.reset();
+    }
+    
+    /**
+     * Monotonic (or signed delta) counter striped over a {@link LongAdder}
+     * Updates from many threads do not contend on one cache line; reads sum the stripes.
+     */
+    public static final class Counter {
+        
+        private final String name;
+        private final LongAdder value = new LongAdder();
+        
+        Counter(String name) {
+            this.name = name;
+        }
+        
+        public void inc() {
+            value.increment();
+        }
+        
+        public void add(long amount) {
+            value.add(amount);
+        }
+        
+        public long get() {
+            return value.sum();
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        void reset() {
+            value.reset();
+        }
     }
     
     /**
-     * Tick time statistics with p95/p99
+     * Last-value gauge (single writer expected; reads may come from any thread)
+     */
+    public static final class Gauge {
+        
+        private final String name;
+        private volatile long value;
+        
+        Gauge(String name) {
+            this.name = name;
+        }
+        
+        public void set(long value) {
+            this.value = value;
+        }
+        
+        public long get() {
+            return value;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        void reset() {
+            value = 0L;
+        }
+    }
+    
+    /**
+     * Tick time statistics backed by a log-bucketed histogram
+     * 
+     * Windowed stats (subsystems) keep 1m/5m/15m sliding windows and report percentiles over
+     * the last 5 minutes (~6000 samples at 20 TPS, enough for a stable p99.9). Per-village
+     * stats are all-time only, at 5 bits of precision, to keep thousands of villages cheap.
+     * Recording is lock-free and does not allocate.
      */
     public static class TickTimeStats {
-        private long count = 0;
-        private long totalMicros = 0;
-        private long minMicros = Long.MAX_VALUE;
-        private long maxMicros = 0;
-        
-        // Simple rolling window for percentiles
-        private final long[] recentSamples = new long[100];
-        private int sampleIndex = 0;
-        
-        public synchronized void record(long micros) {
-            count++;
-            totalMicros += micros;
-            minMicros = Math.min(minMicros, micros);
-            maxMicros = Math.max(maxMicros, micros);
-            
-            // Store in rolling window
-            recentSamples[sampleIndex] = micros;
-            sampleIndex = (sampleIndex + 1) % recentSamples.length;
-        }
-        
-        public long getCount() { return count; }
-        public long getAverageMicros() { return count > 0 ? totalMicros / count : 0; }
-        public long getMinMicros() { return minMicros == Long.MAX_VALUE ? 0 : minMicros; }
-        public long getMaxMicros() { return maxMicros; }
+        
+        // Window used by the percentile getters of windowed stats
+        public static final WindowedHistogram.Window PERCENTILE_WINDOW = WindowedHistogram.Window.FIVE_MINUTES;
+        
+        private final WindowedHistogram windowed;
+        private final LatencyHistogram cumulative;
+        
+        public TickTimeStats() {
+            this(true);
+        }
         
         /**
-         * Calculate p95 from recent samples
+         * @param windowed Keep sliding windows (otherwise all-time only, lower precision)
          */
-        public long getP95Micros() {
-            return getPercentile(95);
+        public TickTimeStats(boolean windowed) {
+            this.windowed = windowed ? new WindowedHistogram() : null;
+            this.cumulative = windowed ? null : new LatencyHistogram(5);
         }
         
         /**
-         * Calculate p99 from recent samples
+         * Record the time elapsed since a System.nanoTime() start mark
          */
-        public long getP99Micros() {
-            return getPercentile(99);
+        public void recordSince(long startNanos) {
+            record((System.nanoTime() - startNanos) / 1000);
+        }
+        
+        public void record(long micros) {
+            if (windowed != null) {
+                windowed.record(micros);
+            } else {
+                cumulative.record(micros);
+            }
         }
         
-        private long getPercentile(int percentile) {
-            long[] sorted = recentSamples.clone();
-            java.util.Arrays.sort(sorted);
-            int index = (int) Math.ceil(sorted.length * percentile / 100.0) - 1;
-            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        public long getCount() {
+            return windowed != null ? windowed.getCount() : cumulative.getCount();
+        }
+        
+        public long getAverageMicros() { return getSnapshot().getMean(); }
+        public long getMinMicros() { return getSnapshot().getMin(); }
+        public long getMaxMicros() { return getSnapshot().getMax(); }
+        public long getP95Micros() { return getPercentileMicros(95); }
+        public long getP99Micros() { return getPercentileMicros(99); }
+        public long getP999Micros() { return getPercentileMicros(99.9); }
+        
+        /**
+         * Percentile over the 5-minute window (all-time for per-village stats)
+         */
+        public long getPercentileMicros(double percentile) {
+            return getSnapshot(PERCENTILE_WINDOW).getPercentile(percentile);
+        }
+        
+        public void reset() {
+            if (windowed != null) {
+                windowed.reset();
+            } else {
+                cumulative.reset();
+            }
+        }
+        
+        public boolean isWindowed() {
+            return windowed != null;
+        }
+        
+        /**
+         * All-time snapshot (mergeable with other stats of the same kind)
+         */
+        public LatencyHistogram.Snapshot getSnapshot() {
+            return windowed != null ? windowed.snapshot() : cumulative.snapshot();
+        }
+        
+        /**
+         * Snapshot over a sliding window (all-time for per-village stats)
+         */
+        public LatencyHistogram.Snapshot getSnapshot(WindowedHistogram.Window window) {
+            return windowed != null ? windowed.snapshot(window) : cumulative.snapshot();
+        }
+    }
+    
+    /**
+     * CPU time and allocated bytes per run of a subsystem (system tick, placement batch, ...)
+     * 
+     * Samples come from {@link ThreadResources} deltas on the thread doing the work. Both
+     * histograms keep the same 1m/5m/15m windows as tick times; the all-time sums give total
+     * CPU and total allocation, so the allocation rate is the sum's rate of change.
+     * Allocations above {@link LatencyHistogram#MAX_TRACKABLE} bytes (~64MB) in one run land in
+     * the top bucket (the sum stays exact). Recording is lock-free and does not allocate.
+     */
+    public static final class ResourceStats {
+        
+        private final WindowedHistogram cpuMicros = new WindowedHistogram();
+        private final WindowedHistogram allocatedBytes = new WindowedHistogram();
+        
+        /**
+         * Record the work since start marks taken with {@link ThreadResources} on this thread
+         * (a -1 mark means that measurement is off and is skipped)
+         */
+        public void recordSince(long cpuStartNanos, long allocStartBytes) {
+            if (cpuStartNanos >= 0) {
+                cpuMicros.record((ThreadResources.cpuNanos() - cpuStartNanos) / 1000);
+            }
+            if (allocStartBytes >= 0) {
+                allocatedBytes.record(ThreadResources.allocatedBytes() - allocStartBytes);
+            }
+        }
+        
+        /**
+         * Record a measured run (negative values are skipped)
+         */
+        public void record(long cpuNanos, long bytes) {
+            if (cpuNanos >= 0) {
+                cpuMicros.record(cpuNanos / 1000);
+            }
+            if (bytes >= 0) {
+                allocatedBytes.record(bytes);
+            }
+        }
+        
+        public long getCount() {
+            return Math.max(cpuMicros.getCount(), allocatedBytes.getCount());
+        }
+        
+        /**
+         * CPU time per run in microseconds, all-time
+         */
+        public LatencyHistogram.Snapshot getCpuSnapshot() {
+            return cpuMicros.snapshot();
+        }
+        
+        public LatencyHistogram.Snapshot getCpuSnapshot(WindowedHistogram.Window window) {
+            return cpuMicros.snapshot(window);
+        }
+        
+        /**
+         * Bytes allocated per run, all-time
+         */
+        public LatencyHistogram.Snapshot getAllocationSnapshot() {
+            return allocatedBytes.snapshot();
+        }
+        
+        public LatencyHistogram.Snapshot getAllocationSnapshot(WindowedHistogram.Window window) {
+            return allocatedBytes.snapshot(window);
+        }
+        
+        public void reset() {
+            cpuMicros.reset();
+            allocatedBytes.reset();
         }
     }
     
@@ -218,11 +531,21 @@ public class Metrics {
      */
     public static class MetricsSnapshot {
         public final Map<String, Long> counters;
+        public final Map<String, Long> gauges;
         public final Map<String, TickTimeStats> tickTimeStats;
+        public final Map<String, ResourceStats> resourceStats;
+        
+        public MetricsSnapshot(Map<String, Long> counters, Map<String, Long> gauges,
+                               Map<String, TickTimeStats> tickTimeStats) {
+            this(counters, gauges, tickTimeStats, new HashMap<>());
+        }
         
-        public MetricsSnapshot(Map<String, Long> counters, Map<String, TickTimeStats> tickTimeStats) {
+        public MetricsSnapshot(Map<String, Long> counters, Map<String, Long> gauges,
+                               Map<String, TickTimeStats> tickTimeStats, Map<String, ResourceStats> resourceStats) {
             this.counters = counters;
+            this.gauges = gauges;
             this.tickTimeStats = tickTimeStats;
+            this.resourceStats = resourceStats;
         }
     }
 }
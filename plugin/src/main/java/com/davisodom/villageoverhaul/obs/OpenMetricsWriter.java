@@ -0,0 +1,231 @@
+package com.davisodom.villageoverhaul.obs;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * Writes {@link Metrics} in the OpenMetrics text format (Prometheus scrape target)
+ *
+ * Lines are written straight to the underlying writer as they are produced, so a scrape
+ * never holds the whole payload in memory. Metric families:
+ * - vo_&lt;counter&gt;_total (counter) and vo_&lt;gauge&gt; (gauge), names sanitized from the
+ *   dotted Metrics names
+ * - vo_tick_duration_seconds{subsystem} (summary): p50/p95/p99/p99.9 over the last 5 minutes,
+ *   all-time count and sum
+ * - vo_cpu_seconds{subsystem} and vo_allocated_bytes{subsystem} (summary): CPU time and
+ *   allocation per run of a subsystem (see {@link Metrics.ResourceStats}); rate(..._sum) is the
+ *   CPU use and allocation rate
+ * - vo_village_tick_duration_seconds (summary): all villages merged, no per-village labels
+ * - vo_village_top_tick_p99_seconds{village} (gauge): the {@link #TOP_VILLAGES} most expensive
+ *   villages, so label cardinality stays bounded however many villages exist
+ *
+ * Family names must be unique within a scrape. A family written twice is logged and skipped
+ * (metadata and samples), so a name collision never cuts the scrape short before "# EOF".
+ * Call {@link #finish()} last; it writes the mandatory "# EOF" terminator and flushes.
+ */
+public final class OpenMetricsWriter {
+
+    public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    public static final String PREFIX = "vo_";
+
+    // Villages exported individually (by p99)
+    public static final int TOP_VILLAGES = 10;
+
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99, 0.999};
+
+    private final Writer out;
+    private final Logger logger;
+    private final Set<String> families = new HashSet<>();
+    private boolean skipping; // Current family is a duplicate
+
+    public OpenMetricsWriter(Writer out, Logger logger) {
+        this.out = out;
+        this.logger = logger;
+    }
+
+    /**
+     * Write every counter, gauge and tick histogram held by the metrics registry
+     */
+    public void writeMetrics(Metrics metrics) throws IOException {
+        Metrics.MetricsSnapshot snapshot = metrics.getSnapshot();
+        for (Map.Entry<String, Long> counter : new TreeMap<>(snapshot.counters).entrySet()) {
+            String name = PREFIX + sanitize(counter.getKey());
+            begin(name, "counter", "Counter " + counter.getKey(), null);
+            sample(name + "_total", null, null, counter.getValue());
+        }
+        for (Map.Entry<String, Long> gauge : new TreeMap<>(snapshot.gauges).entrySet()) {
+            gauge(PREFIX + sanitize(gauge.getKey()), "Gauge " + gauge.getKey(), gauge.getValue());
+        }
+
+        String tickFamily = PREFIX + "tick_duration_seconds";
+        Map<String, Metrics.TickTimeStats> subsystems = new TreeMap<>(snapshot.tickTimeStats);
+        if (!subsystems.isEmpty()) {
+            begin(tickFamily, "summary", "Tick time per subsystem (quantiles over 5m)", "seconds");
+            for (Map.Entry<String, Metrics.TickTimeStats> entry : subsystems.entrySet()) {
+                Metrics.TickTimeStats stats = entry.getValue();
+                summary(tickFamily, "subsystem", entry.getKey(), stats.getSnapshot(Metrics.TickTimeStats.PERCENTILE_WINDOW),
+                        stats.getSnapshot());
+            }
+        }
+
+        Map<String, Metrics.ResourceStats> resources = new TreeMap<>(snapshot.resourceStats);
+        String cpuFamily = PREFIX + "cpu_seconds";
+        if (!resources.isEmpty()) {
+            begin(cpuFamily, "summary", "Thread CPU time per run of a subsystem (quantiles over 5m)", "seconds");
+            for (Map.Entry<String, Metrics.ResourceStats> entry : resources.entrySet()) {
+                Metrics.ResourceStats stats = entry.getValue();
+                summary(cpuFamily, "subsystem", entry.getKey(), stats.getCpuSnapshot(Metrics.TickTimeStats.PERCENTILE_WINDOW),
+                        stats.getCpuSnapshot());
+            }
+        }
+        String allocFamily = PREFIX + "allocated_bytes";
+        if (!resources.isEmpty()) {
+            begin(allocFamily, "summary", "Bytes allocated per run of a subsystem (quantiles over 5m)", "bytes");
+            for (Map.Entry<String, Metrics.ResourceStats> entry : resources.entrySet()) {
+                Metrics.ResourceStats stats = entry.getValue();
+                summary(allocFamily, "subsystem", entry.getKey(), stats.getAllocationSnapshot(Metrics.TickTimeStats.PERCENTILE_WINDOW),
+                        stats.getAllocationSnapshot(), 1.0);
+            }
+        }
+
+        writeVillages(metrics.getAllVillageTickTimeStats());
+    }
+
+    private void writeVillages(Map<UUID, Metrics.TickTimeStats> villages) throws IOException {
+        if (villages.isEmpty()) {
+            return;
+        }
+
+        // Merge all villages and keep the top N by p99 (min-heap on p99)
+        LatencyHistogram.Snapshot merged = null;
+        PriorityQueue<Map.Entry<UUID, Long>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<UUID, Metrics.TickTimeStats> entry : villages.entrySet()) {
+            LatencyHistogram.Snapshot snapshot = entry.getValue().getSnapshot();
+            merged = merged == null ? snapshot : merged.merge(snapshot);
+            top.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), snapshot.getPercentile(99)));
+            if (top.size() > TOP_VILLAGES) {
+                top.poll();
+            }
+        }
+
+        String family = PREFIX + "village_tick_duration_seconds";
+        begin(family, "summary", "Tick time per village, all villages merged", "seconds");
+        summary(family, null, null, merged, merged);
+        gauge(PREFIX + "village_tracked", "Villages with tick time stats", villages.size());
+
+        String topFamily = PREFIX + "village_top_tick_p99_seconds";
+        begin(topFamily, "gauge", "p99 tick time of the " + TOP_VILLAGES + " most expensive villages", "seconds");
+        List<Map.Entry<UUID, Long>> ranked = new ArrayList<>(top);
+        ranked.sort(Map.Entry.<UUID, Long>comparingByValue().reversed());
+        for (Map.Entry<UUID, Long> entry : ranked) {
+            sample(topFamily, "village", entry.getKey().toString(), entry.getValue() / 1e6);
+        }
+    }
+
+    /**
+     * Write a single-sample gauge family
+     */
+    public void gauge(String name, String help, double value) throws IOException {
+        begin(name, "gauge", help, null);
+        sample(name, null, null, value);
+    }
+
+    /**
+     * Write a gauge family with one sample per label value (keep the label set bounded)
+     */
+    public void gauge(String name, String help, String label, Map<String, ? extends Number> values) throws IOException {
+        begin(name, "gauge", help, null);
+        for (Map.Entry<String, ? extends Number> entry : values.entrySet()) {
+            sample(name, label, entry.getKey(), entry.getValue().doubleValue());
+        }
+    }
+
+    /**
+     * Write the "# EOF" terminator and flush
+     */
+    public void finish() throws IOException {
+        out.write("# EOF\n");
+        out.flush();
+    }
+
+    /**
+     * Write the family metadata, or skip the family (until the next begin) if it was already written
+     */
+    private void begin(String name, String type, String help, String unit) throws IOException {
+        skipping = !families.add(name);
+        if (skipping) {
+            logger.warning("Skipped duplicate metric family: " + name);
+            return;
+        }
+        out.write("# TYPE " + name + " " + type + "\n");
+        if (unit != null) {
+            out.write("# UNIT " + name + " " + unit + "\n");
+        }
+        out.write("# HELP " + name + " " + escapeHelp(help) + "\n");
+    }
+
+    private void summary(String family, String label, String labelValue, LatencyHistogram.Snapshot quantiles,
+                         LatencyHistogram.Snapshot totals) throws IOException {
+        summary(family, label, labelValue, quantiles, totals, 1e6); // Microseconds -> seconds
+    }
+
+    /**
+     * @param divisor Recorded unit per exported unit
+     */
+    private void summary(String family, String label, String labelValue, LatencyHistogram.Snapshot quantiles,
+                         LatencyHistogram.Snapshot totals, double divisor) throws IOException {
+        if (skipping) {
+            return;
+        }
+        String labels = label != null ? label + "=\"" + escapeLabel(labelValue) + "\"," : "";
+        for (double quantile : QUANTILES) {
+            out.write(family + "{" + labels + "quantile=\"" + quantile + "\"} " +
+                    format(quantiles.getPercentile(quantile * 100) / divisor) + "\n");
+        }
+        String plain = label != null ? "{" + label + "=\"" + escapeLabel(labelValue) + "\"}" : "";
+        out.write(family + "_count" + plain + " " + totals.getCount() + "\n");
+        out.write(family + "_sum" + plain + " " + format(totals.getSum() / divisor) + "\n");
+    }
+
+    private void sample(String name, String label, String labelValue, double value) throws IOException {
+        if (skipping) {
+            return;
+        }
+        out.write(name);
+        if (label != null) {
+            out.write("{" + label + "=\"" + escapeLabel(labelValue) + "\"}");
+        }
+        out.write(" " + format(value) + "\n");
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    /**
+     * Metric name from a dotted Metrics name ("tick.work.steps" -> "tick_work_steps")
+     */
+    static String sanitize(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            boolean valid = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || (c >= '0' && c <= '9');
+            sb.append(valid ? c : '_');
+        }
+        return sb.toString();
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String escapeHelp(String value) {
+        return value.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+}
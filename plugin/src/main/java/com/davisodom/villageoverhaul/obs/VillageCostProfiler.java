@@ -0,0 +1,296 @@
+package com.davisodom.villageoverhaul.obs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Attributes CPU time to the village that caused it
+ *
+ * The tick engine charges every village visit ({@link Source#TICK}, always timed). Other work
+ * is bracketed with begin()/end() at its call site: path searches, placement steps, NPC
+ * interactions and project updates. Those are sampled: one event in {@link #getSampleInterval()}
+ * per source is timed and charged scaled by the interval, the rest are only counted, so the
+ * totals are estimates when the interval is above 1. begin()/end() measure the calling
+ * thread's CPU time through {@link ThreadResources}, falling back to wall time while that is
+ * disabled or unsupported. Work done before a village exists (e.g. a placement site that fails
+ * validation) is charged to {@link #UNATTRIBUTED}.
+ *
+ * Totals accumulate until {@link #reset()}; {@link #top(int)} ranks villages by their total.
+ * Charging is lock-free and does not allocate once a village has been seen.
+ *
+ * Usage:
+ * <pre>
+ * long start = profiler.begin(Source.PATH);
+ * ... find path ...
+ * profiler.end(villageId, Source.PATH, start);
+ * </pre>
+ */
+public final class VillageCostProfiler {
+
+    /**
+     * Kind of work charged to a village
+     */
+    public enum Source {
+        TICK,
+        PATH,
+        PLACEMENT,
+        NPC,
+        PROJECT;
+
+        public String getKey() {
+            return name().toLowerCase();
+        }
+    }
+
+    // begin() result for an event that is counted but not timed
+    public static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    // Bucket for work not owned by any village
+    public static final UUID UNATTRIBUTED = new UUID(0L, 0L);
+
+    private static final Source[] SOURCES = Source.values();
+
+    private final Map<UUID, VillageCost> costs = new ConcurrentHashMap<>();
+    private final AtomicLongArray sampleCounters = new AtomicLongArray(SOURCES.length);
+    private volatile int sampleInterval;
+    private volatile boolean enabled = true;
+    private volatile long resetAtMillis = System.currentTimeMillis();
+
+    public VillageCostProfiler() {
+        this(1);
+    }
+
+    /**
+     * @param sampleInterval Time 1 in N begin/end events per source (1 = every event)
+     */
+    public VillageCostProfiler(int sampleInterval) {
+        setSampleInterval(sampleInterval);
+    }
+
+    public void setSampleInterval(int sampleInterval) {
+        if (sampleInterval < 1) {
+            throw new IllegalArgumentException("sampleInterval must be at least 1: " + sampleInterval);
+        }
+        this.sampleInterval = sampleInterval;
+    }
+
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start of an attributed event
+     *
+     * @return Start time to pass to end(), or {@link #NOT_SAMPLED}
+     */
+    public long begin(Source source) {
+        if (!enabled) {
+            return NOT_SAMPLED;
+        }
+        int interval = sampleInterval;
+        if (interval > 1 && sampleCounters.getAndIncrement(source.ordinal()) % interval != 0) {
+            return NOT_SAMPLED;
+        }
+        return now();
+    }
+
+    /**
+     * End of an attributed event: count it and, if it was sampled, charge its time
+     *
+     * @param villageId Owning village (ignored when null)
+     */
+    public void end(UUID villageId, Source source, long startNanos) {
+        if (villageId == null || !enabled) {
+            return;
+        }
+        VillageCost cost = costOf(villageId);
+        cost.events[source.ordinal()].increment();
+        if (startNanos != NOT_SAMPLED) {
+            long elapsed = now() - startNanos;
+            if (elapsed > 0) {
+                cost.nanos[source.ordinal()].add(elapsed * sampleInterval);
+            }
+        }
+    }
+
+    /**
+     * Calling thread's CPU time, or wall time without per-thread CPU accounting
+     */
+    private static long now() {
+        long cpu = ThreadResources.cpuNanos();
+        return cpu >= 0 ? cpu : System.nanoTime();
+    }
+
+    /**
+     * Charge a measured duration (one event, not sampled)
+     */
+    public void charge(UUID villageId, Source source, long nanos) {
+        if (villageId == null || !enabled) {
+            return;
+        }
+        VillageCost cost = costOf(villageId);
+        cost.events[source.ordinal()].increment();
+        cost.nanos[source.ordinal()].add(nanos);
+    }
+
+    private VillageCost costOf(UUID villageId) {
+        VillageCost cost = costs.get(villageId);
+        return cost != null ? cost : costs.computeIfAbsent(villageId, VillageCost::new);
+    }
+
+    /**
+     * Drop a village's totals (village removed)
+     */
+    public void forget(UUID villageId) {
+        costs.remove(villageId);
+    }
+
+    public void reset() {
+        costs.clear();
+        resetAtMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Wall-clock time the totals were last reset
+     */
+    public long getResetAtMillis() {
+        return resetAtMillis;
+    }
+
+    public int getTrackedVillages() {
+        return costs.size();
+    }
+
+    /**
+     * Sum over all villages
+     */
+    public long getTotalNanos() {
+        long total = 0;
+        for (VillageCost cost : costs.values()) {
+            total += cost.getTotalNanos();
+        }
+        return total;
+    }
+
+    /**
+     * The most expensive villages by total charged time, most expensive first
+     */
+    public List<Entry> top(int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        Comparator<Entry> byTotal = Comparator.comparingLong(Entry::getTotalNanos);
+        PriorityQueue<Entry> heap = new PriorityQueue<>(byTotal);
+        for (VillageCost cost : costs.values()) {
+            Entry entry = cost.snapshot();
+            if (heap.size() < limit) {
+                heap.add(entry);
+            } else if (entry.getTotalNanos() > heap.peek().getTotalNanos()) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+        List<Entry> ranked = new ArrayList<>(heap);
+        ranked.sort(byTotal.reversed());
+        return ranked;
+    }
+
+    /**
+     * Totals for one village, or null if nothing was charged to it
+     */
+    public Entry get(UUID villageId) {
+        VillageCost cost = costs.get(villageId);
+        return cost != null ? cost.snapshot() : null;
+    }
+
+    /**
+     * Live per-village accumulators
+     */
+    private static final class VillageCost {
+        final UUID villageId;
+        final LongAdder[] nanos = new LongAdder[SOURCES.length];
+        final LongAdder[] events = new LongAdder[SOURCES.length];
+
+        VillageCost(UUID villageId) {
+            this.villageId = villageId;
+            for (int i = 0; i < SOURCES.length; i++) {
+                nanos[i] = new LongAdder();
+                events[i] = new LongAdder();
+            }
+        }
+
+        long getTotalNanos() {
+            long total = 0;
+            for (LongAdder adder : nanos) {
+                total += adder.sum();
+            }
+            return total;
+        }
+
+        Entry snapshot() {
+            long[] nanosCopy = new long[SOURCES.length];
+            long[] eventsCopy = new long[SOURCES.length];
+            for (int i = 0; i < SOURCES.length; i++) {
+                nanosCopy[i] = nanos[i].sum();
+                eventsCopy[i] = events[i].sum();
+            }
+            return new Entry(villageId, nanosCopy, eventsCopy);
+        }
+    }
+
+    /**
+     * Point-in-time totals for one village
+     */
+    public static final class Entry {
+        private final UUID villageId;
+        private final long[] nanos;
+        private final long[] events;
+        private final long totalNanos;
+
+        Entry(UUID villageId, long[] nanos, long[] events) {
+            this.villageId = villageId;
+            this.nanos = nanos;
+            this.events = events;
+            long total = 0;
+            for (long n : nanos) {
+                total += n;
+            }
+            this.totalNanos = total;
+        }
+
+        public UUID getVillageId() { return villageId; }
+        public boolean isUnattributed() { return UNATTRIBUTED.equals(villageId); }
+        public long getTotalNanos() { return totalNanos; }
+        public long getNanos(Source source) { return nanos[source.ordinal()]; }
+        public long getEvents(Source source) { return events[source.ordinal()]; }
+
+        /**
+         * Source with the most charged time
+         */
+        public Source getDominantSource() {
+            Source dominant = Source.TICK;
+            for (Source source : SOURCES) {
+                if (nanos[source.ordinal()] > nanos[dominant.ordinal()]) {
+                    dominant = source;
+                }
+            }
+            return dominant;
+        }
+    }
+}
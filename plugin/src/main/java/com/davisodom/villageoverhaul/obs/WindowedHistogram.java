@@ -0,0 +1,165 @@
+package com.davisodom.villageoverhaul.obs;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Latency histogram with an all-time view and sliding 1m/5m/15m windows
+ *
+ * Values are recorded into the all-time histogram and into two rings of time slices:
+ * 15-second slices for the 1-minute window and 1-minute slices for the 5- and 15-minute
+ * windows. A window is the merge of the current (partial) slice and the complete slices
+ * before it, so the 1-minute window covers between 60 and 75 seconds of samples and the
+ * 5-minute window between 5 and 6 minutes; older slices age out as the rings wrap.
+ *
+ * Slices are kept at {@link #SLICE_PRECISION_BITS} bits (≤ 3.2% error) whatever the
+ * all-time precision, so one histogram holds 21 slices of ~3KB instead of 61 at full
+ * precision. Window snapshots therefore merge with other window snapshots, not with the
+ * all-time view.
+ *
+ * Lock-free like {@link LatencyHistogram}. The first writer to reach a new slice resets it;
+ * a sample racing with that reset may be lost from the window (never from the all-time view).
+ */
+public final class WindowedHistogram {
+
+    public static final long SLICE_MILLIS = 15_000L;
+    public static final long COARSE_SLICE_MILLIS = 60_000L;
+
+    public static final int SLICE_PRECISION_BITS = 5;
+
+    /**
+     * Sliding window lengths
+     */
+    public enum Window {
+        ONE_MINUTE(1, SLICE_MILLIS),
+        FIVE_MINUTES(5, COARSE_SLICE_MILLIS),
+        FIFTEEN_MINUTES(15, COARSE_SLICE_MILLIS);
+
+        private final int minutes;
+        private final long sliceMillis;
+
+        Window(int minutes, long sliceMillis) {
+            this.minutes = minutes;
+            this.sliceMillis = sliceMillis;
+        }
+
+        public int getMinutes() {
+            return minutes;
+        }
+
+        int slices() {
+            return (int) (minutes * 60_000L / sliceMillis);
+        }
+    }
+
+    // Monotonic milliseconds (not wall time, so clock adjustments cannot skip slices)
+    public static final LongSupplier MONOTONIC_MILLIS = () -> System.nanoTime() / 1_000_000L;
+
+    private final int slicePrecisionBits;
+    private final LongSupplier millis;
+    private final LatencyHistogram total;
+    private final SliceRing fine;
+    private final SliceRing coarse;
+
+    public WindowedHistogram() {
+        this(LatencyHistogram.DEFAULT_PRECISION_BITS, MONOTONIC_MILLIS);
+    }
+
+    /**
+     * @param precisionBits All-time histogram precision (see {@link LatencyHistogram})
+     * @param millis Millisecond time source for slicing
+     */
+    public WindowedHistogram(int precisionBits, LongSupplier millis) {
+        this.slicePrecisionBits = Math.min(precisionBits, SLICE_PRECISION_BITS);
+        this.millis = millis;
+        this.total = new LatencyHistogram(precisionBits);
+        this.fine = new SliceRing(SLICE_MILLIS, Window.ONE_MINUTE.slices() + 1, slicePrecisionBits);
+        this.coarse = new SliceRing(COARSE_SLICE_MILLIS, Window.FIFTEEN_MINUTES.slices() + 1, slicePrecisionBits);
+    }
+
+    public void record(long value) {
+        total.record(value);
+        long now = millis.getAsLong();
+        fine.record(now, value);
+        coarse.record(now, value);
+    }
+
+    /**
+     * All values recorded since creation (or the last reset)
+     */
+    public LatencyHistogram.Snapshot snapshot() {
+        return total.snapshot();
+    }
+
+    /**
+     * Values recorded within a sliding window ending now
+     */
+    public LatencyHistogram.Snapshot snapshot(Window window) {
+        SliceRing ring = window.sliceMillis == SLICE_MILLIS ? fine : coarse;
+        return ring.snapshot(millis.getAsLong(), window.slices(), slicePrecisionBits);
+    }
+
+    public long getCount() {
+        return total.getCount();
+    }
+
+    public void reset() {
+        total.reset();
+        fine.reset();
+        coarse.reset();
+    }
+
+    /**
+     * Ring of fixed-length time slices, one histogram each
+     */
+    private static final class SliceRing {
+
+        private final long sliceMillis;
+        private final LatencyHistogram[] slices;
+        private final AtomicLongArray sliceEpochs;
+
+        SliceRing(long sliceMillis, int size, int precisionBits) {
+            this.sliceMillis = sliceMillis;
+            this.slices = new LatencyHistogram[size];
+            this.sliceEpochs = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                slices[i] = new LatencyHistogram(precisionBits);
+                sliceEpochs.set(i, Long.MIN_VALUE);
+            }
+        }
+
+        void record(long now, long value) {
+            long epoch = Math.floorDiv(now, sliceMillis);
+            int index = (int) Math.floorMod(epoch, (long) slices.length);
+            long current = sliceEpochs.get(index);
+            if (current != epoch) {
+                if (current > epoch) {
+                    return; // Stale writer: its slice has already been recycled
+                }
+                if (sliceEpochs.compareAndSet(index, current, epoch)) {
+                    slices[index].reset();
+                }
+            }
+            slices[index].record(value);
+        }
+
+        LatencyHistogram.Snapshot snapshot(long now, int back, int precisionBits) {
+            long epoch = Math.floorDiv(now, sliceMillis);
+            LatencyHistogram.Snapshot merged = LatencyHistogram.Snapshot.empty(precisionBits);
+            for (int i = 0; i < slices.length; i++) {
+                long sliceEpoch = sliceEpochs.get(i);
+                if (sliceEpoch <= epoch && sliceEpoch >= epoch - back) {
+                    merged = merged.merge(slices[i].snapshot());
+                }
+            }
+            return merged;
+        }
+
+        void reset() {
+            for (int i = 0; i < slices.length; i++) {
+                sliceEpochs.set(i, Long.MIN_VALUE);
+                slices[i].reset();
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.davisodom.villageoverhaul.obs.jfr;
+
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Switch for the plugin's JDK Flight Recorder events
+ *
+ * While disabled (the default) the instrumented paths check {@link #isEnabled()} before
+ * touching an event class: the only cost is one volatile read, and the event classes are
+ * never loaded or registered with the recorder.
+ * When enabled, events are created and timed but only written if a recording has them
+ * enabled (see the bundled villageoverhaul.jfc), so an idle recorder costs a few checks.
+ *
+ * Config: performance.jfr.enabled
+ */
+public final class JfrEvents {
+
+    public static final String CATEGORY = "Village Overhaul";
+
+    private static volatile boolean enabled = false;
+
+    private JfrEvents() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enable or disable event emission; enabling registers the event types so they show up
+     * in JMC / jfr summary even before the first event is emitted
+     */
+    public static synchronized void setEnabled(boolean enable) {
+        if (enable && !enabled) {
+            for (Class<? extends Event> type : EventTypes.ALL) {
+                FlightRecorder.register(type);
+            }
+        }
+        enabled = enable;
+    }
+
+    public static List<Class<? extends Event>> getEventTypes() {
+        return EventTypes.ALL;
+    }
+
+    /**
+     * Holder so the event classes load on first use rather than with this class
+     */
+    private static final class EventTypes {
+
+        static final List<Class<? extends Event>> ALL = Collections.unmodifiableList(Arrays.asList(
+                PathSearchEvent.class,
+                SiteValidationEvent.class,
+                PlacementBatchEvent.class,
+                TerraformEvent.class,
+                WalletTransferEvent.class,
+                ProjectContributionEvent.class));
+    }
+}
@@ -0,0 +1,63 @@
+package com.davisodom.villageoverhaul.obs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One A* search in PathServiceImpl
+ */
+@Name("villageoverhaul.PathSearch")
+@Label("Path Search")
+@Category({JfrEvents.CATEGORY, "Worldgen"})
+@Description("A* search between two buildings")
+@StackTrace(false)
+public final class PathSearchEvent extends Event {
+
+    public static final String FOUND = "found";
+    public static final String NODE_LIMIT = "node limit reached";
+    public static final String NO_PATH = "no path exists";
+
+    @Label("Start X")
+    public int startX;
+
+    @Label("Start Z")
+    public int startZ;
+
+    @Label("End X")
+    public int endX;
+
+    @Label("End Z")
+    public int endZ;
+
+    @Label("Nodes Explored")
+    public int nodesExplored;
+
+    @Label("Node Limit")
+    public int nodeLimit;
+
+    @Label("Obstacles")
+    @Description("Neighbors rejected as impassable")
+    public int obstacles;
+
+    @Label("Path Length")
+    @Description("Nodes in the resulting path (0 if none)")
+    public int pathLength;
+
+    @Label("Result")
+    public String result;
+
+    /**
+     * Create and begin the event
+     *
+     * Callers check {@link JfrEvents#isEnabled()} first: calling this loads the event class.
+     */
+    public static PathSearchEvent start() {
+        PathSearchEvent event = new PathSearchEvent();
+        event.begin();
+        return event;
+    }
+}
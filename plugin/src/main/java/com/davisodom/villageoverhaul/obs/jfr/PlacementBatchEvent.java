@@ -0,0 +1,49 @@
+package com.davisodom.villageoverhaul.obs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One main-thread block batch committed by PlacementQueueProcessor
+ */
+@Name("villageoverhaul.PlacementBatch")
+@Label("Placement Batch")
+@Category({JfrEvents.CATEGORY, "Worldgen"})
+@Description("Blocks committed from a placement queue in one tick")
+@StackTrace(false)
+public final class PlacementBatchEvent extends Event {
+
+    @Label("Queue")
+    public String queueId;
+
+    @Label("Building")
+    public String buildingId;
+
+    @Label("Batch Blocks")
+    public int blocks;
+
+    @Label("Placed")
+    @Description("Blocks placed without error in this batch")
+    public int placed;
+
+    @Label("Queue Placed")
+    public int queuePlaced;
+
+    @Label("Queue Total")
+    public int queueTotal;
+
+    /**
+     * Create and begin the event
+     *
+     * Callers check {@link JfrEvents#isEnabled()} first: calling this loads the event class.
+     */
+    public static PlacementBatchEvent start() {
+        PlacementBatchEvent event = new PlacementBatchEvent();
+        event.begin();
+        return event;
+    }
+}
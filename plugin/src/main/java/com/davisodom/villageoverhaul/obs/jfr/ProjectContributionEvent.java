@@ -0,0 +1,51 @@
+package com.davisodom.villageoverhaul.obs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One contribution applied by ProjectService
+ */
+@Name("villageoverhaul.ProjectContribution")
+@Label("Project Contribution")
+@Category({JfrEvents.CATEGORY, "Economy"})
+@Description("Millz contributed to a village project")
+@StackTrace(false)
+public final class ProjectContributionEvent extends Event {
+
+    @Label("Project")
+    public String projectId;
+
+    @Label("Village")
+    public String villageId;
+
+    @Label("Player")
+    public String playerId;
+
+    @Label("Attempted (Millz)")
+    public long attemptedMillz;
+
+    @Label("Accepted (Millz)")
+    public long acceptedMillz;
+
+    @Label("Overflow (Millz)")
+    public long overflowMillz;
+
+    @Label("Completed")
+    public boolean completed;
+
+    /**
+     * Create and begin the event
+     *
+     * Callers check {@link JfrEvents#isEnabled()} first: calling this loads the event class.
+     */
+    public static ProjectContributionEvent start() {
+        ProjectContributionEvent event = new ProjectContributionEvent();
+        event.begin();
+        return event;
+    }
+}
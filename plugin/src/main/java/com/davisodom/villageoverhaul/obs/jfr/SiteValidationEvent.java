@@ -0,0 +1,60 @@
+package com.davisodom.villageoverhaul.obs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One building site validation in SiteValidator
+ */
+@Name("villageoverhaul.SiteValidation")
+@Label("Site Validation")
+@Category({JfrEvents.CATEGORY, "Worldgen"})
+@Description("Foundation, interior and entrance checks for a building footprint")
+@StackTrace(false)
+public final class SiteValidationEvent extends Event {
+
+    @Label("Origin X")
+    public int originX;
+
+    @Label("Origin Y")
+    public int originY;
+
+    @Label("Origin Z")
+    public int originZ;
+
+    @Label("Width")
+    public int width;
+
+    @Label("Depth")
+    public int depth;
+
+    @Label("Height")
+    public int height;
+
+    @Label("Passed")
+    public boolean passed;
+
+    @Label("Foundation OK")
+    public boolean foundationOk;
+
+    @Label("Interior Air OK")
+    public boolean interiorAirOk;
+
+    @Label("Entrance OK")
+    public boolean entranceOk;
+
+    /**
+     * Create and begin the event
+     *
+     * Callers check {@link JfrEvents#isEnabled()} first: calling this loads the event class.
+     */
+    public static SiteValidationEvent start() {
+        SiteValidationEvent event = new SiteValidationEvent();
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,53 @@
+package com.davisodom.villageoverhaul.obs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One terraforming operation in TerraformingUtil
+ */
+@Name("villageoverhaul.Terraform")
+@Label("Terraform")
+@Category({JfrEvents.CATEGORY, "Worldgen"})
+@Description("Vegetation trimming, grading, gap filling or foundation backfill around a site")
+@StackTrace(false)
+public final class TerraformEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Origin X")
+    public int originX;
+
+    @Label("Origin Z")
+    public int originZ;
+
+    @Label("Width")
+    public int width;
+
+    @Label("Depth")
+    public int depth;
+
+    @Label("Blocks Changed")
+    @Description("Blocks changed (-1 when the operation only reports success)")
+    public int blocksChanged;
+
+    @Label("Success")
+    public boolean success;
+
+    /**
+     * Create and begin the event
+     *
+     * Callers check {@link JfrEvents#isEnabled()} first: calling this loads the event class.
+     */
+    public static TerraformEvent start(String operation) {
+        TerraformEvent event = new TerraformEvent();
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,42 @@
+package com.davisodom.villageoverhaul.obs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One wallet-to-wallet transfer in WalletService
+ */
+@Name("villageoverhaul.WalletTransfer")
+@Label("Wallet Transfer")
+@Category({JfrEvents.CATEGORY, "Economy"})
+@Description("Millz moved between two wallets, including time spent waiting for the wallet locks")
+@StackTrace(false)
+public final class WalletTransferEvent extends Event {
+
+    @Label("From")
+    public String from;
+
+    @Label("To")
+    public String to;
+
+    @Label("Amount (Millz)")
+    public long amountMillz;
+
+    @Label("Success")
+    public boolean success;
+
+    /**
+     * Create and begin the event
+     *
+     * Callers check {@link JfrEvents#isEnabled()} first: calling this loads the event class.
+     */
+    public static WalletTransferEvent start() {
+        WalletTransferEvent event = new WalletTransferEvent();
+        event.begin();
+        return event;
+    }
+}
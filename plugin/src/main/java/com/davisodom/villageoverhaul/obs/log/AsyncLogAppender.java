@@ -0,0 +1,210 @@
+package com.davisodom.villageoverhaul.obs.log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded ring buffer drained by a single writer thread
+ *
+ * Producers (main thread, worldgen workers) only copy a reference into the ring; all
+ * formatting for sinks, console output and file I/O happens on the writer thread. The writer
+ * wakes every flush interval, or early once the ring is half full or a WARNING+ event
+ * arrives. When the ring is full new events are dropped and counted, never blocking the
+ * producer; the writer reports the drop count on its next pass. SEVERE events are refused
+ * but not counted, since {@link EventLog} publishes those synchronously instead.
+ */
+public final class AsyncLogAppender {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+    public static final long DEFAULT_FLUSH_INTERVAL_MS = 100;
+
+    private final Logger logger;
+    private final List<LogSink> sinks;
+    private final LogEvent[] ring;
+    private final int mask;
+    private final long flushIntervalMs;
+    private final Object lock = new Object();
+
+    // Guarded by lock
+    private long head;
+    private long tail;
+    private long dropped;
+    private boolean running;
+
+    private long droppedTotal;
+    private volatile long written;
+    private Thread writer;
+
+    /**
+     * @param logger Logger for the appender's own errors
+     * @param capacity Ring size, rounded up to a power of two
+     */
+    public AsyncLogAppender(Logger logger, List<LogSink> sinks, int capacity, long flushIntervalMs) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity must be at least 2: " + capacity);
+        }
+        if (flushIntervalMs <= 0) {
+            throw new IllegalArgumentException("flushIntervalMs must be positive: " + flushIntervalMs);
+        }
+        this.logger = logger;
+        this.sinks = new ArrayList<>(sinks);
+        this.ring = new LogEvent[Integer.highestOneBit(capacity - 1) << 1];
+        this.mask = ring.length - 1;
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    public void start() {
+        synchronized (lock) {
+            if (running) {
+                return;
+            }
+            running = true;
+        }
+        writer = new Thread(this::run, "VillageOverhaul-Log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stop the writer after draining everything already buffered, then close the sinks
+     */
+    public void stop() {
+        Thread thread;
+        synchronized (lock) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            lock.notifyAll();
+            thread = writer;
+        }
+        try {
+            thread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isRunning() {
+        synchronized (lock) {
+            return running;
+        }
+    }
+
+    /**
+     * Buffer an event; false if the appender is stopped or the ring is full (event dropped
+     * unless SEVERE)
+     */
+    public boolean offer(LogEvent event) {
+        synchronized (lock) {
+            if (!running) {
+                return false;
+            }
+            if (head - tail == ring.length) {
+                if (event.getLevel() != Level.SEVERE) {
+                    dropped++;
+                }
+                return false;
+            }
+            ring[(int) (head & mask)] = event;
+            head++;
+            if (head - tail == ring.length / 2 || event.getLevel().intValue() >= Level.WARNING.intValue()) {
+                lock.notifyAll();
+            }
+            return true;
+        }
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    public int getPending() {
+        synchronized (lock) {
+            return (int) (head - tail);
+        }
+    }
+
+    public long getDropped() {
+        synchronized (lock) {
+            return droppedTotal + dropped;
+        }
+    }
+
+    public long getWritten() {
+        return written;
+    }
+
+    private void run() {
+        LogEvent[] batch = new LogEvent[ring.length];
+        while (true) {
+            int count;
+            long newlyDropped;
+            boolean stopping;
+            synchronized (lock) {
+                if (running && head == tail) {
+                    try {
+                        lock.wait(flushIntervalMs);
+                    } catch (InterruptedException e) {
+                        running = false;
+                    }
+                }
+                count = (int) (head - tail);
+                for (int i = 0; i < count; i++) {
+                    int slot = (int) ((tail + i) & mask);
+                    batch[i] = ring[slot];
+                    ring[slot] = null;
+                }
+                tail = head;
+                newlyDropped = dropped;
+                droppedTotal += dropped;
+                dropped = 0;
+                stopping = !running;
+            }
+
+            for (int i = 0; i < count; i++) {
+                write(batch[i]);
+                batch[i] = null;
+            }
+            written += count;
+            if (newlyDropped > 0) {
+                logger.warning("[LOG] Event buffer full, dropped " + newlyDropped + " event(s)");
+            }
+            if (count > 0) {
+                flushSinks();
+            }
+            if (stopping) {
+                break;
+            }
+        }
+        for (LogSink sink : sinks) {
+            try {
+                sink.close();
+            } catch (Exception e) {
+                logger.warning("[LOG] Failed to close log sink: " + e.getMessage());
+            }
+        }
+    }
+
+    private void write(LogEvent event) {
+        for (LogSink sink : sinks) {
+            try {
+                sink.write(event);
+            } catch (Exception e) {
+                logger.warning("[LOG] Log sink " + sink.getClass().getSimpleName() + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void flushSinks() {
+        for (LogSink sink : sinks) {
+            try {
+                sink.flush();
+            } catch (Exception e) {
+                logger.warning("[LOG] Failed to flush log sink: " + e.getMessage());
+            }
+        }
+    }
+}
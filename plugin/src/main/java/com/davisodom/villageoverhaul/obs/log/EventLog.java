@@ -0,0 +1,224 @@
+package com.davisodom.villageoverhaul.obs.log;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Structured, sampled event logging for hot paths
+ *
+ * Code logs through an {@link EventLogger} handle bound to a {@link LogCategory} and a
+ * java.util.logging logger. Each call names the event ("astar.start") and passes the message
+ * as a supplier, which is only invoked once the event has passed filtering:
+ * - debug: only when the category's DebugFlags switch is on (logged at INFO) or the logger is
+ *   at FINE; sampled 1 in sampleRate, then rate limited
+ * - info: lifecycle events, never sampled or rate limited
+ * - warn: rate limited; dropped warnings are counted and reported on the next one let through
+ * - severe: never dropped; published synchronously if the appender's buffer is full
+ *
+ * Emitted events go to the {@link AsyncLogAppender} when one is running, so the caller never
+ * touches the console or disk. Without an appender (tests, headless simulation) they are
+ * published to the logger synchronously.
+ *
+ * Config: logging.*, debug.*
+ */
+public final class EventLog {
+
+    /**
+     * Per-category sampling and rate limit
+     */
+    public static final class CategorySettings {
+
+        public static final CategorySettings DEFAULT = new CategorySettings(1, 0);
+
+        private final int sampleRate;
+        private final int maxPerSecond;
+
+        /**
+         * @param sampleRate Emit 1 in N debug events (1 = all)
+         * @param maxPerSecond Debug + warning events per second (0 = unlimited)
+         */
+        public CategorySettings(int sampleRate, int maxPerSecond) {
+            if (sampleRate < 1) {
+                throw new IllegalArgumentException("sampleRate must be at least 1: " + sampleRate);
+            }
+            if (maxPerSecond < 0) {
+                throw new IllegalArgumentException("maxPerSecond must not be negative: " + maxPerSecond);
+            }
+            this.sampleRate = sampleRate;
+            this.maxPerSecond = maxPerSecond;
+        }
+
+        public int getSampleRate() { return sampleRate; }
+        public int getMaxPerSecond() { return maxPerSecond; }
+
+        @Override
+        public String toString() {
+            return "sampleRate=" + sampleRate + ", maxPerSecond=" + maxPerSecond;
+        }
+    }
+
+    private static final class CategoryState {
+        volatile CategorySettings settings = CategorySettings.DEFAULT;
+        final AtomicLong sampleCounter = new AtomicLong();
+        final RateLimiter limiter = new RateLimiter();
+    }
+
+    private static final Map<LogCategory, CategoryState> STATES = new EnumMap<>(LogCategory.class);
+
+    static {
+        for (LogCategory category : LogCategory.values()) {
+            STATES.put(category, new CategoryState());
+        }
+    }
+
+    private static final LongAdder emitted = new LongAdder();
+    private static final LongAdder sampledOut = new LongAdder();
+    private static final LongAdder rateLimited = new LongAdder();
+
+    private static volatile AsyncLogAppender appender;
+
+    private EventLog() {
+    }
+
+    /**
+     * Handle logging to the class's java.util.logging logger
+     */
+    public static EventLogger getLogger(LogCategory category, Class<?> type) {
+        return new EventLogger(category, Logger.getLogger(type.getName()));
+    }
+
+    public static EventLogger getLogger(LogCategory category, Logger logger) {
+        return new EventLogger(category, logger);
+    }
+
+    public static void configure(LogCategory category, CategorySettings settings) {
+        STATES.get(category).settings = settings;
+    }
+
+    public static CategorySettings getSettings(LogCategory category) {
+        return STATES.get(category).settings;
+    }
+
+    /**
+     * Route events through the appender (starting it), replacing any previous one
+     */
+    public static synchronized void start(AsyncLogAppender newAppender) {
+        AsyncLogAppender previous = appender;
+        newAppender.start();
+        appender = newAppender;
+        if (previous != null) {
+            previous.stop();
+        }
+    }
+
+    /**
+     * Drain and stop the appender; later events are logged synchronously
+     */
+    public static synchronized void shutdown() {
+        AsyncLogAppender current = appender;
+        appender = null;
+        if (current != null) {
+            current.stop();
+        }
+    }
+
+    public static AsyncLogAppender getAppender() {
+        return appender;
+    }
+
+    public static long getEmitted() {
+        return emitted.sum();
+    }
+
+    /**
+     * Debug events skipped by sampling
+     */
+    public static long getSampledOut() {
+        return sampledOut.sum();
+    }
+
+    /**
+     * Events dropped by category rate limits
+     */
+    public static long getRateLimited() {
+        return rateLimited.sum();
+    }
+
+    /**
+     * Events lost because the appender's buffer was full
+     */
+    public static long getDropped() {
+        AsyncLogAppender current = appender;
+        return current != null ? current.getDropped() : 0;
+    }
+
+    /**
+     * Restore defaults and counters (tests)
+     */
+    static synchronized void reset() {
+        shutdown();
+        for (LogCategory category : LogCategory.values()) {
+            STATES.put(category, new CategoryState());
+        }
+        emitted.reset();
+        sampledOut.reset();
+        rateLimited.reset();
+    }
+
+    static boolean isDebugEnabled(LogCategory category, Logger logger) {
+        return category.isDebugFlagSet() || logger.isLoggable(Level.FINE);
+    }
+
+    static void debug(EventLogger source, String event, Supplier<String> message) {
+        LogCategory category = source.getCategory();
+        Logger logger = source.getTarget();
+        boolean flagged = category.isDebugFlagSet();
+        if (!flagged && !logger.isLoggable(Level.FINE)) {
+            return;
+        }
+        CategoryState state = STATES.get(category);
+        CategorySettings settings = state.settings;
+        if (settings.sampleRate > 1 && state.sampleCounter.getAndIncrement() % settings.sampleRate != 0) {
+            sampledOut.increment();
+            return;
+        }
+        long suppressed = state.limiter.tryAcquire(settings.maxPerSecond, System.nanoTime());
+        if (suppressed < 0) {
+            rateLimited.increment();
+            return;
+        }
+        emit(source, flagged ? Level.INFO : Level.FINE, event, message.get(), suppressed);
+    }
+
+    static void log(EventLogger source, Level level, String event, String message, Supplier<String> supplier) {
+        Logger logger = source.getTarget();
+        if (!logger.isLoggable(level)) {
+            return;
+        }
+        long suppressed = 0;
+        if (level == Level.WARNING) {
+            CategoryState state = STATES.get(source.getCategory());
+            suppressed = state.limiter.tryAcquire(state.settings.maxPerSecond, System.nanoTime());
+            if (suppressed < 0) {
+                rateLimited.increment();
+                return;
+            }
+        }
+        emit(source, level, event, message != null ? message : supplier.get(), suppressed);
+    }
+
+    private static void emit(EventLogger source, Level level, String event, String message, long suppressed) {
+        LogEvent logEvent = new LogEvent(System.currentTimeMillis(), level, source.getCategory(), event, message,
+                source.getTarget(), Thread.currentThread().getName(), suppressed);
+        emitted.increment();
+        AsyncLogAppender current = appender;
+        if (current == null || (!current.offer(logEvent) && (level == Level.SEVERE || !current.isRunning()))) {
+            LoggerSink.publish(logEvent);
+        }
+    }
+}
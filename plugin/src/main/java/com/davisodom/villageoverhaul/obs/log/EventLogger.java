@@ -0,0 +1,83 @@
+package com.davisodom.villageoverhaul.obs.log;
+
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Category-bound logging handle, usually held in a static field
+ *
+ * Usage:
+ * <pre>
+ * private static final EventLogger LOG = EventLog.getLogger(LogCategory.PATHS, PathServiceImpl.class);
+ *
+ * LOG.debug("astar.start", () -> String.format("[PATH] A* search start: ...", ...));
+ * </pre>
+ *
+ * Capturing lambdas are cheap but not free; wrap blocks of debug output in
+ * {@link #isDebugEnabled()} when they sit in a tight loop.
+ */
+public final class EventLogger {
+
+    private final LogCategory category;
+    private final Logger target;
+
+    EventLogger(LogCategory category, Logger target) {
+        this.category = category;
+        this.target = target;
+    }
+
+    public LogCategory getCategory() {
+        return category;
+    }
+
+    /**
+     * java.util.logging logger events are published to
+     */
+    public Logger getTarget() {
+        return target;
+    }
+
+    /**
+     * Whether debug events would be considered at all (before sampling)
+     */
+    public boolean isDebugEnabled() {
+        return EventLog.isDebugEnabled(category, target);
+    }
+
+    /**
+     * Diagnostic detail: needs the category's debug flag, sampled and rate limited
+     */
+    public void debug(String event, Supplier<String> message) {
+        EventLog.debug(this, event, message);
+    }
+
+    /**
+     * Lifecycle event: always logged
+     */
+    public void info(String event, String message) {
+        EventLog.log(this, Level.INFO, event, message, null);
+    }
+
+    public void info(String event, Supplier<String> message) {
+        EventLog.log(this, Level.INFO, event, null, message);
+    }
+
+    /**
+     * Warning: rate limited per category
+     */
+    public void warn(String event, String message) {
+        EventLog.log(this, Level.WARNING, event, message, null);
+    }
+
+    public void warn(String event, Supplier<String> message) {
+        EventLog.log(this, Level.WARNING, event, null, message);
+    }
+
+    /**
+     * Error: never dropped
+     */
+    public void severe(String event, String message) {
+        EventLog.log(this, Level.SEVERE, event, message, null);
+    }
+}
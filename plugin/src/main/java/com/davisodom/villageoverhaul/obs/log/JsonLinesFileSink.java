@@ -0,0 +1,113 @@
+package com.davisodom.villageoverhaul.obs.log;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * Writes events as JSON lines (one object per event) for offline analysis
+ *
+ * Fields: ts (ISO-8601), level, category, event, thread, logger, msg and, when the rate limit
+ * dropped events, suppressed. The file is rolled to &lt;name&gt;.1 once it passes maxBytes.
+ */
+public final class JsonLinesFileSink implements LogSink {
+
+    private final File file;
+    private final long maxBytes;
+    private BufferedWriter writer;
+    private long written;
+
+    public JsonLinesFileSink(File file, long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        }
+        this.file = file;
+        this.maxBytes = maxBytes;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public void write(LogEvent event) throws IOException {
+        if (writer == null) {
+            open();
+        } else if (written >= maxBytes) {
+            roll();
+        }
+        StringBuilder sb = new StringBuilder(160 + event.getMessage().length());
+        sb.append("{\"ts\":\"").append(Instant.ofEpochMilli(event.getTimeMillis())).append('"');
+        field(sb, "level", event.getLevel().getName());
+        field(sb, "category", event.getCategory().getKey());
+        field(sb, "event", event.getEvent());
+        field(sb, "thread", event.getThreadName());
+        field(sb, "logger", event.getLoggerName());
+        field(sb, "msg", event.getMessage());
+        if (event.getSuppressed() > 0) {
+            sb.append(",\"suppressed\":").append(event.getSuppressed());
+        }
+        sb.append("}\n");
+        writer.write(sb.toString());
+        written += sb.length();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private void open() throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            Files.createDirectories(parent.toPath());
+        }
+        written = file.exists() ? file.length() : 0;
+        writer = new BufferedWriter(new OutputStreamWriter(
+                Files.newOutputStream(file.toPath(), StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND), StandardCharsets.UTF_8));
+    }
+
+    private void roll() throws IOException {
+        close();
+        Files.move(file.toPath(), new File(file.getPath() + ".1").toPath(), StandardCopyOption.REPLACE_EXISTING);
+        open();
+    }
+
+    private static void field(StringBuilder sb, String name, String value) {
+        sb.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,45 @@
+package com.davisodom.villageoverhaul.obs.log;
+
+import com.davisodom.villageoverhaul.DebugFlags;
+
+/**
+ * Event log categories, one per {@link DebugFlags} debug switch
+ *
+ * Debug events of a category are only built when its flag is on (config debug.&lt;key&gt;) or
+ * the target logger is at FINE. Sampling and rate limits are configured per category under
+ * logging.categories.&lt;key&gt;.
+ */
+public enum LogCategory {
+    STRUCTURES("structures"),
+    PATHS("paths"),
+    TERRAFORMING("terraforming"),
+    PERFORMANCE("performance"),
+    TICK("tick");
+
+    private final String key;
+
+    LogCategory(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Config key (debug.&lt;key&gt;, logging.categories.&lt;key&gt;)
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Whether the matching DebugFlags switch is on
+     */
+    public boolean isDebugFlagSet() {
+        switch (this) {
+            case STRUCTURES: return DebugFlags.isDebugStructures();
+            case PATHS: return DebugFlags.isDebugPaths();
+            case TERRAFORMING: return DebugFlags.isDebugTerraforming();
+            case PERFORMANCE: return DebugFlags.isDebugPerformance();
+            case TICK: return DebugFlags.isDebugTick();
+            default: return false;
+        }
+    }
+}
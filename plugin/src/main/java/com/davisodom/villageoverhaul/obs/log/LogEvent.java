@@ -0,0 +1,59 @@
+package com.davisodom.villageoverhaul.obs.log;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One emitted event, as handed to the appender
+ *
+ * Immutable: the message is rendered on the calling thread once the event has passed
+ * filtering, everything else is captured as-is.
+ */
+public final class LogEvent {
+
+    private final long timeMillis;
+    private final Level level;
+    private final LogCategory category;
+    private final String event;
+    private final String message;
+    private final Logger logger;
+    private final String threadName;
+    private final long suppressed;
+
+    LogEvent(long timeMillis, Level level, LogCategory category, String event, String message,
+             Logger logger, String threadName, long suppressed) {
+        this.timeMillis = timeMillis;
+        this.level = level;
+        this.category = category;
+        this.event = event;
+        this.message = message;
+        this.logger = logger;
+        this.threadName = threadName;
+        this.suppressed = suppressed;
+    }
+
+    public long getTimeMillis() { return timeMillis; }
+    public Level getLevel() { return level; }
+    public LogCategory getCategory() { return category; }
+    public String getEvent() { return event; }
+    public String getMessage() { return message; }
+    public String getLoggerName() { return logger.getName(); }
+
+    /**
+     * Logger the event was emitted for
+     */
+    public Logger getLogger() { return logger; }
+    public String getThreadName() { return threadName; }
+
+    /**
+     * Events of this category dropped by the rate limit since the previous emitted one
+     */
+    public long getSuppressed() { return suppressed; }
+
+    /**
+     * Message with the suppressed count appended, as written to the server log
+     */
+    public String getFormattedMessage() {
+        return suppressed > 0 ? message + " (" + suppressed + " more " + category.getKey() + " events suppressed)" : message;
+    }
+}
@@ -0,0 +1,20 @@
+package com.davisodom.villageoverhaul.obs.log;
+
+import java.io.IOException;
+
+/**
+ * Destination for log events, called from the appender's writer thread only
+ */
+public interface LogSink {
+
+    void write(LogEvent event) throws IOException;
+
+    /**
+     * Called when the buffer has been drained
+     */
+    default void flush() throws IOException {
+    }
+
+    default void close() throws IOException {
+    }
+}
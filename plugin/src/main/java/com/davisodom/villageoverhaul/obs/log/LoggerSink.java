@@ -0,0 +1,25 @@
+package com.davisodom.villageoverhaul.obs.log;
+
+import java.time.Instant;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Forwards events to the java.util.logging logger they were emitted for, so they reach the
+ * server console and log files exactly as a direct logger call would
+ */
+public final class LoggerSink implements LogSink {
+
+    @Override
+    public void write(LogEvent event) {
+        publish(event);
+    }
+
+    static void publish(LogEvent event) {
+        Logger logger = event.getLogger();
+        LogRecord record = new LogRecord(event.getLevel(), event.getFormattedMessage());
+        record.setLoggerName(logger.getName());
+        record.setInstant(Instant.ofEpochMilli(event.getTimeMillis()));
+        logger.log(record);
+    }
+}
@@ -0,0 +1,46 @@
+package com.davisodom.villageoverhaul.obs.log;
+
+/**
+ * Fixed one-second window limiter that counts what it rejects
+ *
+ * The suppressed count is handed to the first event let through after the rejections, so the
+ * log still shows how much was dropped.
+ */
+final class RateLimiter {
+
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private long windowStart = Long.MIN_VALUE;
+    private int windowCount;
+    private long suppressed;
+
+    /**
+     * @return -1 if the event is rejected, otherwise the number of events suppressed since
+     *         the last accepted one
+     */
+    synchronized long tryAcquire(int maxPerSecond, long nowNanos) {
+        if (maxPerSecond <= 0) {
+            return takeSuppressed();
+        }
+        if (windowStart == Long.MIN_VALUE || nowNanos - windowStart >= WINDOW_NANOS) {
+            windowStart = nowNanos;
+            windowCount = 0;
+        }
+        if (windowCount >= maxPerSecond) {
+            suppressed++;
+            return -1;
+        }
+        windowCount++;
+        return takeSuppressed();
+    }
+
+    synchronized long getSuppressed() {
+        return suppressed;
+    }
+
+    private long takeSuppressed() {
+        long taken = suppressed;
+        suppressed = 0;
+        return taken;
+    }
+}
@@ -0,0 +1,36 @@
+package com.davisodom.villageoverhaul.obs.stream;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Domain event for live subscribers (project completed, queue finished, village generated)
+ *
+ * Field values should be strings, numbers or booleans; they are written as a flat JSON object.
+ */
+public final class LiveEvent {
+
+    private final String type;
+    private final long timeMillis;
+    private final Map<String, Object> fields;
+
+    public LiveEvent(String type, long timeMillis, Map<String, Object> fields) {
+        this.type = type;
+        this.timeMillis = timeMillis;
+        this.fields = fields == null || fields.isEmpty()
+                ? Collections.emptyMap() : Collections.unmodifiableMap(new LinkedHashMap<>(fields));
+    }
+
+    /**
+     * Event name, also the SSE event field ("project.completed")
+     */
+    public String getType() { return type; }
+    public long getTimeMillis() { return timeMillis; }
+    public Map<String, Object> getFields() { return fields; }
+
+    @Override
+    public String toString() {
+        return "LiveEvent{" + type + ", " + fields + "}";
+    }
+}
@@ -0,0 +1,350 @@
+package com.davisodom.villageoverhaul.obs.stream;
+
+import com.davisodom.villageoverhaul.obs.LatencyHistogram;
+import com.davisodom.villageoverhaul.obs.Metrics;
+import com.davisodom.villageoverhaul.obs.WindowedHistogram;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Fans metric deltas and domain events out to Server-Sent Events subscribers
+ *
+ * Every interval the hub thread diffs counters and gauges against the previous pass and sends
+ * one coalesced "metrics" frame holding only what changed (plus tick p50/p99 over the last
+ * minute), followed by any domain events published since. A new subscriber first receives a
+ * full "snapshot" frame so the deltas that follow have a baseline.
+ *
+ * Publishers never block: events go into a bounded pending queue (overflow is counted and
+ * discarded), and frames are offered to each subscriber's bounded queue, which drops the
+ * subscriber when full. Nothing here runs on the main thread.
+ *
+ * Config: admin.stream.*
+ */
+public final class LiveEventHub {
+
+    // Domain events held between flushes before new ones are discarded
+    static final int MAX_PENDING_EVENTS = 4096;
+
+    private final Logger logger;
+    private final Metrics metrics;
+    private final Settings settings;
+    private final Supplier<Map<String, Number>> extraGauges;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final List<LiveSubscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Queue<LiveEvent> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicInteger nextSubscriberId = new AtomicInteger();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong droppedSubscribers = new AtomicLong();
+
+    // Hub thread only
+    private final Map<String, Long> lastCounters = new HashMap<>();
+    private final Map<String, Object> lastGauges = new HashMap<>();
+    private final Map<String, Object> lastTicks = new HashMap<>();
+    private long sequence;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param extraGauges Values sampled each flush besides Metrics gauges (queue depth, tick time), may be null
+     */
+    public LiveEventHub(Logger logger, Metrics metrics, Settings settings, Supplier<Map<String, Number>> extraGauges) {
+        this.logger = logger;
+        this.metrics = metrics;
+        this.settings = settings;
+        this.extraGauges = extraGauges;
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "VillageOverhaul-SSE");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::safeFlush, settings.intervalMs, settings.intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop flushing and disconnect every subscriber
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        for (LiveSubscriber subscriber : subscribers) {
+            subscriber.close("shutdown");
+        }
+        subscribers.clear();
+        pending.clear();
+        pendingCount.set(0);
+    }
+
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    public Settings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Register a client writing to the given stream
+     *
+     * The caller runs the returned subscriber on its own thread. Returns null when the
+     * subscriber limit is reached.
+     */
+    public LiveSubscriber subscribe(OutputStream out, Runnable onClose) {
+        synchronized (subscribers) {
+            if (subscribers.size() >= settings.maxSubscribers) {
+                return null;
+            }
+            LiveSubscriber subscriber = new LiveSubscriber(nextSubscriberId.incrementAndGet(), out,
+                    settings.bufferEvents, onClose);
+            subscriber.attach(this);
+            subscribers.add(subscriber);
+            return subscriber;
+        }
+    }
+
+    void unsubscribe(LiveSubscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    public boolean hasSubscribers() {
+        return !subscribers.isEmpty();
+    }
+
+    public List<LiveSubscriber> getSubscribers() {
+        return Collections.unmodifiableList(new ArrayList<>(subscribers));
+    }
+
+    /**
+     * Queue a domain event for the next flush; discarded (and counted) when the backlog is full
+     */
+    public void publish(LiveEvent event) {
+        if (pendingCount.incrementAndGet() > MAX_PENDING_EVENTS) {
+            pendingCount.decrementAndGet();
+            droppedEvents.incrementAndGet();
+            return;
+        }
+        pending.add(event);
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Subscribers disconnected for falling behind
+     */
+    public long getDroppedSubscribers() {
+        return droppedSubscribers.get();
+    }
+
+    private void safeFlush() {
+        try {
+            flush();
+        } catch (Throwable t) {
+            logger.warning("[SSE] Flush failed: " + t);
+        }
+    }
+
+    /**
+     * Send one round of frames (hub thread; called directly by tests)
+     */
+    void flush() {
+        if (subscribers.isEmpty()) {
+            // Idle: skip the diff; the next subscriber starts from a fresh snapshot anyway
+            while (pending.poll() != null) {
+                pendingCount.decrementAndGet();
+            }
+            return;
+        }
+        Map<String, Object> counters = new LinkedHashMap<>();
+        Map<String, Object> gauges = new LinkedHashMap<>();
+        Map<String, Object> ticks = new LinkedHashMap<>();
+        Map<String, Object> fullCounters = new LinkedHashMap<>();
+        Map<String, Object> fullGauges = new LinkedHashMap<>();
+        Map<String, Object> fullTicks = new LinkedHashMap<>();
+        collect(counters, gauges, ticks, fullCounters, fullGauges, fullTicks);
+
+        List<String> frames = new ArrayList<>();
+        boolean metricsFrame = !counters.isEmpty() || !gauges.isEmpty() || !ticks.isEmpty();
+        if (metricsFrame) {
+            frames.add(frame("metrics", metricsBody(counters, gauges, ticks)));
+        }
+        LiveEvent event;
+        while ((event = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("time", event.getTimeMillis());
+            body.putAll(event.getFields());
+            frames.add(frame(event.getType(), body));
+        }
+
+        String snapshot = null;
+        for (LiveSubscriber subscriber : subscribers) {
+            if (subscriber.isClosed()) {
+                subscribers.remove(subscriber);
+                continue;
+            }
+            boolean open = true;
+            int first = 0;
+            if (!subscriber.isSnapshotSent()) {
+                if (snapshot == null) {
+                    snapshot = frame("snapshot", metricsBody(fullCounters, fullGauges, fullTicks));
+                }
+                open = subscriber.offer(snapshot);
+                subscriber.markSnapshotSent();
+                first = metricsFrame ? 1 : 0; // The snapshot already includes this pass's deltas
+            }
+            for (int i = first; open && i < frames.size(); i++) {
+                open = subscriber.offer(frames.get(i));
+            }
+            if (!open) {
+                subscribers.remove(subscriber);
+                if ("slow".equals(subscriber.getCloseReason())) {
+                    droppedSubscribers.incrementAndGet();
+                    logger.info("[SSE] Dropped slow subscriber " + subscriber.getId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Fill the delta maps with values changed since the last pass and the full maps with everything
+     */
+    private void collect(Map<String, Object> counters, Map<String, Object> gauges, Map<String, Object> ticks,
+                         Map<String, Object> fullCounters, Map<String, Object> fullGauges,
+                         Map<String, Object> fullTicks) {
+        Metrics.MetricsSnapshot current = metrics.getSnapshot();
+        for (Map.Entry<String, Long> entry : new TreeMap<>(current.counters).entrySet()) {
+            long value = entry.getValue();
+            Long previous = lastCounters.put(entry.getKey(), value);
+            long delta = previous == null || value < previous ? value : value - previous; // Reset restarts from 0
+            if (delta != 0) {
+                counters.put(entry.getKey(), delta);
+            }
+            fullCounters.put(entry.getKey(), value);
+        }
+
+        Map<String, Object> gaugeValues = new TreeMap<>(current.gauges);
+        if (extraGauges != null) {
+            gaugeValues.putAll(extraGauges.get());
+        }
+        for (Map.Entry<String, Object> entry : gaugeValues.entrySet()) {
+            Object previous = lastGauges.put(entry.getKey(), entry.getValue());
+            if (!entry.getValue().equals(previous)) {
+                gauges.put(entry.getKey(), entry.getValue());
+            }
+            fullGauges.put(entry.getKey(), entry.getValue());
+        }
+
+        for (Map.Entry<String, Metrics.TickTimeStats> entry : new TreeMap<>(current.tickTimeStats).entrySet()) {
+            Metrics.TickTimeStats stats = entry.getValue();
+            LatencyHistogram.Snapshot snap = stats.isWindowed()
+                    ? stats.getSnapshot(WindowedHistogram.Window.ONE_MINUTE) : stats.getSnapshot();
+            if (snap.getCount() == 0) {
+                continue;
+            }
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("p50Micros", snap.getPercentile(50));
+            values.put("p99Micros", snap.getPercentile(99));
+            if (!values.equals(lastTicks.put(entry.getKey(), values))) {
+                ticks.put(entry.getKey(), values);
+            }
+            fullTicks.put(entry.getKey(), values);
+        }
+    }
+
+    private static Map<String, Object> metricsBody(Map<String, Object> counters, Map<String, Object> gauges,
+                                                   Map<String, Object> ticks) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("time", System.currentTimeMillis());
+        if (!counters.isEmpty()) {
+            body.put("counters", counters);
+        }
+        if (!gauges.isEmpty()) {
+            body.put("gauges", gauges);
+        }
+        if (!ticks.isEmpty()) {
+            body.put("ticks", ticks);
+        }
+        return body;
+    }
+
+    private String frame(String type, Map<String, Object> body) {
+        String json;
+        try {
+            json = mapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            json = "{\"error\":\"" + e.getOriginalMessage().replace('"', '\'') + "\"}";
+        }
+        return "id: " + (++sequence) + "\nevent: " + type + "\ndata: " + json + "\n\n";
+    }
+
+    /**
+     * Stream settings from admin.stream
+     */
+    public static final class Settings {
+        public static final long DEFAULT_INTERVAL_MS = 250;
+        public static final int DEFAULT_BUFFER_EVENTS = 256;
+        public static final int DEFAULT_MAX_SUBSCRIBERS = 8;
+
+        final long intervalMs;
+        final int bufferEvents;
+        final int maxSubscribers;
+
+        /**
+         * @param intervalMs Flush interval, at least 50ms
+         * @param bufferEvents Frames buffered per subscriber before it is dropped
+         * @param maxSubscribers Concurrent clients allowed
+         */
+        public Settings(long intervalMs, int bufferEvents, int maxSubscribers) {
+            if (intervalMs < 50) {
+                throw new IllegalArgumentException("intervalMs must be at least 50: " + intervalMs);
+            }
+            if (bufferEvents < 1) {
+                throw new IllegalArgumentException("bufferEvents must be positive: " + bufferEvents);
+            }
+            if (maxSubscribers < 1) {
+                throw new IllegalArgumentException("maxSubscribers must be positive: " + maxSubscribers);
+            }
+            this.intervalMs = intervalMs;
+            this.bufferEvents = bufferEvents;
+            this.maxSubscribers = maxSubscribers;
+        }
+
+        public static Settings defaults() {
+            return new Settings(DEFAULT_INTERVAL_MS, DEFAULT_BUFFER_EVENTS, DEFAULT_MAX_SUBSCRIBERS);
+        }
+
+        public long getIntervalMs() { return intervalMs; }
+        public int getBufferEvents() { return bufferEvents; }
+        public int getMaxSubscribers() { return maxSubscribers; }
+    }
+}
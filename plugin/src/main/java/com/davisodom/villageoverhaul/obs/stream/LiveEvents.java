@@ -0,0 +1,64 @@
+package com.davisodom.villageoverhaul.obs.stream;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Publishing side of the live event stream
+ *
+ * Game code reports domain events here without knowing about HTTP. While no hub is installed
+ * or nobody is subscribed, {@link #isActive()} is false after a volatile read and callers skip
+ * building the event entirely:
+ * <pre>
+ * if (LiveEvents.isActive()) {
+ *     LiveEvents.publish("project.completed", "projectId", id.toString(), "villageId", village.toString());
+ * }
+ * </pre>
+ * publish() only enqueues (never blocks); the hub formats and fans out on its own thread.
+ *
+ * Config: admin.stream.*
+ */
+public final class LiveEvents {
+
+    private static volatile LiveEventHub hub;
+
+    private LiveEvents() {
+    }
+
+    /**
+     * Install the hub (null disables publishing)
+     */
+    public static void setHub(LiveEventHub newHub) {
+        hub = newHub;
+    }
+
+    public static LiveEventHub getHub() {
+        return hub;
+    }
+
+    /**
+     * True while a hub is installed and has at least one subscriber
+     */
+    public static boolean isActive() {
+        LiveEventHub current = hub;
+        return current != null && current.hasSubscribers();
+    }
+
+    /**
+     * Publish an event with alternating field names and values
+     */
+    public static void publish(String type, Object... keyValues) {
+        LiveEventHub current = hub;
+        if (current == null || !current.hasSubscribers()) {
+            return;
+        }
+        if (keyValues.length % 2 != 0) {
+            throw new IllegalArgumentException("keyValues must be name/value pairs: " + keyValues.length);
+        }
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            fields.put(String.valueOf(keyValues[i]), keyValues[i + 1]);
+        }
+        current.publish(new LiveEvent(type, System.currentTimeMillis(), fields));
+    }
+}
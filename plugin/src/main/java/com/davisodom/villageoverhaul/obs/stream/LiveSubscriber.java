@@ -0,0 +1,161 @@
+package com.davisodom.villageoverhaul.obs.stream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One Server-Sent Events client: a bounded frame queue and the thread that writes it out
+ *
+ * The hub only offers frames; if the queue is full the client is not keeping up and is
+ * dropped instead of buffering without bound or making the hub wait. Socket writes happen on
+ * the subscriber's own thread, so a stalled connection only ever blocks itself, and closing
+ * the subscriber interrupts that thread: a write blocked on a socket channel fails with
+ * ClosedByInterruptException, so a dropped client releases its thread and connection right
+ * away instead of when the peer finally times out. Idle connections get an SSE comment every
+ * {@link #HEARTBEAT_MS} so proxies keep them open.
+ */
+public final class LiveSubscriber implements Runnable {
+
+    public static final long HEARTBEAT_MS = 15_000L;
+
+    // How often the writer re-checks for a drop while idle
+    private static final long POLL_MS = 500L;
+
+    private static final byte[] HEARTBEAT = ": keepalive\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final int id;
+    private final BlockingQueue<String> queue;
+    private final OutputStream out;
+    private final Runnable onClose;
+    private volatile String closeReason;
+    private volatile LiveEventHub hub;
+    private volatile Thread writer;
+    private boolean snapshotSent; // Hub thread only
+    private long framesWritten;
+
+    /**
+     * @param capacity Frames buffered before the client counts as too slow
+     * @param onClose Called once by the writer thread when it exits (closes the exchange)
+     */
+    public LiveSubscriber(int id, OutputStream out, int capacity, Runnable onClose) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1: " + capacity);
+        }
+        this.id = id;
+        this.out = out;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.onClose = onClose;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public boolean isClosed() {
+        return closeReason != null;
+    }
+
+    /**
+     * Why the subscriber was closed ("slow", "disconnected", "shutdown"), or null while open
+     */
+    public String getCloseReason() {
+        return closeReason;
+    }
+
+    public int getQueued() {
+        return queue.size();
+    }
+
+    void attach(LiveEventHub owner) {
+        this.hub = owner;
+    }
+
+    boolean isSnapshotSent() {
+        return snapshotSent;
+    }
+
+    void markSnapshotSent() {
+        snapshotSent = true;
+    }
+
+    /**
+     * Queue a frame; a full queue closes the subscriber as too slow
+     *
+     * @return false if the subscriber is (now) closed
+     */
+    boolean offer(String frame) {
+        if (closeReason != null) {
+            return false;
+        }
+        if (!queue.offer(frame)) {
+            close("slow");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Stop delivering and interrupt the writer thread so a blocked write gives up
+     */
+    void close(String reason) {
+        if (closeReason == null) {
+            closeReason = reason;
+        }
+        queue.clear();
+        Thread thread = writer;
+        if (thread != null && thread != Thread.currentThread()) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Writer loop (run on the subscriber's own thread)
+     */
+    @Override
+    public void run() {
+        writer = Thread.currentThread(); // Set before the first check so close() can't miss it
+        long lastWrite = System.currentTimeMillis();
+        try {
+            while (closeReason == null) {
+                String frame = queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (frame != null) {
+                    out.write(frame.getBytes(StandardCharsets.UTF_8));
+                    // Write everything already queued before flushing
+                    while ((frame = queue.poll()) != null) {
+                        out.write(frame.getBytes(StandardCharsets.UTF_8));
+                    }
+                    out.flush();
+                    framesWritten++;
+                    lastWrite = System.currentTimeMillis();
+                } else if (System.currentTimeMillis() - lastWrite >= HEARTBEAT_MS) {
+                    out.write(HEARTBEAT);
+                    out.flush();
+                    lastWrite = System.currentTimeMillis();
+                }
+            }
+        } catch (IOException e) {
+            close("disconnected"); // Keeps "slow" or "shutdown" when the interrupt caused it
+        } catch (InterruptedException e) {
+            close("shutdown");
+            Thread.currentThread().interrupt();
+        } finally {
+            LiveEventHub owner = hub;
+            if (owner != null) {
+                owner.unsubscribe(this);
+            }
+            if (onClose != null) {
+                onClose.run();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LiveSubscriber{" + id + (closeReason != null ? ", closed=" + closeReason : "") +
+                ", queued=" + queue.size() + ", flushes=" + framesWritten + "}";
+    }
+}
@@ -0,0 +1,144 @@
+package com.davisodom.villageoverhaul.obs.trace;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes spans in the Chrome trace event format (chrome://tracing, Perfetto, speedscope)
+ *
+ * Each span becomes a complete ("X") event on the thread that started it, with the trace,
+ * span and parent IDs and the span attributes in args. Spans still open at export time are
+ * written with their duration so far and args.open = true. Thread names are emitted as
+ * metadata events so the main thread and worker threads are labelled.
+ */
+public final class ChromeTraceWriter {
+
+    public static final String CONTENT_TYPE = "application/json; charset=utf-8";
+
+    private static final int PID = 1;
+
+    private ChromeTraceWriter() {
+    }
+
+    /**
+     * Write every finished and open span held by the tracer
+     *
+     * @param traceId Only spans of this trace, or 0 for all
+     */
+    public static void write(Tracer tracer, long traceId, Writer out) throws IOException {
+        List<Span> spans = new ArrayList<>();
+        for (Span span : tracer.getFinishedSpans()) {
+            if (traceId == 0 || span.getTraceId() == traceId) {
+                spans.add(span);
+            }
+        }
+        for (Span span : tracer.getOpenSpans()) {
+            if (!span.isEnded() && (traceId == 0 || span.getTraceId() == traceId)) {
+                spans.add(span);
+            }
+        }
+        write(spans, tracer.nanoTime(), out);
+    }
+
+    static void write(List<Span> spans, long nowNanos, Writer out) throws IOException {
+        spans.sort(Comparator.comparingLong(Span::getStartEpochMicros));
+
+        out.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+        boolean first = true;
+        Map<Long, String> threads = new LinkedHashMap<>();
+        for (Span span : spans) {
+            threads.putIfAbsent(span.getThreadId(), span.getThreadName());
+            long durationNanos = span.getDurationNanos();
+            boolean open = durationNanos < 0;
+            if (open) {
+                durationNanos = Math.max(0, nowNanos - span.getStartNanos());
+            }
+
+            StringBuilder sb = new StringBuilder(192);
+            sb.append(first ? "\n" : ",\n");
+            first = false;
+            sb.append("{\"name\":");
+            string(sb, span.getName());
+            sb.append(",\"cat\":");
+            string(sb, category(span.getName()));
+            sb.append(",\"ph\":\"X\",\"ts\":").append(span.getStartEpochMicros());
+            sb.append(",\"dur\":").append(durationNanos / 1000L);
+            sb.append(",\"pid\":").append(PID).append(",\"tid\":").append(span.getThreadId());
+            sb.append(",\"args\":{\"trace\":\"").append(Span.toHex(span.getTraceId()));
+            sb.append("\",\"span\":\"").append(Span.toHex(span.getSpanId())).append('"');
+            if (span.getParentId() != 0) {
+                sb.append(",\"parent\":\"").append(Span.toHex(span.getParentId())).append('"');
+            }
+            if (open) {
+                sb.append(",\"open\":true");
+            }
+            for (Map.Entry<String, Object> attribute : span.getAttributes().entrySet()) {
+                sb.append(',');
+                string(sb, attribute.getKey());
+                sb.append(':');
+                value(sb, attribute.getValue());
+            }
+            sb.append("}}");
+            out.write(sb.toString());
+        }
+        for (Map.Entry<Long, String> thread : threads.entrySet()) {
+            StringBuilder sb = new StringBuilder(96);
+            sb.append(first ? "\n" : ",\n");
+            first = false;
+            sb.append("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":").append(PID);
+            sb.append(",\"tid\":").append(thread.getKey()).append(",\"args\":{\"name\":");
+            string(sb, thread.getValue());
+            sb.append("}}");
+            out.write(sb.toString());
+        }
+        out.write("\n]}\n");
+        out.flush();
+    }
+
+    /**
+     * Category from the span name prefix ("queue.batch" -> "queue")
+     */
+    private static String category(String name) {
+        int dot = name.indexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    private static void value(StringBuilder sb, Object value) {
+        if (value instanceof Number || value instanceof Boolean) {
+            double d = value instanceof Number ? ((Number) value).doubleValue() : 0;
+            if (value instanceof Number && (Double.isNaN(d) || Double.isInfinite(d))) {
+                string(sb, value.toString());
+            } else {
+                sb.append(value);
+            }
+        } else {
+            string(sb, String.valueOf(value));
+        }
+    }
+
+    private static void string(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+}
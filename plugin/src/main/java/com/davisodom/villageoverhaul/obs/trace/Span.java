@@ -0,0 +1,150 @@
+package com.davisodom.villageoverhaul.obs.trace;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One timed operation in a trace
+ *
+ * A span belongs to a trace (shared by the whole village build) and optionally has a parent
+ * span. It may be started on one thread and ended on another; the recorded thread is the one
+ * that started it. end() is idempotent, so a span can be ended from both a completion path
+ * and a failure path. Spans from {@link Tracing} while tracing is disabled are {@link #NOOP}.
+ *
+ * Usage:
+ * <pre>
+ * try (Span span = Tracing.startSpan("terraform.prepare_site")) {
+ *     span.setAttribute("blocks", changed);
+ * }
+ * </pre>
+ */
+public final class Span implements AutoCloseable {
+
+    /**
+     * Span returned while tracing is disabled; records nothing
+     */
+    public static final Span NOOP = new Span();
+
+    private final Tracer tracer;
+    private final long traceId;
+    private final long spanId;
+    private final long parentId;
+    private final String name;
+    private final long startNanos;
+    private final long startEpochMicros;
+    private final long threadId;
+    private final String threadName;
+    private Map<String, Object> attributes;
+    private volatile long durationNanos = -1;
+
+    private Span() {
+        this.tracer = null;
+        this.traceId = 0;
+        this.spanId = 0;
+        this.parentId = 0;
+        this.name = "noop";
+        this.startNanos = 0;
+        this.startEpochMicros = 0;
+        this.threadId = 0;
+        this.threadName = "";
+    }
+
+    Span(Tracer tracer, long traceId, long spanId, long parentId, String name, long startNanos, long startEpochMicros) {
+        Thread thread = Thread.currentThread();
+        this.tracer = tracer;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentId = parentId;
+        this.name = name;
+        this.startNanos = startNanos;
+        this.startEpochMicros = startEpochMicros;
+        this.threadId = thread.getId();
+        this.threadName = thread.getName();
+    }
+
+    /**
+     * False for {@link #NOOP}
+     */
+    public boolean isRecording() {
+        return tracer != null;
+    }
+
+    public Span setAttribute(String key, Object value) {
+        if (tracer == null) {
+            return this;
+        }
+        synchronized (this) {
+            if (attributes == null) {
+                attributes = new LinkedHashMap<>();
+            }
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * Record the span; later calls are ignored
+     */
+    public void end() {
+        if (tracer == null) {
+            return;
+        }
+        synchronized (this) {
+            if (durationNanos >= 0) {
+                return;
+            }
+            durationNanos = Math.max(0, tracer.nanoTime() - startNanos);
+        }
+        tracer.finished(this);
+    }
+
+    @Override
+    public void close() {
+        end();
+    }
+
+    public boolean isEnded() {
+        return durationNanos >= 0;
+    }
+
+    public long getTraceId() { return traceId; }
+    public long getSpanId() { return spanId; }
+
+    /**
+     * Parent span ID, 0 for a root span
+     */
+    public long getParentId() { return parentId; }
+    public String getName() { return name; }
+    public long getStartNanos() { return startNanos; }
+    public long getStartEpochMicros() { return startEpochMicros; }
+    public long getThreadId() { return threadId; }
+    public String getThreadName() { return threadName; }
+
+    /**
+     * Duration, or -1 while the span is open
+     */
+    public long getDurationNanos() { return durationNanos; }
+
+    /**
+     * Trace ID as 16 hex digits (also used as the log correlation ID)
+     */
+    public String getTraceIdHex() {
+        return toHex(traceId);
+    }
+
+    public synchronized Map<String, Object> getAttributes() {
+        return attributes == null ? Collections.emptyMap() : new LinkedHashMap<>(attributes);
+    }
+
+    static String toHex(long id) {
+        String hex = Long.toHexString(id);
+        return hex.length() == 16 ? hex : "0000000000000000".substring(hex.length()) + hex;
+    }
+
+    @Override
+    public String toString() {
+        return "Span{" + name + ", trace=" + toHex(traceId) + ", span=" + toHex(spanId) +
+                (parentId != 0 ? ", parent=" + toHex(parentId) : "") + "}";
+    }
+}
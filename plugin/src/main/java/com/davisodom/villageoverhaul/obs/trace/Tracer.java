@@ -0,0 +1,128 @@
+package com.davisodom.villageoverhaul.obs.trace;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Creates spans and keeps the most recent finished ones in a bounded ring buffer
+ *
+ * Open spans are tracked separately so an export taken in the middle of a long village
+ * build still shows the work in progress. Once the ring is full the oldest finished span is
+ * overwritten (counted in {@link #getEvicted()}).
+ */
+public final class Tracer {
+
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    // Open spans kept for export; beyond this new spans are still timed but not listed while open
+    private static final int MAX_OPEN_SPANS = 4096;
+
+    private final Span[] ring;
+    private final Map<Long, Span> open = new ConcurrentHashMap<>();
+    private final long baseNanos = System.nanoTime();
+    private final long baseEpochMicros = System.currentTimeMillis() * 1000L;
+    private long head;
+    private long evicted;
+
+    public Tracer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Finished spans kept in memory
+     */
+    public Tracer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1: " + capacity);
+        }
+        this.ring = new Span[capacity];
+    }
+
+    /**
+     * Start a span; a null parent starts a new trace
+     */
+    public Span start(String name, Span parent) {
+        long now = nanoTime();
+        long epochMicros = baseEpochMicros + (now - baseNanos) / 1000L;
+        boolean child = parent != null && parent.isRecording();
+        long traceId = child ? parent.getTraceId() : newId();
+        long parentId = child ? parent.getSpanId() : 0;
+        Span span = new Span(this, traceId, newId(), parentId, name, now, epochMicros);
+        if (open.size() < MAX_OPEN_SPANS) {
+            open.put(span.getSpanId(), span);
+        }
+        return span;
+    }
+
+    long nanoTime() {
+        return System.nanoTime();
+    }
+
+    void finished(Span span) {
+        open.remove(span.getSpanId());
+        synchronized (ring) {
+            int slot = (int) (head % ring.length);
+            if (ring[slot] != null) {
+                evicted++;
+            }
+            ring[slot] = span;
+            head++;
+        }
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    /**
+     * Finished spans, oldest first
+     */
+    public List<Span> getFinishedSpans() {
+        synchronized (ring) {
+            int size = (int) Math.min(head, ring.length);
+            List<Span> spans = new ArrayList<>(size);
+            for (long i = head - size; i < head; i++) {
+                spans.add(ring[(int) (i % ring.length)]);
+            }
+            return spans;
+        }
+    }
+
+    /**
+     * Spans started but not yet ended
+     */
+    public Collection<Span> getOpenSpans() {
+        return new ArrayList<>(open.values());
+    }
+
+    /**
+     * Finished spans dropped from the ring to make room
+     */
+    public long getEvicted() {
+        synchronized (ring) {
+            return evicted;
+        }
+    }
+
+    public void clear() {
+        synchronized (ring) {
+            Arrays.fill(ring, null);
+            head = 0;
+            evicted = 0;
+        }
+        open.clear();
+    }
+
+    private static long newId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return id;
+    }
+}
@@ -0,0 +1,122 @@
+package com.davisodom.villageoverhaul.obs.trace;
+
+/**
+ * Process-wide tracer plus the per-thread current span
+ *
+ * startSpan() parents the new span to the thread's current span, so nested calls on one
+ * thread (placement step -> structure placement -> site validation -> terraforming) link up
+ * without passing spans through every signature. Work handed to another thread or a later
+ * tick captures the span and re-activates it there:
+ * <pre>
+ * Span parent = Tracing.current();
+ * CompletableFuture.supplyAsync(() -> {
+ *     try (Tracing.Scope scope = Tracing.activate(parent); Span span = Tracing.startSpan("queue.build")) {
+ *         ...
+ *     }
+ * });
+ * </pre>
+ *
+ * While disabled every call returns {@link Span#NOOP} after a single volatile read.
+ *
+ * Config: performance.tracing.enabled, performance.tracing.bufferSize
+ */
+public final class Tracing {
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private static volatile Tracer tracer;
+
+    private Tracing() {
+    }
+
+    /**
+     * Restores the previously active span when closed
+     */
+    public static final class Scope implements AutoCloseable {
+        private static final Scope NOOP = new Scope(null, false);
+
+        private final Span previous;
+        private final boolean restore;
+
+        private Scope(Span previous, boolean restore) {
+            this.previous = previous;
+            this.restore = restore;
+        }
+
+        @Override
+        public void close() {
+            if (!restore) {
+                return;
+            }
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Install a tracer (null disables tracing)
+     */
+    public static void setTracer(Tracer newTracer) {
+        tracer = newTracer;
+    }
+
+    public static Tracer getTracer() {
+        return tracer;
+    }
+
+    public static boolean isEnabled() {
+        return tracer != null;
+    }
+
+    /**
+     * Child of the thread's current span, or a new trace if there is none
+     */
+    public static Span startSpan(String name) {
+        Tracer current = tracer;
+        if (current == null) {
+            return Span.NOOP;
+        }
+        return current.start(name, CURRENT.get());
+    }
+
+    /**
+     * Child of an explicit parent (null or NOOP = new trace)
+     */
+    public static Span startSpan(String name, Span parent) {
+        Tracer current = tracer;
+        if (current == null) {
+            return Span.NOOP;
+        }
+        return current.start(name, parent);
+    }
+
+    /**
+     * New trace, ignoring the thread's current span
+     */
+    public static Span startTrace(String name) {
+        return startSpan(name, null);
+    }
+
+    /**
+     * The thread's current span, or {@link Span#NOOP}
+     */
+    public static Span current() {
+        Span span = CURRENT.get();
+        return span != null ? span : Span.NOOP;
+    }
+
+    /**
+     * Make a span current on this thread until the scope is closed
+     */
+    public static Scope activate(Span span) {
+        if (span == null || !span.isRecording()) {
+            return Scope.NOOP;
+        }
+        Span previous = CURRENT.get();
+        CURRENT.set(span);
+        return new Scope(previous, true);
+    }
+}
@@ -0,0 +1,235 @@
+package com.davisodom.villageoverhaul.perf;
+
+import com.davisodom.villageoverhaul.core.TickEngine;
+import com.davisodom.villageoverhaul.obs.Metrics;
+
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Moves the plugin between performance profiles based on live load
+ *
+ * Registered as a tick system. Every tick it folds the engine's last tick time into a
+ * moving average; once per second it samples server MSPT and evaluates:
+ * - Pressure (MSPT or engine average over the escalate thresholds) for escalateAfter
+ *   consecutive evaluations -> one step towards HIGH
+ * - Relief (both under the relax thresholds) for relaxAfter consecutive evaluations
+ *   -> one step towards LOW
+ * - No transition within minDwellTicks of the previous one
+ *
+ * Separate thresholds and streak lengths give hysteresis, so a server hovering around a
+ * threshold does not flap between profiles. Operators can pin a profile, which disables
+ * automatic transitions until unpinned.
+ */
+public class PerformanceController implements TickEngine.TickableSystem {
+
+    public static final String SYSTEM_NAME = "perf-controller";
+
+    // Ticks between evaluations (1 second)
+    public static final int EVALUATION_INTERVAL = 20;
+
+    // Weight of the newest sample in the engine tick time average (~1s time constant)
+    private static final double ENGINE_ALPHA = 0.05;
+
+    // Default: escalate after 3s over 45 MSPT or an 8ms engine average, relax after
+    // 30s under 30 MSPT and a 4ms engine average, at most one change per 10s
+    public static final Settings DEFAULT_SETTINGS = new Settings(45.0, 30.0, 8000, 4000, 3, 30, 200);
+
+    private final Logger logger;
+    private final Metrics metrics;
+    private final DoubleSupplier msptSource;
+    private final LongSupplier engineMicrosSource;
+    private final Consumer<PerformanceProfile> applier;
+    private Settings settings;
+
+    private PerformanceProfile profile;
+    private PerformanceProfile pinned;
+    private double engineAverageMicros = 0;
+    private double lastMspt = 0;
+    private int pressureStreak = 0;
+    private int reliefStreak = 0;
+    private long currentTick = 0;
+    private long lastTransitionTick = 0;
+    private long transitions = 0;
+
+    /**
+     * @param logger Plugin logger
+     * @param metrics Metrics sink (nullable)
+     * @param msptSource Server milliseconds per tick (e.g. Server#getAverageTickTime)
+     * @param engineMicrosSource Tick engine time of the last tick
+     * @param applier Applies a profile's settings to the plugin (main thread)
+     * @param initial Profile applied immediately
+     */
+    public PerformanceController(Logger logger, Metrics metrics, DoubleSupplier msptSource,
+                                 LongSupplier engineMicrosSource, Consumer<PerformanceProfile> applier,
+                                 PerformanceProfile initial, Settings settings) {
+        this.logger = logger;
+        this.metrics = metrics;
+        this.msptSource = msptSource;
+        this.engineMicrosSource = engineMicrosSource;
+        this.applier = applier;
+        this.settings = settings;
+        this.profile = initial;
+        applier.accept(initial);
+        publishProfile();
+    }
+
+    @Override
+    public void tick(long tick) {
+        currentTick = tick;
+        engineAverageMicros += ENGINE_ALPHA * (engineMicrosSource.getAsLong() - engineAverageMicros);
+        if (tick % EVALUATION_INTERVAL == 0) {
+            evaluate(tick, msptSource.getAsDouble(), engineAverageMicros);
+        }
+    }
+
+    /**
+     * Evaluate one load sample (called once per {@link #EVALUATION_INTERVAL} by tick())
+     *
+     * @param tick Current tick
+     * @param mspt Server milliseconds per tick
+     * @param engineMicros Average tick engine time (microseconds)
+     */
+    public void evaluate(long tick, double mspt, double engineMicros) {
+        currentTick = tick;
+        lastMspt = mspt;
+        if (metrics != null) {
+            metrics.setGauge("perf.mspt_micros", (long) (mspt * 1000));
+            metrics.setGauge("perf.engine_avg_micros", (long) engineMicros);
+        }
+        if (pinned != null) {
+            return;
+        }
+
+        boolean pressure = mspt > settings.escalateMspt || engineMicros > settings.escalateEngineMicros;
+        boolean relief = mspt < settings.relaxMspt && engineMicros < settings.relaxEngineMicros;
+        pressureStreak = pressure ? pressureStreak + 1 : 0;
+        reliefStreak = relief ? reliefStreak + 1 : 0;
+
+        if (tick - lastTransitionTick < settings.minDwellTicks) {
+            return;
+        }
+        if (pressureStreak >= settings.escalateAfter && profile != PerformanceProfile.HIGH) {
+            transition(profile.tighter(), String.format("mspt %.2fms, engine %.2fms avg over budget for %d checks",
+                    mspt, engineMicros / 1000.0, pressureStreak));
+        } else if (reliefStreak >= settings.relaxAfter && profile != PerformanceProfile.LOW) {
+            transition(profile.looser(), String.format("mspt %.2fms, engine %.2fms avg under budget for %d checks",
+                    mspt, engineMicros / 1000.0, reliefStreak));
+        }
+    }
+
+    /**
+     * Pin a profile (operator override); null returns to automatic control
+     */
+    public void pin(PerformanceProfile target) {
+        pinned = target;
+        pressureStreak = 0;
+        reliefStreak = 0;
+        if (target == null) {
+            lastTransitionTick = currentTick;
+            logger.info("[PERF] Performance profile unpinned, automatic control resumed at " + profile);
+        } else if (target != profile) {
+            transition(target, "pinned by operator");
+        } else {
+            logger.info("[PERF] Performance profile pinned at " + profile);
+        }
+        publishProfile();
+    }
+
+    private void transition(PerformanceProfile target, String reason) {
+        PerformanceProfile previous = profile;
+        profile = target;
+        pressureStreak = 0;
+        reliefStreak = 0;
+        lastTransitionTick = currentTick;
+        transitions++;
+        applier.accept(target);
+
+        String message = "[PERF] Performance profile " + previous + " -> " + target + " (" + reason + ")";
+        if (target.ordinal() > previous.ordinal()) {
+            logger.warning(message);
+        } else {
+            logger.info(message);
+        }
+        if (metrics != null) {
+            metrics.increment("perf.profile.transitions");
+            metrics.increment("perf.profile." + target.name().toLowerCase() + ".entered");
+        }
+        publishProfile();
+    }
+
+    private void publishProfile() {
+        if (metrics != null) {
+            metrics.setGauge("perf.profile", profile.ordinal());
+            metrics.setGauge("perf.profile.pinned", pinned != null ? 1 : 0);
+        }
+    }
+
+    public void setSettings(Settings settings) {
+        this.settings = settings;
+    }
+
+    public Settings getSettings() { return settings; }
+    public PerformanceProfile getProfile() { return profile; }
+
+    /**
+     * Pinned profile, or null under automatic control
+     */
+    public PerformanceProfile getPinned() { return pinned; }
+
+    public double getLastMspt() { return lastMspt; }
+    public double getEngineAverageMicros() { return engineAverageMicros; }
+    public int getPressureStreak() { return pressureStreak; }
+    public int getReliefStreak() { return reliefStreak; }
+    public long getTransitions() { return transitions; }
+    public long getLastTransitionTick() { return lastTransitionTick; }
+
+    /**
+     * Controller thresholds
+     */
+    public static final class Settings {
+        final double escalateMspt;
+        final double relaxMspt;
+        final long escalateEngineMicros;
+        final long relaxEngineMicros;
+        final int escalateAfter;
+        final int relaxAfter;
+        final long minDwellTicks;
+
+        /**
+         * @param escalateMspt MSPT above which the server is under pressure
+         * @param relaxMspt MSPT below which the server has headroom
+         * @param escalateEngineMicros Engine average above which the plugin is under pressure
+         * @param relaxEngineMicros Engine average below which the plugin has headroom
+         * @param escalateAfter Consecutive pressured evaluations before tightening
+         * @param relaxAfter Consecutive relieved evaluations before loosening
+         * @param minDwellTicks Minimum ticks between transitions
+         */
+        public Settings(double escalateMspt, double relaxMspt, long escalateEngineMicros, long relaxEngineMicros,
+                        int escalateAfter, int relaxAfter, long minDwellTicks) {
+            if (relaxMspt > escalateMspt || relaxEngineMicros > escalateEngineMicros) {
+                throw new IllegalArgumentException("Relax thresholds must not exceed escalate thresholds");
+            }
+            if (escalateAfter < 1 || relaxAfter < 1 || minDwellTicks < 0) {
+                throw new IllegalArgumentException("Streaks must be positive and dwell non-negative");
+            }
+            this.escalateMspt = escalateMspt;
+            this.relaxMspt = relaxMspt;
+            this.escalateEngineMicros = escalateEngineMicros;
+            this.relaxEngineMicros = relaxEngineMicros;
+            this.escalateAfter = escalateAfter;
+            this.relaxAfter = relaxAfter;
+            this.minDwellTicks = minDwellTicks;
+        }
+
+        public double getEscalateMspt() { return escalateMspt; }
+        public double getRelaxMspt() { return relaxMspt; }
+        public long getEscalateEngineMicros() { return escalateEngineMicros; }
+        public long getRelaxEngineMicros() { return relaxEngineMicros; }
+        public int getEscalateAfter() { return escalateAfter; }
+        public int getRelaxAfter() { return relaxAfter; }
+        public long getMinDwellTicks() { return minDwellTicks; }
+    }
+}
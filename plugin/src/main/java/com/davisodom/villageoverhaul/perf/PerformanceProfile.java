@@ -0,0 +1,85 @@
+package com.davisodom.villageoverhaul.perf;
+
+import java.util.Locale;
+
+/**
+ * Runtime performance profiles (FR-012, see tests/perf/README.md)
+ *
+ * Higher profiles trade simulation fidelity for tick time: tighter per-village budgets,
+ * smaller batches, shorter full-rate LOD radii, cheaper pathfinding and lower NPC caps.
+ * MEDIUM matches the plugin defaults.
+ */
+public enum PerformanceProfile {
+    // perVillage us, village slice us, chunk size, work target us, LOD radii, A* nodes, NPC cap
+    LOW(5000, 6000, 32, 8000, 12, 24, 8000, 16),
+    MEDIUM(2000, 4000, 16, 8000, 8, 16, 5000, 10),
+    HIGH(1000, 2000, 8, 3000, 4, 8, 2000, 6);
+
+    private final long perVillageBudgetMicros;
+    private final long villageSliceMicros;
+    private final int villageChunkSize;
+    private final long workTargetMicros;
+    private final int fullRadiusChunks;
+    private final int reducedRadiusChunks;
+    private final int pathNodeLimit;
+    private final int npcCapPerVillage;
+
+    PerformanceProfile(long perVillageBudgetMicros, long villageSliceMicros, int villageChunkSize,
+                       long workTargetMicros, int fullRadiusChunks, int reducedRadiusChunks,
+                       int pathNodeLimit, int npcCapPerVillage) {
+        this.perVillageBudgetMicros = perVillageBudgetMicros;
+        this.villageSliceMicros = villageSliceMicros;
+        this.villageChunkSize = villageChunkSize;
+        this.workTargetMicros = workTargetMicros;
+        this.fullRadiusChunks = fullRadiusChunks;
+        this.reducedRadiusChunks = reducedRadiusChunks;
+        this.pathNodeLimit = pathNodeLimit;
+        this.npcCapPerVillage = npcCapPerVillage;
+    }
+
+    /**
+     * Per-village tick budget (warning threshold for village tick time)
+     */
+    public long getPerVillageBudgetMicros() { return perVillageBudgetMicros; }
+
+    /**
+     * Per-tick slice for all village systems
+     */
+    public long getVillageSliceMicros() { return villageSliceMicros; }
+
+    public int getVillageChunkSize() { return villageChunkSize; }
+    public long getWorkTargetMicros() { return workTargetMicros; }
+    public int getFullRadiusChunks() { return fullRadiusChunks; }
+    public int getReducedRadiusChunks() { return reducedRadiusChunks; }
+    public int getPathNodeLimit() { return pathNodeLimit; }
+
+    /**
+     * NPC cap per village (lowering it blocks new spawns, existing NPCs are kept)
+     */
+    public int getNpcCapPerVillage() { return npcCapPerVillage; }
+
+    /**
+     * Next profile towards HIGH (itself if already HIGH)
+     */
+    public PerformanceProfile tighter() {
+        return this == LOW ? MEDIUM : HIGH;
+    }
+
+    /**
+     * Next profile towards LOW (itself if already LOW)
+     */
+    public PerformanceProfile looser() {
+        return this == HIGH ? MEDIUM : LOW;
+    }
+
+    /**
+     * Parse a profile name (case-insensitive), or null if unknown
+     */
+    public static PerformanceProfile parse(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
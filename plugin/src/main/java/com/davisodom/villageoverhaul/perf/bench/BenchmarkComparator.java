@@ -0,0 +1,296 @@
+package com.davisodom.villageoverhaul.perf.bench;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compares a benchmark run against a stored baseline
+ *
+ * A benchmark regresses only when both hold:
+ * - its median moved in the worse direction by more than maxRegressionPercent, and
+ * - a one-sided Mann-Whitney test says the shift is significant (p below alpha).
+ *
+ * The first condition ignores real but negligible shifts (large runs make tiny differences
+ * significant); the second ignores large but noisy ones (a few slow samples on a busy runner).
+ * Improvements are reported with the same rules so the baseline can be refreshed.
+ *
+ * Consecutive ticks are not independent (a GC pause or a cold cache spans several), which
+ * overstates significance. Results with at least batchSize * minSamples samples per side are
+ * therefore tested as means of consecutive batches of batchSize samples; shorter results
+ * (JMH iterations) are tested as they are.
+ */
+public final class BenchmarkComparator {
+
+    /**
+     * Outcome for one benchmark
+     */
+    public enum Verdict {
+        PASS,
+        REGRESSION,
+        IMPROVEMENT,
+        /** Too few samples on either side to test */
+        INCONCLUSIVE,
+        /** Only in the current run */
+        NEW,
+        /** Only in the baseline */
+        MISSING
+    }
+
+    private final Settings settings;
+
+    public BenchmarkComparator(Settings settings) {
+        this.settings = settings;
+    }
+
+    public Settings getSettings() {
+        return settings;
+    }
+
+    public Report compare(BenchmarkRun baseline, BenchmarkRun current) {
+        List<Comparison> comparisons = new ArrayList<>();
+        for (BenchmarkResult base : baseline.getResults()) {
+            BenchmarkResult now = current.get(base.getName());
+            comparisons.add(now == null
+                    ? new Comparison(base.getName(), base.getUnit(), base, null, 0, 1.0, Verdict.MISSING)
+                    : compare(base, now));
+        }
+        for (BenchmarkResult now : current.getResults()) {
+            if (baseline.get(now.getName()) == null) {
+                comparisons.add(new Comparison(now.getName(), now.getUnit(), null, now, 0, 1.0, Verdict.NEW));
+            }
+        }
+
+        // Settings that differ make every comparison suspect; report them next to the verdicts
+        Map<String, String[]> configDiff = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : baseline.getConfig().entrySet()) {
+            String value = current.getConfig().get(entry.getKey());
+            if (!Objects.equals(entry.getValue(), value)) {
+                configDiff.put(entry.getKey(), new String[] {entry.getValue(), value});
+            }
+        }
+        for (Map.Entry<String, String> entry : current.getConfig().entrySet()) {
+            if (!baseline.getConfig().containsKey(entry.getKey())) {
+                configDiff.put(entry.getKey(), new String[] {null, entry.getValue()});
+            }
+        }
+        return new Report(baseline, current, settings, comparisons, configDiff);
+    }
+
+    Comparison compare(BenchmarkResult base, BenchmarkResult now) {
+        double baseMedian = base.getMedian();
+        double nowMedian = now.getMedian();
+        // Positive = worse, in percent of the baseline median
+        double worsePercent = baseMedian == 0 ? 0
+                : (base.isHigherBetter() ? baseMedian - nowMedian : nowMedian - baseMedian) / Math.abs(baseMedian) * 100.0;
+
+        if (base.getSampleCount() < settings.minSamples || now.getSampleCount() < settings.minSamples) {
+            return new Comparison(base.getName(), base.getUnit(), base, now, worsePercent, 1.0, Verdict.INCONCLUSIVE);
+        }
+
+        double[] baseSamples = batchMeans(base.getSamples());
+        double[] nowSamples = batchMeans(now.getSamples());
+        boolean worse = worsePercent > 0;
+        // Test in the direction the median moved
+        double[] lower = base.isHigherBetter() == worse ? nowSamples : baseSamples;
+        double[] higher = lower == nowSamples ? baseSamples : nowSamples;
+        double pValue = MannWhitney.testGreater(lower, higher).getPValue();
+
+        Verdict verdict = Verdict.PASS;
+        if (pValue < settings.alpha && Math.abs(worsePercent) > settings.maxRegressionPercent) {
+            verdict = worse ? Verdict.REGRESSION : Verdict.IMPROVEMENT;
+        }
+        return new Comparison(base.getName(), base.getUnit(), base, now, worsePercent, pValue, verdict);
+    }
+
+    /**
+     * Means of consecutive batches of batchSize samples (a trailing partial batch is dropped),
+     * or the samples themselves when that would leave fewer than minSamples batches
+     */
+    double[] batchMeans(double[] samples) {
+        int batchSize = settings.batchSize;
+        if (batchSize <= 1 || samples.length / batchSize < settings.minSamples) {
+            return samples;
+        }
+        double[] means = new double[samples.length / batchSize];
+        for (int b = 0; b < means.length; b++) {
+            double sum = 0;
+            for (int i = b * batchSize; i < (b + 1) * batchSize; i++) {
+                sum += samples[i];
+            }
+            means[b] = sum / batchSize;
+        }
+        return means;
+    }
+
+    /**
+     * One benchmark in the report
+     */
+    public static final class Comparison {
+        private final String name;
+        private final String unit;
+        private final BenchmarkResult baseline;
+        private final BenchmarkResult current;
+        private final double worsePercent;
+        private final double pValue;
+        private final Verdict verdict;
+
+        Comparison(String name, String unit, BenchmarkResult baseline, BenchmarkResult current,
+                   double worsePercent, double pValue, Verdict verdict) {
+            this.name = name;
+            this.unit = unit;
+            this.baseline = baseline;
+            this.current = current;
+            this.worsePercent = worsePercent;
+            this.pValue = pValue;
+            this.verdict = verdict;
+        }
+
+        public String getName() { return name; }
+        public String getUnit() { return unit; }
+        /** Null for NEW */
+        public BenchmarkResult getBaseline() { return baseline; }
+        /** Null for MISSING */
+        public BenchmarkResult getCurrent() { return current; }
+        /** Median change in percent, positive = slower / lower throughput */
+        public double getWorsePercent() { return worsePercent; }
+        public double getPValue() { return pValue; }
+        public Verdict getVerdict() { return verdict; }
+    }
+
+    /**
+     * Comparison of every benchmark in either run
+     */
+    public static final class Report {
+        private final BenchmarkRun baseline;
+        private final BenchmarkRun current;
+        private final Settings settings;
+        private final List<Comparison> comparisons;
+        private final Map<String, String[]> configDiff;
+
+        Report(BenchmarkRun baseline, BenchmarkRun current, Settings settings, List<Comparison> comparisons,
+               Map<String, String[]> configDiff) {
+            this.baseline = baseline;
+            this.current = current;
+            this.settings = settings;
+            this.comparisons = Collections.unmodifiableList(comparisons);
+            this.configDiff = Collections.unmodifiableMap(configDiff);
+        }
+
+        public BenchmarkRun getBaseline() { return baseline; }
+        public BenchmarkRun getCurrent() { return current; }
+        public Settings getSettings() { return settings; }
+        public List<Comparison> getComparisons() { return comparisons; }
+
+        /**
+         * Config keys whose values differ, as {baseline, current} (null = absent)
+         */
+        public Map<String, String[]> getConfigDiff() { return configDiff; }
+
+        public int count(Verdict verdict) {
+            int count = 0;
+            for (Comparison comparison : comparisons) {
+                if (comparison.verdict == verdict) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * True when nothing regressed (and, with failOnMissing, nothing disappeared)
+         */
+        public boolean isPassed() {
+            return count(Verdict.REGRESSION) == 0 && (!settings.failOnMissing || count(Verdict.MISSING) == 0);
+        }
+
+        /**
+         * Plain text table for the console / CI log
+         */
+        public String toText() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Benchmark comparison: %s vs baseline %s (alpha %.3g, threshold %.1f%%)%n",
+                    current.getLabel(), baseline.getLabel(), settings.alpha, settings.maxRegressionPercent));
+            for (Map.Entry<String, String[]> entry : configDiff.entrySet()) {
+                sb.append(String.format("  WARNING config %s differs: baseline=%s current=%s%n",
+                        entry.getKey(), entry.getValue()[0], entry.getValue()[1]));
+            }
+            for (Comparison comparison : comparisons) {
+                sb.append(String.format("  %-12s %-40s", comparison.verdict, comparison.name));
+                if (comparison.baseline != null && comparison.current != null) {
+                    sb.append(String.format(" %10.4g -> %10.4g %-6s %+7.1f%%  p=%.3g  (n=%d/%d)",
+                            comparison.baseline.getMedian(), comparison.current.getMedian(), comparison.unit,
+                            comparison.worsePercent, comparison.pValue,
+                            comparison.baseline.getSampleCount(), comparison.current.getSampleCount()));
+                }
+                sb.append(System.lineSeparator());
+            }
+            sb.append(isPassed() ? "PASSED" : "FAILED").append(String.format(
+                    ": %d regressed, %d improved, %d unchanged, %d inconclusive, %d new, %d missing%n",
+                    count(Verdict.REGRESSION), count(Verdict.IMPROVEMENT), count(Verdict.PASS),
+                    count(Verdict.INCONCLUSIVE), count(Verdict.NEW), count(Verdict.MISSING)));
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Gate thresholds
+     */
+    public static final class Settings {
+        public static final double DEFAULT_ALPHA = 0.01;
+        public static final double DEFAULT_MAX_REGRESSION_PERCENT = 10.0;
+        public static final int DEFAULT_MIN_SAMPLES = 8;
+        // One second of ticks
+        public static final int DEFAULT_BATCH_SIZE = 20;
+
+        final double alpha;
+        final double maxRegressionPercent;
+        final int minSamples;
+        final boolean failOnMissing;
+        final int batchSize;
+
+        public Settings(double alpha, double maxRegressionPercent, int minSamples, boolean failOnMissing) {
+            this(alpha, maxRegressionPercent, minSamples, failOnMissing, DEFAULT_BATCH_SIZE);
+        }
+
+        /**
+         * @param alpha Significance level of the one-sided Mann-Whitney test
+         * @param maxRegressionPercent Median slowdown tolerated regardless of significance
+         * @param minSamples Samples needed on each side to test at all
+         * @param failOnMissing Fail when a baseline benchmark is absent from the current run
+         * @param batchSize Consecutive samples averaged into one before testing (1 = raw samples)
+         */
+        public Settings(double alpha, double maxRegressionPercent, int minSamples, boolean failOnMissing, int batchSize) {
+            if (!(alpha > 0 && alpha < 1)) {
+                throw new IllegalArgumentException("alpha must be in (0, 1): " + alpha);
+            }
+            if (maxRegressionPercent < 0) {
+                throw new IllegalArgumentException("maxRegressionPercent must not be negative: " + maxRegressionPercent);
+            }
+            if (minSamples < 2) {
+                throw new IllegalArgumentException("minSamples must be at least 2: " + minSamples);
+            }
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+            }
+            this.alpha = alpha;
+            this.maxRegressionPercent = maxRegressionPercent;
+            this.minSamples = minSamples;
+            this.failOnMissing = failOnMissing;
+            this.batchSize = batchSize;
+        }
+
+        public static Settings defaults() {
+            return new Settings(DEFAULT_ALPHA, DEFAULT_MAX_REGRESSION_PERCENT, DEFAULT_MIN_SAMPLES, false);
+        }
+
+        public double getAlpha() { return alpha; }
+        public double getMaxRegressionPercent() { return maxRegressionPercent; }
+        public int getMinSamples() { return minSamples; }
+        public boolean isFailOnMissing() { return failOnMissing; }
+        public int getBatchSize() { return batchSize; }
+    }
+}
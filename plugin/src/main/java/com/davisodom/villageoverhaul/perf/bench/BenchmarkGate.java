@@ -0,0 +1,132 @@
+package com.davisodom.villageoverhaul.perf.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Performance regression gate: compares a benchmark run against a stored baseline
+ *
+ *   ./gradlew perfGate
+ *
+ * Options:
+ * - --baseline FILE     Baseline run (tests/perf/baselines/*.json or JMH JSON)
+ * - --current FILE      Run to check (same formats)
+ * - --html FILE         Also write an HTML diff
+ * - --alpha P           Significance level (default 0.01)
+ * - --threshold PCT     Median slowdown tolerated (default 10)
+ * - --min-samples N     Samples needed per side to test (default 8)
+ * - --batch-size N      Consecutive samples averaged before testing (default 20, 1 = raw)
+ * - --fail-on-missing   Fail when a baseline benchmark is missing from the current run
+ * - --update            Copy the current run over the baseline instead of comparing
+ *
+ * Exit status: 0 passed, 1 regression, 2 bad arguments or unreadable files.
+ */
+public final class BenchmarkGate {
+
+    private BenchmarkGate() {
+    }
+
+    public static void main(String[] args) {
+        int status;
+        try {
+            status = run(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            status = 2;
+        } catch (IOException e) {
+            System.err.println("Benchmark gate failed: " + e.getMessage());
+            status = 2;
+        }
+        System.exit(status);
+    }
+
+    static int run(String[] args) throws IOException {
+        File baselineFile = null;
+        File currentFile = null;
+        File htmlFile = null;
+        double alpha = BenchmarkComparator.Settings.DEFAULT_ALPHA;
+        double threshold = BenchmarkComparator.Settings.DEFAULT_MAX_REGRESSION_PERCENT;
+        int minSamples = BenchmarkComparator.Settings.DEFAULT_MIN_SAMPLES;
+        int batchSize = BenchmarkComparator.Settings.DEFAULT_BATCH_SIZE;
+        boolean failOnMissing = false;
+        boolean update = false;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--update")) {
+                update = true;
+                continue;
+            }
+            if (arg.equals("--fail-on-missing")) {
+                failOnMissing = true;
+                continue;
+            }
+            if (arg.equals("--help") || arg.equals("-h")) {
+                printUsage();
+                return 0;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+            String value = args[++i];
+            try {
+                switch (arg) {
+                    case "--baseline": baselineFile = new File(value); break;
+                    case "--current": currentFile = new File(value); break;
+                    case "--html": htmlFile = new File(value); break;
+                    case "--alpha": alpha = Double.parseDouble(value); break;
+                    case "--threshold": threshold = Double.parseDouble(value); break;
+                    case "--min-samples": minSamples = Integer.parseInt(value); break;
+                    case "--batch-size": batchSize = Integer.parseInt(value); break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number for " + arg + ": " + value);
+            }
+        }
+        if (baselineFile == null || currentFile == null) {
+            throw new IllegalArgumentException("--baseline and --current are required");
+        }
+
+        BenchmarkRun current = BenchmarkRun.read(currentFile);
+        if (update) {
+            current.write(baselineFile);
+            System.out.println("Baseline " + baselineFile + " updated from " + currentFile +
+                    " (" + current.getResults().size() + " benchmarks)");
+            return 0;
+        }
+        if (!baselineFile.exists()) {
+            System.out.println("No baseline at " + baselineFile + ", nothing to compare (create one with --update)");
+            return 0;
+        }
+        BenchmarkRun baseline = BenchmarkRun.read(baselineFile);
+
+        BenchmarkComparator comparator = new BenchmarkComparator(
+                new BenchmarkComparator.Settings(alpha, threshold, minSamples, failOnMissing, batchSize));
+        BenchmarkComparator.Report report = comparator.compare(baseline, current);
+        System.out.print(report.toText());
+
+        if (htmlFile != null) {
+            File parent = htmlFile.getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                throw new IOException("Cannot create " + parent);
+            }
+            try (Writer writer = Files.newBufferedWriter(htmlFile.toPath(), StandardCharsets.UTF_8)) {
+                HtmlReportWriter.write(report, writer);
+            }
+            System.out.println("HTML report: " + htmlFile);
+        }
+        return report.isPassed() ? 0 : 1;
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: BenchmarkGate --baseline FILE --current FILE [--html FILE] [--alpha P]");
+        System.out.println("                     [--threshold PCT] [--min-samples N] [--batch-size N]");
+        System.out.println("                     [--fail-on-missing] [--update]");
+    }
+}
@@ -0,0 +1,73 @@
+package com.davisodom.villageoverhaul.perf.bench;
+
+import java.util.Arrays;
+
+/**
+ * Raw samples of one benchmark (tick time, per-village cost, a JMH method)
+ *
+ * Samples are kept unsorted in measurement order; statistics sort a copy.
+ */
+public final class BenchmarkResult {
+
+    private final String name;
+    private final String unit;
+    private final boolean higherIsBetter;
+    private final double[] samples;
+
+    /**
+     * @param higherIsBetter True for throughput (ops/s), false for times and sizes
+     */
+    public BenchmarkResult(String name, String unit, boolean higherIsBetter, double[] samples) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("name must not be empty");
+        }
+        this.name = name;
+        this.unit = unit != null ? unit : "";
+        this.higherIsBetter = higherIsBetter;
+        this.samples = samples.clone();
+    }
+
+    public String getName() { return name; }
+    public String getUnit() { return unit; }
+    public boolean isHigherBetter() { return higherIsBetter; }
+    public int getSampleCount() { return samples.length; }
+
+    public double[] getSamples() {
+        return samples.clone();
+    }
+
+    public double getMedian() {
+        return getPercentile(50);
+    }
+
+    public double getMean() {
+        if (samples.length == 0) {
+            return 0;
+        }
+        double sum = 0;
+        for (double sample : samples) {
+            sum += sample;
+        }
+        return sum / samples.length;
+    }
+
+    /**
+     * Percentile by linear interpolation between closest ranks (0 when empty)
+     */
+    public double getPercentile(double percentile) {
+        if (samples.length == 0) {
+            return 0;
+        }
+        double[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        double rank = percentile / 100.0 * (sorted.length - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = Math.min(lower + 1, sorted.length - 1);
+        return sorted[lower] + (sorted[upper] - sorted[lower]) * (rank - lower);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BenchmarkResult{%s, median=%.4g %s, n=%d}", name, getMedian(), unit, samples.length);
+    }
+}
@@ -0,0 +1,176 @@
+package com.davisodom.villageoverhaul.perf.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A set of benchmark results from one run, with the settings it ran under
+ *
+ * Stored as JSON:
+ * <pre>
+ * {"label": "...", "createdAt": "...", "config": {"villages": "2000", ...},
+ *  "benchmarks": [{"name": "sim.tick", "unit": "ms", "higherIsBetter": false, "samples": [...]}]}
+ * </pre>
+ * {@link #read(File)} also accepts JMH's JSON output (-rf json); each benchmark becomes one
+ * result with every iteration of every fork as a sample.
+ */
+public final class BenchmarkRun {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final String label;
+    private final String createdAt;
+    private final Map<String, String> config;
+    private final Map<String, BenchmarkResult> results = new LinkedHashMap<>();
+
+    /**
+     * @param label Free text identifying the run (commit, machine)
+     * @param config Settings that must match for results to be comparable (villages, ticks, ...)
+     */
+    public BenchmarkRun(String label, String createdAt, Map<String, String> config) {
+        this.label = label != null ? label : "";
+        this.createdAt = createdAt != null ? createdAt : "";
+        this.config = config != null ? new LinkedHashMap<>(config) : new LinkedHashMap<>();
+    }
+
+    public void add(BenchmarkResult result) {
+        results.put(result.getName(), result);
+    }
+
+    public String getLabel() { return label; }
+    public String getCreatedAt() { return createdAt; }
+
+    public Map<String, String> getConfig() {
+        return Collections.unmodifiableMap(config);
+    }
+
+    public BenchmarkResult get(String name) {
+        return results.get(name);
+    }
+
+    public Collection<BenchmarkResult> getResults() {
+        return Collections.unmodifiableCollection(results.values());
+    }
+
+    /**
+     * Load a run in this class's format or JMH's JSON result format
+     */
+    public static BenchmarkRun read(File file) throws IOException {
+        JsonNode root = MAPPER.readTree(file);
+        if (root == null) {
+            throw new IOException("Empty benchmark file: " + file);
+        }
+        return root.isArray() ? fromJmh(root, file.getName()) : fromJson(root);
+    }
+
+    public void write(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+        // Trailing newline keeps checked-in baselines POSIX text files
+        Files.write(file.toPath(), (MAPPER.writeValueAsString(toJson()) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    ObjectNode toJson() {
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("label", label);
+        root.put("createdAt", createdAt);
+        ObjectNode configNode = root.putObject("config");
+        config.forEach(configNode::put);
+        ArrayNode benchmarks = root.putArray("benchmarks");
+        for (BenchmarkResult result : results.values()) {
+            ObjectNode node = benchmarks.addObject();
+            node.put("name", result.getName());
+            node.put("unit", result.getUnit());
+            node.put("higherIsBetter", result.isHigherBetter());
+            ArrayNode samples = node.putArray("samples");
+            for (double sample : result.getSamples()) {
+                samples.add(sample);
+            }
+        }
+        return root;
+    }
+
+    static BenchmarkRun fromJson(JsonNode root) throws IOException {
+        Map<String, String> config = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = root.path("config").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            config.put(field.getKey(), field.getValue().asText());
+        }
+        BenchmarkRun run = new BenchmarkRun(root.path("label").asText(""), root.path("createdAt").asText(""), config);
+        JsonNode benchmarks = root.path("benchmarks");
+        if (!benchmarks.isArray()) {
+            throw new IOException("Missing \"benchmarks\" array");
+        }
+        for (JsonNode node : benchmarks) {
+            String name = node.path("name").asText("");
+            if (name.isEmpty()) {
+                throw new IOException("Benchmark without a name");
+            }
+            run.add(new BenchmarkResult(name, node.path("unit").asText(""),
+                    node.path("higherIsBetter").asBoolean(false), toDoubles(node.path("samples"))));
+        }
+        return run;
+    }
+
+    static BenchmarkRun fromJmh(JsonNode root, String label) throws IOException {
+        BenchmarkRun run = new BenchmarkRun(label, "", Collections.emptyMap());
+        for (JsonNode node : root) {
+            String benchmark = node.path("benchmark").asText("");
+            JsonNode metric = node.path("primaryMetric");
+            if (benchmark.isEmpty() || metric.isMissingNode()) {
+                throw new IOException("Not a JMH result: missing benchmark/primaryMetric");
+            }
+            StringBuilder name = new StringBuilder(benchmark);
+            Iterator<Map.Entry<String, JsonNode>> params = node.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                name.append(name.indexOf(":") < 0 ? ":" : ",").append(param.getKey()).append('=')
+                        .append(param.getValue().asText());
+            }
+            // rawData is one array of iteration scores per fork
+            List<Double> samples = new ArrayList<>();
+            for (JsonNode fork : metric.path("rawData")) {
+                for (JsonNode score : fork) {
+                    samples.add(score.asDouble());
+                }
+            }
+            if (samples.isEmpty() && metric.has("score")) {
+                samples.add(metric.path("score").asDouble());
+            }
+            double[] values = new double[samples.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = samples.get(i);
+            }
+            String mode = node.path("mode").asText("");
+            run.add(new BenchmarkResult(name.toString(), metric.path("scoreUnit").asText(""),
+                    "thrpt".equals(mode), values));
+        }
+        return run;
+    }
+
+    private static double[] toDoubles(JsonNode array) {
+        double[] values = new double[array.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = array.get(i).asDouble();
+        }
+        return values;
+    }
+}
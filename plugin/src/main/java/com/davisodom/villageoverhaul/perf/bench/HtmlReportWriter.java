@@ -0,0 +1,138 @@
+package com.davisodom.villageoverhaul.perf.bench;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Self-contained HTML diff of a comparison report (no scripts or external assets, so CI can
+ * publish it as a plain artifact)
+ *
+ * One row per benchmark with both medians, the change, the p-value and the verdict, plus an
+ * inline SVG drawing the baseline and current p5-p95 ranges and IQR boxes on a shared scale.
+ */
+public final class HtmlReportWriter {
+
+    private static final int PLOT_WIDTH = 240;
+    private static final int PLOT_HEIGHT = 34;
+
+    private HtmlReportWriter() {
+    }
+
+    public static void write(BenchmarkComparator.Report report, Writer out) throws IOException {
+        BenchmarkComparator.Settings settings = report.getSettings();
+        out.write("<!DOCTYPE html>\n<html lang=\"en\">\n<head>\n<meta charset=\"utf-8\">\n");
+        out.write("<title>Benchmark comparison</title>\n<style>\n");
+        out.write("body{font-family:sans-serif;margin:2em;color:#222}\n");
+        out.write("table{border-collapse:collapse}th,td{padding:4px 10px;border-bottom:1px solid #ddd;text-align:right}\n");
+        out.write("th{background:#f4f4f4}td.name{text-align:left;font-family:monospace}\n");
+        out.write(".REGRESSION{background:#fde2e1}.IMPROVEMENT{background:#e3f6e5}\n");
+        out.write(".INCONCLUSIVE,.NEW,.MISSING{background:#fdf6dc}\n");
+        out.write(".verdict{font-weight:bold}.warn{color:#a15c00}.passed{color:#1a7f37}.failed{color:#c62828}\n");
+        out.write("</style>\n</head>\n<body>\n");
+
+        out.write("<h1>Benchmark comparison <span class=\"" + (report.isPassed() ? "passed\">PASSED" : "failed\">FAILED")
+                + "</span></h1>\n");
+        out.write("<p>Current <b>" + escape(report.getCurrent().getLabel()) + "</b> " +
+                escape(report.getCurrent().getCreatedAt()) + " vs baseline <b>" +
+                escape(report.getBaseline().getLabel()) + "</b> " + escape(report.getBaseline().getCreatedAt()) + "</p>\n");
+        out.write(String.format(Locale.ROOT, "<p>A benchmark regresses when its median is more than %.1f%% worse " +
+                        "and a one-sided Mann-Whitney test gives p &lt; %.3g (long runs are tested as means of " +
+                        "%d consecutive samples).</p>%n",
+                settings.getMaxRegressionPercent(), settings.getAlpha(), settings.getBatchSize()));
+        out.write(String.format(Locale.ROOT, "<p>%d regressed, %d improved, %d unchanged, %d inconclusive, " +
+                        "%d new, %d missing</p>%n",
+                report.count(BenchmarkComparator.Verdict.REGRESSION), report.count(BenchmarkComparator.Verdict.IMPROVEMENT),
+                report.count(BenchmarkComparator.Verdict.PASS), report.count(BenchmarkComparator.Verdict.INCONCLUSIVE),
+                report.count(BenchmarkComparator.Verdict.NEW), report.count(BenchmarkComparator.Verdict.MISSING)));
+
+        if (!report.getConfigDiff().isEmpty()) {
+            out.write("<p class=\"warn\">Runs used different settings, results may not be comparable:</p>\n<ul class=\"warn\">\n");
+            for (Map.Entry<String, String[]> entry : report.getConfigDiff().entrySet()) {
+                out.write("<li>" + escape(entry.getKey()) + ": baseline " + escape(entry.getValue()[0]) +
+                        ", current " + escape(entry.getValue()[1]) + "</li>\n");
+            }
+            out.write("</ul>\n");
+        }
+
+        out.write("<table>\n<tr><th>Benchmark</th><th>Baseline median</th><th>Current median</th><th>Change</th>" +
+                "<th>p</th><th>n</th><th>Distribution (grey = baseline)</th><th>Verdict</th></tr>\n");
+        for (BenchmarkComparator.Comparison comparison : report.getComparisons()) {
+            BenchmarkResult base = comparison.getBaseline();
+            BenchmarkResult now = comparison.getCurrent();
+            out.write("<tr class=\"" + comparison.getVerdict().name() + "\"><td class=\"name\">" +
+                    escape(comparison.getName()) + "</td>");
+            out.write("<td>" + (base != null ? format(base.getMedian(), comparison.getUnit()) : "") + "</td>");
+            out.write("<td>" + (now != null ? format(now.getMedian(), comparison.getUnit()) : "") + "</td>");
+            if (base != null && now != null) {
+                // Worse/better rather than a sign, since throughput and time move in opposite directions
+                out.write(String.format(Locale.ROOT, "<td>%.1f%% %s</td><td>%.3g</td><td>%d / %d</td>",
+                        Math.abs(comparison.getWorsePercent()), comparison.getWorsePercent() > 0 ? "worse" : "better",
+                        comparison.getPValue(), base.getSampleCount(), now.getSampleCount()));
+                out.write("<td>" + plot(base, now) + "</td>");
+            } else {
+                out.write("<td></td><td></td><td>" + (base != null ? base.getSampleCount() : now.getSampleCount()) +
+                        "</td><td></td>");
+            }
+            out.write("<td class=\"verdict\">" + comparison.getVerdict().name() + "</td></tr>\n");
+        }
+        out.write("</table>\n</body>\n</html>\n");
+    }
+
+    /**
+     * Two horizontal box plots (p5-p95 whiskers, p25-p75 box, median tick) on a shared axis
+     */
+    static String plot(BenchmarkResult base, BenchmarkResult now) {
+        double min = Math.min(base.getPercentile(5), now.getPercentile(5));
+        double max = Math.max(base.getPercentile(95), now.getPercentile(95));
+        if (max <= min) {
+            max = min + 1;
+        }
+        StringBuilder svg = new StringBuilder();
+        svg.append("<svg width=\"").append(PLOT_WIDTH).append("\" height=\"").append(PLOT_HEIGHT)
+                .append("\" xmlns=\"http://www.w3.org/2000/svg\">");
+        box(svg, base, min, max, 4, "#9e9e9e");
+        box(svg, now, min, max, 19, "#1976d2");
+        svg.append("</svg>");
+        return svg.toString();
+    }
+
+    private static void box(StringBuilder svg, BenchmarkResult result, double min, double max, int y, String color) {
+        double scale = (PLOT_WIDTH - 4) / (max - min);
+        double p5 = 2 + (result.getPercentile(5) - min) * scale;
+        double p25 = 2 + (result.getPercentile(25) - min) * scale;
+        double p50 = 2 + (result.getPercentile(50) - min) * scale;
+        double p75 = 2 + (result.getPercentile(75) - min) * scale;
+        double p95 = 2 + (result.getPercentile(95) - min) * scale;
+        svg.append(String.format(Locale.ROOT,
+                "<line x1=\"%.1f\" y1=\"%d\" x2=\"%.1f\" y2=\"%d\" stroke=\"%s\"/>" +
+                        "<rect x=\"%.1f\" y=\"%d\" width=\"%.1f\" height=\"10\" fill=\"%s\" fill-opacity=\"0.35\" stroke=\"%s\"/>" +
+                        "<line x1=\"%.1f\" y1=\"%d\" x2=\"%.1f\" y2=\"%d\" stroke=\"%s\" stroke-width=\"2\"/>",
+                p5, y + 5, p95, y + 5, color,
+                p25, y, Math.max(1, p75 - p25), color, color,
+                p50, y, p50, y + 10, color));
+    }
+
+    private static String format(double value, String unit) {
+        return escape(String.format(Locale.ROOT, "%.4g %s", value, unit).trim());
+    }
+
+    static String escape(String text) {
+        if (text == null) {
+            return "-";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<': sb.append("&lt;"); break;
+                case '>': sb.append("&gt;"); break;
+                case '&': sb.append("&amp;"); break;
+                case '"': sb.append("&quot;"); break;
+                default: sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
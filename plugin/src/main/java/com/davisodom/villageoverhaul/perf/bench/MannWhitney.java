@@ -0,0 +1,109 @@
+package com.davisodom.villageoverhaul.perf.bench;
+
+import java.util.Arrays;
+
+/**
+ * Mann-Whitney U test (Wilcoxon rank-sum) for two independent samples
+ *
+ * Rank based, so it makes no normality assumption and a few GC-inflated outliers cannot swing
+ * it the way they swing a mean. The p-value uses the normal approximation with tie correction
+ * and continuity correction, which is accurate from roughly 8 samples per side, the gate's
+ * default minimum ({@link BenchmarkComparator.Settings#DEFAULT_MIN_SAMPLES}). Samples must be
+ * independent; the comparator tests per-tick samples as batch means for that reason.
+ */
+public final class MannWhitney {
+
+    private MannWhitney() {
+    }
+
+    /**
+     * Test outcome
+     */
+    public static final class Result {
+        private final double u;
+        private final double z;
+        private final double pValue;
+
+        Result(double u, double z, double pValue) {
+            this.u = u;
+            this.z = z;
+            this.pValue = pValue;
+        }
+
+        /**
+         * Pairs (x, y) with y > x, ties counting half
+         */
+        public double getU() { return u; }
+        public double getZ() { return z; }
+        public double getPValue() { return pValue; }
+
+        @Override
+        public String toString() {
+            return String.format("MannWhitney{U=%.1f, z=%.3f, p=%.4g}", u, z, pValue);
+        }
+    }
+
+    /**
+     * One-sided test that values in y tend to be greater than values in x
+     *
+     * @return p = 1 when either sample is empty or all values are equal
+     */
+    public static Result testGreater(double[] x, double[] y) {
+        int n1 = x.length;
+        int n2 = y.length;
+        if (n1 == 0 || n2 == 0) {
+            return new Result(0, 0, 1.0);
+        }
+
+        // Rank the pooled samples, averaging ranks over ties
+        int n = n1 + n2;
+        double[] values = new double[n];
+        boolean[] fromY = new boolean[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i < n1 ? x[i] : y[i - n1];
+            fromY[i] = i >= n1;
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        double rankSumY = 0;
+        double tieTerm = 0;
+        int i = 0;
+        while (i < n) {
+            int j = i;
+            while (j + 1 < n && values[order[j + 1]] == values[order[i]]) {
+                j++;
+            }
+            double rank = (i + j) / 2.0 + 1; // 1-based average rank of the tie group
+            for (int k = i; k <= j; k++) {
+                if (fromY[order[k]]) {
+                    rankSumY += rank;
+                }
+            }
+            int ties = j - i + 1;
+            tieTerm += (double) ties * ties * ties - ties;
+            i = j + 1;
+        }
+
+        double u = rankSumY - n2 * (n2 + 1) / 2.0;
+        double mean = n1 * (double) n2 / 2.0;
+        double variance = n1 * (double) n2 / 12.0 * ((n + 1) - tieTerm / ((double) n * (n - 1)));
+        if (variance <= 0) {
+            return new Result(u, 0, 1.0);
+        }
+        double z = (u - mean - 0.5) / Math.sqrt(variance);
+        return new Result(u, z, 1.0 - normalCdf(z));
+    }
+
+    /**
+     * Standard normal CDF (Abramowitz & Stegun 7.1.26, absolute error below 1.5e-7)
+     */
+    static double normalCdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1.0 / (1.0 + 0.3275911 * x);
+        double erf = 1.0 - ((((1.061405429 * t - 1.453152027) * t + 1.421413741) * t - 0.284496736) * t
+                + 0.254829592) * t * Math.exp(-x * x);
+        return z >= 0 ? 0.5 * (1.0 + erf) : 0.5 * (1.0 - erf);
+    }
+}
@@ -1,12 +1,17 @@
 package com.davisodom.villageoverhaul.persistence;
 
+import com.davisodom.villageoverhaul.obs.Metrics;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.*;
 import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 
 /**
@@ -16,6 +21,9 @@ import java.util.logging.Logger;
  * - Forward-only migrations
  * - Backup before writes
  * - Schema validation (via SchemaValidator)
+ * - JSON or Smile (binary) encoding per file, see StorageFormat
+ * - Optional write-behind: saveJsonAsync() hands the write to an I/O thread
+ *   (see WriteBehindQueue); a file should be saved either sync or async, not both
  * 
  * Constitution compliance:
  * - Principle IX: Save Compatibility & Migration Safety
@@ -26,6 +34,8 @@ public class JsonStore {
     private final Logger logger;
     private final ObjectMapper jsonMapper;
     private final ObjectMapper yamlMapper;
+    private final ObjectMapper smileMapper;
+    private volatile WriteBehindQueue writeBehind; // null = async saves run on the caller
     
     public static final int SCHEMA_VERSION = 1;
     
@@ -38,6 +48,10 @@ public class JsonStore {
         this.jsonMapper.enable(SerializationFeature.INDENT_OUTPUT);
         this.jsonMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         
+        // Smile mapper (binary JSON for bulk data, no pretty-printing)
+        this.smileMapper = new ObjectMapper(new SmileFactory());
+        this.smileMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        
         // YAML mapper
         this.yamlMapper = new ObjectMapper(new YAMLFactory());
         this.yamlMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
@@ -55,28 +69,173 @@ public class JsonStore {
      * @param schemaVersion Schema version for this data
      */
     public <T> void saveJson(String filename, T data, int schemaVersion) throws IOException {
+        saveJson(filename, data, schemaVersion, true);
+        logger.info(String.format("Saved %s (schema v%d)", filename, schemaVersion));
+    }
+    
+    /**
+     * Save data to JSON file, optionally without a backup
+     * 
+     * Skip backups for files rewritten often (one per village): the new content is fsynced
+     * before the atomic rename, so the old or the new content survives a crash, and each
+     * backup costs a copy plus a directory scan.
+     * 
+     * @param filename Filename (relative to data folder, may include a subfolder)
+     * @param data Object to serialize
+     * @param schemaVersion Schema version for this data
+     * @param backup Whether to keep a backup of the previous file
+     */
+    public <T> void saveJson(String filename, T data, int schemaVersion, boolean backup) throws IOException {
+        save(filename, data, schemaVersion, StorageFormat.JSON, backup);
+    }
+    
+    /**
+     * Save data in the given encoding, optionally without a backup
+     * 
+     * @param filename Filename (relative to data folder, may include a subfolder)
+     * @param format JSON for files people edit, SMILE for bulk data
+     * @param backup Whether to keep a backup of the previous file
+     */
+    public <T> void save(String filename, T data, int schemaVersion, StorageFormat format, boolean backup) throws IOException {
         File file = new File(dataFolder, filename);
         
         // Backup existing file
-        if (file.exists()) {
+        if (backup && file.exists()) {
             backupFile(file);
         }
         
-        // Wrap data with versioning metadata
-        VersionedData<T> versioned = new VersionedData<>(schemaVersion, data);
+        byte[] encoded = encode(data, schemaVersion, format);
         
-        // Write atomically (temp file + rename)
+        // Write atomically (temp file, fsynced so the rename never exposes a partial file)
         File tempFile = new File(file.getAbsolutePath() + ".tmp");
-        jsonMapper.writeValue(tempFile, versioned);
+        try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(encoded);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
         
         // Atomic rename
         Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
-        
-        logger.info(String.format("Saved %s (schema v%d)", filename, schemaVersion));
     }
     
     /**
-     * Load data from JSON file with version check
+     * Start the write-behind I/O thread used by saveJsonAsync() and deleteAsync()
+     * 
+     * @param metrics Receives persistence.* counters (nullable)
+     */
+    public synchronized void startWriteBehind(WriteBehindQueue.Settings settings, Metrics metrics) {
+        if (writeBehind != null) {
+            return;
+        }
+        WriteBehindQueue queue = new WriteBehindQueue(logger, settings, metrics);
+        queue.start();
+        writeBehind = queue;
+    }
+    
+    /**
+     * Queue a JSON save on the write-behind thread
+     * 
+     * Saves of the same file within the coalescing window collapse into one write of the
+     * latest snapshot. Blocks only when the queue is full. Without write-behind the save runs
+     * on the caller and the returned future is already complete.
+     * 
+     * @param data Snapshot to serialize; must not be modified after this call
+     * @return Completes once the file is on disk, or exceptionally if the write failed
+     */
+    public <T> CompletableFuture<Void> saveJsonAsync(String filename, T data, int schemaVersion, boolean backup) {
+        return saveAsync(filename, data, schemaVersion, StorageFormat.JSON, backup);
+    }
+    
+    /**
+     * Queue a save in the given encoding on the write-behind thread (see saveJsonAsync)
+     */
+    public <T> CompletableFuture<Void> saveAsync(String filename, T data, int schemaVersion, StorageFormat format,
+                                                 boolean backup) {
+        return submitAsync(filename, () -> save(filename, data, schemaVersion, format, backup));
+    }
+    
+    /**
+     * Queue a delete on the write-behind thread (replaces any save still queued for the file)
+     */
+    public CompletableFuture<Void> deleteAsync(String filename) {
+        return submitAsync(filename, () -> delete(filename));
+    }
+    
+    /**
+     * Queue any write on the write-behind thread, e.g. an update of a region file
+     * 
+     * @param key Coalescing key: a queued write with the same key is replaced by this one
+     * @return Completes once the write has run (see saveJsonAsync)
+     */
+    public CompletableFuture<Void> submitAsync(String key, WriteBehindQueue.Write write) {
+        WriteBehindQueue queue = writeBehind;
+        if (queue != null) {
+            return queue.submit(key, write);
+        }
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            write.run();
+            future.complete(null);
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+    
+    /**
+     * Write everything queued so far and wait for it
+     * 
+     * @return false if writes were still pending when the timeout expired
+     */
+    public boolean flush(long timeoutMillis) {
+        WriteBehindQueue queue = writeBehind;
+        return queue == null || queue.flush(timeoutMillis);
+    }
+    
+    /**
+     * Flush queued writes (bounded by the write-behind shutdown timeout) and stop the I/O
+     * thread. Later async saves run on the caller.
+     * 
+     * @return false if queued writes were abandoned
+     */
+    public synchronized boolean shutdown() {
+        WriteBehindQueue queue = writeBehind;
+        if (queue == null) {
+            return true;
+        }
+        long started = System.nanoTime();
+        boolean flushed = queue.shutdown(queue.getSettings().getShutdownTimeoutMillis());
+        writeBehind = null;
+        logger.info(String.format("Write-behind queue %s in %d ms", flushed ? "flushed" : "timed out",
+            (System.nanoTime() - started) / 1_000_000L));
+        return flushed;
+    }
+    
+    /**
+     * Writes queued or in progress on the write-behind thread
+     */
+    public int getPendingWrites() {
+        WriteBehindQueue queue = writeBehind;
+        return queue != null ? queue.getPending() : 0;
+    }
+    
+    /**
+     * Delete a data file (backups are kept)
+     * 
+     * @return true if the file existed
+     */
+    public boolean delete(String filename) throws IOException {
+        return Files.deleteIfExists(new File(dataFolder, filename).toPath());
+    }
+    
+    /**
+     * Load data from a versioned file with version check
+     * 
+     * Accepts JSON and Smile files alike (detected from the content), so a file keeps loading
+     * after its format is switched.
      * 
      * @param filename Filename (relative to data folder)
      * @param dataClass Data class type
@@ -90,27 +249,50 @@ public class JsonStore {
             return null;
         }
         
-        // Read versioned wrapper
-        VersionedData<?> versioned = jsonMapper.readValue(file, 
-            jsonMapper.getTypeFactory().constructParametricType(VersionedData.class, dataClass));
+        return decode(Files.readAllBytes(file.toPath()), dataClass, filename);
+    }
+    
+    /**
+     * Wrap data in the versioned envelope and encode it
+     */
+    public <T> byte[] encode(T data, int schemaVersion, StorageFormat format) throws IOException {
+        return mapper(format).writeValueAsBytes(new VersionedData<>(schemaVersion, data));
+    }
+    
+    /**
+     * Decode a versioned document (JSON or Smile) and return its data
+     * 
+     * @param source File or record name for log messages
+     */
+    public <T> T decode(byte[] encoded, Class<T> dataClass, String source) throws IOException {
+        ObjectMapper mapper = mapper(StorageFormat.detect(encoded));
+        VersionedData<?> versioned = mapper.readValue(encoded, 
+            mapper.getTypeFactory().constructParametricType(VersionedData.class, dataClass));
+        if (versioned == null) {
+            throw new IOException("Empty data file: " + source);
+        }
         
         // Check schema version and migrate if needed
         if (versioned.schemaVersion < SCHEMA_VERSION) {
             logger.warning(String.format(
                 "Schema upgrade needed for %s: v%d → v%d",
-                filename, versioned.schemaVersion, SCHEMA_VERSION
+                source, versioned.schemaVersion, SCHEMA_VERSION
             ));
             // TODO: Implement migration logic in Phase 2 polish
             // For now, accept old versions with a warning
         }
         
-        logger.info(String.format("Loaded %s (schema v%d)", filename, versioned.schemaVersion));
+        logger.fine(String.format("Loaded %s (schema v%d)", source, versioned.schemaVersion));
         
         @SuppressWarnings("unchecked")
         T data = (T) versioned.data;
         return data;
     }
     
+    private ObjectMapper mapper(StorageFormat format) {
+        return format == StorageFormat.SMILE ? smileMapper : jsonMapper;
+    }
+    
     /**
      * Save data to YAML file (for human-editable config)
      */
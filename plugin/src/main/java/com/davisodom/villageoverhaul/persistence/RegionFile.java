@@ -0,0 +1,445 @@
+package com.davisodom.villageoverhaul.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * Many small blobs keyed by UUID in one file, read and updated in place with positional I/O
+ * (the layout Minecraft uses for region files, with UUID keys instead of chunk slots)
+ *
+ * The file is split into 4 KiB sectors. The first sectors hold the header and an offset table:
+ *
+ *   [int magic][int version][int headerSectors][int reserved]
+ *   entries: [uuid key][int firstSector][int sectorCount][int length][int crc32c]
+ *
+ * followed by the blobs, each in a run of whole sectors. A write puts the new blob in free
+ * sectors and forces it to disk before it repoints the table entry, so an interrupted write,
+ * even a power loss, leaves the old blob in place. Sectors freed by rewrites and deletes are
+ * reused only after the next force has made the entry that replaced them durable; free
+ * sectors at the end of the file are then truncated. When the table is full it doubles,
+ * moving the blobs in its way.
+ *
+ * Not meant to be shared between processes. Thread-safe: writes are serialized, and reads
+ * do not wait for a write in progress (a blob that is moved or replaced while it is being
+ * read fails its checksum and is read again from its new place).
+ */
+public final class RegionFile implements AutoCloseable {
+
+    public static final int SECTOR_BYTES = 4096;
+
+    private static final int MAGIC = 0x564F5247; // "VORG"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int ENTRY_BYTES = 32;
+    private static final int MAX_READ_ATTEMPTS = 3;
+
+    private final Path path;
+    private final FileChannel channel;
+    // Serializes writers; table state below is guarded by this and only held for bookkeeping
+    private final Object writeLock = new Object();
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private final BitSet used = new BitSet();
+    private final BitSet freedSinceForce = new BitSet(); // still in used until the next force
+    private int headerSectors;
+    private int totalSectors;
+
+    private RegionFile(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    /**
+     * Open a region file, creating an empty one if it does not exist
+     *
+     * @throws IOException if the file exists but is not a region file
+     */
+    public static RegionFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        RegionFile file = new RegionFile(path, channel);
+        try {
+            if (channel.size() == 0) {
+                file.headerSectors = 1;
+                file.totalSectors = 1;
+                file.used.set(0);
+                ByteBuffer header = ByteBuffer.allocate(SECTOR_BYTES);
+                header.putInt(MAGIC).putInt(VERSION).putInt(1).putInt(0).clear();
+                file.writeFully(header, 0);
+            } else {
+                file.readHeader();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return file;
+    }
+
+    private void readHeader() throws IOException {
+        ByteBuffer fixed = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(fixed, 0);
+        fixed.flip();
+        if (fixed.getInt() != MAGIC) {
+            throw new IOException("Not a region file: " + path);
+        }
+        int version = fixed.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported region file version " + version + ": " + path);
+        }
+        headerSectors = fixed.getInt();
+        long size = channel.size();
+        if (headerSectors < 1 || (long) headerSectors * SECTOR_BYTES > size) {
+            throw new IOException("Corrupt region file header: " + path);
+        }
+        totalSectors = (int) ((size + SECTOR_BYTES - 1) / SECTOR_BYTES);
+        used.set(0, headerSectors);
+
+        ByteBuffer table = ByteBuffer.allocate(headerSectors * SECTOR_BYTES - HEADER_BYTES);
+        readFully(table, HEADER_BYTES);
+        table.flip();
+        for (int slot = 0; table.remaining() >= ENTRY_BYTES; slot++) {
+            UUID key = new UUID(table.getLong(), table.getLong());
+            Entry entry = new Entry(slot, table.getInt(), table.getInt(), table.getInt(), table.getInt());
+            if (entry.firstSector == 0) {
+                continue;
+            }
+            // An entry pointing outside the file or into the header is dropped; its blob is lost
+            if (entry.firstSector < headerSectors || entry.sectorCount < 1
+                    || (long) entry.firstSector + entry.sectorCount > totalSectors
+                    || entry.length < 0 || entry.length > entry.sectorCount * SECTOR_BYTES) {
+                continue;
+            }
+            entries.put(key, entry);
+            used.set(entry.firstSector, entry.firstSector + entry.sectorCount);
+        }
+    }
+
+    public synchronized boolean contains(UUID key) {
+        return entries.containsKey(key);
+    }
+
+    public synchronized Set<UUID> keys() {
+        return new HashSet<>(entries.keySet());
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Read one blob (does not wait for a write in progress)
+     *
+     * @return The blob, or null if there is none for the key
+     * @throws IOException if the blob fails its checksum
+     */
+    public byte[] read(UUID key) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            Entry entry;
+            synchronized (this) {
+                entry = entries.get(key);
+            }
+            if (entry == null) {
+                return null;
+            }
+            ByteBuffer data = ByteBuffer.allocate(entry.length);
+            IOException failure = null;
+            try {
+                readFully(data, (long) entry.firstSector * SECTOR_BYTES);
+                data.flip();
+                if (checksum(data) == entry.crc) {
+                    return data.array();
+                }
+            } catch (ClosedChannelException e) {
+                throw e;
+            } catch (IOException e) {
+                failure = e; // e.g. the tail holding the old copy was truncated
+            }
+            synchronized (this) {
+                // Unchanged entry: the blob itself is damaged
+                if (entries.get(key) == entry || attempt >= MAX_READ_ATTEMPTS) {
+                    throw failure != null ? failure : new IOException("Checksum mismatch for " + key + " in " + path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Write (or replace) one blob. Only the blob's sectors and its table entry are written;
+     * the blob is forced to disk before the entry points at it.
+     */
+    public void write(UUID key, byte[] blob) throws IOException {
+        synchronized (writeLock) {
+            Entry old;
+            synchronized (this) {
+                old = entries.get(key);
+            }
+            int slot = old != null ? old.slot : freeSlot();
+            int sectors = Math.max(1, (blob.length + SECTOR_BYTES - 1) / SECTOR_BYTES);
+            int first;
+            synchronized (this) {
+                first = allocate(sectors);
+            }
+            Entry entry = new Entry(slot, first, sectors, blob.length, checksum(ByteBuffer.wrap(blob)));
+            try {
+                writeFully(ByteBuffer.wrap(blob), (long) first * SECTOR_BYTES);
+                // Keep whole sectors so the file length is always a multiple of the sector size
+                long end = (long) (first + sectors) * SECTOR_BYTES;
+                if (channel.size() < end) {
+                    writeFully(ByteBuffer.allocate(1), end - 1);
+                }
+                forceAndReleaseFreed();
+                writeEntry(key, entry);
+            } catch (IOException e) {
+                synchronized (this) {
+                    used.clear(first, first + sectors);
+                }
+                throw e;
+            }
+            synchronized (this) {
+                entries.put(key, entry);
+                if (old != null) {
+                    freedSinceForce.set(old.firstSector, old.firstSector + old.sectorCount);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return false if there was no blob for the key
+     */
+    public boolean delete(UUID key) throws IOException {
+        synchronized (writeLock) {
+            Entry entry;
+            synchronized (this) {
+                entry = entries.get(key);
+            }
+            if (entry == null) {
+                return false;
+            }
+            writeFully(ByteBuffer.allocate(ENTRY_BYTES), HEADER_BYTES + (long) entry.slot * ENTRY_BYTES);
+            synchronized (this) {
+                entries.remove(key);
+                freedSinceForce.set(entry.firstSector, entry.firstSector + entry.sectorCount);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Flush written blobs and table entries to the storage device, then reuse the sectors
+     * they replaced
+     */
+    public void force() throws IOException {
+        synchronized (writeLock) {
+            forceAndReleaseFreed();
+            trimTail();
+        }
+    }
+
+    /**
+     * Forces pending changes before closing
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            try {
+                if (channel.isOpen()) {
+                    force();
+                }
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * File size in sectors (header, blobs and free gaps)
+     */
+    public synchronized int getSectorCount() {
+        return totalSectors;
+    }
+
+    // ==================== Allocation ====================
+
+    /**
+     * First fit among the free runs between blobs, else at the end of the file
+     */
+    private int allocate(int sectors) {
+        int free = used.nextClearBit(headerSectors);
+        while (free < totalSectors) {
+            int next = used.nextSetBit(free);
+            if (next < 0 || next >= totalSectors) {
+                break; // the free run reaches the end of the file
+            }
+            if (next - free >= sectors) {
+                used.set(free, free + sectors);
+                return free;
+            }
+            free = used.nextClearBit(next);
+        }
+        used.set(free, free + sectors);
+        totalSectors = Math.max(totalSectors, free + sectors);
+        return free;
+    }
+
+    /**
+     * Everything written so far is durable, so the entries that replaced freed sectors are
+     * too and the sectors can be reused
+     */
+    private void forceAndReleaseFreed() throws IOException {
+        BitSet freed;
+        synchronized (this) {
+            freed = (BitSet) freedSinceForce.clone();
+        }
+        channel.force(false);
+        synchronized (this) {
+            used.andNot(freed);
+            freedSinceForce.andNot(freed);
+        }
+    }
+
+    private int freeSlot() throws IOException {
+        int capacity;
+        synchronized (this) {
+            capacity = (headerSectors * SECTOR_BYTES - HEADER_BYTES) / ENTRY_BYTES;
+            boolean[] taken = new boolean[capacity];
+            for (Entry entry : entries.values()) {
+                taken[entry.slot] = true;
+            }
+            for (int slot = 0; slot < capacity; slot++) {
+                if (!taken[slot]) {
+                    return slot;
+                }
+            }
+        }
+        growTable();
+        return capacity;
+    }
+
+    /**
+     * Double the header, moving blobs that sit where the new table goes to the end of the file.
+     * Each step is forced before the next, so a crash leaves either the old or the new layout.
+     */
+    private void growTable() throws IOException {
+        forceAndReleaseFreed(); // no pending frees may point into the new table space
+        int newHeader;
+        Map<UUID, Entry> moved = new HashMap<>();
+        Map<UUID, Entry> previous = new HashMap<>();
+        synchronized (this) {
+            newHeader = headerSectors * 2;
+            for (Map.Entry<UUID, Entry> e : entries.entrySet()) {
+                Entry entry = e.getValue();
+                if (entry.firstSector < newHeader) {
+                    int first = Math.max(totalSectors, newHeader);
+                    used.set(first, first + entry.sectorCount);
+                    totalSectors = first + entry.sectorCount;
+                    previous.put(e.getKey(), entry);
+                    moved.put(e.getKey(), new Entry(entry.slot, first, entry.sectorCount, entry.length, entry.crc));
+                }
+            }
+        }
+        for (Map.Entry<UUID, Entry> e : moved.entrySet()) {
+            Entry from = previous.get(e.getKey());
+            ByteBuffer data = ByteBuffer.allocate(from.sectorCount * SECTOR_BYTES);
+            readFully(data, (long) from.firstSector * SECTOR_BYTES);
+            data.flip();
+            writeFully(data, (long) e.getValue().firstSector * SECTOR_BYTES);
+        }
+        channel.force(false);
+        for (Map.Entry<UUID, Entry> e : moved.entrySet()) {
+            writeEntry(e.getKey(), e.getValue());
+        }
+        channel.force(false);
+        synchronized (this) {
+            entries.putAll(moved);
+        }
+        // Blobs are out of the way; clear the new table space and publish the bigger header
+        int clearFrom = headerSectors * SECTOR_BYTES;
+        writeFully(ByteBuffer.allocate((newHeader - headerSectors) * SECTOR_BYTES), clearFrom);
+        ByteBuffer count = ByteBuffer.allocate(4).putInt(newHeader);
+        count.flip();
+        writeFully(count, 8);
+        channel.force(false);
+        synchronized (this) {
+            used.set(0, newHeader);
+            totalSectors = Math.max(totalSectors, newHeader);
+            headerSectors = newHeader;
+        }
+    }
+
+    private void trimTail() throws IOException {
+        long length;
+        synchronized (this) {
+            int last = used.previousSetBit(totalSectors - 1);
+            if (last + 1 >= totalSectors) {
+                return;
+            }
+            totalSectors = last + 1;
+            length = (long) totalSectors * SECTOR_BYTES;
+        }
+        channel.truncate(length);
+    }
+
+    // ==================== I/O ====================
+
+    private void writeEntry(UUID key, Entry entry) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(ENTRY_BYTES);
+        buffer.putLong(key.getMostSignificantBits()).putLong(key.getLeastSignificantBits())
+                .putInt(entry.firstSector).putInt(entry.sectorCount).putInt(entry.length).putInt(entry.crc);
+        buffer.flip();
+        writeFully(buffer, HEADER_BYTES + (long) entry.slot * ENTRY_BYTES);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of region file " + path + " at " + position);
+            }
+            position += read;
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static int checksum(ByteBuffer data) {
+        CRC32C crc = new CRC32C();
+        crc.update(data.duplicate());
+        return (int) crc.getValue();
+    }
+
+    private static final class Entry {
+        final int slot;
+        final int firstSector;
+        final int sectorCount;
+        final int length;
+        final int crc;
+
+        Entry(int slot, int firstSector, int sectorCount, int length, int crc) {
+            this.slot = slot;
+            this.firstSector = firstSector;
+            this.sectorCount = sectorCount;
+            this.length = length;
+            this.crc = crc;
+        }
+    }
+}
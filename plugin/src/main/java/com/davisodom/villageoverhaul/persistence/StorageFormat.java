@@ -0,0 +1,56 @@
+package com.davisodom.villageoverhaul.persistence;
+
+import java.util.Locale;
+
+/**
+ * Encoding of a versioned data file (the VersionedData envelope is the same for both)
+ *
+ * - JSON: pretty-printed text, for files people read or edit
+ * - SMILE: Jackson's binary JSON; same data model, typically 2-4x smaller on disk and
+ *   noticeably faster to parse, for bulk data written often
+ *
+ * Loading detects the encoding from the file contents, so switching a file's format only
+ * changes how it is written next.
+ */
+public enum StorageFormat {
+    JSON(".json"),
+    SMILE(".smile");
+
+    /** First bytes of every Smile document written with the default header (":)\n") */
+    static final byte[] SMILE_HEADER = {0x3A, 0x29, 0x0A};
+
+    private final String fileSuffix;
+
+    StorageFormat(String fileSuffix) {
+        this.fileSuffix = fileSuffix;
+    }
+
+    /**
+     * Conventional file name suffix (".json" / ".smile")
+     */
+    public String getFileSuffix() {
+        return fileSuffix;
+    }
+
+    /**
+     * Parse a config value ("json" / "smile", case-insensitive)
+     */
+    public static StorageFormat fromConfig(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Unknown storage format: " + value + " (expected json or smile)");
+        }
+    }
+
+    /**
+     * Format of an encoded document, judged by its first bytes
+     */
+    static StorageFormat detect(byte[] encoded) {
+        if (encoded.length >= SMILE_HEADER.length && encoded[0] == SMILE_HEADER[0] && encoded[1] == SMILE_HEADER[1]
+                && encoded[2] == SMILE_HEADER[2]) {
+            return SMILE;
+        }
+        return JSON;
+    }
+}
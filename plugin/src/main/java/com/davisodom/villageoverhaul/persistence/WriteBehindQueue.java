@@ -0,0 +1,330 @@
+package com.davisodom.villageoverhaul.persistence;
+
+import com.davisodom.villageoverhaul.obs.Metrics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Write-behind queue: file writes are handed to a single I/O thread instead of running on
+ * the caller (usually the main thread)
+ *
+ * - One pending write per file. A write is held for the coalescing window after it is first
+ *   queued; saves of the same file within that window replace the queued snapshot and share
+ *   its future, so a file saved ten times a second is written a few times, not ten.
+ * - At most maxPending files are queued. When the queue is full the writer ignores the window
+ *   and the caller blocks until a slot frees up (backpressure instead of unbounded memory).
+ *   Replacing an already-queued file never blocks.
+ * - Writes run in queue order on one thread, so two writes of the same file cannot overlap.
+ *
+ * The returned future completes once the data is on disk (or failed to get there).
+ * Snapshots must not be modified after they are queued.
+ */
+public final class WriteBehindQueue {
+
+    /**
+     * A queued write (or delete) of one file
+     */
+    @FunctionalInterface
+    public interface Write {
+        void run() throws IOException;
+    }
+
+    private final Logger logger;
+    private final Settings settings;
+    private final Object lock = new Object();
+
+    // Guarded by lock
+    private final LinkedHashMap<String, Pending> pending = new LinkedHashMap<>();
+    private boolean running;
+    private boolean closed;
+    private int flushing; // callers waiting in flush()
+    private int inFlight;
+
+    private Thread writer;
+
+    private final Metrics.Counter writes;
+    private final Metrics.Counter coalesced;
+    private final Metrics.Counter failures;
+    private final Metrics.Counter blocked;
+    private final Metrics.Gauge depth;
+
+    /**
+     * @param metrics Counters under persistence.* (nullable)
+     */
+    public WriteBehindQueue(Logger logger, Settings settings, Metrics metrics) {
+        this.logger = logger;
+        this.settings = settings;
+        Metrics m = metrics != null ? metrics : new Metrics(logger);
+        this.writes = m.counter("persistence.writes");
+        this.coalesced = m.counter("persistence.coalesced");
+        this.failures = m.counter("persistence.write_failures");
+        this.blocked = m.counter("persistence.backpressure_waits");
+        this.depth = m.gauge("persistence.queue_depth");
+    }
+
+    public void start() {
+        synchronized (lock) {
+            if (running) {
+                return;
+            }
+            running = true;
+        }
+        writer = new Thread(this::run, "VillageOverhaul-IO");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queue a write of the given file, or replace the snapshot already queued for it
+     *
+     * Blocks while the queue is full. Fails the future right away once the queue is stopped.
+     *
+     * @param file Key identifying the file (coalescing is per key)
+     */
+    public CompletableFuture<Void> submit(String file, Write write) {
+        synchronized (lock) {
+            if (!running || closed) {
+                return rejected(file);
+            }
+            Pending existing = pending.get(file);
+            if (existing != null) {
+                existing.write = write;
+                coalesced.inc();
+                return existing.future;
+            }
+            if (pending.size() >= settings.maxPending) {
+                blocked.inc();
+                lock.notifyAll(); // writer stops honouring the window while we wait
+                while (running && pending.size() >= settings.maxPending && Thread.currentThread() != writer) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+                if (!running || closed) {
+                    return rejected(file);
+                }
+                // Another caller may have queued the same file while we waited
+                existing = pending.get(file);
+                if (existing != null) {
+                    existing.write = write;
+                    coalesced.inc();
+                    return existing.future;
+                }
+            }
+            Pending entry = new Pending(write, System.nanoTime() + settings.coalesceMillis * 1_000_000L);
+            pending.put(file, entry);
+            depth.set(pending.size());
+            if (pending.size() == 1 || pending.size() >= settings.maxPending) {
+                lock.notifyAll();
+            }
+            return entry.future;
+        }
+    }
+
+    /**
+     * Write everything queued now, ignoring the coalescing window, and wait for it
+     *
+     * @return false if writes were still pending when the timeout expired
+     */
+    public boolean flush(long timeoutMillis) {
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+        synchronized (lock) {
+            flushing++;
+            lock.notifyAll();
+            try {
+                while ((!pending.isEmpty() || inFlight > 0) && writer != null && writer.isAlive()) {
+                    long remaining = (deadline - System.nanoTime()) / 1_000_000L;
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    lock.wait(remaining);
+                }
+                return pending.isEmpty() && inFlight == 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                flushing--;
+            }
+        }
+    }
+
+    /**
+     * Stop accepting writes, flush what is queued and stop the I/O thread
+     *
+     * @return false if writes were still pending when the timeout expired (they are abandoned
+     *         and their futures failed)
+     */
+    public boolean shutdown(long timeoutMillis) {
+        synchronized (lock) {
+            if (!running || closed) {
+                return true;
+            }
+            closed = true;
+        }
+        boolean flushed = flush(timeoutMillis);
+        Thread thread;
+        List<Pending> abandoned;
+        synchronized (lock) {
+            running = false;
+            abandoned = new ArrayList<>(pending.values());
+            pending.clear();
+            depth.set(0);
+            lock.notifyAll();
+            thread = writer;
+        }
+        if (!abandoned.isEmpty()) {
+            logger.severe("Write-behind queue stopped with " + abandoned.size() + " unwritten file(s)");
+            for (Pending entry : abandoned) {
+                entry.future.completeExceptionally(new IOException("Write-behind queue stopped before write"));
+            }
+        }
+        if (thread != null && flushed) {
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return flushed;
+    }
+
+    public boolean isRunning() {
+        synchronized (lock) {
+            return running && !closed;
+        }
+    }
+
+    public int getPending() {
+        synchronized (lock) {
+            return pending.size() + inFlight;
+        }
+    }
+
+    public Settings getSettings() {
+        return settings;
+    }
+
+    private void run() {
+        while (true) {
+            Pending next;
+            synchronized (lock) {
+                next = null;
+                while (next == null) {
+                    if (!running) {
+                        return;
+                    }
+                    Iterator<Map.Entry<String, Pending>> head = pending.entrySet().iterator();
+                    if (!head.hasNext()) {
+                        waitQuietly(0);
+                        continue;
+                    }
+                    Pending first = head.next().getValue();
+                    long waitNanos = first.dueNanos - System.nanoTime();
+                    // Oldest entry first; its window expires before any later one's
+                    if (waitNanos > 0 && flushing == 0 && pending.size() < settings.maxPending) {
+                        waitQuietly(Math.max(1, waitNanos / 1_000_000L));
+                        continue;
+                    }
+                    head.remove();
+                    inFlight++;
+                    depth.set(pending.size());
+                    lock.notifyAll(); // wake callers blocked on a full queue
+                    next = first;
+                }
+            }
+
+            try {
+                next.write.run();
+                writes.inc();
+                next.future.complete(null);
+            } catch (Throwable t) {
+                failures.inc();
+                logger.log(Level.WARNING, "Write-behind write failed", t);
+                next.future.completeExceptionally(t);
+            } finally {
+                synchronized (lock) {
+                    inFlight--;
+                    lock.notifyAll();
+                }
+            }
+        }
+    }
+
+    private static CompletableFuture<Void> rejected(String file) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        future.completeExceptionally(new IOException("Write-behind queue is stopped: " + file));
+        return future;
+    }
+
+    private void waitQuietly(long millis) {
+        try {
+            lock.wait(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Pending {
+        volatile Write write;
+        final long dueNanos;
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        Pending(Write write, long dueNanos) {
+            this.write = write;
+            this.dueNanos = dueNanos;
+        }
+    }
+
+    /**
+     * Queue tuning
+     */
+    public static final class Settings {
+        public static final long DEFAULT_COALESCE_MILLIS = 500;
+        public static final int DEFAULT_MAX_PENDING = 1024;
+        public static final long DEFAULT_SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+        final long coalesceMillis;
+        final int maxPending;
+        final long shutdownTimeoutMillis;
+
+        /**
+         * @param coalesceMillis How long a queued write waits for newer snapshots of the same file
+         * @param maxPending Files queued before callers block
+         * @param shutdownTimeoutMillis How long shutdown waits for queued writes
+         */
+        public Settings(long coalesceMillis, int maxPending, long shutdownTimeoutMillis) {
+            if (coalesceMillis < 0) {
+                throw new IllegalArgumentException("coalesceMillis must not be negative: " + coalesceMillis);
+            }
+            if (maxPending < 1) {
+                throw new IllegalArgumentException("maxPending must be at least 1: " + maxPending);
+            }
+            if (shutdownTimeoutMillis < 0) {
+                throw new IllegalArgumentException("shutdownTimeoutMillis must not be negative: " + shutdownTimeoutMillis);
+            }
+            this.coalesceMillis = coalesceMillis;
+            this.maxPending = maxPending;
+            this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        }
+
+        public static Settings defaults() {
+            return new Settings(DEFAULT_COALESCE_MILLIS, DEFAULT_MAX_PENDING, DEFAULT_SHUTDOWN_TIMEOUT_MILLIS);
+        }
+
+        public long getCoalesceMillis() { return coalesceMillis; }
+        public int getMaxPending() { return maxPending; }
+        public long getShutdownTimeoutMillis() { return shutdownTimeoutMillis; }
+    }
+}
@@ -44,6 +44,13 @@ public class Project {
      * @param unlockEffects Effects applied on completion (e.g., ["trade_slots:+2", "profession:master_blacksmith"])
      */
     public Project(UUID villageId, String buildingRef, long costMillz, List<String> unlockEffects) {
+        this(UUID.randomUUID(), villageId, buildingRef, costMillz, unlockEffects);
+    }
+    
+    /**
+     * Create a new project with a caller-chosen ID (replayable tick inputs derive it from state)
+     */
+    public Project(UUID id, UUID villageId, String buildingRef, long costMillz, List<String> unlockEffects) {
         if (costMillz <= 0) {
             throw new IllegalArgumentException("Project cost must be positive: " + costMillz);
         }
@@ -51,7 +58,7 @@ public class Project {
             throw new IllegalArgumentException("Village ID and building reference are required");
         }
         
-        this.id = UUID.randomUUID();
+        this.id = id;
         this.villageId = villageId;
         this.buildingRef = buildingRef;
         this.costMillz = costMillz;
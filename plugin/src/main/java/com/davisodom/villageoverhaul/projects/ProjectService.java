@@ -1,5 +1,10 @@
 package com.davisodom.villageoverhaul.projects;
 
+import com.davisodom.villageoverhaul.obs.VillageCostProfiler;
+import com.davisodom.villageoverhaul.obs.jfr.JfrEvents;
+import com.davisodom.villageoverhaul.obs.jfr.ProjectContributionEvent;
+import com.davisodom.villageoverhaul.obs.stream.LiveEvents;
+
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
@@ -22,6 +27,7 @@ public class ProjectService {
     private final Map<UUID, Project> projects;
     private final Map<UUID, List<UUID>> villageProjects; // villageId → projectIds
     private final List<ContributionAuditEntry> auditLog;
+    private volatile VillageCostProfiler costProfiler; // Nullable
     
     public ProjectService(Logger logger) {
         this.logger = logger;
@@ -40,7 +46,15 @@ public class ProjectService {
      * @return Created project
      */
     public Project createProject(UUID villageId, String buildingRef, long costMillz, List<String> unlockEffects) {
-        Project project = new Project(villageId, buildingRef, costMillz, unlockEffects);
+        return createProject(UUID.randomUUID(), villageId, buildingRef, costMillz, unlockEffects);
+    }
+    
+    /**
+     * Create a new project with a caller-chosen ID
+     * Used by tick inputs so a replay creates the same project IDs as the live server.
+     */
+    public Project createProject(UUID id, UUID villageId, String buildingRef, long costMillz, List<String> unlockEffects) {
+        Project project = new Project(id, villageId, buildingRef, costMillz, unlockEffects);
         projects.put(project.getId(), project);
         
         villageProjects.computeIfAbsent(villageId, k -> Collections.synchronizedList(new ArrayList<>()))
@@ -137,9 +151,42 @@ public class ProjectService {
             return Optional.empty();
         }
         
+        VillageCostProfiler profiler = costProfiler;
+        if (profiler == null) {
+            return applyContribution(project, playerId, millz);
+        }
+        long start = profiler.begin(VillageCostProfiler.Source.PROJECT);
+        try {
+            return applyContribution(project, playerId, millz);
+        } finally {
+            profiler.end(project.getVillageId(), VillageCostProfiler.Source.PROJECT, start);
+        }
+    }
+    
+    /**
+     * Charge project updates to the owning village (null = not profiled)
+     */
+    public void setCostProfiler(VillageCostProfiler costProfiler) {
+        this.costProfiler = costProfiler;
+    }
+    
+    private Optional<Project.ContributionResult> applyContribution(Project project, UUID playerId, long millz) {
+        UUID projectId = project.getId();
+        ProjectContributionEvent jfr = JfrEvents.isEnabled() ? ProjectContributionEvent.start() : null;
         try {
             Project.ContributionResult result = project.contribute(playerId, millz);
             
+            if (jfr != null && jfr.shouldCommit()) {
+                jfr.projectId = projectId.toString();
+                jfr.villageId = project.getVillageId().toString();
+                jfr.playerId = playerId.toString();
+                jfr.attemptedMillz = millz;
+                jfr.acceptedMillz = result.getAccepted();
+                jfr.overflowMillz = result.getOverflow();
+                jfr.completed = result.isCompleted();
+                jfr.commit();
+            }
+            
             // Audit log
             ContributionAuditEntry entry = new ContributionAuditEntry(
                     java.time.Instant.now(),
@@ -160,6 +207,11 @@ public class ProjectService {
             
             if (result.isCompleted()) {
                 logger.info("OK Project completed: " + project);
+                if (LiveEvents.isActive()) {
+                    LiveEvents.publish("project.completed", "projectId", projectId.toString(),
+                            "villageId", project.getVillageId().toString(), "costMillz", project.getCostMillz(),
+                            "contributors", project.getContributors().size());
+                }
             }
             
             return Optional.of(result);
@@ -1,6 +1,7 @@
 package com.davisodom.villageoverhaul.projects;
 
 import com.davisodom.villageoverhaul.VillageOverhaulPlugin;
+import com.davisodom.villageoverhaul.obs.VillageCostProfiler;
 import com.davisodom.villageoverhaul.villages.Village;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -44,11 +45,17 @@ public class UpgradeExecutor {
         
         // Schedule on main thread (Bukkit API requirement)
         Bukkit.getScheduler().runTask(plugin, () -> {
+            VillageCostProfiler profiler = plugin.getMetrics() != null ? plugin.getMetrics().getVillageCosts() : null;
+            long start = profiler != null ? profiler.begin(VillageCostProfiler.Source.PROJECT) : 0L;
             try {
                 performUpgrade(project, village);
             } catch (Exception e) {
                 logger.severe("Failed to execute upgrade for project " + project.getId() + ": " + e.getMessage());
                 e.printStackTrace();
+            } finally {
+                if (profiler != null) {
+                    profiler.end(village.getId(), VillageCostProfiler.Source.PROJECT, start);
+                }
             }
         });
     }
@@ -0,0 +1,394 @@
+package com.davisodom.villageoverhaul.sim;
+
+import com.davisodom.villageoverhaul.commands.QueuedCommandHandler;
+import com.davisodom.villageoverhaul.core.ManualTickScheduler;
+import com.davisodom.villageoverhaul.core.ReplayRunner;
+import com.davisodom.villageoverhaul.core.TickClock;
+import com.davisodom.villageoverhaul.core.TickEngine;
+import com.davisodom.villageoverhaul.economy.TradeInputHandler;
+import com.davisodom.villageoverhaul.economy.WalletService;
+import com.davisodom.villageoverhaul.obs.LatencyHistogram;
+import com.davisodom.villageoverhaul.obs.Metrics;
+import com.davisodom.villageoverhaul.obs.ThreadResources;
+import com.davisodom.villageoverhaul.perf.bench.BenchmarkResult;
+import com.davisodom.villageoverhaul.perf.bench.BenchmarkRun;
+import com.davisodom.villageoverhaul.projects.ProjectService;
+import com.davisodom.villageoverhaul.villages.VillageService;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Headless capacity simulation: steps synthetic villages through the real tick engine
+ *
+ * Runs without a server (no Bukkit on the classpath). Use it to estimate how many villages
+ * one server can hold before the village slice falls behind:
+ *
+ *   ./gradlew simulate --args="--villages 10000 --ticks 1200"
+ *
+ * Options:
+ * - --villages N        Synthetic villages (default 10000)
+ * - --ticks N           Measured ticks (default 1200 = 1 minute of game time)
+ * - --warmup N          Ticks run before measuring (default 200)
+ * - --npcs N            NPC cap per village (default 10)
+ * - --players N         Synthetic players trading and contributing (default 100)
+ * - --budget N          Village slice per tick in microseconds (default engine budget)
+ * - --chunk N           Villages per chunk (default 16)
+ * - --parallelism N     Compute workers, 0 = serial (default cores - 1)
+ * - --tick-ms N         Pace ticks N ms apart, 0 = as fast as possible (default 0)
+ * - --seed N            Seed for the synthetic population (default 1)
+ * - --deterministic     Frozen engine clock: every village is ticked every tick and the
+ *                       state digest is reproducible across machines and parallelism
+ * - --verbose           Log engine and service messages
+ * - --bench-out FILE    Also write per-tick samples for the regression gate (see BenchmarkGate)
+ * - --label TEXT        Label stored with --bench-out (commit, machine)
+ * - --replay FILE       Replay a tick input recording (.votl from /vo tick record) through the
+ *                       real input handlers instead of simulating; prints per-tick timing and
+ *                       the state digest (--parallelism, --deterministic and --verbose apply)
+ */
+public final class SimulationMain {
+
+    private SimulationMain() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(2);
+            return;
+        }
+        if (options.help) {
+            printUsage();
+            return;
+        }
+
+        Logger logger = Logger.getLogger("VillageOverhaul-Sim");
+        logger.setLevel(options.verbose ? Level.INFO : Level.SEVERE);
+        if (options.replay != null) {
+            replay(options, logger);
+            return;
+        }
+
+        System.out.printf("Building %d synthetic villages (%d NPCs max, %d players, seed %d)...%n",
+                options.villages, options.npcs, options.players, options.seed);
+        SyntheticVillages world = new SyntheticVillages(logger, options.seed, options.villages, options.npcs,
+                options.players);
+
+        ManualTickScheduler scheduler = new ManualTickScheduler();
+        Metrics metrics = new Metrics(logger);
+        ThreadResources.setEnabled(true);
+        TickEngine engine = new TickEngine(logger, metrics, scheduler,
+                options.deterministic ? TickClock.FROZEN : TickClock.SYSTEM);
+        engine.setParallelism(options.parallelism);
+        engine.setVillageChunkSize(options.chunk);
+        engine.setVillageBudgetMicros(options.budgetMicros);
+        world.register(engine);
+        engine.start();
+
+        long periodNanos = options.tickMillis * 1_000_000L;
+        try {
+            scheduler.runTicks(options.warmup, periodNanos);
+            metrics.reset();
+
+            long[] tickNanos = new long[(int) options.ticks];
+            int[] villagesPerTick = new int[(int) options.ticks];
+            long[] allocPerTick = new long[(int) options.ticks];
+            long[] villagesTicked = new long[1];
+            int[] index = new int[1];
+            long[] allocBefore = {ThreadResources.allocatedBytes()};
+            long visitsBefore = world.getVillageVisits();
+            long start = System.nanoTime();
+            scheduler.runTicks(options.ticks, periodNanos, () -> {
+                long alloc = ThreadResources.allocatedBytes();
+                allocPerTick[index[0]] = alloc - allocBefore[0];
+                allocBefore[0] = alloc;
+                villagesPerTick[index[0]] = engine.getVillagesTickedLastTick();
+                tickNanos[index[0]++] = scheduler.getLastTickNanos();
+                villagesTicked[0] += engine.getVillagesTickedLastTick();
+            });
+            long wallNanos = System.nanoTime() - start;
+
+            printReport(options, world, metrics, tickNanos, villagesTicked[0],
+                    world.getVillageVisits() - visitsBefore, wallNanos);
+            if (options.benchOut != null) {
+                writeBenchmarks(options, tickNanos, villagesPerTick, allocPerTick);
+            }
+        } finally {
+            engine.stop();
+        }
+    }
+
+    /**
+     * Replay a recording from the plugin: the snapshot at its head loads villages, projects
+     * and wallets, then the recorded trades and commands run through the plugin's handlers
+     */
+    private static void replay(Options options, Logger logger) throws IOException {
+        VillageService villages = new VillageService();
+        ProjectService projects = new ProjectService(logger);
+        WalletService wallets = new WalletService();
+
+        TickEngine engine = new TickEngine(logger, new Metrics(logger), new ManualTickScheduler(),
+                options.deterministic ? TickClock.FROZEN : TickClock.SYSTEM);
+        engine.setParallelism(options.parallelism);
+        StateSnapshot.register(engine, villages, projects, wallets);
+        new TradeInputHandler(logger, wallets, projects, villages).register(engine);
+        new QueuedCommandHandler(logger, projects, villages).register(engine);
+
+        System.out.println("Replaying " + options.replay + "...");
+        try (InputStream in = new FileInputStream(options.replay)) {
+            ReplayRunner.Result result = new ReplayRunner(engine)
+                    .withStateProbe(out -> StateSnapshot.writeState(out, villages, projects, wallets))
+                    .run(in);
+            System.out.println(result);
+        } finally {
+            engine.stop();
+        }
+    }
+
+    private static void printReport(Options options, SyntheticVillages world, Metrics metrics, long[] tickNanos,
+                                    long villagesTicked, long visits, long wallNanos) throws IOException {
+        long[] sorted = tickNanos.clone();
+        Arrays.sort(sorted);
+        long total = 0;
+        for (long nanos : tickNanos) {
+            total += nanos;
+        }
+        int ticks = tickNanos.length;
+        double avgMs = ticks > 0 ? total / (double) ticks / 1_000_000.0 : 0;
+        double villagesPerTick = ticks > 0 ? villagesTicked / (double) ticks : 0;
+
+        System.out.printf("Simulated %d villages for %d ticks in %.2fs (%.0f ticks/s)%n",
+                world.getVillageCount(), ticks, wallNanos / 1e9, ticks / (wallNanos / 1e9));
+        System.out.printf("Tick time: avg %.2fms, p50 %.2fms, p95 %.2fms, p99 %.2fms, max %.2fms%n",
+                avgMs, percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99),
+                percentile(sorted, 100));
+        System.out.printf("Villages: %.0f ticked per tick, %d visits", villagesPerTick, visits);
+        if (villagesPerTick > 0) {
+            double interval = world.getVillageCount() / villagesPerTick;
+            System.out.printf(", each village ticked every %.1f ticks (%.2fs)", interval, interval / 20.0);
+        }
+        System.out.println();
+        if (villagesTicked > 0) {
+            // Everything but the village slice is assumed negligible here (synthetic globals are cheap)
+            double microsPerVillage = total / 1000.0 / villagesTicked;
+            System.out.printf("Capacity: ~%.1fus per village tick; a %dus slice fits ~%.0f villages at full rate, " +
+                            "~%.0f at REDUCED (every %d ticks)%n",
+                    microsPerVillage, options.budgetMicros, options.budgetMicros / microsPerVillage,
+                    options.budgetMicros / microsPerVillage * TickEngine.LodTier.REDUCED.getInterval(),
+                    TickEngine.LodTier.REDUCED.getInterval());
+        }
+        System.out.printf("Economy: %d NPCs, %d NPC work ticks, %d trades, %d contributions, %d projects completed, " +
+                        "%.2f Trills in village wallets%n",
+                world.getTotalNpcs(), world.getNpcTicks(), world.getTrades(), world.getContributions(),
+                world.getProjectsCompleted(), world.getVillageWealthMillz() / 10000.0);
+        printResources(metrics, ticks);
+        System.out.println("State digest: " + digest(world) + (options.deterministic ? "" :
+                " (not reproducible without --deterministic)"));
+    }
+
+    /**
+     * Allocation and CPU time per tick by subsystem, heaviest allocator first
+     */
+    private static void printResources(Metrics metrics, int ticks) {
+        if (!ThreadResources.isEnabled() || ticks == 0) {
+            return;
+        }
+        List<Map.Entry<String, Metrics.ResourceStats>> entries = new ArrayList<>(metrics.getAllResourceStats().entrySet());
+        entries.sort(Comparator.comparingLong(
+                (Map.Entry<String, Metrics.ResourceStats> e) -> e.getValue().getAllocationSnapshot().getSum()).reversed());
+        StringBuilder sb = new StringBuilder("Per tick (alloc/cpu):");
+        for (Map.Entry<String, Metrics.ResourceStats> entry : entries) {
+            LatencyHistogram.Snapshot alloc = entry.getValue().getAllocationSnapshot();
+            LatencyHistogram.Snapshot cpu = entry.getValue().getCpuSnapshot();
+            if (alloc.getCount() == 0 && cpu.getCount() == 0) {
+                continue;
+            }
+            sb.append(String.format(" %s %.1fKB/%.2fms,", entry.getKey(), alloc.getSum() / 1024.0 / ticks,
+                    cpu.getSum() / 1000.0 / ticks));
+        }
+        if (sb.charAt(sb.length() - 1) == ',') {
+            sb.setLength(sb.length() - 1);
+            System.out.println(sb);
+        }
+    }
+
+    /**
+     * Per-tick samples for the regression gate: tick time, cost per village and main-thread
+     * allocation (compute workers are not included)
+     */
+    private static void writeBenchmarks(Options options, long[] tickNanos, int[] villagesPerTick,
+                                        long[] allocPerTick) throws IOException {
+        // Results are only comparable between runs with the same population and engine settings
+        Map<String, String> config = new LinkedHashMap<>();
+        config.put("villages", String.valueOf(options.villages));
+        config.put("ticks", String.valueOf(options.ticks));
+        config.put("warmup", String.valueOf(options.warmup));
+        config.put("npcs", String.valueOf(options.npcs));
+        config.put("players", String.valueOf(options.players));
+        config.put("budget", String.valueOf(options.budgetMicros));
+        config.put("chunk", String.valueOf(options.chunk));
+        config.put("parallelism", String.valueOf(options.parallelism));
+        config.put("seed", String.valueOf(options.seed));
+        config.put("deterministic", String.valueOf(options.deterministic));
+        BenchmarkRun run = new BenchmarkRun(options.label, Instant.now().toString(), config);
+
+        int ticks = tickNanos.length;
+        double[] tickMillis = new double[ticks];
+        double[] villageMicros = new double[ticks];
+        int villageSamples = 0;
+        for (int i = 0; i < ticks; i++) {
+            // Nanosecond digits are noise; rounding keeps checked-in baselines small
+            tickMillis[i] = Math.round(tickNanos[i] / 1000.0) / 1000.0;
+            if (villagesPerTick[i] > 0) {
+                villageMicros[villageSamples++] = Math.round(tickNanos[i] / (double) villagesPerTick[i]) / 1000.0;
+            }
+        }
+        run.add(new BenchmarkResult("sim.tick", "ms", false, tickMillis));
+        run.add(new BenchmarkResult("sim.village_tick", "us", false, Arrays.copyOf(villageMicros, villageSamples)));
+        if (ThreadResources.isAllocationEnabled()) {
+            double[] allocKb = new double[ticks];
+            for (int i = 0; i < ticks; i++) {
+                allocKb[i] = Math.round(allocPerTick[i] / 10.24) / 100.0;
+            }
+            run.add(new BenchmarkResult("sim.tick_alloc", "KB", false, allocKb));
+        }
+        File file = new File(options.benchOut);
+        run.write(file);
+        System.out.println("Benchmark samples: " + file);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(sorted.length * percentile / 100.0) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+
+    private static String digest(SyntheticVillages world) throws IOException {
+        MessageDigest sha;
+        try {
+            sha = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (DataOutputStream out = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), sha))) {
+            world.writeState(out);
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : sha.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: SimulationMain [--villages N] [--ticks N] [--warmup N] [--npcs N] [--players N]");
+        System.out.println("                      [--budget MICROS] [--chunk N] [--parallelism N] [--tick-ms N]");
+        System.out.println("                      [--seed N] [--deterministic] [--verbose]");
+        System.out.println("                      [--bench-out FILE] [--label TEXT]");
+        System.out.println("       SimulationMain --replay FILE [--parallelism N] [--deterministic] [--verbose]");
+    }
+
+    /**
+     * Command line options
+     */
+    static final class Options {
+        int villages = 10000;
+        long ticks = 1200;
+        long warmup = 200;
+        int npcs = 10;
+        int players = 100;
+        long budgetMicros = TickEngine.DEFAULT_VILLAGE_BUDGET_MICROS;
+        int chunk = 16;
+        int parallelism = TickEngine.DEFAULT_PARALLELISM;
+        long tickMillis = 0;
+        long seed = 1;
+        boolean deterministic = false;
+        boolean verbose = false;
+        boolean help = false;
+        String benchOut;
+        String label = "";
+        String replay;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--deterministic":
+                        options.deterministic = true;
+                        continue;
+                    case "--verbose":
+                        options.verbose = true;
+                        continue;
+                    case "--help":
+                    case "-h":
+                        options.help = true;
+                        continue;
+                    default:
+                        break;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + arg);
+                }
+                if (arg.equals("--bench-out")) {
+                    options.benchOut = args[++i];
+                    continue;
+                }
+                if (arg.equals("--label")) {
+                    options.label = args[++i];
+                    continue;
+                }
+                if (arg.equals("--replay")) {
+                    options.replay = args[++i];
+                    continue;
+                }
+                long value;
+                try {
+                    value = Long.parseLong(args[++i]);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Not a number for " + arg + ": " + args[i]);
+                }
+                if (value < 0) {
+                    throw new IllegalArgumentException("Negative value for " + arg + ": " + value);
+                }
+                switch (arg) {
+                    case "--villages": options.villages = (int) value; break;
+                    case "--ticks": options.ticks = value; break;
+                    case "--warmup": options.warmup = value; break;
+                    case "--npcs": options.npcs = (int) value; break;
+                    case "--players": options.players = (int) value; break;
+                    case "--budget": options.budgetMicros = value; break;
+                    case "--chunk": options.chunk = (int) value; break;
+                    case "--parallelism": options.parallelism = (int) value; break;
+                    case "--tick-ms": options.tickMillis = value; break;
+                    case "--seed": options.seed = value; break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            return options;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.davisodom.villageoverhaul.sim;
+
+import com.davisodom.villageoverhaul.core.TickEngine;
+import com.davisodom.villageoverhaul.core.TickInput;
+import com.davisodom.villageoverhaul.economy.WalletService;
+import com.davisodom.villageoverhaul.projects.Project;
+import com.davisodom.villageoverhaul.projects.ProjectService;
+import com.davisodom.villageoverhaul.villages.Village;
+import com.davisodom.villageoverhaul.villages.VillageService;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Village, project and wallet state carried at the head of a tick input recording
+ *
+ * {@link #capture} encodes the live services as inputs that
+ * {@link TickEngine#startRecording(java.io.OutputStream, Collection)} logs without applying.
+ * A headless replay registers {@link #register} on empty services, so the first replayed
+ * tick loads that state before the recorded inputs run against it. The server clock,
+ * entities and blocks are not captured.
+ */
+public final class StateSnapshot {
+
+    // snapshot.village: id, cultureId, name, wealthMillz, world, x, y, z
+    // snapshot.project: id, villageId, buildingRef, costMillz, progressMillz, status,
+    //                   contributors (count, then playerId + millz), unlockEffects,
+    //                   createdAt, completedAt (epoch millis, -1 = none)
+    // snapshot.wallet: ownerId, balanceMillz
+    public static final String VILLAGE_INPUT = "snapshot.village";
+    public static final String PROJECT_INPUT = "snapshot.project";
+    public static final String WALLET_INPUT = "snapshot.wallet";
+
+    private StateSnapshot() {
+    }
+
+    /**
+     * Encode the current state (projects keep their per-village order)
+     */
+    public static List<TickInput> capture(VillageService villages, ProjectService projects, WalletService wallets) {
+        List<TickInput> inputs = new ArrayList<>();
+        for (Village village : sortedVillages(villages)) {
+            inputs.add(TickInput.builder(VILLAGE_INPUT)
+                    .uuid(village.getId())
+                    .string(village.getCultureId())
+                    .string(village.getName())
+                    .varLong(village.getWealthMillz())
+                    .string(village.getWorldName())
+                    .varLong(village.getX())
+                    .varLong(village.getY())
+                    .varLong(village.getZ())
+                    .build());
+        }
+        for (Project project : orderedProjects(projects)) {
+            TickInput.Builder builder = TickInput.builder(PROJECT_INPUT)
+                    .uuid(project.getId())
+                    .uuid(project.getVillageId())
+                    .string(project.getBuildingRef())
+                    .varLong(project.getCostMillz())
+                    .varLong(project.getProgressMillz())
+                    .string(project.getStatus().name());
+            Map<UUID, Long> contributors = new TreeMap<>(project.getContributors());
+            builder.varLong(contributors.size());
+            for (Map.Entry<UUID, Long> entry : contributors.entrySet()) {
+                builder.uuid(entry.getKey()).varLong(entry.getValue());
+            }
+            inputs.add(builder
+                    .strings(project.getUnlockEffects().toArray(new String[0]))
+                    .varLong(epochMillis(project.getCreatedAt()))
+                    .varLong(epochMillis(project.getCompletedAt()))
+                    .build());
+        }
+        for (Map.Entry<UUID, WalletService.Wallet> entry : new TreeMap<>(wallets.getAllWallets()).entrySet()) {
+            inputs.add(TickInput.builder(WALLET_INPUT)
+                    .uuid(entry.getKey())
+                    .varLong(entry.getValue().getBalanceMillz())
+                    .build());
+        }
+        return inputs;
+    }
+
+    /**
+     * Register the handlers that load snapshot inputs into (empty) services
+     */
+    public static void register(TickEngine engine, VillageService villages, ProjectService projects,
+                                WalletService wallets) {
+        engine.registerInputHandler(VILLAGE_INPUT, (input, tick) -> {
+            TickInput.Reader payload = input.reader();
+            villages.loadVillage(payload.uuid(), payload.string(), payload.string(), payload.varLong(),
+                    payload.string(), (int) payload.varLong(), (int) payload.varLong(), (int) payload.varLong());
+        });
+        engine.registerInputHandler(PROJECT_INPUT, (input, tick) -> {
+            TickInput.Reader payload = input.reader();
+            UUID id = payload.uuid();
+            UUID villageId = payload.uuid();
+            String buildingRef = payload.string();
+            long costMillz = payload.varLong();
+            long progressMillz = payload.varLong();
+            Project.Status status = Project.Status.valueOf(payload.string());
+            int contributorCount = (int) payload.varLong();
+            Map<UUID, Long> contributors = new HashMap<>();
+            for (int i = 0; i < contributorCount; i++) {
+                contributors.put(payload.uuid(), payload.varLong());
+            }
+            List<String> unlockEffects = Arrays.asList(payload.strings());
+            Instant createdAt = instant(payload.varLong());
+            Instant completedAt = instant(payload.varLong());
+            projects.loadProject(id, villageId, buildingRef, costMillz, progressMillz, status, contributors,
+                    unlockEffects, createdAt, completedAt);
+        });
+        engine.registerInputHandler(WALLET_INPUT, (input, tick) -> {
+            TickInput.Reader payload = input.reader();
+            wallets.loadWallet(payload.uuid(), payload.varLong());
+        });
+    }
+
+    /**
+     * Deterministic dump of the replayable state (for {@link com.davisodom.villageoverhaul.core.ReplayRunner.StateProbe})
+     */
+    public static void writeState(DataOutputStream out, VillageService villages, ProjectService projects,
+                                  WalletService wallets) throws IOException {
+        for (Village village : sortedVillages(villages)) {
+            out.writeLong(village.getId().getMostSignificantBits());
+            out.writeLong(village.getId().getLeastSignificantBits());
+            out.writeLong(village.getWealthMillz());
+        }
+        for (Project project : orderedProjects(projects)) {
+            out.writeLong(project.getId().getMostSignificantBits());
+            out.writeLong(project.getId().getLeastSignificantBits());
+            out.writeLong(project.getProgressMillz());
+            out.writeUTF(project.getStatus().name());
+        }
+        for (Map.Entry<UUID, WalletService.Wallet> entry : new TreeMap<>(wallets.getAllWallets()).entrySet()) {
+            out.writeLong(entry.getKey().getMostSignificantBits());
+            out.writeLong(entry.getKey().getLeastSignificantBits());
+            out.writeLong(entry.getValue().getBalanceMillz());
+        }
+    }
+
+    private static List<Village> sortedVillages(VillageService villages) {
+        List<Village> sorted = new ArrayList<>(villages.getAllVillages());
+        sorted.sort(Comparator.comparing(Village::getId));
+        return sorted;
+    }
+
+    /**
+     * Projects grouped by village (sorted by village ID), in each village's own order
+     */
+    private static List<Project> orderedProjects(ProjectService projects) {
+        SortedSet<UUID> villageIds = new TreeSet<>();
+        for (Project project : projects.getAllProjects()) {
+            villageIds.add(project.getVillageId());
+        }
+        List<Project> ordered = new ArrayList<>();
+        for (UUID villageId : villageIds) {
+            ordered.addAll(projects.getVillageProjects(villageId));
+        }
+        return ordered;
+    }
+
+    private static long epochMillis(Instant instant) {
+        return instant != null ? instant.toEpochMilli() : -1;
+    }
+
+    private static Instant instant(long epochMillis) {
+        return epochMillis >= 0 ? Instant.ofEpochMilli(epochMillis) : null;
+    }
+}
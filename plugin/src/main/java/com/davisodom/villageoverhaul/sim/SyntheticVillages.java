@@ -0,0 +1,287 @@
+package com.davisodom.villageoverhaul.sim;
+
+import com.davisodom.villageoverhaul.core.TickEngine;
+import com.davisodom.villageoverhaul.economy.WalletService;
+import com.davisodom.villageoverhaul.projects.Project;
+import com.davisodom.villageoverhaul.projects.ProjectService;
+import com.davisodom.villageoverhaul.villages.Village;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * Synthetic village population for headless simulation (no server, no world)
+ *
+ * Each village owns a wallet, one active project at a time and a fixed-size block of NPC
+ * state. The systems registered by {@link #register(TickEngine)} exercise the same engine
+ * paths as the plugin:
+ * - sim-npc (parallel village system): NPCs spend energy working and rest when exhausted;
+ *   work done is banked as pending village income
+ * - sim-economy (village system): pays pending income into the village wallet, funds the
+ *   village project with half of it and grows the village (one more NPC, a costlier
+ *   project) when the project completes
+ * - sim-trade (global system): synthetic players earn allowance, trade with villages and
+ *   contribute to village projects through the real wallet and project services
+ *
+ * Everything is derived from the seed and the tick number, so two runs with the same seed
+ * and a deterministic clock produce the same state (see {@link #writeState(DataOutputStream)}).
+ */
+public final class SyntheticVillages {
+
+    // NPC energy: work costs 1 per tick, exhausted NPCs rest until recovered to full.
+    // Stored as remaining energy while working (> 0) or minus the energy recovered while resting (<= 0)
+    private static final int MAX_ENERGY = 200;
+    private static final int RECOVERY_PER_TICK = 4;
+
+    // Millz earned per NPC per working tick, banked (and half of it put into the village's
+    // project) once 5 Billz are pending
+    private static final long MILLZ_PER_WORK_TICK = 1;
+    private static final long BANK_THRESHOLD_MILLZ = 5 * WalletService.MILLZ_PER_BILLZ;
+
+    private static final long BASE_PROJECT_COST_MILLZ = 20 * WalletService.MILLZ_PER_BILLZ;
+    private static final long MAX_PROJECT_COST_MILLZ = 100 * WalletService.MILLZ_PER_TRILLS;
+    private static final String[] CULTURES = {"roman"};
+
+    private final long seed;
+    private final int npcCap;
+    private final WalletService wallets;
+    private final ProjectService projects;
+
+    private final Village[] villages;
+    private final List<UUID> villageIds;
+    private final Map<UUID, Integer> indexOf;
+    private final UUID[] playerIds;
+    private final SplittableRandom random;
+
+    // Per-village state, indexed like villages[]
+    private final int[] npcCount;
+    private final int[] npcEnergy; // npcCap slots per village
+    private final long[] pendingIncome;
+    private final UUID[] activeProject;
+    private final long[] projectCost;
+
+    private long npcTicks = 0;
+    private long villageVisits = 0;
+    private long trades = 0;
+    private long contributions = 0;
+    private long projectsCompleted = 0;
+
+    /**
+     * @param logger Logger for the wallet and project services (set its level to keep runs quiet)
+     * @param seed Seed for ids, initial state and synthetic players
+     * @param villageCount Number of villages
+     * @param npcCap Maximum NPCs per village
+     * @param playerCount Number of synthetic players
+     */
+    public SyntheticVillages(Logger logger, long seed, int villageCount, int npcCap, int playerCount) {
+        if (villageCount < 1 || npcCap < 1 || playerCount < 0) {
+            throw new IllegalArgumentException("Need at least one village and one NPC slot per village");
+        }
+        this.seed = seed;
+        this.npcCap = npcCap;
+        this.wallets = new WalletService();
+        this.projects = new ProjectService(logger);
+        this.random = new SplittableRandom(seed);
+
+        this.villages = new Village[villageCount];
+        this.indexOf = new HashMap<>(villageCount * 2);
+        this.npcCount = new int[villageCount];
+        this.npcEnergy = new int[villageCount * npcCap];
+        this.pendingIncome = new long[villageCount];
+        this.activeProject = new UUID[villageCount];
+        this.projectCost = new long[villageCount];
+
+        UUID[] ids = new UUID[villageCount];
+        for (int i = 0; i < villageCount; i++) {
+            UUID id = new UUID(random.nextLong(), random.nextLong());
+            ids[i] = id;
+            villages[i] = new Village(id, CULTURES[i % CULTURES.length], "Sim-" + i, "sim",
+                    (i % 1000) * 256, 64, (i / 1000) * 256);
+            indexOf.put(id, i);
+
+            npcCount[i] = 1 + random.nextInt(Math.max(1, npcCap / 2));
+            for (int n = 0; n < npcCap; n++) {
+                npcEnergy[i * npcCap + n] = random.nextInt(MAX_ENERGY) + 1;
+            }
+            projectCost[i] = BASE_PROJECT_COST_MILLZ;
+            startProject(i);
+        }
+        this.villageIds = Collections.unmodifiableList(Arrays.asList(ids));
+
+        this.playerIds = new UUID[playerCount];
+        for (int p = 0; p < playerCount; p++) {
+            playerIds[p] = new UUID(random.nextLong(), random.nextLong());
+        }
+    }
+
+    /**
+     * Register the village source and synthetic systems with an engine
+     */
+    public void register(TickEngine engine) {
+        engine.setVillageSource(() -> villageIds);
+        engine.registerParallelSystem("sim-npc", new NpcSystem());
+        engine.registerVillageSystem("sim-economy", this::tickEconomy);
+        engine.registerSystem("sim-trade", this::tickTrade);
+    }
+
+    private void startProject(int village) {
+        Project project = projects.createProject(villages[village].getId(), "sim_upgrade", projectCost[village],
+                Collections.singletonList("npc_cap:+1"));
+        projects.activateProject(project.getId());
+        activeProject[village] = project.getId();
+    }
+
+    /**
+     * NPC work: snapshot = energy of the village's NPCs, result = new energy + work done
+     */
+    private final class NpcSystem implements TickEngine.ParallelTickableSystem<int[], int[]> {
+        @Override
+        public int[] snapshot(UUID villageId, long tick) {
+            int village = indexOf.get(villageId);
+            int from = village * npcCap;
+            return Arrays.copyOfRange(npcEnergy, from, from + npcCount[village]);
+        }
+
+        @Override
+        public int[] compute(UUID villageId, int[] energy, long tick, long elapsedTicks) {
+            int[] result = new int[energy.length + 1];
+            long work = 0;
+            for (int n = 0; n < energy.length; n++) {
+                int e = energy[n];
+                if (e <= 0) {
+                    long recovered = -e + RECOVERY_PER_TICK * elapsedTicks;
+                    result[n] = recovered >= MAX_ENERGY ? MAX_ENERGY : (int) -recovered;
+                } else {
+                    long worked = Math.min(e, elapsedTicks);
+                    work += worked;
+                    result[n] = (int) (e - worked);
+                }
+            }
+            result[energy.length] = (int) Math.min(work, Integer.MAX_VALUE);
+            return result;
+        }
+
+        @Override
+        public void apply(UUID villageId, int[] result, long tick) {
+            int village = indexOf.get(villageId);
+            int count = result.length - 1;
+            System.arraycopy(result, 0, npcEnergy, village * npcCap, count);
+            pendingIncome[village] += result[count] * MILLZ_PER_WORK_TICK;
+            npcTicks += count;
+        }
+    }
+
+    /**
+     * Bank NPC income and grow the village once its project is funded
+     */
+    private void tickEconomy(UUID villageId, long tick, long elapsedTicks) {
+        int village = indexOf.get(villageId);
+        villageVisits++;
+        if (!isProjectActive(village)) {
+            projectsCompleted++;
+            if (npcCount[village] < npcCap) {
+                npcCount[village]++;
+            }
+            projectCost[village] = Math.min(projectCost[village] * 3 / 2, MAX_PROJECT_COST_MILLZ);
+            startProject(village);
+        }
+
+        if (pendingIncome[village] >= BANK_THRESHOLD_MILLZ) {
+            long income = pendingIncome[village];
+            wallets.credit(villageId, income);
+            villages[village].addWealth(income);
+            pendingIncome[village] = 0;
+            contribute(village, villageId, income / 2);
+        }
+    }
+
+    private boolean isProjectActive(int village) {
+        Optional<Project> project = projects.getProject(activeProject[village]);
+        return project.isPresent() && project.get().getStatus() == Project.Status.ACTIVE;
+    }
+
+    /**
+     * Move money from a wallet into the village's active project, refunding any overflow
+     */
+    private void contribute(int village, UUID contributor, long millz) {
+        if (millz <= 0 || !isProjectActive(village) || !wallets.debit(contributor, millz)) {
+            return;
+        }
+        projects.contribute(activeProject[village], contributor, millz).ifPresent(result -> {
+            if (result.getOverflow() > 0) {
+                wallets.credit(contributor, result.getOverflow());
+            }
+        });
+        contributions++;
+    }
+
+    /**
+     * Synthetic players: allowance every second, one trade or contribution per player per second
+     */
+    private void tickTrade(long tick) {
+        if (playerIds.length == 0) {
+            return;
+        }
+        // Spread players over the 20 ticks of a second
+        for (int p = (int) (tick % 20); p < playerIds.length; p += 20) {
+            UUID player = playerIds[p];
+            wallets.credit(player, WalletService.MILLZ_PER_BILLZ);
+
+            int village = random.nextInt(villages.length);
+            long amount = 1 + random.nextInt((int) WalletService.MILLZ_PER_BILLZ);
+            if (random.nextInt(4) == 0) {
+                contribute(village, player, amount);
+            } else if (wallets.transfer(player, villages[village].getId(), amount)) {
+                trades++;
+            }
+        }
+    }
+
+    /**
+     * Serialize the simulated state in village order (for determinism checks)
+     */
+    public void writeState(DataOutputStream out) throws IOException {
+        out.writeLong(seed);
+        for (int i = 0; i < villages.length; i++) {
+            UUID id = villages[i].getId();
+            out.writeLong(wallets.getBalanceMillz(id));
+            out.writeLong(pendingIncome[i]);
+            out.writeInt(npcCount[i]);
+            for (int n = 0; n < npcCount[i]; n++) {
+                out.writeInt(npcEnergy[i * npcCap + n]);
+            }
+            Project project = projects.getProject(activeProject[i]).orElse(null);
+            out.writeLong(project != null ? project.getProgressMillz() : -1L);
+            out.writeLong(projectCost[i]);
+        }
+        for (UUID player : playerIds) {
+            out.writeLong(wallets.getBalanceMillz(player));
+        }
+    }
+
+    public int getVillageCount() { return villages.length; }
+    public int getPlayerCount() { return playerIds.length; }
+    public long getNpcTicks() { return npcTicks; }
+    public long getVillageVisits() { return villageVisits; }
+    public long getTrades() { return trades; }
+    public long getContributions() { return contributions; }
+    public long getProjectsCompleted() { return projectsCompleted; }
+
+    public long getTotalNpcs() {
+        long total = 0;
+        for (int count : npcCount) {
+            total += count;
+        }
+        return total;
+    }
+
+    public long getVillageWealthMillz() {
+        long total = 0;
+        for (Village village : villages) {
+            total += wallets.getBalanceMillz(village.getId());
+        }
+        return total;
+    }
+}
@@ -0,0 +1,188 @@
+package com.davisodom.villageoverhaul.villages;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-world index of the chunk each online player is standing in
+ *
+ * Updated from player events only when a player crosses a chunk boundary, changes world,
+ * joins or quits, so lookups never scan entities. Each world also keeps a flat array of
+ * packed chunk keys, rebuilt on change, so distance queries iterate the players of one
+ * world without boxing; village LOD evaluation stays proportional to active players.
+ *
+ * Main thread only.
+ */
+public class PlayerChunkIndex implements Listener {
+
+    // worldName -> (playerId -> packed chunk key)
+    private final Map<String, Map<UUID, Long>> worlds = new HashMap<>();
+    private final Map<String, long[]> worldChunks = new HashMap<>();
+    private final Map<UUID, String> playerWorld = new HashMap<>();
+    private ChunkChangeListener listener;
+
+    /**
+     * Seed the index with players already online (plugin reload)
+     */
+    public void seed() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            update(player.getUniqueId(), player.getLocation());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        update(event.getPlayer().getUniqueId(), event.getPlayer().getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        remove(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onMove(PlayerMoveEvent event) {
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (to == null || ((from.getBlockX() >> 4) == (to.getBlockX() >> 4)
+                && (from.getBlockZ() >> 4) == (to.getBlockZ() >> 4))) {
+            return; // Same chunk: nothing to do (the common case)
+        }
+        update(event.getPlayer().getUniqueId(), to);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTeleport(PlayerTeleportEvent event) {
+        if (event.getTo() != null) {
+            update(event.getPlayer().getUniqueId(), event.getTo());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChangedWorld(PlayerChangedWorldEvent event) {
+        update(event.getPlayer().getUniqueId(), event.getPlayer().getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        update(event.getPlayer().getUniqueId(), event.getRespawnLocation());
+    }
+
+    private void update(UUID playerId, Location location) {
+        World world = location.getWorld();
+        if (world == null) {
+            return;
+        }
+        String worldName = world.getName();
+        long key = chunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+
+        String previousWorld = playerWorld.put(playerId, worldName);
+        Long previous;
+        if (previousWorld != null && !previousWorld.equals(worldName)) {
+            previous = worlds.get(previousWorld).remove(playerId);
+            rebuild(previousWorld);
+            worlds.computeIfAbsent(worldName, w -> new HashMap<>()).put(playerId, key);
+        } else {
+            previous = worlds.computeIfAbsent(worldName, w -> new HashMap<>()).put(playerId, key);
+            if (previous != null && previous == key) {
+                return;
+            }
+        }
+        rebuild(worldName);
+        if (listener != null) {
+            if (previous != null) {
+                listener.onChunkChanged(previousWorld, chunkX(previous), chunkZ(previous));
+            }
+            listener.onChunkChanged(worldName, chunkX(key), chunkZ(key));
+        }
+    }
+
+    private void remove(UUID playerId) {
+        String worldName = playerWorld.remove(playerId);
+        if (worldName != null) {
+            Long key = worlds.get(worldName).remove(playerId);
+            rebuild(worldName);
+            if (listener != null && key != null) {
+                listener.onChunkChanged(worldName, chunkX(key), chunkZ(key));
+            }
+        }
+    }
+
+    private void rebuild(String worldName) {
+        Map<UUID, Long> players = worlds.get(worldName);
+        long[] keys = new long[players.size()];
+        int i = 0;
+        for (long key : players.values()) {
+            keys[i++] = key;
+        }
+        worldChunks.put(worldName, keys);
+    }
+
+    /**
+     * Chebyshev distance (in chunks) from a chunk to the nearest player in the same world
+     *
+     * @return Distance in chunks, or Integer.MAX_VALUE if the world has no players
+     */
+    public int nearestPlayerDistance(String worldName, int chunkX, int chunkZ) {
+        long[] players = worldChunks.get(worldName);
+        if (players == null) {
+            return Integer.MAX_VALUE;
+        }
+        int nearest = Integer.MAX_VALUE;
+        for (long key : players) {
+            int dx = Math.abs(chunkX(key) - chunkX);
+            int dz = Math.abs(chunkZ(key) - chunkZ);
+            nearest = Math.min(nearest, Math.max(dx, dz));
+        }
+        return nearest;
+    }
+
+    /**
+     * Number of indexed players in a world
+     */
+    public int getPlayerCount(String worldName) {
+        Map<UUID, Long> players = worlds.get(worldName);
+        return players != null ? players.size() : 0;
+    }
+
+    /**
+     * Set the listener told about the chunk a player left and the one it entered
+     */
+    public void setListener(ChunkChangeListener listener) {
+        this.listener = listener;
+    }
+
+    static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    static int chunkX(long key) {
+        return (int) (key >> 32);
+    }
+
+    static int chunkZ(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Called once for each chunk a player left or entered (join, quit, move, world change)
+     */
+    public interface ChunkChangeListener {
+        void onChunkChanged(String worldName, int chunkX, int chunkZ);
+    }
+}
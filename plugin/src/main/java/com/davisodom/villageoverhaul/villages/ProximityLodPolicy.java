@@ -0,0 +1,111 @@
+package com.davisodom.villageoverhaul.villages;
+
+import com.davisodom.villageoverhaul.core.TickEngine;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Village LOD policy driven by player proximity and chunk load state
+ *
+ * Tiers:
+ * - FROZEN: the village's center chunk is not loaded
+ * - FULL: a player is within fullRadius chunks
+ * - REDUCED: a player is within reducedRadius chunks
+ * - DISTANT: otherwise
+ *
+ * Player positions come from {@link PlayerChunkIndex}. When a player changes chunk, only
+ * the villages within reducedRadius of the chunk it left or entered are invalidated (see
+ * {@link #onPlayerChunkChanged}); the generation only changes with the radii.
+ */
+public class ProximityLodPolicy implements TickEngine.VillageLodPolicy {
+
+    private final VillageService villageService;
+    private final PlayerChunkIndex playerIndex;
+    private volatile int fullRadiusChunks;
+    private volatile int reducedRadiusChunks;
+    private volatile long radiiVersion = 0;
+    private volatile Consumer<UUID> invalidator = villageId -> { };
+
+    public ProximityLodPolicy(VillageService villageService, PlayerChunkIndex playerIndex,
+                              int fullRadiusChunks, int reducedRadiusChunks) {
+        this.villageService = villageService;
+        this.playerIndex = playerIndex;
+        setRadii(fullRadiusChunks, reducedRadiusChunks);
+    }
+
+    /**
+     * Update tier radii (chunks); reducedRadius is raised to at least fullRadius
+     */
+    public void setRadii(int fullRadiusChunks, int reducedRadiusChunks) {
+        if (fullRadiusChunks < 0) {
+            throw new IllegalArgumentException("fullRadiusChunks must not be negative");
+        }
+        this.fullRadiusChunks = fullRadiusChunks;
+        this.reducedRadiusChunks = Math.max(fullRadiusChunks, reducedRadiusChunks);
+        radiiVersion++; // Re-evaluate cached tiers against the new radii
+    }
+
+    public int getFullRadiusChunks() {
+        return fullRadiusChunks;
+    }
+
+    public int getReducedRadiusChunks() {
+        return reducedRadiusChunks;
+    }
+
+    /**
+     * Set where villages needing a tier re-evaluation are sent (normally {@link TickEngine#invalidateLod})
+     */
+    public void setInvalidator(Consumer<UUID> invalidator) {
+        this.invalidator = invalidator;
+    }
+
+    /**
+     * Invalidate the villages a player entering or leaving this chunk can move between tiers
+     *
+     * Only villages within reducedRadius of the chunk qualify: farther ones are DISTANT with
+     * or without that player. Main thread only (called from {@link PlayerChunkIndex}).
+     */
+    public void onPlayerChunkChanged(String worldName, int chunkX, int chunkZ) {
+        int radius = reducedRadiusChunks;
+        for (Village village : villageService.getAllVillages()) {
+            if (Math.abs((village.getX() >> 4) - chunkX) <= radius
+                    && Math.abs((village.getZ() >> 4) - chunkZ) <= radius
+                    && village.getWorldName().equals(worldName)) {
+                invalidator.accept(village.getId());
+            }
+        }
+    }
+
+    @Override
+    public TickEngine.LodTier tierOf(UUID villageId) {
+        Village village = villageService.getVillage(villageId).orElse(null);
+        if (village == null) {
+            return TickEngine.LodTier.FROZEN;
+        }
+
+        int chunkX = village.getX() >> 4;
+        int chunkZ = village.getZ() >> 4;
+        World world = Bukkit.getWorld(village.getWorldName());
+        if (world == null || !world.isChunkLoaded(chunkX, chunkZ)) {
+            return TickEngine.LodTier.FROZEN;
+        }
+
+        int distance = playerIndex.nearestPlayerDistance(village.getWorldName(), chunkX, chunkZ);
+        if (distance <= fullRadiusChunks) {
+            return TickEngine.LodTier.FULL;
+        }
+        if (distance <= reducedRadiusChunks) {
+            return TickEngine.LodTier.REDUCED;
+        }
+        return TickEngine.LodTier.DISTANT;
+    }
+
+    @Override
+    public long getGeneration() {
+        return radiiVersion;
+    }
+}
@@ -2,36 +2,96 @@ package com.davisodom.villageoverhaul.villages;
 
 import com.davisodom.villageoverhaul.model.Building;
 import com.davisodom.villageoverhaul.model.PathNetwork;
+import com.davisodom.villageoverhaul.persistence.JsonStore;
+import com.davisodom.villageoverhaul.persistence.StorageFormat;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.WorldLoadEvent;
 import org.bukkit.plugin.Plugin;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
 /**
  * In-memory store for village metadata with disk persistence.
  * Tracks buildings, path networks, main building designations, and dynamic borders.
  * Thread-safe for concurrent access.
+ * 
+ * Villages are stored in region files (villages/<world>/r.<x>.<z>.region), one per 512x512
+ * block area, keyed by the region of the village origin. A region is read off the main thread
+ * when a chunk in it loads, so only villages near loaded chunks are held in memory; a lookup
+ * of a village outside the loaded regions reads just that village (without waiting for region
+ * writes). {@link #getAllVillages()} therefore returns the loaded villages only — call
+ * {@link #loadAround} before checks that need every nearby village.
+ * 
+ * Mutations mark the village dirty and {@link #saveAll()} rewrites only dirty villages, each
+ * as one in-place update of its region file, off the main thread when write-behind is running.
+ * Per-village files from older versions are migrated into regions at the first checkpoint
+ * after their world is loaded.
  */
-public class VillageMetadataStore {
+public class VillageMetadataStore implements Listener {
     
     private final Plugin plugin;
     private final Logger logger;
     private final File storageDir;
     
+    private static final String STORAGE_FOLDER = "villages";
+    private static final int MAX_OPEN_REGION_FILES = 64;
+    
+    /** Side length of a storage region in blocks */
+    public static final int REGION_SIZE = 1 << VillageRegionStorage.REGION_SHIFT;
+    
     // In-memory caches (thread-safe)
     private final Map<UUID, VillageMetadata> villages = new ConcurrentHashMap<>();
     private final Map<UUID, List<Building>> villageBuildings = new ConcurrentHashMap<>();
     private final Map<UUID, UUID> mainBuildings = new ConcurrentHashMap<>(); // villageId -> mainBuildingId
     private final Map<UUID, PathNetwork> pathNetworks = new ConcurrentHashMap<>();
     
+    // Villages changed / removed since the last checkpoint
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> removed = ConcurrentHashMap.newKeySet();
+    // Removed villages whose delete has not reached the region file yet (must not be reloaded)
+    private final Set<UUID> deleting = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger failedWrites = new AtomicInteger();
+    
+    private final JsonStore jsonStore; // null = in-memory only
+    private final VillageRegionStorage regions; // null = in-memory only
+    private final StorageFormat format;
+    private final Set<VillageRegionStorage.Region> loadedRegions = ConcurrentHashMap.newKeySet();
+    // Regions being read off the main thread after a chunk load
+    private final Set<VillageRegionStorage.Region> pendingRegions = ConcurrentHashMap.newKeySet();
+    
+    // Per-village files from before region storage, deleted once the village is in its region
+    private final Map<UUID, String> legacyFiles = new ConcurrentHashMap<>();
+    // Per-village files of villages whose world is not loaded yet, by world name (left untouched until it is)
+    private final Map<String, List<String>> deferredLegacyFiles = new ConcurrentHashMap<>();
+    
     public VillageMetadataStore(Plugin plugin) {
+        this(plugin, null, StorageFormat.JSON);
+    }
+    
+    /**
+     * @param jsonStore Store rooted at the plugin data folder (encodes village records and runs
+     *                  region writes on its write-behind queue); null keeps metadata in memory only
+     * @param format Encoding of village records inside region files
+     */
+    public VillageMetadataStore(Plugin plugin, JsonStore jsonStore, StorageFormat format) {
         this.plugin = plugin;
         this.logger = plugin.getLogger();
-        this.storageDir = new File(plugin.getDataFolder(), "villages");
+        this.jsonStore = jsonStore;
+        this.format = format;
+        this.storageDir = new File(plugin.getDataFolder(), STORAGE_FOLDER);
+        this.regions = jsonStore != null ? new VillageRegionStorage(storageDir, logger, MAX_OPEN_REGION_FILES) : null;
         
         if (!storageDir.exists()) {
             storageDir.mkdirs();
@@ -45,6 +105,8 @@ public class VillageMetadataStore {
         VillageMetadata metadata = new VillageMetadata(villageId, cultureId, origin, seed, System.currentTimeMillis());
         villages.put(villageId, metadata);
         villageBuildings.put(villageId, new ArrayList<>());
+        removed.remove(villageId);
+        dirty.add(villageId);
         logger.info(String.format("[STRUCT] Registered village %s (culture: %s) at %s", 
             villageId, cultureId, formatLocation(origin)));
     }
@@ -53,6 +115,7 @@ public class VillageMetadataStore {
      * Add a building to a village.
      */
     public void addBuilding(UUID villageId, Building building) {
+        ensureLoaded(villageId);
         villageBuildings.computeIfAbsent(villageId, k -> new ArrayList<>()).add(building);
         
         // Update village border to include this building
@@ -60,6 +123,7 @@ public class VillageMetadataStore {
         if (metadata != null) {
             metadata.expandBorderForBuilding(building);
         }
+        dirty.add(villageId);
         
         logger.fine(String.format("[STRUCT] Added building %s to village %s", 
             building.getStructureId(), villageId));
@@ -69,6 +133,7 @@ public class VillageMetadataStore {
      * Get all buildings for a village.
      */
     public List<Building> getVillageBuildings(UUID villageId) {
+        ensureLoaded(villageId);
         return new ArrayList<>(villageBuildings.getOrDefault(villageId, Collections.emptyList()));
     }
     
@@ -76,7 +141,9 @@ public class VillageMetadataStore {
      * Designate a building as the main building for a village.
      */
     public void setMainBuilding(UUID villageId, UUID buildingId) {
+        ensureLoaded(villageId);
         mainBuildings.put(villageId, buildingId);
+        dirty.add(villageId);
         logger.info(String.format("[STRUCT] Designated building %s as main building for village %s", 
             buildingId, villageId));
     }
@@ -85,6 +152,7 @@ public class VillageMetadataStore {
      * Get the main building for a village.
      */
     public Optional<UUID> getMainBuilding(UUID villageId) {
+        ensureLoaded(villageId);
         return Optional.ofNullable(mainBuildings.get(villageId));
     }
     
@@ -92,7 +160,9 @@ public class VillageMetadataStore {
      * Store path network for a village.
      */
     public void setPathNetwork(UUID villageId, PathNetwork pathNetwork) {
+        ensureLoaded(villageId);
         pathNetworks.put(villageId, pathNetwork);
+        dirty.add(villageId);
         logger.fine(String.format("[STRUCT] Stored path network for village %s", villageId));
     }
     
@@ -100,31 +170,55 @@ public class VillageMetadataStore {
      * Get path network for a village.
      */
     public Optional<PathNetwork> getPathNetwork(UUID villageId) {
+        ensureLoaded(villageId);
         return Optional.ofNullable(pathNetworks.get(villageId));
     }
     
     /**
-     * Get village metadata.
+     * Get village metadata (read from its region file if the village is not loaded).
      */
     public Optional<VillageMetadata> getVillage(UUID villageId) {
+        ensureLoaded(villageId);
         return Optional.ofNullable(villages.get(villageId));
     }
     
     /**
-     * Get all registered villages.
+     * Get all loaded villages (those in regions near loaded chunks, plus any looked up by id).
      */
     public Collection<VillageMetadata> getAllVillages() {
         return new ArrayList<>(villages.values());
     }
     
+    /**
+     * Whether any village exists in the world, loaded or not.
+     */
+    public boolean hasVillages(World world) {
+        for (VillageMetadata village : villages.values()) {
+            if (village.isInWorld(world)) {
+                return true;
+            }
+        }
+        return regions != null && regions.hasWorld(world.getName());
+    }
+    
+    /**
+     * Number of villages stored in region files.
+     */
+    public int getStoredCount() {
+        return regions != null ? regions.size() : 0;
+    }
+    
     /**
      * Remove a village and all its data.
      */
     public boolean removeVillage(UUID villageId) {
+        ensureLoaded(villageId);
         if (villages.remove(villageId) != null) {
             villageBuildings.remove(villageId);
             mainBuildings.remove(villageId);
             pathNetworks.remove(villageId);
+            dirty.remove(villageId);
+            removed.add(villageId);
             logger.info(String.format("[STRUCT] Removed village %s", villageId));
             return true;
         }
@@ -132,36 +226,408 @@ public class VillageMetadataStore {
     }
     
     /**
-     * Save all village data to disk (JSON format).
+     * Mark a village for the next checkpoint after changing its metadata in place
+     * (e.g. through {@link VillageMetadata#getBorder()}).
+     */
+    public void markDirty(UUID villageId) {
+        if (villages.containsKey(villageId)) {
+            dirty.add(villageId);
+        }
+    }
+    
+    /**
+     * Number of villages waiting to be written or deleted.
+     */
+    public int getPendingCount() {
+        return dirty.size() + removed.size();
+    }
+    
+    /**
+     * Checkpoint: queue a write of every village changed since the last checkpoint and a
+     * delete for every removed one. Unchanged villages are not touched.
+     * Call on the main thread (the thread that mutates the store); the records are
+     * snapshotted here and encoded and written by the JsonStore write-behind thread when it
+     * is running.
+     * 
+     * A village whose write fails is marked dirty again and retried at the next checkpoint.
+     * 
+     * @return Number of villages queued for writing
+     */
+    public int saveAll() {
+        if (regions == null) {
+            return 0;
+        }
+        int failedSinceLast = failedWrites.getAndSet(0);
+        if (failedSinceLast > 0) {
+            logger.warning(String.format("[STRUCT] %d village write(s) failed, retrying", failedSinceLast));
+        }
+        
+        int written = 0;
+        for (UUID villageId : new ArrayList<>(dirty)) {
+            // Clear before snapshotting so a change made after this point is not lost
+            dirty.remove(villageId);
+            VillageMetadata metadata = villages.get(villageId);
+            if (metadata == null) {
+                continue;
+            }
+            VillageRecord record = VillageRecord.of(metadata,
+                villageBuildings.getOrDefault(villageId, Collections.emptyList()),
+                mainBuildings.get(villageId), pathNetworks.get(villageId));
+            VillageRegionStorage.Region region = VillageRegionStorage.Region.containing(record.origin.world,
+                (int) Math.floor(record.origin.x), (int) Math.floor(record.origin.z));
+            String legacyFile = legacyFiles.remove(villageId);
+            jsonStore.submitAsync(queueKey(villageId),
+                    () -> regions.write(region, villageId, jsonStore.encode(record, VillageRecord.SCHEMA_VERSION, format)))
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        failedWrites.incrementAndGet();
+                        if (legacyFile != null) {
+                            legacyFiles.putIfAbsent(villageId, legacyFile);
+                        }
+                        markDirty(villageId);
+                    } else if (legacyFile != null) {
+                        jsonStore.deleteAsync(legacyFile);
+                    }
+                });
+            written++;
+        }
+        
+        int deleted = 0;
+        for (UUID villageId : new ArrayList<>(removed)) {
+            removed.remove(villageId);
+            deleting.add(villageId);
+            String legacyFile = legacyFiles.remove(villageId);
+            if (legacyFile != null) {
+                jsonStore.deleteAsync(legacyFile);
+            }
+            jsonStore.submitAsync(queueKey(villageId), () -> regions.delete(villageId))
+                .whenComplete((ignored, error) -> {
+                    if (error != null && !villages.containsKey(villageId)) {
+                        failedWrites.incrementAndGet();
+                        removed.add(villageId);
+                    }
+                    deleting.remove(villageId);
+                });
+            deleted++;
+        }
+        
+        if (written > 0 || deleted > 0) {
+            logger.fine(String.format("[STRUCT] Checkpoint: %d written, %d deleted of %d loaded villages",
+                written, deleted, villages.size()));
+        }
+        return written;
+    }
+    
+    /**
+     * Index the region files (their offset tables only, no village data) and load any
+     * per-village files left by older versions, which are queued for migration into regions.
+     * Villages are otherwise loaded per region as chunks load (see {@link #loadLoadedChunks()}).
+     * 
+     * @return Number of villages on disk
+     */
+    public int loadAll() throws IOException {
+        if (regions == null) {
+            return 0;
+        }
+        int stored = regions.buildIndex();
+        int migrated = loadLegacyFiles();
+        logger.info(String.format("[STRUCT] Indexed %d stored villages%s", stored,
+            migrated > 0 ? ", migrating " + migrated + " per-village file(s) into regions" : ""));
+        return stored + migrated;
+    }
+    
+    /**
+     * Load the regions of every chunk that is currently loaded (startup; later chunks are
+     * handled by {@link #onChunkLoad}).
+     * 
+     * @return Number of villages loaded
+     */
+    public int loadLoadedChunks() {
+        int loaded = 0;
+        for (World world : Bukkit.getWorlds()) {
+            for (Chunk chunk : world.getLoadedChunks()) {
+                loaded += loadChunk(world.getName(), chunk.getX(), chunk.getZ());
+            }
+        }
+        return loaded;
+    }
+    
+    /**
+     * Read the chunk's region off the main thread and add its villages back on the main
+     * thread, so a chunk load never waits for disk.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        VillageRegionStorage.Region region = VillageRegionStorage.Region.containing(event.getWorld().getName(),
+            event.getChunk().getX() << 4, event.getChunk().getZ() << 4);
+        if (regions == null || loadedRegions.contains(region) || !pendingRegions.add(region)) {
+            return;
+        }
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            List<VillageRecord> records = readRegion(region);
+            if (!plugin.isEnabled()) {
+                return;
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                pendingRegions.remove(region);
+                // Unless a synchronous load (loadAround) got there first
+                if (loadedRegions.add(region) && records != null) {
+                    applyRegion(region, records);
+                }
+            });
+        });
+    }
+    
+    /**
+     * Migrate the per-village files that were waiting for this world to load.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        List<String> files = deferredLegacyFiles.remove(event.getWorld().getName());
+        if (files == null) {
+            return;
+        }
+        int migrated = 0;
+        for (String name : files) {
+            if (loadLegacyFile(name)) {
+                migrated++;
+            }
+        }
+        logger.info(String.format("[STRUCT] World %s loaded, migrating %d per-village file(s) into regions",
+            event.getWorld().getName(), migrated));
+    }
+    
+    /**
+     * Load the villages stored in the region containing a chunk (no-op once it is loaded).
+     * 
+     * @return Number of villages loaded
+     */
+    public int loadChunk(String worldName, int chunkX, int chunkZ) {
+        return loadRegion(VillageRegionStorage.Region.containing(worldName, chunkX << 4, chunkZ << 4));
+    }
+    
+    /**
+     * Load every region within radius blocks of a location, so spacing checks there see
+     * all nearby villages.
+     * 
+     * @return Number of villages loaded
+     */
+    public int loadAround(Location center, int radius) {
+        if (regions == null || center.getWorld() == null) {
+            return 0;
+        }
+        String worldName = center.getWorld().getName();
+        int shift = VillageRegionStorage.REGION_SHIFT;
+        int loaded = 0;
+        for (int rx = (center.getBlockX() - radius) >> shift; rx <= (center.getBlockX() + radius) >> shift; rx++) {
+            for (int rz = (center.getBlockZ() - radius) >> shift; rz <= (center.getBlockZ() + radius) >> shift; rz++) {
+                loaded += loadRegion(new VillageRegionStorage.Region(worldName, rx, rz));
+            }
+        }
+        return loaded;
+    }
+    
+    private int loadRegion(VillageRegionStorage.Region region) {
+        if (regions == null || !loadedRegions.add(region)) {
+            return 0;
+        }
+        List<VillageRecord> records = readRegion(region);
+        return records != null ? applyRegion(region, records) : 0;
+    }
+    
+    /**
+     * Read and decode every village of a region (any thread). Unreadable villages are skipped.
+     * 
+     * @return The records, or null if the region file could not be read
+     */
+    private List<VillageRecord> readRegion(VillageRegionStorage.Region region) {
+        Map<UUID, byte[]> stored;
+        try {
+            stored = regions.readRegion(region);
+        } catch (IOException e) {
+            logger.warning(String.format("[STRUCT] Failed to read region %s: %s", region, e.getMessage()));
+            return null;
+        }
+        List<VillageRecord> records = new ArrayList<>(stored.size());
+        for (Map.Entry<UUID, byte[]> entry : stored.entrySet()) {
+            try {
+                records.add(jsonStore.decode(entry.getValue(), VillageRecord.class, region + "/" + entry.getKey()));
+            } catch (IOException | RuntimeException e) {
+                logger.warning(String.format("[STRUCT] Skipping unreadable village %s in region %s: %s",
+                    entry.getKey(), region, e.getMessage()));
+            }
+        }
+        return records;
+    }
+    
+    /**
+     * Add a region's villages to memory. Records may have been read a while ago off the main
+     * thread, so villages deleted from the region since then are skipped.
+     */
+    private int applyRegion(VillageRegionStorage.Region region, List<VillageRecord> records) {
+        int loaded = 0;
+        for (VillageRecord record : records) {
+            try {
+                if (regions.locate(UUID.fromString(record.villageId)) != null && apply(record)) {
+                    loaded++;
+                }
+            } catch (RuntimeException e) {
+                logger.warning(String.format("[STRUCT] Skipping unreadable village %s in region %s: %s",
+                    record.villageId, region, e.getMessage()));
+            }
+        }
+        if (loaded > 0) {
+            logger.fine(String.format("[STRUCT] Loaded %d villages from region %s", loaded, region));
+        }
+        return loaded;
+    }
+    
+    /**
+     * Read a single stored village that is not loaded (one positional read of its region file)
      */
-    public void saveAll() throws IOException {
-        // TODO: Implement JSON serialization in future tasks
-        logger.fine(String.format("[STRUCT] Saved %d villages to disk", villages.size()));
+    private void ensureLoaded(UUID villageId) {
+        if (regions == null || villageId == null || villages.containsKey(villageId)
+                || removed.contains(villageId) || deleting.contains(villageId)) {
+            return;
+        }
+        try {
+            byte[] blob = regions.read(villageId);
+            if (blob != null) {
+                apply(jsonStore.decode(blob, VillageRecord.class, villageId.toString()));
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warning(String.format("[STRUCT] Failed to read village %s: %s", villageId, e.getMessage()));
+        }
     }
     
     /**
-     * Load all village data from disk.
+     * Put a stored village in memory unless it is already there (memory is newer), removed,
+     * or in a world that is not loaded (left on disk rather than held with a null world)
+     * 
+     * @return true if the village was added
      */
-    public void loadAll() throws IOException {
-        // TODO: Implement JSON deserialization in future tasks
-        logger.fine("[STRUCT] Loaded village data from disk");
+    private boolean apply(VillageRecord record) {
+        if (!record.isWorldLoaded()) {
+            return false;
+        }
+        VillageMetadata metadata = record.toMetadata();
+        UUID villageId = metadata.getVillageId();
+        if (removed.contains(villageId) || deleting.contains(villageId)
+                || villages.putIfAbsent(villageId, metadata) != null) {
+            return false;
+        }
+        villageBuildings.put(villageId, new ArrayList<>(record.toBuildings()));
+        UUID mainBuildingId = record.toMainBuildingId();
+        if (mainBuildingId != null) {
+            mainBuildings.put(villageId, mainBuildingId);
+        }
+        PathNetwork pathNetwork = record.toPathNetwork();
+        if (pathNetwork != null) {
+            pathNetworks.put(villageId, pathNetwork);
+        }
+        return true;
     }
     
     /**
-     * Clear all in-memory data (for testing).
+     * Load per-village files (villages/<villageId>.json or .smile) written before region
+     * storage. Villages that are already in a region keep the region copy.
+     */
+    private int loadLegacyFiles() throws IOException {
+        File[] files = storageDir.listFiles((dir, name) -> 
+            name.endsWith(StorageFormat.JSON.getFileSuffix()) || name.endsWith(StorageFormat.SMILE.getFileSuffix()));
+        if (files == null) {
+            throw new IOException("Cannot list " + storageDir);
+        }
+        // Files in the configured format first, so they win over leftovers of a format switch
+        String suffix = format.getFileSuffix();
+        Arrays.sort(files, Comparator.comparing((File f) -> !f.getName().endsWith(suffix)).thenComparing(File::getName));
+        int loaded = 0;
+        for (File file : files) {
+            if (loadLegacyFile(STORAGE_FOLDER + "/" + file.getName())) {
+                loaded++;
+            }
+        }
+        if (!deferredLegacyFiles.isEmpty()) {
+            logger.warning("[STRUCT] Per-village files wait for their worlds to load before migrating: "
+                + new TreeSet<>(deferredLegacyFiles.keySet()));
+        }
+        return loaded;
+    }
+    
+    /**
+     * Load one per-village file and queue it for migration. A village whose world is not loaded
+     * is neither migrated nor deleted: migrating it now would write it without its world, so the
+     * file waits for {@link #onWorldLoad}.
+     * 
+     * @return true if the village was loaded
+     */
+    private boolean loadLegacyFile(String name) {
+        try {
+            VillageRecord record = jsonStore.loadJson(name, VillageRecord.class);
+            if (record == null) {
+                return false;
+            }
+            UUID villageId = UUID.fromString(record.villageId);
+            if (regions.locate(villageId) != null) {
+                jsonStore.deleteAsync(name); // superseded by the region copy
+                return false;
+            }
+            if (record.origin == null || record.origin.world == null) {
+                logger.warning(String.format("[STRUCT] Village file %s has no world, leaving it in place", name));
+                return false;
+            }
+            if (!record.isWorldLoaded()) {
+                deferredLegacyFiles.computeIfAbsent(record.origin.world, w -> new ArrayList<>()).add(name);
+                return false;
+            }
+            if (!apply(record)) {
+                jsonStore.deleteAsync(name); // superseded by another file
+                return false;
+            }
+            legacyFiles.put(villageId, name);
+            dirty.add(villageId);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.warning(String.format("[STRUCT] Skipping unreadable village file %s: %s", name, e.getMessage()));
+            return false;
+        }
+    }
+    
+    /**
+     * Close the region files. Call after the last checkpoint has been written.
+     */
+    public void close() {
+        if (regions != null) {
+            regions.close();
+        }
+    }
+    
+    /**
+     * Clear all in-memory data (for testing). Files on disk are left alone.
      */
     public void clearAll() {
         villages.clear();
         villageBuildings.clear();
         mainBuildings.clear();
         pathNetworks.clear();
+        dirty.clear();
+        removed.clear();
+        legacyFiles.clear();
+        deferredLegacyFiles.clear();
+        loadedRegions.clear();
+        pendingRegions.clear();
         logger.info("[STRUCT] Cleared all village metadata");
     }
     
+    // One queue slot per village: a delete replaces a write still waiting for the same village
+    private String queueKey(UUID villageId) {
+        return STORAGE_FOLDER + "/" + villageId;
+    }
+    
     private String formatLocation(Location loc) {
         return String.format("(%d, %d, %d)", loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
     }
-    
+
     /**
      * Inner class representing village metadata.
      */
@@ -169,6 +635,7 @@ public class VillageMetadataStore {
         private final UUID villageId;
         private final String cultureId;
         private final Location origin;
+        private final String worldName; // kept even while the world is not loaded
         private final long seed;
         private final long createdTimestamp;
         private final VillageBorder border;
@@ -178,6 +645,7 @@ public class VillageMetadataStore {
             this.villageId = villageId;
             this.cultureId = cultureId;
             this.origin = origin;
+            this.worldName = origin.getWorld() != null ? origin.getWorld().getName() : null;
             this.seed = seed;
             this.createdTimestamp = createdTimestamp;
             // Initialize border at origin with minimal size (will expand with buildings)
@@ -186,14 +654,39 @@ public class VillageMetadataStore {
             this.lastBorderUpdateTick = 0;
         }
         
+        /**
+         * Restore saved metadata with its expanded border.
+         * 
+         * @param worldName Stored world name, written back on save whether or not the world is loaded
+         */
+        public VillageMetadata(UUID villageId, String cultureId, Location origin, String worldName, long seed,
+                               long createdTimestamp, VillageBorder border, long lastBorderUpdateTick) {
+            this.villageId = villageId;
+            this.cultureId = cultureId;
+            this.origin = origin;
+            this.worldName = worldName;
+            this.seed = seed;
+            this.createdTimestamp = createdTimestamp;
+            this.border = border;
+            this.lastBorderUpdateTick = lastBorderUpdateTick;
+        }
+        
         public UUID getVillageId() { return villageId; }
         public String getCultureId() { return cultureId; }
         public Location getOrigin() { return origin; }
+        public String getWorldName() { return worldName; }
         public long getSeed() { return seed; }
         public long getCreatedTimestamp() { return createdTimestamp; }
         public VillageBorder getBorder() { return border; }
         public long getLastBorderUpdateTick() { return lastBorderUpdateTick; }
         
+        /**
+         * Null-safe world check (by name, so it also works for villages whose world is not loaded).
+         */
+        public boolean isInWorld(World world) {
+            return world != null && world.getName().equals(worldName);
+        }
+        
         /**
          * Expand border to include a building's footprint.
          * Called deterministically when buildings are placed.
@@ -0,0 +1,207 @@
+package com.davisodom.villageoverhaul.villages;
+
+import com.davisodom.villageoverhaul.model.Building;
+import com.davisodom.villageoverhaul.model.PathNetwork;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * On-disk form of one village's metadata (one entry of its region file)
+ *
+ * Plain public fields for Jackson. Locations are stored as world name + coordinates and
+ * re-attached to the world on load; path blocks are stored as flat x,y,z triples.
+ */
+final class VillageRecord {
+
+    public static final int SCHEMA_VERSION = 1;
+
+    public String villageId;
+    public String cultureId;
+    public LocationRecord origin;
+    public long seed;
+    public long createdTimestamp;
+    public int[] border; // [minX, maxX, minZ, maxZ]
+    public long lastBorderUpdateTick;
+    public String mainBuildingId;
+    public List<BuildingRecord> buildings = new ArrayList<>();
+    public PathRecord pathNetwork;
+
+    public VillageRecord() {} // For Jackson
+
+    /**
+     * Snapshot the given state (call on the thread that mutates it)
+     */
+    static VillageRecord of(VillageMetadataStore.VillageMetadata metadata, List<Building> buildings,
+                            UUID mainBuildingId, PathNetwork pathNetwork) {
+        VillageRecord record = new VillageRecord();
+        record.villageId = metadata.getVillageId().toString();
+        record.cultureId = metadata.getCultureId();
+        String world = metadata.getWorldName();
+        record.origin = LocationRecord.of(metadata.getOrigin(), world);
+        record.seed = metadata.getSeed();
+        record.createdTimestamp = metadata.getCreatedTimestamp();
+        VillageMetadataStore.VillageBorder b = metadata.getBorder();
+        record.border = new int[] {b.getMinX(), b.getMaxX(), b.getMinZ(), b.getMaxZ()};
+        record.lastBorderUpdateTick = metadata.getLastBorderUpdateTick();
+        record.mainBuildingId = mainBuildingId != null ? mainBuildingId.toString() : null;
+        for (Building building : buildings) {
+            record.buildings.add(BuildingRecord.of(building, world));
+        }
+        record.pathNetwork = pathNetwork != null ? PathRecord.of(pathNetwork, world) : null;
+        return record;
+    }
+
+    /**
+     * Whether the village's world is loaded; villages in other worlds stay on disk until it is
+     */
+    boolean isWorldLoaded() {
+        return origin != null && origin.world != null && Bukkit.getWorld(origin.world) != null;
+    }
+
+    VillageMetadataStore.VillageMetadata toMetadata() {
+        if (border == null || border.length != 4) {
+            throw new IllegalArgumentException("border must be [minX, maxX, minZ, maxZ]");
+        }
+        return new VillageMetadataStore.VillageMetadata(UUID.fromString(villageId), cultureId, origin.toLocation(),
+                origin.world, seed, createdTimestamp, new VillageMetadataStore.VillageBorder(border[0], border[1], border[2], border[3]),
+                lastBorderUpdateTick);
+    }
+
+    List<Building> toBuildings() {
+        UUID id = UUID.fromString(villageId);
+        List<Building> result = new ArrayList<>(buildings.size());
+        for (BuildingRecord building : buildings) {
+            result.add(new Building.Builder()
+                    .buildingId(UUID.fromString(building.buildingId))
+                    .villageId(id)
+                    .structureId(building.structureId)
+                    .origin(building.origin.toLocation())
+                    .dimensions(building.dimensions)
+                    .placedTimestamp(building.placedTimestamp)
+                    .isMainBuilding(building.mainBuilding)
+                    .build());
+        }
+        return result;
+    }
+
+    UUID toMainBuildingId() {
+        return mainBuildingId != null ? UUID.fromString(mainBuildingId) : null;
+    }
+
+    /**
+     * Null when there is no network; segments keep their endpoints but lose their blocks
+     * if the world is not loaded
+     */
+    PathNetwork toPathNetwork() {
+        if (pathNetwork == null) {
+            return null;
+        }
+        PathNetwork.Builder builder = new PathNetwork.Builder()
+                .villageId(UUID.fromString(villageId))
+                .generatedTimestamp(pathNetwork.generatedTimestamp);
+        for (SegmentRecord segment : pathNetwork.segments) {
+            Location start = segment.start.toLocation();
+            List<Block> blocks = new ArrayList<>();
+            World world = start.getWorld();
+            if (world != null && segment.blocks != null) {
+                for (int i = 0; i + 2 < segment.blocks.length; i += 3) {
+                    blocks.add(world.getBlockAt(segment.blocks[i], segment.blocks[i + 1], segment.blocks[i + 2]));
+                }
+            }
+            builder.addSegment(new PathNetwork.PathSegment(start, segment.end.toLocation(), blocks));
+        }
+        return builder.build();
+    }
+
+    public static final class LocationRecord {
+        public String world;
+        public double x;
+        public double y;
+        public double z;
+
+        public LocationRecord() {} // For Jackson
+
+        /**
+         * @param world Village world name, used when the location has no world attached
+         */
+        static LocationRecord of(Location location, String world) {
+            LocationRecord record = new LocationRecord();
+            record.world = location.getWorld() != null ? location.getWorld().getName() : world;
+            record.x = location.getX();
+            record.y = location.getY();
+            record.z = location.getZ();
+            return record;
+        }
+
+        /**
+         * World is null when it is not loaded (the store keeps such villages on disk, see isWorldLoaded)
+         */
+        Location toLocation() {
+            World w = world != null ? Bukkit.getWorld(world) : null;
+            return new Location(w, x, y, z);
+        }
+    }
+
+    public static final class BuildingRecord {
+        public String buildingId;
+        public String structureId;
+        public LocationRecord origin;
+        public int[] dimensions;
+        public long placedTimestamp;
+        public boolean mainBuilding;
+
+        public BuildingRecord() {} // For Jackson
+
+        static BuildingRecord of(Building building, String world) {
+            BuildingRecord record = new BuildingRecord();
+            record.buildingId = building.getBuildingId().toString();
+            record.structureId = building.getStructureId();
+            record.origin = LocationRecord.of(building.getOrigin(), world);
+            record.dimensions = building.getDimensions();
+            record.placedTimestamp = building.getPlacedTimestamp();
+            record.mainBuilding = building.isMainBuilding();
+            return record;
+        }
+    }
+
+    public static final class PathRecord {
+        public long generatedTimestamp;
+        public List<SegmentRecord> segments = new ArrayList<>();
+
+        public PathRecord() {} // For Jackson
+
+        static PathRecord of(PathNetwork network, String world) {
+            PathRecord record = new PathRecord();
+            record.generatedTimestamp = network.getGeneratedTimestamp();
+            for (PathNetwork.PathSegment segment : network.getSegments()) {
+                SegmentRecord s = new SegmentRecord();
+                s.start = LocationRecord.of(segment.getStart(), world);
+                s.end = LocationRecord.of(segment.getEnd(), world);
+                List<Block> blocks = segment.getBlocks();
+                s.blocks = new int[blocks.size() * 3];
+                for (int i = 0; i < blocks.size(); i++) {
+                    Block block = blocks.get(i);
+                    s.blocks[i * 3] = block.getX();
+                    s.blocks[i * 3 + 1] = block.getY();
+                    s.blocks[i * 3 + 2] = block.getZ();
+                }
+                record.segments.add(s);
+            }
+            return record;
+        }
+    }
+
+    public static final class SegmentRecord {
+        public LocationRecord start;
+        public LocationRecord end;
+        public int[] blocks; // x,y,z triples
+
+        public SegmentRecord() {} // For Jackson
+    }
+}
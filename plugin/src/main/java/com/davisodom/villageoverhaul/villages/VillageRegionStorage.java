@@ -0,0 +1,338 @@
+package com.davisodom.villageoverhaul.villages;
+
+import com.davisodom.villageoverhaul.persistence.RegionFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Village records bucketed into region files: villages/&lt;world&gt;/r.&lt;x&gt;.&lt;z&gt;.region, one
+ * file per 512x512 block area holding every village whose origin lies in it
+ *
+ * Keeps an index of which region each stored village is in (built from the region headers,
+ * without reading any village) so single villages can be looked up without loading their
+ * region. A bounded number of region files are kept open; files in use are never closed.
+ *
+ * Thread-safe: the main thread reads while the write-behind thread writes. The lock here only
+ * guards the index and the open files (the one I/O under it is reading the header of a file
+ * being opened), so a read never waits for a write.
+ */
+final class VillageRegionStorage {
+
+    static final int REGION_SHIFT = 9; // 512 blocks
+    static final String SUFFIX = ".region";
+    private static final String UNKNOWN_WORLD = "_unknown";
+
+    private final File root;
+    private final Logger logger;
+    private final Map<Region, Handle> open;
+    private final Map<UUID, Region> index = new HashMap<>();
+    private final int maxOpen;
+    private boolean closed;
+
+    /**
+     * @param maxOpenFiles Region files kept open; the least recently used is closed beyond this
+     */
+    VillageRegionStorage(File root, Logger logger, int maxOpenFiles) {
+        this.root = root;
+        this.logger = logger;
+        this.open = new LinkedHashMap<>(16, 0.75f, true);
+        this.maxOpen = Math.max(1, maxOpenFiles);
+    }
+
+    /**
+     * Read the offset table of every region file (no village data) and rebuild the index
+     *
+     * @return Number of stored villages
+     */
+    int buildIndex() throws IOException {
+        File[] worlds = root.listFiles(File::isDirectory);
+        if (worlds == null) {
+            throw new IOException("Cannot list " + root);
+        }
+        Map<UUID, Region> found = new HashMap<>();
+        for (File worldDir : worlds) {
+            File[] files = worldDir.listFiles((dir, name) -> name.endsWith(SUFFIX));
+            if (files == null) {
+                continue;
+            }
+            for (File file : files) {
+                Region region = Region.parse(worldDir.getName(), file.getName());
+                if (region == null) {
+                    logger.warning("[STRUCT] Ignoring unexpected file " + worldDir.getName() + "/" + file.getName());
+                    continue;
+                }
+                try {
+                    Handle handle = acquire(region, false);
+                    try {
+                        for (UUID villageId : handle.file.keys()) {
+                            found.put(villageId, region);
+                        }
+                    } finally {
+                        release(handle);
+                    }
+                } catch (IOException e) {
+                    logger.warning("[STRUCT] Skipping unreadable region file " + region + ": " + e.getMessage());
+                }
+            }
+        }
+        synchronized (this) {
+            index.clear();
+            index.putAll(found);
+            return index.size();
+        }
+    }
+
+    /**
+     * @return Region the village is stored in, or null if it is not stored
+     */
+    synchronized Region locate(UUID villageId) {
+        return index.get(villageId);
+    }
+
+    synchronized int size() {
+        return index.size();
+    }
+
+    synchronized boolean hasWorld(String world) {
+        for (Region region : index.values()) {
+            if (region.world.equals(world)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Read every village stored in a region. Blobs that fail their checksum are logged and skipped.
+     *
+     * @return Encoded records by village; empty if the region has no file
+     */
+    Map<UUID, byte[]> readRegion(Region region) throws IOException {
+        Map<UUID, byte[]> result = new HashMap<>();
+        Handle handle = acquireExisting(region);
+        if (handle == null) {
+            return result;
+        }
+        try {
+            for (UUID villageId : handle.file.keys()) {
+                try {
+                    byte[] blob = handle.file.read(villageId);
+                    if (blob != null) {
+                        result.put(villageId, blob);
+                    }
+                } catch (IOException e) {
+                    logger.warning("[STRUCT] Skipping damaged village " + villageId + " in region " + region + ": " + e.getMessage());
+                }
+            }
+        } finally {
+            release(handle);
+        }
+        return result;
+    }
+
+    /**
+     * Read one village with a single positional read
+     *
+     * @return Encoded record, or null if the village is not stored
+     */
+    byte[] read(UUID villageId) throws IOException {
+        Region region = locate(villageId);
+        Handle handle = region != null ? acquireExisting(region) : null;
+        if (handle == null) {
+            return null;
+        }
+        try {
+            return handle.file.read(villageId);
+        } finally {
+            release(handle);
+        }
+    }
+
+    /**
+     * Write one village into its region (the write-behind thread); a village whose origin
+     * moved to another region is then removed from the old one
+     */
+    void write(Region region, UUID villageId, byte[] blob) throws IOException {
+        Handle handle = acquire(region, true);
+        try {
+            handle.file.write(villageId, blob);
+        } finally {
+            release(handle);
+        }
+        Region previous;
+        synchronized (this) {
+            previous = index.put(villageId, region);
+        }
+        if (previous != null && !previous.equals(region)) {
+            Handle old = acquire(previous, false);
+            try {
+                old.file.delete(villageId);
+            } finally {
+                release(old);
+            }
+        }
+    }
+
+    void delete(UUID villageId) throws IOException {
+        Region region;
+        synchronized (this) {
+            region = index.remove(villageId);
+        }
+        if (region != null) {
+            Handle handle = acquire(region, false);
+            try {
+                handle.file.delete(villageId);
+            } finally {
+                release(handle);
+            }
+        }
+    }
+
+    /**
+     * Force and close every region file. Call once no reads or writes are running.
+     */
+    void close() {
+        List<RegionFile> files = new ArrayList<>();
+        synchronized (this) {
+            for (Handle handle : open.values()) {
+                files.add(handle.file);
+            }
+            open.clear();
+            closed = true;
+        }
+        files.forEach(this::closeQuietly);
+    }
+
+    /**
+     * @return The open file pinned for the caller, or null if the region has no file
+     */
+    private Handle acquireExisting(Region region) throws IOException {
+        synchronized (this) {
+            if (!open.containsKey(region) && !region.file(root).exists()) {
+                return null;
+            }
+        }
+        return acquire(region, false);
+    }
+
+    /**
+     * Pin the region's file open (opening it if needed) until {@link #release}. Files evicted
+     * to stay within maxOpen are closed outside the lock; they were not in use.
+     */
+    private Handle acquire(Region region, boolean create) throws IOException {
+        List<RegionFile> evicted = new ArrayList<>();
+        Handle handle;
+        synchronized (this) {
+            if (closed) {
+                throw new IOException("Region storage is closed");
+            }
+            handle = open.get(region);
+            if (handle == null) {
+                File path = region.file(root);
+                if (create) {
+                    Files.createDirectories(path.getParentFile().toPath());
+                } else if (!path.exists()) {
+                    throw new IOException("Missing region file " + region);
+                }
+                handle = new Handle(RegionFile.open(path.toPath()));
+                open.put(region, handle);
+            }
+            handle.users++;
+            Iterator<Handle> eldest = open.values().iterator();
+            while (open.size() > maxOpen && eldest.hasNext()) {
+                Handle candidate = eldest.next();
+                if (candidate.users == 0) {
+                    evicted.add(candidate.file);
+                    eldest.remove();
+                }
+            }
+        }
+        evicted.forEach(this::closeQuietly);
+        return handle;
+    }
+
+    private synchronized void release(Handle handle) {
+        handle.users--;
+    }
+
+    private void closeQuietly(RegionFile file) {
+        try {
+            file.close();
+        } catch (IOException e) {
+            logger.warning("[STRUCT] Failed to close " + file.getPath() + ": " + e.getMessage());
+        }
+    }
+
+    private static final class Handle {
+        final RegionFile file;
+        int users; // guarded by the storage lock
+
+        Handle(RegionFile file) {
+            this.file = file;
+        }
+    }
+
+    /**
+     * A 512x512 block area of one world
+     */
+    static final class Region {
+        final String world;
+        final int x;
+        final int z;
+
+        Region(String world, int x, int z) {
+            this.world = world != null ? world : UNKNOWN_WORLD;
+            this.x = x;
+            this.z = z;
+        }
+
+        static Region containing(String world, int blockX, int blockZ) {
+            return new Region(world, blockX >> REGION_SHIFT, blockZ >> REGION_SHIFT);
+        }
+
+        static Region parse(String world, String fileName) {
+            String[] parts = fileName.split("\\.");
+            if (parts.length != 4 || !parts[0].equals("r") || !("." + parts[3]).equals(SUFFIX)) {
+                return null;
+            }
+            try {
+                return new Region(world, Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        File file(File root) {
+            return new File(new File(root, world), "r." + x + "." + z + SUFFIX);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Region)) return false;
+            Region other = (Region) o;
+            return x == other.x && z == other.z && world.equals(other.world);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(world, x, z);
+        }
+
+        @Override
+        public String toString() {
+            return world + "/r." + x + "." + z;
+        }
+    }
+}
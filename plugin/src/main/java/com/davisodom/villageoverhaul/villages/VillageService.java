@@ -2,6 +2,7 @@ package com.davisodom.villageoverhaul.villages;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Minimal VillageService for Phase 2.5 bootstrap
@@ -10,6 +11,7 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class VillageService {
     private final Map<UUID, Village> villages;
+    private final AtomicLong version = new AtomicLong();
     
     public VillageService() {
         this.villages = new ConcurrentHashMap<>();
@@ -22,6 +24,7 @@ public class VillageService {
         UUID id = UUID.randomUUID();
         Village village = new Village(id, cultureId, name, worldName, x, y, z);
         villages.put(id, village);
+        version.incrementAndGet();
         return village;
     }
     
@@ -39,6 +42,21 @@ public class VillageService {
         return Collections.unmodifiableCollection(villages.values());
     }
     
+    /**
+     * Get IDs of all villages (for tick scheduling)
+     */
+    public Set<UUID> getVillageIds() {
+        return new HashSet<>(villages.keySet());
+    }
+    
+    /**
+     * Counter bumped whenever the set of villages changes
+     * Lets the tick scheduler reuse its village snapshot until a village is added
+     */
+    public long getVersion() {
+        return version.get();
+    }
+    
     /**
      * Load village from persistence
      */
@@ -46,6 +64,7 @@ public class VillageService {
         Village village = new Village(id, cultureId, name, worldName, x, y, z);
         village.addWealth(wealthMillz);
         villages.put(id, village);
+        version.incrementAndGet();
     }
     
     /**
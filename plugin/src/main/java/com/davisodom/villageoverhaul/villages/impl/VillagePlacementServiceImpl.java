@@ -1,9 +1,16 @@
 package com.davisodom.villageoverhaul.villages.impl;
 
+import com.davisodom.villageoverhaul.VillageOverhaulPlugin;
+import com.davisodom.villageoverhaul.core.TickJob;
 import com.davisodom.villageoverhaul.model.Building;
+import com.davisodom.villageoverhaul.obs.Metrics;
+import com.davisodom.villageoverhaul.obs.ThreadResources;
+import com.davisodom.villageoverhaul.obs.VillageCostProfiler;
+import com.davisodom.villageoverhaul.obs.stream.LiveEvents;
+import com.davisodom.villageoverhaul.obs.trace.Span;
+import com.davisodom.villageoverhaul.obs.trace.Tracing;
 import com.davisodom.villageoverhaul.villages.VillagePlacementService;
 import com.davisodom.villageoverhaul.villages.VillageMetadataStore;
-import com.davisodom.villageoverhaul.worldgen.PathService;
 import com.davisodom.villageoverhaul.worldgen.StructureService;
 import com.davisodom.villageoverhaul.worldgen.TerrainClassifier;
 import com.davisodom.villageoverhaul.worldgen.impl.PathEmitter;
@@ -40,7 +47,7 @@ public class VillagePlacementServiceImpl implements VillagePlacementService {
     private final StructureService structureService;
     
     // Path service for connecting buildings
-    private final PathService pathService;
+    private final PathServiceImpl pathService;
     
     // Path emitter for block placement
     private final PathEmitter pathEmitter;
@@ -51,6 +58,13 @@ public class VillagePlacementServiceImpl implements VillagePlacementService {
     // In-memory cache of villages (villageId -> buildings)
     private final Map<UUID, List<Building>> villageBuildings = new HashMap<>();
     
+    // Per-village cost attribution of placement and path steps (null = not profiled)
+    private VillageCostProfiler costProfiler;
+    
+    // CPU time / allocation per job step: validate + buildings, paths + emit (null = not measured)
+    private Metrics.ResourceStats placementResources;
+    private Metrics.ResourceStats pathResources;
+    
     /**
      * Constructor for testing without plugin reference (uses procedural structures).
      */
@@ -77,6 +91,22 @@ public class VillagePlacementServiceImpl implements VillagePlacementService {
         // Load spacing from plugin config
         this.minBuildingSpacing = plugin.getConfig().getInt("village.minBuildingSpacing", DEFAULT_BUILDING_SPACING);
         this.minVillageSpacing = plugin.getConfig().getInt("village.minVillageSpacing", DEFAULT_VILLAGE_SPACING);
+        if (plugin instanceof VillageOverhaulPlugin && ((VillageOverhaulPlugin) plugin).getMetrics() != null) {
+            Metrics metrics = ((VillageOverhaulPlugin) plugin).getMetrics();
+            this.costProfiler = metrics.getVillageCosts();
+            this.placementResources = metrics.resources("placement");
+            this.pathResources = metrics.resources("paths");
+        }
+        if (plugin instanceof VillageOverhaulPlugin) {
+            pathService.setMaxNodesExplored(((VillageOverhaulPlugin) plugin).getPathNodeLimit());
+        }
+    }
+    
+    /**
+     * Charge placement and path steps to their village (null = not profiled)
+     */
+    public void setCostProfiler(VillageCostProfiler costProfiler) {
+        this.costProfiler = costProfiler;
     }
     
     /**
@@ -93,71 +123,232 @@ public class VillagePlacementServiceImpl implements VillagePlacementService {
     
     @Override
     public Optional<UUID> placeVillage(World world, Location origin, String cultureId, long seed) {
-        LOGGER.info(String.format("[STRUCT] Begin village placement: culture=%s, origin=%s, seed=%d, minBuildingSpacing=%d, minVillageSpacing=%d",
-                cultureId, origin, seed, minBuildingSpacing, minVillageSpacing));
+        PlacementJob job = newPlacementJob(world, origin, cultureId, seed);
+        while (!job.step(0)) {
+            // Run every step on the calling thread
+        }
+        return job.getResult();
+    }
+    
+    /**
+     * Create a resumable village placement.
+     * Each step places one building, finds one path or emits one path segment, so the job
+     * can be submitted to TickEngine#submitJob and spread across ticks. Running it to
+     * completion is equivalent to placeVillage().
+     */
+    public PlacementJob newPlacementJob(World world, Location origin, String cultureId, long seed) {
+        return new PlacementJob(world, origin, cultureId, seed);
+    }
+    
+    /**
+     * Village placement in progress: validate, place buildings, find paths, emit paths
+     */
+    public final class PlacementJob implements TickJob {
+        private final World world;
+        private final Location origin;
+        private final String cultureId;
+        private final long seed;
+        
+        private PlacementStage stage = PlacementStage.VALIDATE;
+        private UUID villageId;
+        private List<String> structureIds = Collections.emptyList();
+        private int structureIndex = 0;
+        private final List<Building> placedBuildings = new ArrayList<>();
         
-        // Check if this is the first village (Constitution v1.5.0, Principle XII - Spawn Proximity)
-        boolean isFirst = isFirstVillage(world);
+        // Track occupied footprints to prevent overlaps DURING placement
+        private final List<Footprint> occupiedFootprints = new ArrayList<>();
         
-        if (isFirst) {
-            // First village: verify spawn proximity (not exact spawn, within configured radius)
-            Location spawn = world.getSpawnLocation();
-            int spawnDistance = Math.abs(origin.getBlockX() - spawn.getBlockX()) + 
-                               Math.abs(origin.getBlockZ() - spawn.getBlockZ());
-            
-            LOGGER.info(String.format("[STRUCT] First village: spawn distance=%d blocks (spawn at %s)",
-                    spawnDistance, formatLocation(spawn)));
-            
-            // Note: Spawn proximity enforcement happens in terrain search (GenerateCommand/VillageWorldgenAdapter)
-            // This is just logging for observability
-        } else {
-            // Subsequent villages: log nearest-neighbor distance
-            int distanceToNearest = getDistanceToNearestVillage(origin);
-            LOGGER.info(String.format("[STRUCT] Subsequent village: nearest existing village distance=%d blocks",
-                    distanceToNearest));
+        // Track rejection reasons for all placement attempts (Constitution v1.4.0, Principle XII)
+        private final PlacementRejectionTracker villageRejectionTracker = new PlacementRejectionTracker();
+        
+        private PathServiceImpl.NetworkBuild pathBuild;
+        private List<List<Block>> pathNetwork = Collections.emptyList();
+        private int emitIndex = 0;
+        private int totalPathBlocks = 0;
+        private Optional<UUID> result = Optional.empty();
+        
+        // Span active where the job was created (village.generate); each step runs under jobSpan
+        private final Span parentSpan;
+        private Span jobSpan;
+        
+        private PlacementJob(World world, Location origin, String cultureId, long seed) {
+            this.world = world;
+            this.origin = origin;
+            this.cultureId = cultureId;
+            this.seed = seed;
+            this.parentSpan = Tracing.current();
         }
         
-        // Check inter-village spacing (Constitution v1.5.0, Principle XII)
-        // Reject sites within minVillageSpacing of any existing village border
-        InterVillageSpacingResult spacingResult = checkInterVillageSpacingDetailed(origin, minVillageSpacing);
-        if (!spacingResult.acceptable) {
-            LOGGER.warning(String.format("[STRUCT] Village placement rejected: site at %s violates minVillageSpacing=%d " +
-                    "(rejectedVillageSites.minDistance=%d, existingVillage=%s)",
-                    formatLocation(origin), minVillageSpacing, spacingResult.actualDistance, spacingResult.violatingVillageId));
-            return Optional.empty();
+        @Override
+        public boolean step(long tick) {
+            if (jobSpan == null) {
+                jobSpan = Tracing.startSpan("village.placement", parentSpan);
+                jobSpan.setAttribute("culture", cultureId).setAttribute("seed", seed);
+            }
+            Metrics.ResourceStats resources = stage == PlacementStage.PATHS || stage == PlacementStage.EMIT
+                    ? pathResources : placementResources;
+            long cpuStart = ThreadResources.cpuNanos();
+            long allocStart = ThreadResources.allocatedBytes();
+            try (Tracing.Scope scope = Tracing.activate(jobSpan);
+                 Span stepSpan = Tracing.startSpan("placement." + stage.name().toLowerCase(Locale.ROOT))) {
+                stepSpan.setAttribute("tick", tick);
+                return profiledStep();
+            } catch (RuntimeException e) {
+                jobSpan.setAttribute("error", e.toString());
+                jobSpan.end();
+                throw e;
+            } finally {
+                if (resources != null) {
+                    resources.recordSince(cpuStart, allocStart);
+                }
+            }
         }
         
-        // NOTE: Site validation already performed by VillageWorldgenAdapter terrain search
-        // Skip redundant validation here to avoid false negatives
+        @Override
+        public void cancelled() {
+            if (jobSpan != null) {
+                jobSpan.setAttribute("cancelled", true).setAttribute("buildings", placedBuildings.size());
+                jobSpan.end();
+            }
+        }
         
-        UUID villageId = UUID.randomUUID();
+        private boolean profiledStep() {
+            VillageCostProfiler profiler = costProfiler;
+            if (profiler == null) {
+                return runStage();
+            }
+            VillageCostProfiler.Source source = stage == PlacementStage.PATHS
+                    ? VillageCostProfiler.Source.PATH : VillageCostProfiler.Source.PLACEMENT;
+            long start = profiler.begin(source);
+            try {
+                return runStage();
+            } finally {
+                // villageId is null until validation passes; rejected sites have no village to charge
+                profiler.end(villageId != null ? villageId : VillageCostProfiler.UNATTRIBUTED, source, start);
+            }
+        }
         
-        // Register village in metadata store AFTER spacing validation passes
-        // This prevents the village from rejecting itself during spacing checks
-        metadataStore.registerVillage(villageId, cultureId, origin, seed);
+        private boolean runStage() {
+            switch (stage) {
+                case VALIDATE:
+                    return validate();
+                case BUILDINGS:
+                    if (structureIndex < structureIds.size()) {
+                        placeNextBuilding(structureIndex++);
+                        return false;
+                    }
+                    return finishBuildings();
+                case PATHS:
+                    if (!pathBuild.step()) {
+                        return false;
+                    }
+                    return finishPaths();
+                case EMIT:
+                    totalPathBlocks += pathEmitter.emitPathWithSmoothing(world, pathNetwork.get(emitIndex++), cultureId);
+                    if (emitIndex < pathNetwork.size()) {
+                        return false;
+                    }
+                    LOGGER.info(String.format("[STRUCT] Path network complete: village=%s, paths=%d, blocks=%d",
+                            villageId, pathNetwork.size(), totalPathBlocks));
+                    return complete();
+                default:
+                    return true;
+            }
+        }
         
-        // TODO: Load culture definition and structure set
-        // For now, use culture-appropriate structures based on loaded schematics
-        List<String> structureIds = getCultureStructures(cultureId);
+        @Override
+        public double getProgress() {
+            // Estimate: one unit per structure, then one per path and one per emitted segment
+            int buildings = Math.max(1, structureIds.size());
+            double total = buildings + 2.0 * (buildings - 1);
+            switch (stage) {
+                case VALIDATE:
+                    return 0.0;
+                case BUILDINGS:
+                    return structureIndex / total;
+                case PATHS:
+                    return (buildings + pathBuild.getProgress() * (buildings - 1)) / total;
+                case EMIT:
+                    return (buildings + (buildings - 1) + (double) emitIndex / pathNetwork.size() * (buildings - 1)) / total;
+                default:
+                    return 1.0;
+            }
+        }
         
-        List<Building> placedBuildings = new ArrayList<>();
+        /**
+         * Village UUID if placement succeeded, empty if it failed (or is still running)
+         */
+        public Optional<UUID> getResult() {
+            return result;
+        }
         
-        // Track occupied footprints to prevent overlaps DURING placement
-        List<Footprint> occupiedFootprints = new ArrayList<>();
+        public boolean isDone() {
+            return stage == PlacementStage.DONE;
+        }
         
-        // Track rejection reasons for all placement attempts (Constitution v1.4.0, Principle XII)
-        PlacementRejectionTracker villageRejectionTracker = new PlacementRejectionTracker();
+        private boolean validate() {
+            LOGGER.info(String.format("[STRUCT] Begin village placement: culture=%s, origin=%s, seed=%d, minBuildingSpacing=%d, minVillageSpacing=%d",
+                    cultureId, origin, seed, minBuildingSpacing, minVillageSpacing));
+            
+            // Check if this is the first village (Constitution v1.5.0, Principle XII - Spawn Proximity)
+            boolean isFirst = isFirstVillage(world);
+            
+            if (isFirst) {
+                // First village: verify spawn proximity (not exact spawn, within configured radius)
+                Location spawn = world.getSpawnLocation();
+                int spawnDistance = Math.abs(origin.getBlockX() - spawn.getBlockX()) + 
+                                   Math.abs(origin.getBlockZ() - spawn.getBlockZ());
+                
+                LOGGER.info(String.format("[STRUCT] First village: spawn distance=%d blocks (spawn at %s)",
+                        spawnDistance, formatLocation(spawn)));
+                
+                // Note: Spawn proximity enforcement happens in terrain search (GenerateCommand/VillageWorldgenAdapter)
+                // This is just logging for observability
+            } else {
+                // Subsequent villages: log nearest-neighbor distance
+                int distanceToNearest = getDistanceToNearestVillage(origin);
+                LOGGER.info(String.format("[STRUCT] Subsequent village: nearest existing village distance=%d blocks",
+                        distanceToNearest));
+            }
+            
+            // Check inter-village spacing (Constitution v1.5.0, Principle XII)
+            // Reject sites within minVillageSpacing of any existing village border
+            InterVillageSpacingResult spacingResult = checkInterVillageSpacingDetailed(origin, minVillageSpacing);
+            if (!spacingResult.acceptable) {
+                LOGGER.warning(String.format("[STRUCT] Village placement rejected: site at %s violates minVillageSpacing=%d " +
+                        "(rejectedVillageSites.minDistance=%d, existingVillage=%s)",
+                        formatLocation(origin), minVillageSpacing, spacingResult.actualDistance, spacingResult.violatingVillageId));
+                return fail();
+            }
+            
+            // NOTE: Site validation already performed by VillageWorldgenAdapter terrain search
+            // Skip redundant validation here to avoid false negatives
+            
+            villageId = UUID.randomUUID();
+            
+            // Register village in metadata store AFTER spacing validation passes
+            // This prevents the village from rejecting itself during spacing checks
+            metadataStore.registerVillage(villageId, cultureId, origin, seed);
+            
+            // TODO: Load culture definition and structure set
+            // For now, use culture-appropriate structures based on loaded schematics
+            structureIds = getCultureStructures(cultureId);
+            stage = PlacementStage.BUILDINGS;
+            return false;
+        }
         
-        // Place buildings one at a time with dynamic collision detection
-        // Use grid-based spiral search for each building to find non-overlapping spots
-        for (int i = 0; i < structureIds.size(); i++) {
+        /**
+         * Place one building with dynamic collision detection
+         * Uses grid-based spiral search to find a non-overlapping spot
+         */
+        private void placeNextBuilding(int i) {
             String structureId = structureIds.get(i);
             
             // Get structure dimensions
             Optional<int[]> dimensions = structureService.getStructureDimensions(structureId);
             if (!dimensions.isPresent()) {
                 LOGGER.warning(String.format("[STRUCT] Structure '%s' dimensions not found, skipping", structureId));
-                continue;
+                return;
             }
             
             int[] dims = dimensions.get();
@@ -189,7 +380,7 @@ public class VillagePlacementServiceImpl implements VillagePlacementService {
             if (placementResult == null) {
                 LOGGER.warning(String.format("[STRUCT] Could not find suitable position for '%s' after %d attempts", 
                         structureId, villageRejectionTracker.totalAttempts));
-                continue;
+                return;
             }
             
             Location buildingLocation = new Location(
@@ -224,22 +415,27 @@ public class VillagePlacementServiceImpl implements VillagePlacementService {
             }
         }
         
-        if (placedBuildings.isEmpty()) {
-            LOGGER.warning(String.format("[STRUCT] Abort: No buildings placed for village at %s", origin));
-            return Optional.empty();
-        }
-        
-        // Log placement metrics (Constitution v1.4.0, Principle XII)
-        LOGGER.info(String.format("[STRUCT] Placement metrics for village %s: %s, avgRejected=%.2f",
-                villageId, villageRejectionTracker, villageRejectionTracker.getAverageRejectedAttempts()));
-        
-        // Store village buildings
-        for (Building building : placedBuildings) {
-            metadataStore.addBuilding(villageId, building);
-        }
-        
-        // Generate path network connecting buildings to the first (main) building
-        if (placedBuildings.size() > 1) {
+        private boolean finishBuildings() {
+            if (placedBuildings.isEmpty()) {
+                LOGGER.warning(String.format("[STRUCT] Abort: No buildings placed for village at %s", origin));
+                return fail();
+            }
+            
+            // Log placement metrics (Constitution v1.4.0, Principle XII)
+            LOGGER.info(String.format("[STRUCT] Placement metrics for village %s: %s, avgRejected=%.2f",
+                    villageId, villageRejectionTracker, villageRejectionTracker.getAverageRejectedAttempts()));
+            
+            // Store village buildings
+            for (Building building : placedBuildings) {
+                metadataStore.addBuilding(villageId, building);
+            }
+            
+            if (placedBuildings.size() <= 1) {
+                LOGGER.fine("[STRUCT] Only one building, skipping path generation");
+                return complete();
+            }
+            
+            // Generate path network connecting buildings to the first (main) building
             LOGGER.info(String.format("[STRUCT] Generating path network for village %s", villageId));
             
             // Use first building as main building (temporary until T023 implements proper selection)
@@ -251,38 +447,65 @@ public class VillagePlacementServiceImpl implements VillagePlacementService {
                 buildingLocations.add(building.getOrigin());
             }
             
-            // Generate path network (A* pathfinding)
-            boolean pathSuccess = pathService.generatePathNetwork(
-                    world, 
-                    villageId, 
-                    buildingLocations, 
-                    mainBuildingLocation, 
-                    seed
-            );
-            
-            if (pathSuccess) {
-                // Place path blocks in the world
-                List<List<Block>> pathNetwork = pathService.getVillagePathNetwork(villageId);
-                int totalPathBlocks = 0;
-                
-                for (List<Block> pathSegment : pathNetwork) {
-                    int placed = pathEmitter.emitPathWithSmoothing(world, pathSegment, cultureId);
-                    totalPathBlocks += placed;
-                }
-                
-                LOGGER.info(String.format("[STRUCT] Path network complete: village=%s, paths=%d, blocks=%d",
-                        villageId, pathNetwork.size(), totalPathBlocks));
-            } else {
+            // Generate path network (A* pathfinding), one path per step
+            pathBuild = pathService.beginPathNetwork(world, villageId, buildingLocations, mainBuildingLocation, seed);
+            stage = PlacementStage.PATHS;
+            return false;
+        }
+        
+        private boolean finishPaths() {
+            if (!pathBuild.finish()) {
                 LOGGER.warning(String.format("[STRUCT] Path network generation failed for village %s", villageId));
+                return complete();
+            }
+            
+            // Place path blocks in the world, one segment per step
+            pathNetwork = pathService.getVillagePathNetwork(villageId);
+            if (pathNetwork.isEmpty()) {
+                return complete();
             }
-        } else {
-            LOGGER.fine("[STRUCT] Only one building, skipping path generation");
+            stage = PlacementStage.EMIT;
+            return false;
+        }
+        
+        private boolean complete() {
+            LOGGER.info(String.format("[STRUCT] Village placement complete: villageId=%s, buildings=%d",
+                    villageId, placedBuildings.size()));
+            result = Optional.of(villageId);
+            stage = PlacementStage.DONE;
+            jobSpan.setAttribute("villageId", villageId.toString())
+                    .setAttribute("buildings", placedBuildings.size())
+                    .setAttribute("pathBlocks", totalPathBlocks);
+            jobSpan.end();
+            publishGenerated(true);
+            return true;
         }
         
-        LOGGER.info(String.format("[STRUCT] Village placement complete: villageId=%s, buildings=%d",
-                villageId, placedBuildings.size()));
+        private boolean fail() {
+            result = Optional.empty();
+            stage = PlacementStage.DONE;
+            jobSpan.setAttribute("failed", true).setAttribute("buildings", placedBuildings.size());
+            jobSpan.end();
+            publishGenerated(false);
+            return true;
+        }
         
-        return Optional.of(villageId);
+        private void publishGenerated(boolean success) {
+            if (LiveEvents.isActive()) {
+                LiveEvents.publish("village.generated", "villageId", villageId != null ? villageId.toString() : null,
+                        "success", success, "culture", cultureId, "world", world.getName(),
+                        "x", origin.getBlockX(), "z", origin.getBlockZ(),
+                        "buildings", placedBuildings.size(), "pathBlocks", totalPathBlocks);
+            }
+        }
+    }
+    
+    private enum PlacementStage {
+        VALIDATE,
+        BUILDINGS,
+        PATHS,
+        EMIT,
+        DONE
     }
     
     @Override
@@ -400,6 +623,9 @@ public class VillagePlacementServiceImpl implements VillagePlacementService {
         
         // Remove from metadata store
         metadataStore.removeVillage(villageId);
+        if (costProfiler != null) {
+            costProfiler.forget(villageId);
+        }
         
         LOGGER.info(String.format("[STRUCT] Removed village %s (%d buildings)", villageId, buildings.size()));
         return true;
@@ -806,10 +1032,13 @@ public class VillagePlacementServiceImpl implements VillagePlacementService {
                 proposedOrigin.getBlockZ(), proposedOrigin.getBlockZ()
         );
         
+        // Only loaded villages are visible; load every region a conflicting border could come from
+        metadataStore.loadAround(proposedOrigin, minDistance + VillageMetadataStore.REGION_SIZE);
+        
         // Check against all existing villages in the same world
         for (VillageMetadataStore.VillageMetadata existingVillage : metadataStore.getAllVillages()) {
             // Skip villages in different worlds
-            if (!existingVillage.getOrigin().getWorld().equals(proposedOrigin.getWorld())) {
+            if (!existingVillage.isInWorld(proposedOrigin.getWorld())) {
                 continue;
             }
             
@@ -842,10 +1071,13 @@ public class VillagePlacementServiceImpl implements VillagePlacementService {
                 proposedOrigin.getBlockZ(), proposedOrigin.getBlockZ()
         );
         
+        // Only loaded villages are visible; load every region a conflicting border could come from
+        metadataStore.loadAround(proposedOrigin, minDistance + VillageMetadataStore.REGION_SIZE);
+        
         // Check against all existing villages in the same world
         for (VillageMetadataStore.VillageMetadata existingVillage : metadataStore.getAllVillages()) {
             // Skip villages in different worlds
-            if (!existingVillage.getOrigin().getWorld().equals(proposedOrigin.getWorld())) {
+            if (!existingVillage.isInWorld(proposedOrigin.getWorld())) {
                 continue;
             }
             
@@ -870,12 +1102,7 @@ public class VillagePlacementServiceImpl implements VillagePlacementService {
      * @return true if no villages exist in this world yet
      */
     private boolean isFirstVillage(World world) {
-        for (VillageMetadataStore.VillageMetadata village : metadataStore.getAllVillages()) {
-            if (village.getOrigin().getWorld().equals(world)) {
-                return false;
-            }
-        }
-        return true;
+        return !metadataStore.hasVillages(world);
     }
     
     /**
@@ -913,7 +1140,7 @@ public class VillagePlacementServiceImpl implements VillagePlacementService {
         int minDistance = Integer.MAX_VALUE;
         
         for (VillageMetadataStore.VillageMetadata village : metadataStore.getAllVillages()) {
-            if (!village.getOrigin().getWorld().equals(location.getWorld())) {
+            if (!village.isInWorld(location.getWorld())) {
                 continue;
             }
             
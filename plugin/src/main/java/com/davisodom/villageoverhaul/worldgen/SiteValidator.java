@@ -1,5 +1,9 @@
 package com.davisodom.villageoverhaul.worldgen;
 
+import com.davisodom.villageoverhaul.obs.jfr.JfrEvents;
+import com.davisodom.villageoverhaul.obs.jfr.SiteValidationEvent;
+import com.davisodom.villageoverhaul.obs.trace.Span;
+import com.davisodom.villageoverhaul.obs.trace.Tracing;
 import com.davisodom.villageoverhaul.worldgen.TerrainClassifier.Classification;
 import com.davisodom.villageoverhaul.worldgen.TerrainClassifier.ClassificationResult;
 import org.bukkit.Location;
@@ -33,11 +37,16 @@ public class SiteValidator {
      * @return Validation result with pass/fail and details
      */
     public ValidationResult validateSite(World world, Location origin, int width, int depth, int height) {
+        SiteValidationEvent jfr = JfrEvents.isEnabled() ? SiteValidationEvent.start() : null;
         ValidationResult result = new ValidationResult();
         
         // Check foundation solidity with terrain classification
         ClassificationResult classificationResult = new ClassificationResult();
-        boolean foundationOk = validateFoundation(world, origin, width, depth, classificationResult);
+        boolean foundationOk;
+        try (Span span = Tracing.startSpan("site.validate")) {
+            foundationOk = validateFoundation(world, origin, width, depth, classificationResult);
+            span.setAttribute("area", width * depth).setAttribute("passed", foundationOk);
+        }
         result.foundationOk = foundationOk;
         result.classificationResult = classificationResult;
         
@@ -53,6 +62,19 @@ public class SiteValidator {
                     origin, foundationOk, classificationResult));
         }
         
+        if (jfr != null && jfr.shouldCommit()) {
+            jfr.originX = origin.getBlockX();
+            jfr.originY = origin.getBlockY();
+            jfr.originZ = origin.getBlockZ();
+            jfr.width = width;
+            jfr.depth = depth;
+            jfr.height = height;
+            jfr.passed = result.passed;
+            jfr.foundationOk = result.foundationOk;
+            jfr.interiorAirOk = result.interiorAirOk;
+            jfr.entranceOk = result.entranceOk;
+            jfr.commit();
+        }
         return result;
     }
     
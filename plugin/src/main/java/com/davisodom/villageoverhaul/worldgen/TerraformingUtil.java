@@ -1,5 +1,12 @@
 package com.davisodom.villageoverhaul.worldgen;
 
+import com.davisodom.villageoverhaul.obs.jfr.JfrEvents;
+import com.davisodom.villageoverhaul.obs.jfr.TerraformEvent;
+import com.davisodom.villageoverhaul.obs.log.EventLog;
+import com.davisodom.villageoverhaul.obs.log.EventLogger;
+import com.davisodom.villageoverhaul.obs.log.LogCategory;
+import com.davisodom.villageoverhaul.obs.trace.Span;
+import com.davisodom.villageoverhaul.obs.trace.Tracing;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
@@ -17,6 +24,7 @@ import java.util.logging.Logger;
 public class TerraformingUtil {
     
     private static final Logger LOGGER = Logger.getLogger(TerraformingUtil.class.getName());
+    private static final EventLogger LOG = EventLog.getLogger(LogCategory.TERRAFORMING, TerraformingUtil.class);
     
     // Maximum blocks to grade/fill in a single operation (for small structures)
     private static final int MAX_TERRAFORM_BLOCKS = 300;
@@ -114,6 +122,13 @@ public class TerraformingUtil {
      * @return Number of blocks trimmed
      */
     public static int trimVegetation(World world, Location origin, int width, int depth, int height) {
+        TerraformEvent jfr = JfrEvents.isEnabled() ? TerraformEvent.start("trimVegetation") : null;
+        int trimmed = doTrimVegetation(world, origin, width, depth, height);
+        commitEvent(jfr, origin, width, depth, trimmed, true);
+        return trimmed;
+    }
+    
+    private static int doTrimVegetation(World world, Location origin, int width, int depth, int height) {
         int trimmedCount = 0;
         
         // Only trim 0-2 blocks above ground level (grass, flowers, small plants)
@@ -138,7 +153,8 @@ public class TerraformingUtil {
         }
         
         if (trimmedCount > 0) {
-            LOGGER.fine(String.format("[STRUCT] Trimmed %d vegetation blocks at %s (ground level only)", trimmedCount, origin));
+            int trimmed = trimmedCount;
+            LOG.debug("vegetation.trimmed", () -> String.format("[STRUCT] Trimmed %d vegetation blocks at %s (ground level only)", trimmed, origin));
         }
         
         return trimmedCount;
@@ -195,14 +211,15 @@ public class TerraformingUtil {
             }
         }
         
-        if (modifiedCount > maxBlocks) {
-            LOGGER.warning(String.format("[STRUCT] Terraforming exceeded limit at %s: %d blocks (max %d)",
-                    origin, modifiedCount, maxBlocks));
+        int graded = modifiedCount;
+        if (graded > maxBlocks) {
+            LOG.warn("grade.limit", () -> String.format("[STRUCT] Terraforming exceeded limit at %s: %d blocks (max %d)",
+                    origin, graded, maxBlocks));
             return -1; // Indicate failure
         }
         
-        if (modifiedCount > 0) {
-            LOGGER.fine(String.format("[STRUCT] Graded %d blocks at %s (target Y=%d)", modifiedCount, origin, targetY));
+        if (graded > 0) {
+            LOG.debug("grade.done", () -> String.format("[STRUCT] Graded %d blocks at %s (target Y=%d)", graded, origin, targetY));
         }
         
         return modifiedCount;
@@ -273,8 +290,9 @@ public class TerraformingUtil {
                             
                             // Safety check
                             if (filledCount > maxBlocks) {
-                                LOGGER.warning(String.format("[STRUCT] Gap filling exceeded limit at %s: %d blocks (max %d)",
-                                        origin, filledCount, maxBlocks));
+                                int filled = filledCount;
+                                LOG.warn("fill.limit", () -> String.format("[STRUCT] Gap filling exceeded limit at %s: %d blocks (max %d)",
+                                        origin, filled, maxBlocks));
                                 return -1;
                             }
                         }
@@ -284,7 +302,8 @@ public class TerraformingUtil {
         }
         
         if (filledCount > 0) {
-            LOGGER.fine(String.format("[STRUCT] Filled %d gap blocks at %s", filledCount, origin));
+            int filled = filledCount;
+            LOG.debug("fill.done", () -> String.format("[STRUCT] Filled %d gap blocks at %s", filled, origin));
         }
         
         return filledCount;
@@ -303,11 +322,22 @@ public class TerraformingUtil {
      * @return true if site preparation succeeded within limits
      */
     public static boolean prepareSite(World world, Location origin, int width, int depth, int height) {
+        TerraformEvent jfr = JfrEvents.isEnabled() ? TerraformEvent.start("prepareSite") : null;
+        boolean success;
+        try (Span span = Tracing.startSpan("terraform.prepare_site")) {
+            success = doPrepareSite(world, origin, width, depth, height);
+            span.setAttribute("area", width * depth).setAttribute("success", success);
+        }
+        commitEvent(jfr, origin, width, depth, -1, success);
+        return success;
+    }
+    
+    private static boolean doPrepareSite(World world, Location origin, int width, int depth, int height) {
         int footprintArea = width * depth;
         boolean isLargeStructure = footprintArea > LARGE_STRUCTURE_THRESHOLD;
         int maxBlocks = isLargeStructure ? MAX_TERRAFORM_BLOCKS_LARGE : MAX_TERRAFORM_BLOCKS;
         
-        LOGGER.fine(String.format("[STRUCT] Preparing site at %s (%dx%dx%d), footprint=%d, large=%s, maxBlocks=%d", 
+        LOG.debug("site.prepare", () -> String.format("[STRUCT] Preparing site at %s (%dx%dx%d), footprint=%d, large=%s, maxBlocks=%d", 
                 origin, width, depth, height, footprintArea, isLargeStructure, maxBlocks));
         
         // Step 0: HARD VETO on ANY water in footprint or surrounding area
@@ -324,14 +354,14 @@ public class TerraformingUtil {
                 if (surfaceMat == Material.WATER || surfaceMat == Material.LAVA) {
                     waterBlocks++;
                     // Immediate rejection - ANY water/lava = site unsuitable
-                    LOGGER.info(String.format("[STRUCT] Site rejected at %s: fluid detected (%s at %d, %d, %d)",
+                    LOG.info("site.fluid", () -> String.format("[STRUCT] Site rejected at %s: fluid detected (%s at %d, %d, %d)",
                             origin, surfaceMat, checkLoc.getBlockX(), y, checkLoc.getBlockZ()));
                     return false;
                 }
             }
         }
         
-        LOGGER.fine(String.format("[STRUCT] Site has no water/lava in footprint or margin (checked %d blocks)", 
+        LOG.debug("site.dry", () -> String.format("[STRUCT] Site has no water/lava in footprint or margin (checked %d blocks)", 
                 (width + 2 * checkMargin) * (depth + 2 * checkMargin)));
         
         // Step 1: Always trim vegetation (trees inside buildings are bad)
@@ -341,19 +371,19 @@ public class TerraformingUtil {
         
         // For very large structures, skip grading but ALWAYS fill foundation gaps
         if (isLargeStructure) {
-            LOGGER.info(String.format("[STRUCT] Large structure detected (%dx%d), skipping grading but filling foundation gaps",
+            LOG.info("site.large", () -> String.format("[STRUCT] Large structure detected (%dx%d), skipping grading but filling foundation gaps",
                     width, depth));
             
             // Fill gaps beneath foundation to prevent floating structures
             int filled = fillGapsWithLimit(world, origin, width, depth, targetY - 1, maxBlocks);
             
             if (filled < 0) {
-                LOGGER.warning(String.format("[STRUCT] Foundation filling exceeded limits at %s", origin));
+                LOG.warn("fill.limit", () -> String.format("[STRUCT] Foundation filling exceeded limits at %s", origin));
                 // Continue anyway - better to have some floating than no structure
             }
             
             int totalModified = trimmed + (filled > 0 ? filled : 0);
-            LOGGER.info(String.format("[STRUCT] Site prepared (large): trimmed=%d, foundation filled=%d",
+            LOG.info("site.prepared", () -> String.format("[STRUCT] Site prepared (large): trimmed=%d, foundation filled=%d",
                     trimmed, filled > 0 ? filled : 0));
             return true;
         }
@@ -362,7 +392,7 @@ public class TerraformingUtil {
         int graded = lightGradingWithLimit(world, origin, width, depth, targetY, maxBlocks);
         
         if (graded < 0) {
-            LOGGER.warning(String.format("[STRUCT] Site preparation failed at %s: grading exceeded limits", origin));
+            LOG.warn("site.failed", () -> String.format("[STRUCT] Site preparation failed at %s: grading exceeded limits", origin));
             return false;
         }
         
@@ -370,13 +400,13 @@ public class TerraformingUtil {
         int filled = fillGapsWithLimit(world, origin, width, depth, targetY - 1, maxBlocks - graded);
         
         if (filled < 0) {
-            LOGGER.warning(String.format("[STRUCT] Site preparation failed at %s: filling exceeded limits", origin));
+            LOG.warn("site.failed", () -> String.format("[STRUCT] Site preparation failed at %s: filling exceeded limits", origin));
             return false;
         }
         
         int totalModified = trimmed + graded + filled;
         
-        LOGGER.info(String.format("[STRUCT] Site prepared at %s: %d blocks modified (trimmed=%d, graded=%d, filled=%d)",
+        LOG.info("site.prepared", () -> String.format("[STRUCT] Site prepared at %s: %d blocks modified (trimmed=%d, graded=%d, filled=%d)",
                 origin, totalModified, trimmed, graded, filled));
         
         return true;
@@ -397,10 +427,21 @@ public class TerraformingUtil {
      * @return Number of blocks filled
      */
     public static int backfillFoundation(World world, Location origin, int width, int depth, Material fillMaterial) {
+        TerraformEvent jfr = JfrEvents.isEnabled() ? TerraformEvent.start("backfillFoundation") : null;
+        int filled;
+        try (Span span = Tracing.startSpan("terraform.backfill")) {
+            filled = doBackfillFoundation(world, origin, width, depth, fillMaterial);
+            span.setAttribute("blocks", filled);
+        }
+        commitEvent(jfr, origin, width, depth, filled, true);
+        return filled;
+    }
+    
+    private static int doBackfillFoundation(World world, Location origin, int width, int depth, Material fillMaterial) {
         int filled = 0;
         int maxGap = 3; // Only fill gaps up to 3 blocks (prevents walls on steep slopes)
         
-        LOGGER.fine(String.format("[STRUCT] Backfilling foundation at %s (%dx%d)", origin, width, depth));
+        LOG.debug("backfill.start", () -> String.format("[STRUCT] Backfilling foundation at %s (%dx%d)", origin, width, depth));
         
         // Only fill the PERIMETER of the structure (exterior edges only)
         // This prevents dirt from appearing inside buildings
@@ -436,7 +477,22 @@ public class TerraformingUtil {
             }
         }
         
-        LOGGER.info(String.format("[STRUCT] Foundation backfilled: %d blocks placed (max gap: %d)", filled, maxGap));
+        int placed = filled;
+        LOG.info("backfill.done", () -> String.format("[STRUCT] Foundation backfilled: %d blocks placed (max gap: %d)", placed, maxGap));
         return filled;
     }
-}
\ No newline at end of file
+    
+    private static void commitEvent(TerraformEvent event, Location origin, int width, int depth,
+                                    int blocksChanged, boolean success) {
+        if (event == null || !event.shouldCommit()) {
+            return;
+        }
+        event.originX = origin.getBlockX();
+        event.originZ = origin.getBlockZ();
+        event.width = width;
+        event.depth = depth;
+        event.blocksChanged = blocksChanged;
+        event.success = success;
+        event.commit();
+    }
+}
@@ -1,6 +1,10 @@
 package com.davisodom.villageoverhaul.worldgen;
 
 import com.davisodom.villageoverhaul.VillageOverhaulPlugin;
+import com.davisodom.villageoverhaul.core.TickEngine;
+import com.davisodom.villageoverhaul.obs.trace.Span;
+import com.davisodom.villageoverhaul.obs.trace.Tracing;
+import com.davisodom.villageoverhaul.villages.Village;
 import com.davisodom.villageoverhaul.villages.VillageMetadataStore;
 import com.davisodom.villageoverhaul.villages.VillageService;
 import com.davisodom.villageoverhaul.villages.impl.VillagePlacementServiceImpl;
@@ -102,9 +106,17 @@ public class VillageWorldgenAdapter implements Listener {
 
         logger.info("Attempting to seed village in world: " + world.getName());
 
+        // Root span for the whole build; ended once seeding finishes on the main thread
+        Span trace = Tracing.startTrace("village.generate");
+        trace.setAttribute("source", "worldgen").setAttribute("world", world.getName());
+
         // Search for suitable terrain starting from spawn (this is slow, but now async!)
         Location spawn = world.getSpawnLocation();
-        Location suitableLocation = findSuitableVillageLocation(world, spawn, 512); // Search up to 512 blocks
+        Location suitableLocation;
+        try (Span search = Tracing.startSpan("village.site_search", trace)) {
+            suitableLocation = findSuitableVillageLocation(world, spawn, 512); // Search up to 512 blocks
+            search.setAttribute("found", suitableLocation != null);
+        }
         
         if (suitableLocation == null) {
             logger.warning("Could not find suitable terrain for village placement, using spawn location as fallback");
@@ -134,40 +146,76 @@ public class VillageWorldgenAdapter implements Listener {
         final String villageName = village.getName();
         final int finalY = y;
         
+        trace.setAttribute("villageId", villageId.toString());
+        
         Bukkit.getScheduler().runTask(plugin, () -> {
-            // Use shared metadata store (T012l: singleton for cross-session enforcement)
-            VillageMetadataStore metadataStore = plugin.getMetadataStore();
-            VillagePlacementServiceImpl placementService = new VillagePlacementServiceImpl(plugin, metadataStore);
+            try (Tracing.Scope scope = Tracing.activate(trace)) {
+                // Use shared metadata store (T012l: singleton for cross-session enforcement)
+                VillageMetadataStore metadataStore = plugin.getMetadataStore();
+                VillagePlacementServiceImpl placementService = new VillagePlacementServiceImpl(plugin, metadataStore);
             
-            // Generate village structures using placement service
-            // Note: Village registration now happens INSIDE placeVillage() after spacing validation
-            Location villageOrigin = new Location(world, baseX, finalY, baseZ);
-            long seed = world.getSeed() + villageId.getMostSignificantBits();
+                // Generate village structures using placement service
+                // Note: Village registration now happens INSIDE placeVillage() after spacing validation
+                Location villageOrigin = new Location(world, baseX, finalY, baseZ);
+                long seed = world.getSeed() + villageId.getMostSignificantBits();
             
-            logger.info("[STRUCT] Generating structures for village '" + villageName + "' (ID: " + villageId + ")");
-            Optional<UUID> placedVillageId = placementService.placeVillage(world, villageOrigin, cultureId, seed);
-            
-            if (placedVillageId.isPresent()) {
-                logger.info("OK Seeded village '" + villageName + "' (" + cultureId + ") with structures at "
-                        + world.getName() + " @ (" + baseX + "," + (finalY + 1) + "," + baseZ + ")");
-            } else {
-                logger.warning("X Failed to place structures for village '" + villageName + "', placing marker pillar");
-                // Fallback: Create a tiny marker pillar (stone + torch) to indicate village center
-                safeSet(world, baseX, finalY, baseZ, Material.STONE);
-                safeSet(world, baseX, finalY + 1, baseZ, Material.STONE);
-                safeSet(world, baseX, finalY + 2, baseZ, Material.TORCH);
-            }
-            
-            // Generate initial projects for the village
-            if (plugin.getProjectGenerator() != null) {
-                plugin.getProjectGenerator().generateInitialProjects(village);
+                logger.info("[STRUCT] Generating structures for village '" + villageName + "' (ID: " + villageId + ")");
+                TickEngine tickEngine = plugin.getTickEngine();
+                if (tickEngine != null) {
+                    // Spread placement across ticks; finish seeding once the job completes
+                    VillagePlacementServiceImpl.PlacementJob job = placementService.newPlacementJob(
+                            world, villageOrigin, cultureId, seed);
+                    tickEngine.submitJob("seed:" + villageName, job).getCompletion().whenComplete((ignored, error) -> {
+                        if (error != null) {
+                            logger.warning("X Village seeding job for '" + villageName + "' did not complete: " + error);
+                            trace.setAttribute("error", String.valueOf(error));
+                            trace.end();
+                            return;
+                        }
+                        try (Tracing.Scope finishScope = Tracing.activate(trace)) {
+                            finishSeeding(world, village, job.getResult(), cultureId, baseX, finalY, baseZ);
+                        } finally {
+                            trace.end();
+                        }
+                    });
+                } else {
+                    try {
+                        Optional<UUID> placedVillageId = placementService.placeVillage(world, villageOrigin, cultureId, seed);
+                        finishSeeding(world, village, placedVillageId, cultureId, baseX, finalY, baseZ);
+                    } finally {
+                        trace.end();
+                    }
+                }
             }
-            
-            // Spawn initial custom villagers for the village
-            spawnInitialVillagers(village, world, baseX, finalY + 1, baseZ);
         });
     }
     
+    /**
+     * Report placement, then seed projects and villagers (main thread)
+     */
+    private void finishSeeding(World world, Village village, Optional<UUID> placedVillageId, String cultureId,
+                               int baseX, int finalY, int baseZ) {
+        String villageName = village.getName();
+        if (placedVillageId.isPresent()) {
+            logger.info("OK Seeded village '" + villageName + "' (" + cultureId + ") with structures at "
+                    + world.getName() + " @ (" + baseX + "," + (finalY + 1) + "," + baseZ + ")");
+        } else {
+            logger.warning("X Failed to place structures for village '" + villageName + "', placing marker pillar");
+            // Fallback: Create a tiny marker pillar (stone + torch) to indicate village center
+            safeSet(world, baseX, finalY, baseZ, Material.STONE);
+            safeSet(world, baseX, finalY + 1, baseZ, Material.STONE);
+            safeSet(world, baseX, finalY + 2, baseZ, Material.TORCH);
+        }
+        
+        // Generate initial projects for the village
+        if (plugin.getProjectGenerator() != null) {
+            plugin.getProjectGenerator().generateInitialProjects(village);
+        }
+        
+        // Spawn initial custom villagers for the village
+        spawnInitialVillagers(village, world, baseX, finalY + 1, baseZ);
+    }
+    
     /**
      * Search for suitable flat terrain for village placement.
      * 
@@ -1,6 +1,11 @@
 package com.davisodom.villageoverhaul.worldgen.impl;
 
 import com.davisodom.villageoverhaul.model.PathNetwork;
+import com.davisodom.villageoverhaul.obs.jfr.JfrEvents;
+import com.davisodom.villageoverhaul.obs.jfr.PathSearchEvent;
+import com.davisodom.villageoverhaul.obs.log.EventLog;
+import com.davisodom.villageoverhaul.obs.log.EventLogger;
+import com.davisodom.villageoverhaul.obs.log.LogCategory;
 import com.davisodom.villageoverhaul.worldgen.PathService;
 import org.bukkit.Location;
 import org.bukkit.Material;
@@ -30,12 +35,14 @@ import java.util.logging.Logger;
 public class PathServiceImpl implements PathService {
     
     private static final Logger LOGGER = Logger.getLogger(PathServiceImpl.class.getName());
+    private static final EventLogger LOG = EventLog.getLogger(LogCategory.PATHS, PathServiceImpl.class);
     
     // Maximum pathfinding search distance (blocks)
     private static final int MAX_SEARCH_DISTANCE = 200;
     
-    // Maximum nodes to explore in A* search
-    private static final int MAX_NODES_EXPLORED = 5000;
+    // Maximum nodes to explore in A* search (default; adjusted by the performance profile)
+    public static final int DEFAULT_MAX_NODES_EXPLORED = 5000;
+    private volatile int maxNodesExplored = DEFAULT_MAX_NODES_EXPLORED;
     
     // Terrain cost multipliers
     private static final double FLAT_COST = 1.0;
@@ -47,31 +54,95 @@ public class PathServiceImpl implements PathService {
     // Path network cache (villageId -> PathNetwork)
     private final Map<UUID, PathNetwork> pathNetworks = new HashMap<>();
     
+    /**
+     * Set the A* node limit for this service's path searches
+     */
+    public void setMaxNodesExplored(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        maxNodesExplored = limit;
+    }
+    
+    public int getMaxNodesExplored() {
+        return maxNodesExplored;
+    }
+    
     @Override
     public boolean generatePathNetwork(World world, UUID villageId, List<Location> buildingLocations,
                                        Location mainBuildingLocation, long seed) {
+        NetworkBuild build = beginPathNetwork(world, villageId, buildingLocations, mainBuildingLocation, seed);
+        if (build == null) {
+            return false;
+        }
+        while (!build.step()) {
+            // Run all pathfinding steps on the calling thread
+        }
+        return build.finish();
+    }
+    
+    /**
+     * Start an incremental path network build.
+     * Each step() runs A* for one building, so the build can be spread across ticks
+     * (see VillagePlacementServiceImpl.PlacementJob). Same result as generatePathNetwork().
+     * 
+     * @return Build in progress, or null if there are no buildings to connect
+     */
+    public NetworkBuild beginPathNetwork(World world, UUID villageId, List<Location> buildingLocations,
+                                         Location mainBuildingLocation, long seed) {
         LOGGER.info(String.format("[STRUCT] Begin path network generation: village=%s, buildings=%d, seed=%d",
                 villageId, buildingLocations.size(), seed));
         
         if (buildingLocations.isEmpty()) {
             LOGGER.warning("[STRUCT] No buildings to connect");
-            return false;
+            return null;
+        }
+        return new NetworkBuild(world, villageId, buildingLocations, mainBuildingLocation, seed);
+    }
+    
+    /**
+     * Path network build in progress (main building to every other building)
+     */
+    public final class NetworkBuild {
+        private final World world;
+        private final UUID villageId;
+        private final List<Location> buildingLocations;
+        private final Location mainBuildingLocation;
+        private final long seed;
+        private final PathNetwork.Builder networkBuilder;
+        private int index = 0;
+        private int successfulPaths = 0;
+        
+        private NetworkBuild(World world, UUID villageId, List<Location> buildingLocations,
+                             Location mainBuildingLocation, long seed) {
+            this.world = world;
+            this.villageId = villageId;
+            this.buildingLocations = buildingLocations;
+            this.mainBuildingLocation = mainBuildingLocation;
+            this.seed = seed;
+            this.networkBuilder = new PathNetwork.Builder()
+                    .villageId(villageId)
+                    .generatedTimestamp(System.currentTimeMillis());
         }
         
-        PathNetwork.Builder networkBuilder = new PathNetwork.Builder()
-                .villageId(villageId)
-                .generatedTimestamp(System.currentTimeMillis());
-        
-        // Connect main building to all other buildings
-        int successfulPaths = 0;
-        for (int i = 0; i < buildingLocations.size(); i++) {
-            Location building = buildingLocations.get(i);
-            
+        /**
+         * Find the path to the next building
+         * 
+         * @return true once every building has been attempted
+         */
+        public boolean step() {
             // Skip main building
-            if (building.distance(mainBuildingLocation) < 5) {
-                continue;
+            while (index < buildingLocations.size()
+                    && buildingLocations.get(index).distance(mainBuildingLocation) < 5) {
+                index++;
+            }
+            if (index >= buildingLocations.size()) {
+                return true;
             }
             
+            int i = index++;
+            Location building = buildingLocations.get(i);
+            
             // Generate path with building-specific seed
             long pathSeed = seed + i;
             Optional<List<Block>> pathBlocks = generatePath(world, mainBuildingLocation, building, pathSeed);
@@ -87,22 +158,37 @@ public class PathServiceImpl implements PathService {
             } else {
                 LOGGER.warning(String.format("[STRUCT] Failed to generate path from main to building %d", i));
             }
+            return index >= buildingLocations.size();
         }
         
-        if (successfulPaths == 0) {
-            LOGGER.warning(String.format("[STRUCT] Path network generation failed: no paths created for village %s", villageId));
-            return false;
+        /**
+         * Fraction of buildings attempted
+         */
+        public double getProgress() {
+            return (double) index / buildingLocations.size();
         }
         
-        // Cache the network
-        PathNetwork network = networkBuilder.build();
-        pathNetworks.put(villageId, network);
-        
-        double connectivity = network.calculateConnectivity(buildingLocations, mainBuildingLocation);
-        LOGGER.info(String.format("[STRUCT] Path network complete: village=%s, paths=%d, blocks=%d, connectivity=%.1f%%",
-                villageId, successfulPaths, network.getTotalBlocksPlaced(), connectivity * 100));
-        
-        return connectivity >= 0.9; // Success criterion: ≥90% connectivity
+        /**
+         * Cache the network once all steps are done
+         * 
+         * @return true if the network meets the connectivity criterion
+         */
+        public boolean finish() {
+            if (successfulPaths == 0) {
+                LOGGER.warning(String.format("[STRUCT] Path network generation failed: no paths created for village %s", villageId));
+                return false;
+            }
+            
+            // Cache the network
+            PathNetwork network = networkBuilder.build();
+            pathNetworks.put(villageId, network);
+            
+            double connectivity = network.calculateConnectivity(buildingLocations, mainBuildingLocation);
+            LOGGER.info(String.format("[STRUCT] Path network complete: village=%s, paths=%d, blocks=%d, connectivity=%.1f%%",
+                    villageId, successfulPaths, network.getTotalBlocksPlaced(), connectivity * 100));
+            
+            return connectivity >= 0.9; // Success criterion: ≥90% connectivity
+        }
     }
     
     @Override
@@ -110,13 +196,13 @@ public class PathServiceImpl implements PathService {
         // Validate distance
         double distance = start.distance(end);
         if (distance > MAX_SEARCH_DISTANCE) {
-            LOGGER.warning(String.format("[STRUCT] Path distance too far: %.1f blocks (max %d)",
+            LOG.warn("path.too_far", () -> String.format("[STRUCT] Path distance too far: %.1f blocks (max %d)",
                     distance, MAX_SEARCH_DISTANCE));
             return Optional.empty();
         }
         
         if (distance < 3) {
-            LOGGER.fine("[STRUCT] Path too short, skipping");
+            LOG.debug("path.too_short", () -> "[STRUCT] Path too short, skipping");
             return Optional.empty();
         }
         
@@ -124,7 +210,7 @@ public class PathServiceImpl implements PathService {
         List<PathNode> path = findPathAStar(world, start, end);
         
         if (path == null || path.isEmpty()) {
-            LOGGER.fine(String.format("[STRUCT] No path found from (%d,%d,%d) to (%d,%d,%d)",
+            LOG.debug("path.not_found", () -> String.format("[STRUCT] No path found from (%d,%d,%d) to (%d,%d,%d)",
                     start.getBlockX(), start.getBlockY(), start.getBlockZ(),
                     end.getBlockX(), end.getBlockY(), end.getBlockZ()));
             return Optional.empty();
@@ -136,7 +222,7 @@ public class PathServiceImpl implements PathService {
             pathBlocks.add(world.getBlockAt(node.x, node.y, node.z));
         }
         
-        LOGGER.fine(String.format("[STRUCT] Path found: distance=%.1f, blocks=%d", distance, pathBlocks.size()));
+        LOG.debug("path.found", () -> String.format("[STRUCT] Path found: distance=%.1f, blocks=%d", distance, pathBlocks.size()));
         
         return Optional.of(pathBlocks);
     }
@@ -159,10 +245,12 @@ public class PathServiceImpl implements PathService {
         // endY stored for potential future use in 3D pathfinding
         // int endY = findGroundLevel(world, endX, endZ);
         
-        LOGGER.info(String.format("[PATH] A* search start: from (%d,%d,%d) to (%d,%d), distance=%.1f",
+        LOG.debug("astar.start", () -> String.format("[PATH] A* search start: from (%d,%d,%d) to (%d,%d), distance=%.1f",
                 startX, startY, startZ, endX, endZ, 
                 Math.sqrt(Math.pow(endX - startX, 2) + Math.pow(endZ - startZ, 2))));
         
+        PathSearchEvent jfr = JfrEvents.isEnabled() ? PathSearchEvent.start() : null;
+        
         PathNode startNode = new PathNode(startX, startY, startZ);
         startNode.gScore = 0;
         startNode.fScore = heuristic(startX, startZ, endX, endZ);
@@ -174,14 +262,19 @@ public class PathServiceImpl implements PathService {
         int obstaclesEncountered = 0;
         double maxTerrainCostSeen = 0.0;
         
-        while (!openSet.isEmpty() && nodesExplored < MAX_NODES_EXPLORED) {
+        int nodeLimit = maxNodesExplored;
+        while (!openSet.isEmpty() && nodesExplored < nodeLimit) {
             PathNode current = openSet.poll();
             nodesExplored++;
             
             // Check if we reached the goal
             if (Math.abs(current.x - endX) <= 2 && Math.abs(current.z - endZ) <= 2) {
-                LOGGER.info(String.format("[PATH] A* SUCCESS: Goal reached after exploring %d nodes", nodesExplored));
-                return reconstructPath(current);
+                int explored = nodesExplored;
+                LOG.debug("astar.success", () -> String.format("[PATH] A* SUCCESS: Goal reached after exploring %d nodes", explored));
+                List<PathNode> path = reconstructPath(current);
+                commitSearchEvent(jfr, startX, startZ, endX, endZ, nodesExplored, nodeLimit, obstaclesEncountered,
+                        path.size(), PathSearchEvent.FOUND);
+                return path;
             }
             
             closedSet.add(current.key());
@@ -236,12 +329,33 @@ public class PathServiceImpl implements PathService {
             }
         }
         
-        String reason = nodesExplored >= MAX_NODES_EXPLORED ? "node limit reached" : "no path exists";
-        LOGGER.warning(String.format("[PATH] A* FAILED: %s (explored=%d/%d, obstacles=%d, maxCost=%.1f)",
-                reason, nodesExplored, MAX_NODES_EXPLORED, obstaclesEncountered, maxTerrainCostSeen));
+        String reason = nodesExplored >= nodeLimit ? PathSearchEvent.NODE_LIMIT : PathSearchEvent.NO_PATH;
+        int explored = nodesExplored;
+        int obstacles = obstaclesEncountered;
+        double maxCost = maxTerrainCostSeen;
+        LOG.warn("astar.failed", () -> String.format("[PATH] A* FAILED: %s (explored=%d/%d, obstacles=%d, maxCost=%.1f)",
+                reason, explored, nodeLimit, obstacles, maxCost));
+        commitSearchEvent(jfr, startX, startZ, endX, endZ, nodesExplored, nodeLimit, obstaclesEncountered, 0, reason);
         return null; // No path found
     }
     
+    private static void commitSearchEvent(PathSearchEvent event, int startX, int startZ, int endX, int endZ,
+                                          int nodesExplored, int nodeLimit, int obstacles, int pathLength, String result) {
+        if (event == null || !event.shouldCommit()) {
+            return;
+        }
+        event.startX = startX;
+        event.startZ = startZ;
+        event.endX = endX;
+        event.endZ = endZ;
+        event.nodesExplored = nodesExplored;
+        event.nodeLimit = nodeLimit;
+        event.obstacles = obstacles;
+        event.pathLength = pathLength;
+        event.result = result;
+        event.commit();
+    }
+    
     /**
      * Heuristic function for A* (Manhattan distance).
      */
@@ -347,8 +461,9 @@ public class PathServiceImpl implements PathService {
         // Smooth path after placement
         blocksPlaced += smoothPath(world, pathBlocks);
         
-        LOGGER.fine(String.format("[STRUCT] Path placed: culture=%s, blocks=%d, material=%s",
-                cultureId, blocksPlaced, pathMaterial));
+        int placed = blocksPlaced;
+        LOG.debug("path.placed", () -> String.format("[STRUCT] Path placed: culture=%s, blocks=%d, material=%s",
+                cultureId, placed, pathMaterial));
         
         return blocksPlaced;
     }
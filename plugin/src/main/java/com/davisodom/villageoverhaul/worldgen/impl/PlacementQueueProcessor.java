@@ -1,6 +1,16 @@
 package com.davisodom.villageoverhaul.worldgen.impl;
 
 import com.davisodom.villageoverhaul.model.PlacementQueue;
+import com.davisodom.villageoverhaul.obs.Metrics;
+import com.davisodom.villageoverhaul.obs.ThreadResources;
+import com.davisodom.villageoverhaul.obs.jfr.JfrEvents;
+import com.davisodom.villageoverhaul.obs.jfr.PlacementBatchEvent;
+import com.davisodom.villageoverhaul.obs.log.EventLog;
+import com.davisodom.villageoverhaul.obs.log.EventLogger;
+import com.davisodom.villageoverhaul.obs.log.LogCategory;
+import com.davisodom.villageoverhaul.obs.stream.LiveEvents;
+import com.davisodom.villageoverhaul.obs.trace.Span;
+import com.davisodom.villageoverhaul.obs.trace.Tracing;
 import com.sk89q.worldedit.bukkit.BukkitAdapter;
 import com.sk89q.worldedit.extent.clipboard.Clipboard;
 import com.sk89q.worldedit.math.BlockVector3;
@@ -35,6 +45,7 @@ import java.util.logging.Logger;
 public class PlacementQueueProcessor {
     
     private static final Logger LOGGER = Logger.getLogger(PlacementQueueProcessor.class.getName());
+    private static final EventLogger LOG = EventLog.getLogger(LogCategory.STRUCTURES, PlacementQueueProcessor.class);
     
     // Default batch size: 50 blocks per tick
     private static final int DEFAULT_BATCH_SIZE = 50;
@@ -51,6 +62,10 @@ public class PlacementQueueProcessor {
     // Async preparation futures (queueId -> future)
     private final Map<UUID, CompletableFuture<PlacementQueue>> preparationFutures = new ConcurrentHashMap<>();
     
+    // Trace spans (only while tracing is enabled): queue.prepare until submit, queue.commit until finished
+    private final Map<UUID, Span> prepareSpans = new ConcurrentHashMap<>();
+    private final Map<UUID, Span> commitSpans = new ConcurrentHashMap<>();
+    
     // Main-thread ticker task
     private BukkitTask tickerTask;
     
@@ -58,6 +73,10 @@ public class PlacementQueueProcessor {
     private int batchSize = DEFAULT_BATCH_SIZE;
     private boolean debugLogging = false;
     
+    // CPU time / allocation of commit batches and async preparations (null = not measured)
+    private volatile Metrics.ResourceStats batchResources;
+    private volatile Metrics.ResourceStats prepareResources;
+    
     public PlacementQueueProcessor(Plugin plugin) {
         this.plugin = Objects.requireNonNull(plugin, "plugin cannot be null");
     }
@@ -92,6 +111,13 @@ public class PlacementQueueProcessor {
         }
         preparationFutures.clear();
         
+        for (Span span : commitSpans.values()) {
+            span.setAttribute("aborted", "shutdown");
+            span.end();
+        }
+        commitSpans.clear();
+        prepareSpans.clear();
+        
         // Log aborted queues
         if (!activeQueues.isEmpty()) {
             LOGGER.warning(String.format("[STRUCT] Aborted %d active placement queues on shutdown", 
@@ -112,6 +138,14 @@ public class PlacementQueueProcessor {
         this.batchSize = batchSize;
     }
     
+    /**
+     * Record CPU time and allocations of commit batches and async preparations (null = off).
+     */
+    public void setMetrics(Metrics metrics) {
+        this.batchResources = metrics != null ? metrics.resources("placement.batch") : null;
+        this.prepareResources = metrics != null ? metrics.resources("placement.prepare") : null;
+    }
+    
     /**
      * Enable/disable debug logging.
      */
@@ -164,9 +198,23 @@ public class PlacementQueueProcessor {
                 buildingId, clipboard.getDimensions().getX() * clipboard.getDimensions().getY() * clipboard.getDimensions().getZ(),
                 seed));
         
+        Span prepareSpan = Tracing.startSpan("queue.prepare");
+        prepareSpan.setAttribute("building", String.valueOf(buildingId));
+        
         // Prepare queue off-thread
         CompletableFuture<PlacementQueue> future = CompletableFuture.supplyAsync(() -> {
-            return buildQueueFromClipboard(queueId, buildingId, clipboard, world, origin, seed);
+            long cpuStart = ThreadResources.cpuNanos();
+            long allocStart = ThreadResources.allocatedBytes();
+            try (Tracing.Scope scope = Tracing.activate(prepareSpan); Span span = Tracing.startSpan("queue.build")) {
+                PlacementQueue queue = buildQueueFromClipboard(queueId, buildingId, clipboard, world, origin, seed);
+                span.setAttribute("blocks", queue.getTotalBlocks());
+                return queue;
+            } finally {
+                Metrics.ResourceStats resources = prepareResources;
+                if (resources != null) {
+                    resources.recordSince(cpuStart, allocStart);
+                }
+            }
         });
         
         preparationFutures.put(queueId, future);
@@ -174,6 +222,11 @@ public class PlacementQueueProcessor {
         // Clean up preparation future when complete
         future.whenComplete((queue, error) -> {
             preparationFutures.remove(queueId);
+            if (error == null && prepareSpan.isRecording()) {
+                prepareSpans.put(queueId, prepareSpan); // parent of queue.commit once submitted
+            }
+            prepareSpan.setAttribute("failed", error != null);
+            prepareSpan.end();
             
             if (error != null) {
                 LOGGER.warning(String.format("[STRUCT] Queue preparation failed: building=%s, error=%s",
@@ -328,6 +381,15 @@ public class PlacementQueueProcessor {
             throw new IllegalStateException("Queue must be READY or COMMITTING to submit");
         }
         
+        Span parent = prepareSpans.remove(queue.getQueueId());
+        Span commitSpan = parent != null ? Tracing.startSpan("queue.commit", parent) : Tracing.startSpan("queue.commit");
+        if (commitSpan.isRecording()) {
+            commitSpan.setAttribute("queue", queue.getQueueId().toString())
+                    .setAttribute("blocks", queue.getTotalBlocks())
+                    .setAttribute("batch", queue.getBatchSize());
+            commitSpans.put(queue.getQueueId(), commitSpan);
+        }
+        
         activeQueues.put(queue.getQueueId(), queue);
         
         LOGGER.info(String.format("[STRUCT] Queue submitted: id=%s, building=%s, blocks=%d, batch=%d",
@@ -339,12 +401,15 @@ public class PlacementQueueProcessor {
      */
     public void cancelQueue(UUID queueId, String reason) {
         PlacementQueue queue = activeQueues.remove(queueId);
+        endCommitSpan(queueId, reason);
+        prepareSpans.remove(queueId);
         
         if (queue != null) {
             PlacementQueue aborted = queue.asAborted(reason, System.currentTimeMillis());
-            LOGGER.warning(String.format("[STRUCT] Queue aborted: id=%s, building=%s, reason=%s, placed=%d/%d",
+            LOG.warn("queue.aborted", () -> String.format("[STRUCT] Queue aborted: id=%s, building=%s, reason=%s, placed=%d/%d",
                     queueId, aborted.getBuildingId(), reason, 
                     aborted.getBlocksPlaced(), aborted.getTotalBlocks()));
+            publishFinished(aborted, reason);
         }
         
         // Also cancel any ongoing async preparation
@@ -372,14 +437,27 @@ public class PlacementQueueProcessor {
             
             try {
                 // Process one batch
-                PlacementQueue updated = processBatch(queue);
+                PlacementQueue updated;
+                Span commitSpan = commitSpans.get(entry.getKey());
+                long cpuStart = ThreadResources.cpuNanos();
+                long allocStart = ThreadResources.allocatedBytes();
+                try (Span span = commitSpan != null ? Tracing.startSpan("queue.batch", commitSpan) : Span.NOOP) {
+                    updated = processBatch(queue);
+                    span.setAttribute("placed", updated.getBlocksPlaced());
+                }
+                Metrics.ResourceStats resources = batchResources;
+                if (resources != null) {
+                    resources.recordSince(cpuStart, allocStart);
+                }
                 
                 if (updated.isFinished()) {
                     // Queue complete - remove from active set
                     iterator.remove();
+                    endCommitSpan(entry.getKey(), null);
+                    publishFinished(updated, null);
                     
                     if (updated.getStatus() == PlacementQueue.Status.COMPLETE) {
-                        LOGGER.info(String.format("[STRUCT] Queue complete: id=%s, building=%s, blocks=%d, time=%dms",
+                        LOG.info("queue.complete", () -> String.format("[STRUCT] Queue complete: id=%s, building=%s, blocks=%d, time=%dms",
                                 updated.getQueueId(), updated.getBuildingId(), updated.getTotalBlocks(),
                                 updated.getLastCommitAt() - updated.getCreatedAt()));
                     }
@@ -389,12 +467,14 @@ public class PlacementQueueProcessor {
                 }
                 
             } catch (Exception e) {
-                LOGGER.warning(String.format("[STRUCT] Queue processing error: id=%s, error=%s",
+                LOG.warn("queue.error", () -> String.format("[STRUCT] Queue processing error: id=%s, error=%s",
                         queue.getQueueId(), e.getMessage()));
                 
                 // Abort queue on error
-                queue.asAborted("Processing error: " + e.getMessage(), System.currentTimeMillis());
+                PlacementQueue aborted = queue.asAborted("Processing error: " + e.getMessage(), System.currentTimeMillis());
                 iterator.remove();
+                endCommitSpan(entry.getKey(), "Processing error: " + e.getMessage());
+                publishFinished(aborted, "Processing error: " + e.getMessage());
             }
         }
         
@@ -402,11 +482,42 @@ public class PlacementQueueProcessor {
         double tickMs = (tickEnd - tickStart) / 1_000_000.0;
         
         if (debugLogging && !activeQueues.isEmpty()) {
-            LOGGER.fine(String.format("[STRUCT] Tick complete: queues=%d, time=%.2fms",
+            LOG.debug("queue.tick", () -> String.format("[STRUCT] Tick complete: queues=%d, time=%.2fms",
                     activeQueues.size(), tickMs));
         }
     }
     
+    /**
+     * End the queue.commit span of a queue, if it is traced
+     *
+     * @param abortReason Null when the queue completed
+     */
+    private void endCommitSpan(UUID queueId, String abortReason) {
+        Span span = commitSpans.remove(queueId);
+        if (span == null) {
+            return;
+        }
+        if (abortReason != null) {
+            span.setAttribute("aborted", abortReason);
+        }
+        span.end();
+    }
+    
+    /**
+     * Report a finished queue to live stream subscribers
+     *
+     * @param abortReason Null when the queue completed
+     */
+    private void publishFinished(PlacementQueue queue, String abortReason) {
+        if (!LiveEvents.isActive()) {
+            return;
+        }
+        LiveEvents.publish("queue.finished", "queueId", queue.getQueueId().toString(),
+                "buildingId", String.valueOf(queue.getBuildingId()), "status", queue.getStatus().name(),
+                "blocksPlaced", queue.getBlocksPlaced(), "totalBlocks", queue.getTotalBlocks(),
+                "durationMs", queue.getLastCommitAt() - queue.getCreatedAt(), "reason", abortReason);
+    }
+    
     /**
      * Process one batch from a queue (main thread).
      * Places blocks and advances queue index.
@@ -419,6 +530,8 @@ public class PlacementQueueProcessor {
             return queue.withStatus(PlacementQueue.Status.COMPLETE, System.currentTimeMillis());
         }
         
+        PlacementBatchEvent jfr = JfrEvents.isEnabled() ? PlacementBatchEvent.start() : null;
+        
         // Place blocks in batch
         int placed = 0;
         for (PlacementQueue.Entry entry : batch) {
@@ -437,7 +550,7 @@ public class PlacementQueueProcessor {
                 placed++;
                 
             } catch (Exception e) {
-                LOGGER.warning(String.format("[STRUCT] Block placement error: pos=(%d,%d,%d), mat=%s, error=%s",
+                LOG.warn("queue.block_error", () -> String.format("[STRUCT] Block placement error: pos=(%d,%d,%d), mat=%s, error=%s",
                         entry.getX(), entry.getY(), entry.getZ(), entry.getMaterial(), e.getMessage()));
             }
         }
@@ -446,10 +559,20 @@ public class PlacementQueueProcessor {
         int newIndex = queue.getCurrentIndex() + placed;
         PlacementQueue updated = queue.withAdvancedIndex(newIndex, System.currentTimeMillis());
         
+        if (jfr != null && jfr.shouldCommit()) {
+            jfr.queueId = updated.getQueueId().toString();
+            jfr.buildingId = String.valueOf(updated.getBuildingId());
+            jfr.blocks = batch.size();
+            jfr.placed = placed;
+            jfr.queuePlaced = updated.getBlocksPlaced();
+            jfr.queueTotal = updated.getTotalBlocks();
+            jfr.commit();
+        }
+        
         // Log progress periodically
         if (debugLogging || (updated.getBlocksPlaced() % 500 == 0)) {
             PlacementQueue.ConstructionProgress progress = updated.getProgress();
-            LOGGER.fine(String.format("[STRUCT] Queue progress: id=%s, placed=%d/%d (%.1f%%), layer=%d, row=%d",
+            LOG.debug("queue.progress", () -> String.format("[STRUCT] Queue progress: id=%s, placed=%d/%d (%.1f%%), layer=%d, row=%d",
                     updated.getQueueId(), updated.getBlocksPlaced(), updated.getTotalBlocks(),
                     progress.percentComplete() * 100, progress.currentLayer(), progress.currentRow()));
         }
@@ -1,5 +1,10 @@
 package com.davisodom.villageoverhaul.worldgen.impl;
 
+import com.davisodom.villageoverhaul.obs.log.EventLog;
+import com.davisodom.villageoverhaul.obs.log.EventLogger;
+import com.davisodom.villageoverhaul.obs.log.LogCategory;
+import com.davisodom.villageoverhaul.obs.trace.Span;
+import com.davisodom.villageoverhaul.obs.trace.Tracing;
 import com.davisodom.villageoverhaul.worldgen.SiteValidator;
 import com.davisodom.villageoverhaul.worldgen.StructureService;
 import com.davisodom.villageoverhaul.worldgen.TerraformingUtil;
@@ -33,6 +38,7 @@ import java.util.logging.Logger;
 public class StructureServiceImpl implements StructureService {
     
     private static final Logger LOGGER = Logger.getLogger(StructureServiceImpl.class.getName());
+    private static final EventLogger LOG = EventLog.getLogger(LogCategory.STRUCTURES, StructureServiceImpl.class);
     
     // Maximum number of re-seating attempts before aborting
     private static final int MAX_RESEAT_ATTEMPTS = 3;
@@ -214,17 +220,22 @@ public class StructureServiceImpl implements StructureService {
             return false;
         }
         
-        LOGGER.info(String.format("[STRUCT] Begin placement: structureId=%s, origin=%s, seed=%d, world=%s",
+        LOG.info("placement.begin", () -> String.format("[STRUCT] Begin placement: structureId=%s, origin=%s, seed=%d, world=%s",
                 structureId, formatLocation(origin), seed, world.getName()));
         
         // Attempt placement with re-seating logic
-        boolean placed = attemptPlacementWithReseating(template, world, origin, seed);
+        boolean placed;
+        try (Span span = Tracing.startSpan("structure.place")) {
+            span.setAttribute("structure", structureId);
+            placed = attemptPlacementWithReseating(template, world, origin, seed);
+            span.setAttribute("placed", placed);
+        }
         
         if (placed) {
-            LOGGER.info(String.format("[STRUCT] Seat successful: structure='%s', origin=%s, seed=%d",
+            LOG.info("placement.seated", () -> String.format("[STRUCT] Seat successful: structure='%s', origin=%s, seed=%d",
                     structureId, formatLocation(origin), seed));
         } else {
-            LOGGER.warning(String.format("[STRUCT] Abort: structure='%s', seed=%d, attempts=%d, reason=no_valid_site",
+            LOG.warn("placement.abort", () -> String.format("[STRUCT] Abort: structure='%s', seed=%d, attempts=%d, reason=no_valid_site",
                     structureId, seed, MAX_RESEAT_ATTEMPTS));
         }
         
@@ -240,13 +251,14 @@ public class StructureServiceImpl implements StructureService {
         
         for (int attempt = 0; attempt < MAX_RESEAT_ATTEMPTS; attempt++) {
             Location currentOrigin = attempt == 0 ? origin : findAlternativeLocation(world, origin, random, attempt);
+            int attemptNumber = attempt + 1;
             
-            LOGGER.info(String.format("[STRUCT] Seat attempt %d/%d: structure='%s', location=%s, seed=%d",
-                    attempt + 1, MAX_RESEAT_ATTEMPTS, template.id, formatLocation(currentOrigin), seed));
+            LOG.debug("seat.attempt", () -> String.format("[STRUCT] Seat attempt %d/%d: structure='%s', location=%s, seed=%d",
+                    attemptNumber, MAX_RESEAT_ATTEMPTS, template.id, formatLocation(currentOrigin), seed));
             
             // T020a: Validate foundation for fluids BEFORE attempting terraforming/placement
             // This prevents placing buildings on water/lava (Constitution v1.5.0 water avoidance)
-            LOGGER.info(String.format("[STRUCT] DIAGNOSTIC: Validating site for '%s' at %s", 
+            LOG.debug("seat.validate", () -> String.format("[STRUCT] DIAGNOSTIC: Validating site for '%s' at %s", 
                     template.id, formatLocation(currentOrigin)));
             SiteValidator.ValidationResult siteValidation = siteValidator.validateSite(
                     world,
@@ -256,19 +268,19 @@ public class StructureServiceImpl implements StructureService {
                     template.dimensions[1]
             );
             
-            LOGGER.info(String.format("[STRUCT] DIAGNOSTIC: Validation result - passed=%b, foundationOk=%b, interiorAirOk=%b, entranceOk=%b",
+            LOG.debug("seat.validation_result", () -> String.format("[STRUCT] DIAGNOSTIC: Validation result - passed=%b, foundationOk=%b, interiorAirOk=%b, entranceOk=%b",
                     siteValidation.passed, siteValidation.foundationOk, 
                     siteValidation.interiorAirOk, siteValidation.entranceOk));
             
             // Hard reject if foundation has fluids or fails validation
             if (!siteValidation.passed) {
                 String rejectionReason = buildRejectionReason(siteValidation);
-                LOGGER.info(String.format("[STRUCT] DIAGNOSTIC: Seat rejected at attempt %d: %s",
-                        attempt + 1, rejectionReason));
+                LOG.debug("seat.rejected", () -> String.format("[STRUCT] DIAGNOSTIC: Seat rejected at attempt %d: %s",
+                        attemptNumber, rejectionReason));
                 continue; // Try next re-seat attempt
             }
             
-            LOGGER.info("[STRUCT] DIAGNOSTIC: Validation passed, preparing site");
+            LOG.debug("seat.validated", () -> "[STRUCT] DIAGNOSTIC: Validation passed, preparing site");
             
             // Prepare site with terraforming BEFORE placement
             // Once validation passes, we're committed to this site
@@ -280,14 +292,14 @@ public class StructureServiceImpl implements StructureService {
                     template.dimensions[1]
             );
             
-            LOGGER.info(String.format("[STRUCT] DIAGNOSTIC: Terraforming result=%b", terraformed));
+            LOG.debug("seat.terraformed", () -> String.format("[STRUCT] DIAGNOSTIC: Terraforming result=%b", terraformed));
             
             // Site prepared - perform actual placement
             // After terraforming, placement MUST succeed (already committed to this site)
-            LOGGER.info(String.format("[STRUCT] DIAGNOSTIC: Calling performActualPlacement for '%s' at %s",
+            LOG.debug("placement.perform", () -> String.format("[STRUCT] DIAGNOSTIC: Calling performActualPlacement for '%s' at %s",
                     template.id, formatLocation(currentOrigin)));
             boolean placed = performActualPlacement(template, world, currentOrigin, seed);
-            LOGGER.info(String.format("[STRUCT] DIAGNOSTIC: performActualPlacement returned %b for '%s'",
+            LOG.debug("placement.performed", () -> String.format("[STRUCT] DIAGNOSTIC: performActualPlacement returned %b for '%s'",
                     placed, template.id));
             
             if (!placed) {
@@ -301,8 +313,8 @@ public class StructureServiceImpl implements StructureService {
             
             if (placed) {
                 if (attempt > 0) {
-                    LOGGER.info(String.format("[STRUCT] Re-seat successful: structure='%s', final_location=%s, attempts=%d, seed=%d",
-                            template.id, formatLocation(currentOrigin), attempt + 1, seed));
+                    LOG.info("placement.reseated", () -> String.format("[STRUCT] Re-seat successful: structure='%s', final_location=%s, attempts=%d, seed=%d",
+                            template.id, formatLocation(currentOrigin), attemptNumber, seed));
                 }
                 return true;
             }
@@ -335,18 +347,18 @@ public class StructureServiceImpl implements StructureService {
      * Uses FAWE/WorldEdit if available and schematic is loaded, otherwise falls back to Paper API.
      */
     private boolean performActualPlacement(StructureTemplate template, World world, Location origin, long seed) {
-        LOGGER.info(String.format("[STRUCT] DIAGNOSTIC: performActualPlacement - clipboard=%s, faweAvailable=%b",
+        LOG.debug("placement.route", () -> String.format("[STRUCT] DIAGNOSTIC: performActualPlacement - clipboard=%s, faweAvailable=%b",
                 (template.clipboard != null ? "present" : "null"), faweAvailable));
         
         // If template has a schematic loaded, use WorldEdit/FAWE placement
         if (template.clipboard != null && faweAvailable) {
-            LOGGER.info(String.format("[STRUCT] DIAGNOSTIC: Routing to placeWorldEdit for '%s'", template.id));
+            LOG.debug("placement.route", () -> String.format("[STRUCT] DIAGNOSTIC: Routing to placeWorldEdit for '%s'", template.id));
             return placeWorldEdit(template, world, origin, seed);
         } else if (faweAvailable) {
-            LOGGER.info(String.format("[STRUCT] DIAGNOSTIC: Routing to placeFAWE for '%s'", template.id));
+            LOG.debug("placement.route", () -> String.format("[STRUCT] DIAGNOSTIC: Routing to placeFAWE for '%s'", template.id));
             return placeFAWE(template, world, origin, seed);
         } else {
-            LOGGER.info(String.format("[STRUCT] DIAGNOSTIC: Routing to placePaperAPI for '%s'", template.id));
+            LOG.debug("placement.route", () -> String.format("[STRUCT] DIAGNOSTIC: Routing to placePaperAPI for '%s'", template.id));
             return placePaperAPI(template, world, origin, seed);
         }
     }
@@ -355,44 +367,44 @@ public class StructureServiceImpl implements StructureService {
      * Place structure using WorldEdit/FAWE with actual schematic data.
      */
     private boolean placeWorldEdit(StructureTemplate template, World world, Location origin, long seed) {
-        LOGGER.info(String.format("[STRUCT] DIAGNOSTIC: placeWorldEdit ENTRY for '%s' at %s", 
+        LOG.debug("worldedit.step", () -> String.format("[STRUCT] DIAGNOSTIC: placeWorldEdit ENTRY for '%s' at %s", 
                 template.id, formatLocation(origin)));
         
         try {
-            LOGGER.info("[STRUCT] DIAGNOSTIC: Adapting world to WorldEdit");
+            LOG.debug("worldedit.step", () -> "[STRUCT] DIAGNOSTIC: Adapting world to WorldEdit");
             com.sk89q.worldedit.world.World weWorld = BukkitAdapter.adapt(world);
             
             // Use the validated and terraformed origin Y coordinate directly
             // (Do NOT recalculate ground level - that would ignore our site preparation)
             BlockVector3 weOrigin = BlockVector3.at(origin.getBlockX(), origin.getBlockY(), origin.getBlockZ());
-            LOGGER.info(String.format("[STRUCT] DIAGNOSTIC: weOrigin=%s", weOrigin));
+            LOG.debug("worldedit.step", () -> String.format("[STRUCT] DIAGNOSTIC: weOrigin=%s", weOrigin));
             
-            LOGGER.info("[STRUCT] DIAGNOSTIC: Creating EditSession");
+            LOG.debug("worldedit.step", () -> "[STRUCT] DIAGNOSTIC: Creating EditSession");
             try (EditSession editSession = WorldEdit.getInstance().newEditSession(weWorld)) {
-                LOGGER.info("[STRUCT] DIAGNOSTIC: Creating ClipboardHolder");
+                LOG.debug("worldedit.step", () -> "[STRUCT] DIAGNOSTIC: Creating ClipboardHolder");
                 ClipboardHolder holder = new ClipboardHolder(template.clipboard);
                 
                 // Apply deterministic rotation based on seed
                 Random random = new Random(seed);
                 int rotationDegrees = random.nextInt(4) * 90; // 0, 90, 180, or 270
-                LOGGER.info(String.format("[STRUCT] DIAGNOSTIC: Rotation=%d degrees", rotationDegrees));
+                LOG.debug("worldedit.step", () -> String.format("[STRUCT] DIAGNOSTIC: Rotation=%d degrees", rotationDegrees));
                 if (rotationDegrees > 0) {
                     AffineTransform transform = new AffineTransform();
                     holder.setTransform(holder.getTransform().combine(transform.rotateY(rotationDegrees)));
                 }
                 
-                LOGGER.info("[STRUCT] DIAGNOSTIC: Building paste operation");
+                LOG.debug("worldedit.step", () -> "[STRUCT] DIAGNOSTIC: Building paste operation");
                 // Paste structure
                 Operation operation = holder.createPaste(editSession)
                     .to(weOrigin)
                     .ignoreAirBlocks(false)
                     .build();
                 
-                LOGGER.info("[STRUCT] DIAGNOSTIC: Calling Operations.complete()");
+                LOG.debug("worldedit.step", () -> "[STRUCT] DIAGNOSTIC: Calling Operations.complete()");
                 Operations.complete(operation);
-                LOGGER.info("[STRUCT] DIAGNOSTIC: Operations.complete() finished successfully");
+                LOG.debug("worldedit.step", () -> "[STRUCT] DIAGNOSTIC: Operations.complete() finished successfully");
                 
-                LOGGER.info(String.format("[STRUCT] WorldEdit placement successful for '%s'", template.id));
+                LOG.info("worldedit.placed", () -> String.format("[STRUCT] WorldEdit placement successful for '%s'", template.id));
                 
                 // Foundation backfilling disabled - let structures sit naturally on terrain
                 // Previous aggressive backfilling created visible dirt walls and terracing
@@ -408,14 +420,14 @@ public class StructureServiceImpl implements StructureService {
                 LOGGER.fine(String.format("[STRUCT] Foundation backfilled for '%s': %d blocks", template.id, backfilled));
                 */
                 
-                LOGGER.info(String.format("[STRUCT] DIAGNOSTIC: About to return TRUE for '%s'", template.id));
+                LOG.debug("worldedit.step", () -> String.format("[STRUCT] DIAGNOSTIC: About to return TRUE for '%s'", template.id));
                 return true;
             }
             
         } catch (Exception e) {
-            LOGGER.warning(String.format("[STRUCT] DIAGNOSTIC: Exception caught in placeWorldEdit: %s", 
+            LOG.warn("worldedit.failed", () -> String.format("[STRUCT] DIAGNOSTIC: Exception caught in placeWorldEdit: %s", 
                     e.getClass().getName()));
-            LOGGER.warning(String.format("[STRUCT] WorldEdit placement failed for '%s': %s", 
+            LOG.warn("worldedit.failed", () -> String.format("[STRUCT] WorldEdit placement failed for '%s': %s", 
                     template.id, e.getMessage()));
             e.printStackTrace();
             return placePaperAPI(template, world, origin, seed);
@@ -426,7 +438,7 @@ public class StructureServiceImpl implements StructureService {
      * Place structure using FAWE (fast async world edit).
      */
     private boolean placeFAWE(StructureTemplate template, World world, Location origin, long seed) {
-        LOGGER.fine(String.format("[STRUCT] Using FAWE placement for '%s'", template.id));
+        LOG.debug("fawe.place", () -> String.format("[STRUCT] Using FAWE placement for '%s'", template.id));
         
         try {
             // FAWE integration pattern (requires FAWE dependency):
@@ -489,7 +501,7 @@ public class StructureServiceImpl implements StructureService {
             */
             
             // Until FAWE dependency is added, fall back to Paper API
-            LOGGER.fine("[STRUCT] FAWE implementation pending, using Paper API fallback");
+            LOG.debug("fawe.place", () -> "[STRUCT] FAWE implementation pending, using Paper API fallback");
             return placePaperAPI(template, world, origin, seed);
             
         } catch (Exception e) {
@@ -504,7 +516,7 @@ public class StructureServiceImpl implements StructureService {
      * Generates Roman-style architecture based on template ID.
      */
     private boolean placePaperAPI(StructureTemplate template, World world, Location origin, long seed) {
-        LOGGER.fine(String.format("[STRUCT] Using Paper API placement for '%s'", template.id));
+        LOG.debug("paper.place", () -> String.format("[STRUCT] Using Paper API placement for '%s'", template.id));
         
         // Create a Roman-style structure based on template dimensions
         int width = template.dimensions[0];
@@ -516,7 +528,7 @@ public class StructureServiceImpl implements StructureService {
         // Find actual ground level - search downward from origin to find solid ground
         int groundY = findGroundLevel(world, origin);
         
-        LOGGER.fine(String.format("[STRUCT] Ground level found at Y=%d (origin was Y=%d)", 
+        LOG.debug("paper.ground", () -> String.format("[STRUCT] Ground level found at Y=%d (origin was Y=%d)", 
                 groundY, origin.getBlockY()));
         
         // Build structure based on type
@@ -534,7 +546,7 @@ public class StructureServiceImpl implements StructureService {
                 buildRomanHouse(world, origin, groundY, width, height, depth, random, "generic");
             }
             
-            LOGGER.fine(String.format("[STRUCT] Paper API placement complete for '%s'", template.id));
+            LOG.debug("paper.placed", () -> String.format("[STRUCT] Paper API placement complete for '%s'", template.id));
             return true;
             
         } catch (Exception e) {
@@ -933,7 +945,7 @@ public class StructureServiceImpl implements StructureService {
         java.util.Arrays.sort(groundLevels);
         int medianY = groundLevels[2]; // Middle value
         
-        LOGGER.fine(String.format("[STRUCT] Ground levels checked: %d,%d,%d,%d,%d -> median=%d", 
+        LOG.debug("ground.median", () -> String.format("[STRUCT] Ground levels checked: %d,%d,%d,%d,%d -> median=%d", 
                 groundLevels[0], groundLevels[1], groundLevels[2], groundLevels[3], groundLevels[4], medianY));
         
         return medianY;
@@ -0,0 +1,171 @@
+package com.davisodom.villageoverhaul.core;
+
+import com.davisodom.villageoverhaul.commands.QueuedCommandHandler;
+import com.davisodom.villageoverhaul.economy.TradeInputHandler;
+import com.davisodom.villageoverhaul.economy.WalletService;
+import com.davisodom.villageoverhaul.projects.Project;
+import com.davisodom.villageoverhaul.projects.ProjectService;
+import com.davisodom.villageoverhaul.sim.StateSnapshot;
+import com.davisodom.villageoverhaul.villages.Village;
+import com.davisodom.villageoverhaul.villages.VillageService;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for recording tick inputs and replaying them headlessly to the same state.
+ */
+class ReplayRunnerTest {
+
+    private static final Logger LOGGER = Logger.getLogger(ReplayRunnerTest.class.getName());
+
+    private static TickEngine newEngine() {
+        return new TickEngine(LOGGER, null, new ManualTickScheduler(), TickClock.SYSTEM);
+    }
+
+    @Test
+    @DisplayName("Recorded tick inputs replay to the same state")
+    void testInputRecordingReplay() throws Exception {
+        long[] live = {0};
+        TickEngine engine = newInputEngine(live);
+
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        engine.startRecording(log);
+        for (int i = 1; i <= 20; i++) {
+            if (i % 3 == 0) {
+                engine.submitInput(TickInput.builder("test.add").varLong(i).string("v" + i).build());
+                engine.submitInput(TickInput.builder("test.add").varLong(-i).string("w").build());
+            }
+            engine.tick();
+        }
+        assertEquals(12, engine.stopRecording(), "Every applied input should be recorded");
+
+        long[] replayed = {0};
+        TickEngine replayEngine = newInputEngine(replayed);
+        ReplayRunner.Result result = new ReplayRunner(replayEngine)
+                .withStateProbe(out -> out.writeLong(replayed[0]))
+                .run(new ByteArrayInputStream(log.toByteArray()));
+
+        assertEquals(20, result.getTickCount(), "Replay should cover the recorded ticks");
+        assertEquals(12, result.getInputCount());
+        assertEquals(engine.getCurrentTick(), replayEngine.getCurrentTick(), "Replay should end on the final tick");
+        assertEquals(live[0], replayed[0], "Replayed state should match the live run");
+
+        long[] again = {0};
+        String digest = new ReplayRunner(newInputEngine(again))
+                .withStateProbe(out -> out.writeLong(again[0]))
+                .run(new ByteArrayInputStream(log.toByteArray()))
+                .getStateDigest();
+        assertEquals(result.getStateDigest(), digest, "Replays should be byte-for-byte identical");
+    }
+
+    @Test
+    @DisplayName("Trades and commands replay headlessly through the plugin's handlers")
+    void testReplayThroughPluginHandlers() throws Exception {
+        VillageService villages = new VillageService();
+        ProjectService projects = new ProjectService(LOGGER);
+        WalletService wallets = new WalletService();
+        Village village = villages.createVillage("roman", "Aquae", "world", 0, 64, 0);
+        Project well = projects.createProject(village.getId(), "well", 50, Collections.emptyList());
+        projects.activateProject(well.getId());
+        UUID player = new UUID(1, 2);
+        wallets.credit(player, 7);
+
+        TickEngine engine = newEngine();
+        registerPluginHandlers(engine, villages, projects, wallets);
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        engine.startRecording(log, StateSnapshot.capture(villages, projects, wallets));
+        for (int i = 0; i < 4; i++) {
+            engine.submitInput(TradeInputHandler.encode(player, village.getId(), 100));
+            engine.tick();
+        }
+        engine.submitInput(QueuedCommandHandler.command(QueuedCommandHandler.CONSOLE_SENDER,
+                new String[] {"project", "create", "Aquae", "forum", "1000"}));
+        engine.tick();
+        assertEquals(Project.Status.COMPLETE, well.getStatus(), "Three trades should fund the well");
+        Project forum = projects.getVillageProjects(village.getId()).get(1);
+        engine.submitInput(QueuedCommandHandler.command(QueuedCommandHandler.CONSOLE_SENDER,
+                new String[] {"project", "activate", forum.getId().toString()}));
+        engine.tick();
+        engine.submitInput(TradeInputHandler.encode(player, village.getId(), 100));
+        engine.tick();
+        engine.stopRecording();
+        assertEquals(20, forum.getProgressMillz(), "The live run should fund the activated project");
+
+        VillageService replayVillages = new VillageService();
+        ProjectService replayProjects = new ProjectService(LOGGER);
+        WalletService replayWallets = new WalletService();
+        TickEngine replayEngine = newEngine();
+        StateSnapshot.register(replayEngine, replayVillages, replayProjects, replayWallets);
+        registerPluginHandlers(replayEngine, replayVillages, replayProjects, replayWallets);
+        ReplayRunner.Result result = new ReplayRunner(replayEngine)
+                .run(new ByteArrayInputStream(log.toByteArray()));
+
+        assertEquals(3 + 7, result.getInputCount(), "3 snapshot and 7 recorded inputs should replay");
+        assertArrayEquals(state(villages, projects, wallets), state(replayVillages, replayProjects, replayWallets),
+                "Replayed villages, projects and wallets should match the live run");
+        assertEquals(Project.Status.ACTIVE, replayProjects.getProject(forum.getId()).get().getStatus(),
+                "The created project should get the same ID on replay");
+    }
+
+    private static void registerPluginHandlers(TickEngine engine, VillageService villages, ProjectService projects,
+                                               WalletService wallets) {
+        new TradeInputHandler(LOGGER, wallets, projects, villages).register(engine);
+        new QueuedCommandHandler(LOGGER, projects, villages).register(engine);
+    }
+
+    private static byte[] state(VillageService villages, ProjectService projects, WalletService wallets)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            StateSnapshot.writeState(out, villages, projects, wallets);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    @DisplayName("Corrupt lengths and indices in a log are rejected")
+    void testCorruptLogRejected() throws Exception {
+        assertCorrupt(1, 1L << 40, 0);                    // type name length far beyond the cap
+        assertCorrupt(1, 4, Integer.MAX_VALUE + 1L);      // payload length overflowing an int
+        assertCorrupt(7, 0, 0);                           // type index never declared
+        assertCorrupt(-1L, 0, 0);                         // index decoding to a negative value
+    }
+
+    private static void assertCorrupt(long index, long nameLength, long payloadLength) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(TickInputLog.MAGIC);
+        out.writeByte(TickInputLog.VERSION);
+        TickInputLog.writeVarLong(out, 0);
+        TickInputLog.writeVarLong(out, 1);
+        TickInputLog.writeVarLong(out, index);
+        TickInputLog.writeVarLong(out, nameLength);
+        out.write(new byte[(int) Math.min(nameLength, 4)]);
+        TickInputLog.writeVarLong(out, payloadLength);
+        out.flush();
+
+        try (TickInputLog.Reader reader = new TickInputLog.Reader(new ByteArrayInputStream(bytes.toByteArray()))) {
+            IOException e = assertThrows(IOException.class, reader::next);
+            assertTrue(e.getMessage().startsWith("Corrupt tick input log"), e.getMessage());
+        }
+    }
+
+    private TickEngine newInputEngine(long[] state) {
+        TickEngine engine = newEngine();
+        engine.registerInputHandler("test.add", (input, tick) -> {
+            TickInput.Reader payload = input.reader();
+            state[0] = state[0] * 31 + payload.varLong() * tick + payload.string().length();
+        });
+        engine.registerSystem("mix", tick -> state[0] ^= tick);
+        return engine;
+    }
+}
@@ -0,0 +1,93 @@
+package com.davisodom.villageoverhaul.core;
+
+import com.davisodom.villageoverhaul.obs.Metrics;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for degrading, suspending and probing a failing global system.
+ */
+class SystemCircuitBreakerTest {
+
+    private static final Logger LOGGER = Logger.getLogger(SystemCircuitBreakerTest.class.getName());
+
+    private static TickEngine newEngine(Metrics metrics) {
+        return new TickEngine(LOGGER, metrics, new ManualTickScheduler(), TickClock.SYSTEM);
+    }
+
+    @Test
+    @DisplayName("Circuit breaker degrades, suspends and probes a failing system back to health")
+    void testCircuitBreaker() {
+        Metrics metrics = new Metrics(LOGGER);
+        TickEngine engine = newEngine(metrics);
+        // Degrade after 2, suspend after 4, degraded every 5 ticks, close after 2 healthy, probe after 10
+        engine.setBreakerSettings(new SystemCircuitBreaker.Settings(12000, 2, 4, 5, 2, 10));
+
+        boolean[] failing = {true};
+        List<Long> runs = new ArrayList<>();
+        engine.registerSystem("runaway", tick -> {
+            runs.add(tick);
+            if (failing[0]) {
+                throw new IllegalStateException("simulated overrun");
+            }
+        });
+        SystemCircuitBreaker breaker = engine.getBreakers().iterator().next();
+
+        for (int i = 0; i < 2; i++) {
+            engine.tick();
+        }
+        assertEquals(SystemCircuitBreaker.State.DEGRADED, breaker.getState(), "Should degrade after 2 overruns");
+
+        for (int i = 0; i < 10; i++) {
+            engine.tick();
+        }
+        assertEquals(SystemCircuitBreaker.State.SUSPENDED, breaker.getState(), "Should suspend after 4 overruns");
+        assertEquals(1, metrics.getGauge("tick.breaker.suspended"));
+
+        failing[0] = false;
+        for (int i = 0; i < 28; i++) {
+            engine.tick();
+        }
+        assertEquals(SystemCircuitBreaker.State.CLOSED, breaker.getState(), "Healthy probe should recover the system");
+        assertEquals(Arrays.asList(1L, 2L, 7L, 12L, 22L, 27L, 32L, 33L, 34L, 35L, 36L, 37L, 38L, 39L, 40L), runs,
+                "System should run at full rate, degraded rate, then only on the probe");
+        assertEquals(4, metrics.getCounter("tick.breaker.transitions"));
+
+        failing[0] = true;
+        for (int i = 0; i < 2; i++) {
+            engine.tick();
+        }
+        assertEquals(SystemCircuitBreaker.State.DEGRADED, breaker.getState());
+        assertTrue(engine.resetBreaker("runaway"));
+        assertEquals(SystemCircuitBreaker.State.CLOSED, breaker.getState(), "Operator reset should close the breaker");
+    }
+
+    @Test
+    @DisplayName("A probed system that overruns again before closing is suspended again")
+    void testOverrunStreakKeptWhileDegraded() {
+        // Degrade after 2, suspend after 4, degraded every 5 ticks, close after 3 healthy, probe after 10
+        SystemCircuitBreaker breaker = new SystemCircuitBreaker("flaky",
+                new SystemCircuitBreaker.Settings(12000, 2, 4, 5, 3, 10));
+        breaker.record(1, 0, true);
+        breaker.record(2, 0, true);
+        breaker.record(7, 0, true);
+        breaker.record(12, 0, true);
+        assertEquals(SystemCircuitBreaker.State.SUSPENDED, breaker.getState());
+
+        assertTrue(breaker.shouldRun(22));
+        breaker.record(22, 0, false);
+        assertEquals(SystemCircuitBreaker.State.DEGRADED, breaker.getState(), "Healthy probe should degrade");
+        breaker.record(27, 0, false);
+        assertEquals(4, breaker.getConsecutiveOverruns(), "A healthy degraded run should keep the streak");
+
+        breaker.record(32, 0, true);
+        assertEquals(SystemCircuitBreaker.State.SUSPENDED, breaker.getState(),
+                "An overrun before closing should suspend again");
+    }
+}
@@ -0,0 +1,107 @@
+package com.davisodom.villageoverhaul.core;
+
+import com.davisodom.villageoverhaul.obs.Metrics;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the tick loop itself: steady-state ticks must not allocate.
+ */
+class TickEngineTest {
+
+    private static final Logger LOGGER = Logger.getLogger(TickEngineTest.class.getName());
+
+    private static TickEngine newEngine() {
+        return new TickEngine(LOGGER, null, new ManualTickScheduler(), TickClock.SYSTEM);
+    }
+
+    @Test
+    @DisplayName("Steady-state ticks do not allocate")
+    void testSteadyStateTickDoesNotAllocate() {
+        TickEngine engine = newEngine();
+        engine.setParallelism(0);
+        long[] work = new long[4];
+        registerSystems(engine, work);
+
+        assertEquals(0, steadyStateAllocatedBytes(engine), "Tick loop should allocate 0 bytes/tick in steady state");
+        assertTrue(work[3] > 0, "Village system should have run");
+    }
+
+    @Test
+    @DisplayName("Steady-state ticks do not allocate with metrics, village profiling and parallel systems")
+    void testSteadyStateTickWithMetricsDoesNotAllocate() {
+        Metrics metrics = new Metrics(LOGGER);
+        TickEngine engine = new TickEngine(LOGGER, metrics, new ManualTickScheduler(), TickClock.SYSTEM);
+        engine.setParallelism(2);
+        engine.setVillageChunkSize(16);
+        long[] work = new long[4];
+        registerSystems(engine, work);
+        Object result = new Object();
+        engine.registerParallelSystem("village-parallel", new TickEngine.ParallelTickableSystem<UUID, Object>() {
+            @Override
+            public UUID snapshot(UUID villageId, long tick) {
+                return villageId;
+            }
+
+            @Override
+            public Object compute(UUID villageId, UUID snapshot, long tick, long elapsedTicks) {
+                return result;
+            }
+
+            @Override
+            public void apply(UUID villageId, Object computed, long tick) {
+                work[3]++;
+            }
+        });
+
+        assertEquals(0, steadyStateAllocatedBytes(engine), "Metrics and profiling should not allocate per tick");
+        assertTrue(metrics.getVillageCosts().isEnabled(), "Village profiling is on by default");
+        assertTrue(work[3] > 0, "Village systems should have run");
+        engine.stop();
+    }
+
+    private static void registerSystems(TickEngine engine, long[] work) {
+        engine.registerSystem("declared", tick -> work[0] += tick, new TickEngine.SystemAccess().writes("a"));
+        engine.registerSystem("independent", tick -> work[1] += tick, new TickEngine.SystemAccess().writes("b"));
+        engine.registerSystem("legacy", tick -> work[2] += tick);
+        List<UUID> villages = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            villages.add(new UUID(0L, i));
+        }
+        engine.setVillageSource(() -> villages, () -> 1L);
+        engine.registerVillageSystem("village-test", (villageId, tick, elapsedTicks) -> work[3] += elapsedTicks);
+    }
+
+    /**
+     * Bytes allocated by the ticking thread over 1000 warm ticks (best of several windows)
+     */
+    private static long steadyStateAllocatedBytes(TickEngine engine) {
+        java.lang.management.ThreadMXBean threads = java.lang.management.ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threads instanceof com.sun.management.ThreadMXBean,
+                "Allocation counters not available on this JVM");
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        long threadId = Thread.currentThread().getId();
+
+        // Warm up (schedule build, pass snapshot, JIT)
+        for (int i = 0; i < 5000; i++) {
+            engine.tick();
+        }
+
+        // Best of several windows, so a logged budget violation (GC pause) cannot fail the test
+        long best = Long.MAX_VALUE;
+        for (int window = 0; window < 5 && best > 0; window++) {
+            long before = allocations.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < 1000; i++) {
+                engine.tick();
+            }
+            best = Math.min(best, allocations.getThreadAllocatedBytes(threadId) - before);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,48 @@
+package com.davisodom.villageoverhaul.core;
+
+import org.junit.jupiter.api.*;
+
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for grouping declared global systems into dependency phases.
+ */
+class TickScheduleTest {
+
+    private static final Logger LOGGER = Logger.getLogger(TickScheduleTest.class.getName());
+
+    private static TickEngine newEngine() {
+        return new TickEngine(LOGGER, null, new ManualTickScheduler(), TickClock.SYSTEM);
+    }
+
+    @Test
+    @DisplayName("Declared systems are grouped into dependency phases")
+    void testDependencyPhases() {
+        TickEngine engine = newEngine();
+
+        StringBuilder order = new StringBuilder();
+
+        engine.registerSystem("projects", tick -> order.append("P"),
+                new TickEngine.SystemAccess().writes("projects"));
+        engine.registerSystem("appearance", tick -> order.append("A"),
+                new TickEngine.SystemAccess().reads("npcs"));
+        engine.registerSystem("economy", tick -> order.append("E"),
+                new TickEngine.SystemAccess().reads("projects").writes("wallets"));
+        engine.registerSystem("legacy", tick -> order.append("L"));
+
+        engine.tick();
+        assertEquals("PAEL", order.toString(), "Phases should run in dependency order");
+
+        String[] phases = engine.describeSchedule().split("\n");
+        assertTrue(phases[0].contains("projects(") && phases[0].contains("appearance("),
+                "Independent systems should share the first phase");
+        assertTrue(phases[1].contains("economy(") && phases[1].contains("after projects"),
+                "Reader of projects should run after its writer");
+        assertTrue(phases[2].contains("legacy("), "Undeclared systems should run in their own phase");
+
+        assertThrows(IllegalArgumentException.class, () -> engine.registerSystem("orphan", tick -> { },
+                new TickEngine.SystemAccess().dependsOn("missing")));
+    }
+}
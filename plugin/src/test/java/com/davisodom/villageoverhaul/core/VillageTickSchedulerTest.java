@@ -0,0 +1,267 @@
+package com.davisodom.villageoverhaul.core;
+
+import com.davisodom.villageoverhaul.obs.Metrics;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the village round-robin: carry-over under budget, passes within one tick and
+ * level-of-detail tiers.
+ */
+class VillageTickSchedulerTest {
+
+    private static final Logger LOGGER = Logger.getLogger(VillageTickSchedulerTest.class.getName());
+
+    private static TickEngine newEngine() {
+        return new TickEngine(LOGGER, null, new ManualTickScheduler(), TickClock.SYSTEM);
+    }
+
+    @Test
+    @DisplayName("Village systems round-robin in UUID order and carry over under budget")
+    void testVillageRoundRobinCarryOver() {
+        TickEngine engine = newEngine();
+
+        UUID a = new UUID(0L, 1L);
+        UUID b = new UUID(0L, 2L);
+        UUID c = new UUID(0L, 3L);
+        List<UUID> visits = new ArrayList<>();
+        List<Long> elapsed = new ArrayList<>();
+
+        engine.setVillageSource(() -> Arrays.asList(c, a, b));
+        engine.setVillageBudgetMicros(0); // Zero budget: exactly one village per tick
+        engine.registerVillageSystem("village-test", (villageId, tick, elapsedTicks) -> {
+            visits.add(villageId);
+            elapsed.add(elapsedTicks);
+        });
+
+        for (int i = 0; i < 6; i++) {
+            engine.tick();
+        }
+
+        assertEquals(Arrays.asList(a, b, c, a, b, c), visits, "Villages should be visited round-robin in UUID order");
+        assertEquals(Arrays.asList(1L, 1L, 1L, 3L, 3L, 3L), elapsed, "Elapsed ticks should cover the skipped ticks");
+        assertEquals(0, engine.getVillageBacklog(), "Pass should be complete after 6 ticks");
+    }
+
+    @Test
+    @DisplayName("Village pass completes in one tick when budget allows")
+    void testVillagePassWithinBudget() {
+        TickEngine engine = newEngine();
+
+        List<String> order = new ArrayList<>();
+        UUID a = new UUID(0L, 1L);
+        UUID b = new UUID(0L, 2L);
+
+        engine.setVillageSource(() -> Arrays.asList(b, a));
+        engine.setVillageBudgetMicros(TickEngine.DEFAULT_VILLAGE_BUDGET_MICROS);
+        engine.registerVillageSystem("first", (villageId, tick, elapsedTicks) -> order.add("1:" + villageId.getLeastSignificantBits()));
+        engine.registerVillageSystem("second", (villageId, tick, elapsedTicks) -> order.add("2:" + villageId.getLeastSignificantBits()));
+
+        engine.tick();
+
+        assertEquals(Arrays.asList("1:1", "2:1", "1:2", "2:2"), order,
+            "Systems should run in registration order within each village");
+        assertEquals(2, engine.getVillagesTickedLastTick());
+
+        // A village is never visited twice in the same tick
+        order.clear();
+        engine.tick();
+        assertEquals(4, order.size(), "Next tick should start a fresh pass");
+    }
+
+    @Test
+    @DisplayName("Village LOD tiers throttle visits and frozen villages catch up on thaw")
+    void testVillageLodTiers() {
+        TickEngine engine = newEngine();
+
+        UUID near = new UUID(0L, 1L);
+        UUID far = new UUID(0L, 2L);
+        UUID unloaded = new UUID(0L, 3L);
+        Map<UUID, TickEngine.LodTier> tiers = new HashMap<>();
+        tiers.put(near, TickEngine.LodTier.FULL);
+        tiers.put(far, TickEngine.LodTier.REDUCED);
+        tiers.put(unloaded, TickEngine.LodTier.FULL);
+        long[] generation = {0L};
+
+        Map<UUID, List<Long>> elapsed = new HashMap<>();
+        engine.setVillageSource(() -> Arrays.asList(near, far, unloaded));
+        engine.setLodPolicy(new TickEngine.VillageLodPolicy() {
+            @Override
+            public TickEngine.LodTier tierOf(UUID villageId) {
+                return tiers.get(villageId);
+            }
+
+            @Override
+            public long getGeneration() {
+                return generation[0];
+            }
+        });
+        // All villages fit in one chunk, so every tick reaches them regardless of wall-clock budget
+        engine.setParallelism(0);
+        engine.registerParallelSystem("village-test", new TickEngine.ParallelTickableSystem<UUID, Long>() {
+            @Override
+            public UUID snapshot(UUID villageId, long tick) {
+                return villageId;
+            }
+
+            @Override
+            public Long compute(UUID villageId, UUID snapshot, long tick, long elapsedTicks) {
+                return elapsedTicks;
+            }
+
+            @Override
+            public void apply(UUID villageId, Long elapsedTicks, long tick) {
+                elapsed.computeIfAbsent(villageId, id -> new ArrayList<>()).add(elapsedTicks);
+            }
+        });
+
+        for (int i = 1; i <= 60; i++) {
+            if (i == 11 || i == 51) {
+                // Chunk unloads at tick 11 and reloads at tick 51
+                tiers.put(unloaded, i == 11 ? TickEngine.LodTier.FROZEN : TickEngine.LodTier.FULL);
+                generation[0]++;
+            }
+            engine.tick();
+        }
+
+        assertEquals(60, elapsed.get(near).size(), "Full-rate village should be visited every tick");
+        assertEquals(Arrays.asList(1L, 20L, 20L), elapsed.get(far), "Reduced village should be visited every 20 ticks");
+        List<Long> thawed = elapsed.get(unloaded);
+        assertEquals(20, thawed.size(), "Frozen village should only tick while loaded");
+        assertEquals(41L, thawed.get(10), "First visit after thaw should cover the frozen span");
+
+        int[] counts = engine.getLodTierCounts();
+        assertEquals(2, counts[TickEngine.LodTier.FULL.ordinal()]);
+        assertEquals(1, counts[TickEngine.LodTier.REDUCED.ordinal()]);
+    }
+
+    @Test
+    @DisplayName("Backlog and LOD tier counts are published as gauges each tick")
+    void testSchedulerGauges() {
+        Metrics metrics = new Metrics(LOGGER);
+        TickEngine engine = new TickEngine(LOGGER, metrics, new ManualTickScheduler(), TickClock.SYSTEM);
+        UUID near = new UUID(0L, 1L);
+        UUID far = new UUID(0L, 2L);
+        engine.setVillageSource(() -> Arrays.asList(near, far));
+        engine.setLodPolicy(villageId -> villageId.equals(near) ? TickEngine.LodTier.FULL : TickEngine.LodTier.DISTANT);
+        engine.setVillageBudgetMicros(0); // One village per tick
+        engine.registerVillageSystem("village-test", (villageId, tick, elapsedTicks) -> { });
+
+        engine.tick();
+        assertEquals(1, metrics.getGauge("village.backlog"));
+        engine.tick();
+        assertEquals(0, metrics.getGauge("village.backlog"));
+        assertEquals(1, metrics.getGauge("village.lod.full"));
+        assertEquals(1, metrics.getGauge("village.lod.distant"));
+        assertEquals(0, metrics.getGauge("village.lod.frozen"));
+    }
+
+    @Test
+    @DisplayName("Invalidating one village re-evaluates only its tier")
+    void testInvalidateLod() {
+        TickEngine engine = newEngine();
+        UUID moved = new UUID(0L, 1L);
+        UUID other = new UUID(0L, 2L);
+        Map<UUID, TickEngine.LodTier> tiers = new HashMap<>();
+        tiers.put(moved, TickEngine.LodTier.REDUCED);
+        tiers.put(other, TickEngine.LodTier.REDUCED);
+        Map<UUID, Integer> evaluations = new HashMap<>();
+        Map<UUID, List<Long>> visits = new HashMap<>();
+        engine.setVillageSource(() -> Arrays.asList(moved, other));
+        engine.setLodPolicy(villageId -> {
+            evaluations.merge(villageId, 1, Integer::sum);
+            return tiers.get(villageId);
+        });
+        engine.registerVillageSystem("village-test", (villageId, tick, elapsedTicks) ->
+                visits.computeIfAbsent(villageId, id -> new ArrayList<>()).add(tick));
+
+        for (int i = 1; i <= 5; i++) {
+            engine.tick();
+        }
+        tiers.put(moved, TickEngine.LodTier.FULL);
+        tiers.put(other, TickEngine.LodTier.FULL);
+        engine.invalidateLod(moved);
+        for (int i = 6; i <= 10; i++) {
+            engine.tick();
+        }
+
+        assertEquals(6, visits.get(moved).size(), "Invalidated village should switch to full rate at once");
+        assertEquals(1, visits.get(other).size(), "Other village keeps its cached tier until it expires");
+        assertEquals(1, evaluations.get(other).intValue(), "Other village should not be re-evaluated early");
+    }
+
+    @Test
+    @DisplayName("Villages that are not due are not touched until their interval elapses")
+    void testOnlyDueVillagesTouched() {
+        TickEngine engine = newEngine();
+        List<UUID> villages = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            villages.add(new UUID(0L, i + 1));
+        }
+        int[] evaluations = {0};
+        engine.setVillageSource(() -> villages);
+        engine.setLodPolicy(villageId -> {
+            evaluations[0]++;
+            return TickEngine.LodTier.DISTANT;
+        });
+        engine.registerVillageSystem("village-test", (villageId, tick, elapsedTicks) -> { });
+
+        int interval = TickEngine.LodTier.DISTANT.getInterval();
+        for (int i = 1; i <= interval; i++) {
+            engine.tick();
+            assertEquals(0, engine.getVillagesSkippedLastTick(), "Villages on the wheel should not be re-checked");
+        }
+        assertEquals(50, evaluations[0], "Each village should be evaluated once per interval");
+
+        for (int i = 1; i <= interval; i++) {
+            engine.tick();
+        }
+        assertEquals(100, evaluations[0]);
+    }
+
+    @Test
+    @DisplayName("Gathering a chunk stops at the deadline and carries the rest over")
+    void testGatherStopsAtDeadline() {
+        TickEngine engine = newEngine();
+        UUID a = new UUID(0L, 1L);
+        UUID b = new UUID(0L, 2L);
+        UUID c = new UUID(0L, 3L);
+        List<UUID> visits = new ArrayList<>();
+        engine.setVillageSource(() -> Arrays.asList(a, b, c));
+        engine.setVillageBudgetMicros(0); // Deadline already passed: one village per tick
+        engine.setParallelism(0);
+        engine.registerParallelSystem("village-test", new TickEngine.ParallelTickableSystem<UUID, UUID>() {
+            @Override
+            public UUID snapshot(UUID villageId, long tick) {
+                return villageId;
+            }
+
+            @Override
+            public UUID compute(UUID villageId, UUID snapshot, long tick, long elapsedTicks) {
+                return snapshot;
+            }
+
+            @Override
+            public void apply(UUID villageId, UUID result, long tick) {
+                visits.add(villageId);
+            }
+        });
+
+        engine.tick();
+        assertEquals(Arrays.asList(a), visits, "Chunk should be cut short at the deadline");
+        assertEquals(2, engine.getVillageBacklog());
+        engine.tick();
+        engine.tick();
+        assertEquals(Arrays.asList(a, b, c), visits);
+        assertEquals(0, engine.getVillageBacklog());
+    }
+}
@@ -0,0 +1,109 @@
+package com.davisodom.villageoverhaul.core;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for stepping resumable jobs from the work queue within the leftover tick budget.
+ */
+class WorkQueueTest {
+
+    private static final Logger LOGGER = Logger.getLogger(WorkQueueTest.class.getName());
+
+    private static TickEngine newEngine() {
+        return new TickEngine(LOGGER, null, new ManualTickScheduler(), TickClock.SYSTEM);
+    }
+
+    @Test
+    @DisplayName("Work queue steps jobs round-robin within the leftover budget")
+    void testWorkQueue() {
+        TickEngine engine = newEngine();
+        engine.setWorkTargetMicros(0); // No spare budget: exactly one step per tick
+
+        List<String> steps = new ArrayList<>();
+        int[] remaining = {3, 2};
+        JobHandle a = engine.submitJob("a", tick -> {
+            steps.add("a" + tick);
+            return --remaining[0] == 0;
+        });
+        JobHandle b = engine.submitJob("b", tick -> {
+            steps.add("b" + tick);
+            return --remaining[1] == 0;
+        });
+        assertEquals(2, engine.getJobQueueDepth());
+
+        for (int i = 0; i < 5; i++) {
+            engine.tick();
+            assertEquals(1, engine.getJobStepsLastTick(), "One step per tick without spare budget");
+        }
+        assertEquals(Arrays.asList("a1", "b2", "a3", "b4", "a5"), steps, "Jobs should alternate round-robin");
+        assertEquals(JobHandle.State.DONE, a.getState());
+        assertEquals(JobHandle.State.DONE, b.getState());
+        assertTrue(a.getCompletion().isDone() && b.getCompletion().isDone());
+        assertEquals(0, engine.getJobQueueDepth());
+
+        // With budget to spare a short job finishes within one tick
+        engine.setWorkTargetMicros(1_000_000);
+        int[] left = {5};
+        JobHandle c = engine.submitJob("c", tick -> --left[0] == 0);
+        engine.tick();
+        assertEquals(JobHandle.State.DONE, c.getState(), "Job should finish in a single tick");
+        assertEquals(5, c.getSteps());
+
+        engine.setWorkTargetMicros(0);
+        JobHandle failing = engine.submitJob("failing", tick -> {
+            throw new IllegalStateException("simulated failure");
+        });
+        JobHandle endless = engine.submitJob("endless", tick -> false);
+        engine.tick();
+        assertEquals(JobHandle.State.FAILED, failing.getState());
+        assertTrue(failing.getCompletion().isCompletedExceptionally());
+
+        endless.cancel();
+        engine.tick();
+        assertEquals(JobHandle.State.CANCELLED, endless.getState());
+        assertTrue(endless.getCompletion().isCancelled());
+        assertEquals(0, engine.getJobQueueDepth());
+    }
+
+    @Test
+    @DisplayName("Cancelled and shut-down jobs are told they were dropped")
+    void testCancelledHook() {
+        TickEngine engine = newEngine();
+        engine.setWorkTargetMicros(0);
+        List<String> dropped = new ArrayList<>();
+        JobHandle cancelled = engine.submitJob("cancelled", droppable("cancelled", dropped));
+        engine.submitJob("pending", droppable("pending", dropped));
+        engine.tick();
+        assertTrue(dropped.isEmpty());
+
+        cancelled.cancel();
+        engine.tick(); // "pending" is next in the round-robin
+        engine.tick();
+        assertEquals(JobHandle.State.CANCELLED, cancelled.getState());
+        assertEquals(Arrays.asList("cancelled"), dropped);
+
+        engine.stop();
+        assertEquals(Arrays.asList("cancelled", "pending"), dropped, "Shutdown drops the remaining job");
+    }
+
+    private static TickJob droppable(String name, List<String> dropped) {
+        return new TickJob() {
+            @Override
+            public boolean step(long tick) {
+                return false;
+            }
+
+            @Override
+            public void cancelled() {
+                dropped.add(name);
+            }
+        };
+    }
+}
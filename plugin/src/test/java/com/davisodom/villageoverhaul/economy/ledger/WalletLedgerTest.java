@@ -0,0 +1,208 @@
+package com.davisodom.villageoverhaul.economy.ledger;
+
+import com.davisodom.villageoverhaul.economy.WalletService;
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the wallet ledger: replay after a crash, torn tails, damaged segments and
+ * snapshots replacing the log.
+ */
+class WalletLedgerTest {
+
+    private static final Logger LOGGER = Logger.getLogger("WalletLedgerTest");
+
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+    private final UUID village = UUID.randomUUID();
+
+    private static WalletLedger ledger(File dir, long segmentBytes) {
+        return new WalletLedger(dir, LOGGER, new WalletLedger.Settings(5, segmentBytes, 0, 5000), null);
+    }
+
+    /**
+     * Copy of the ledger directory as it is right now, as if the server died at this point
+     */
+    private static File crashCopy(File dir) throws IOException {
+        File copy = Files.createTempDirectory("ledger-crash").toFile();
+        for (File file : dir.listFiles()) {
+            Files.copy(file.toPath(), new File(copy, file.getName()).toPath());
+        }
+        return copy;
+    }
+
+    private static File[] segments(File dir) {
+        File[] files = dir.listFiles((d, name) -> name.endsWith(WalletLedger.SEGMENT_SUFFIX));
+        Arrays.sort(files);
+        return files;
+    }
+
+    @Test
+    @DisplayName("Only successful mutations are logged and replay restores balances")
+    void testReplay() throws Exception {
+        File dir = Files.createTempDirectory("ledger").toFile();
+        WalletLedger ledger = ledger(dir, WalletLedger.Settings.DEFAULT_SEGMENT_BYTES);
+        assertTrue(ledger.open().isEmpty());
+
+        WalletService wallets = new WalletService();
+        wallets.setJournal(ledger);
+        wallets.credit(alice, 1000);
+        assertTrue(wallets.transfer(alice, bob, 300));
+        assertFalse(wallets.transfer(alice, bob, 5000), "Insufficient funds");
+        assertTrue(wallets.debit(bob, 100));
+        assertFalse(wallets.debit(village, 1), "Empty wallet");
+        assertEquals(3, ledger.getLastSeq(), "Failed mutations are not logged");
+        assertTrue(ledger.sync(5000));
+        assertEquals(3, ledger.getDurableSeq());
+
+        WalletLedger crashed = ledger(crashCopy(dir), WalletLedger.Settings.DEFAULT_SEGMENT_BYTES);
+        Map<UUID, Long> balances = crashed.open();
+        crashed.close();
+        assertEquals(700L, (long) balances.get(alice));
+        assertEquals(200L, (long) balances.get(bob));
+        assertFalse(balances.containsKey(village));
+
+        WalletService restored = new WalletService();
+        balances.forEach(restored::loadWallet);
+        assertEquals(700L, restored.getBalanceMillz(alice));
+        assertTrue(ledger.close());
+    }
+
+    @Test
+    @DisplayName("A torn record at the end of the log is cut off and logging continues after it")
+    void testTornTail() throws Exception {
+        File dir = Files.createTempDirectory("ledger").toFile();
+        WalletLedger ledger = ledger(dir, WalletLedger.Settings.DEFAULT_SEGMENT_BYTES);
+        ledger.open();
+        for (int i = 0; i < 10; i++) {
+            ledger.credited(alice, 10);
+        }
+        assertTrue(ledger.sync(5000));
+        File crashed = crashCopy(dir);
+        ledger.close();
+
+        // Half-written last record
+        File segment = segments(crashed)[0];
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.setLength(file.length() - 7);
+        }
+        WalletLedger recovered = ledger(crashed, WalletLedger.Settings.DEFAULT_SEGMENT_BYTES);
+        assertEquals(90L, (long) recovered.open().get(alice));
+        assertEquals(9, recovered.getLastSeq());
+        recovered.credited(alice, 5);
+        assertTrue(recovered.sync(5000));
+        recovered.close();
+        WalletLedger reopened = ledger(crashed, WalletLedger.Settings.DEFAULT_SEGMENT_BYTES);
+        assertEquals(95L, (long) reopened.open().get(alice));
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("A damaged record in an older segment fails the open instead of losing money silently")
+    void testCorruptSegment() throws Exception {
+        File dir = Files.createTempDirectory("ledger").toFile();
+        WalletLedger ledger = ledger(dir, 256);
+        ledger.open();
+        for (int i = 0; i < 40; i++) {
+            ledger.transferred(alice, bob, 1);
+            assertTrue(ledger.sync(5000));
+        }
+        File crashed = crashCopy(dir);
+        ledger.close();
+        assertTrue(segments(crashed).length > 2, "Segments roll at the size limit");
+
+        File older = segments(crashed)[0];
+        try (RandomAccessFile file = new RandomAccessFile(older, "rw")) {
+            file.seek(WalletLedger.SEGMENT_HEADER_BYTES + LedgerRecord.HEADER_BYTES + 20);
+            file.write(0x5A);
+        }
+        assertThrows(IOException.class, () -> ledger(crashed, 256).open());
+    }
+
+    @Test
+    @DisplayName("Snapshots replace the log and replay starts after the snapshot")
+    void testSnapshot() throws Exception {
+        File dir = Files.createTempDirectory("ledger").toFile();
+        WalletLedger ledger = ledger(dir, 256);
+        ledger.open();
+        for (int i = 0; i < 30; i++) {
+            ledger.credited(village, 100);
+        }
+        assertTrue(ledger.snapshot(5000));
+        assertEquals(30, ledger.getSnapshotSeq());
+        assertEquals(1, segments(dir).length, "Covered segments are deleted");
+
+        ledger.debited(village, 250);
+        assertTrue(ledger.sync(5000));
+        WalletLedger crashed = ledger(crashCopy(dir), 256);
+        assertEquals(2750L, (long) crashed.open().get(village));
+        assertEquals(31, crashed.getLastSeq());
+        crashed.close();
+
+        assertTrue(ledger.close(), "Close writes a final snapshot");
+        WalletLedger reopened = ledger(dir, 256);
+        assertEquals(2750L, (long) reopened.open().get(village));
+        assertEquals(31, reopened.getSnapshotSeq());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Records appended while a snapshot is taken survive two crashes in a row")
+    void testSnapshotDuringAppends() throws Exception {
+        // Long commit window: records appended after the snapshot stay buffered until a sync
+        WalletLedger.Settings settings = new WalletLedger.Settings(60_000, 256, 0, 5000);
+        File crashed = null;
+        long snapshotSeq = 0;
+        for (int attempt = 0; attempt < 50 && crashed == null; attempt++) {
+            File dir = Files.createTempDirectory("ledger").toFile();
+            WalletLedger ledger = new WalletLedger(dir, LOGGER, settings, null);
+            ledger.open();
+            ledger.credited(alice, 1);
+            AtomicBoolean stop = new AtomicBoolean();
+            Thread appender = new Thread(() -> {
+                while (!stop.get()) {
+                    ledger.credited(alice, 1);
+                }
+            });
+            appender.start();
+            assertTrue(ledger.snapshot(5000));
+            stop.set(true);
+            appender.join();
+
+            // Crash before the next commit; only useful if the snapshot got ahead of the log
+            File copy = crashCopy(dir);
+            snapshotSeq = ledger.getSnapshotSeq();
+            File[] files = segments(copy);
+            long newestBase = Long.parseLong(files[files.length - 1].getName().replace(WalletLedger.SEGMENT_SUFFIX, ""));
+            if (newestBase <= snapshotSeq) {
+                crashed = copy;
+            }
+            ledger.close();
+        }
+        assertNotNull(crashed, "Snapshot never overtook the durable log");
+
+        WalletLedger recovered = new WalletLedger(crashed, LOGGER, settings, null);
+        assertEquals(snapshotSeq, (long) recovered.open().get(alice));
+        assertEquals(snapshotSeq, recovered.getLastSeq());
+        recovered.credited(alice, 5);
+        assertTrue(recovered.sync(5000));
+        File crashedAgain = crashCopy(crashed);
+        recovered.close();
+
+        WalletLedger reopened = new WalletLedger(crashedAgain, LOGGER, settings, null);
+        assertEquals(snapshotSeq + 5, (long) reopened.open().get(alice));
+        assertEquals(snapshotSeq + 1, reopened.getLastSeq());
+        reopened.close();
+    }
+}
@@ -0,0 +1,144 @@
+package com.davisodom.villageoverhaul.obs;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the log-bucketed latency histograms behind Metrics.TickTimeStats
+ */
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Percentiles stay within the relative error bound")
+    void testRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        SplittableRandom random = new SplittableRandom(7);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // Log-uniform from 1us to ~16s
+            values[i] = (long) Math.pow(2, random.nextDouble() * 24);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(values.length, snapshot.getCount());
+        assertEquals(values[0], snapshot.getMin());
+        assertEquals(values[values.length - 1], snapshot.getMax());
+        for (double percentile : new double[]{50, 90, 95, 99, 99.9, 99.99}) {
+            long exact = values[(int) Math.ceil(values.length * percentile / 100.0) - 1];
+            long estimate = snapshot.getPercentile(percentile);
+            assertTrue(Math.abs(estimate - exact) <= Math.max(1, exact / 32),
+                    "p" + percentile + ": exact " + exact + ", estimate " + estimate);
+        }
+    }
+
+    @Test
+    @DisplayName("Small values are exact and huge values are clamped")
+    void testRange() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 0; v < 64; v++) {
+            histogram.record(v);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(31, snapshot.getPercentile(50));
+        assertEquals(63, snapshot.getPercentile(100));
+
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(-5);
+        snapshot = histogram.snapshot();
+        assertEquals(Long.MAX_VALUE, snapshot.getMax());
+        assertEquals(0, snapshot.getMin());
+        assertTrue(snapshot.getPercentile(100) >= LatencyHistogram.MAX_TRACKABLE / 2);
+    }
+
+    @Test
+    @DisplayName("Merged snapshots match recording into one histogram")
+    void testMerge() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        LatencyHistogram both = new LatencyHistogram();
+        for (int i = 1; i <= 5000; i++) {
+            (i % 3 == 0 ? a : b).record(i * 7L);
+            both.record(i * 7L);
+        }
+        LatencyHistogram.Snapshot merged = a.snapshot().merge(b.snapshot());
+        LatencyHistogram.Snapshot expected = both.snapshot();
+        assertEquals(expected.getCount(), merged.getCount());
+        assertEquals(expected.getSum(), merged.getSum());
+        assertEquals(expected.getMin(), merged.getMin());
+        assertEquals(expected.getMax(), merged.getMax());
+        assertEquals(expected.getPercentile(99.9), merged.getPercentile(99.9));
+
+        assertThrows(IllegalArgumentException.class, () -> a.snapshot().merge(new LatencyHistogram(5).snapshot()));
+    }
+
+    @Test
+    @DisplayName("Sliding windows age out old slices")
+    void testWindows() {
+        AtomicLong now = new AtomicLong(1_000_000L);
+        WindowedHistogram histogram = new WindowedHistogram(LatencyHistogram.DEFAULT_PRECISION_BITS, now::get);
+        histogram.record(1000);
+
+        now.addAndGet(2 * 60_000L);
+        histogram.record(10);
+        assertEquals(1, histogram.snapshot(WindowedHistogram.Window.ONE_MINUTE).getCount());
+        assertEquals(10, histogram.snapshot(WindowedHistogram.Window.ONE_MINUTE).getMax());
+        assertEquals(2, histogram.snapshot(WindowedHistogram.Window.FIVE_MINUTES).getCount());
+
+        now.addAndGet(10 * 60_000L);
+        assertEquals(0, histogram.snapshot(WindowedHistogram.Window.FIVE_MINUTES).getCount());
+        assertEquals(2, histogram.snapshot(WindowedHistogram.Window.FIFTEEN_MINUTES).getCount());
+
+        // A full lap of the ring recycles every slice
+        now.addAndGet(16 * 60_000L);
+        histogram.record(20);
+        assertEquals(1, histogram.snapshot(WindowedHistogram.Window.FIFTEEN_MINUTES).getCount());
+        assertEquals(3, histogram.snapshot().getCount(), "All-time view keeps every sample");
+    }
+
+    @Test
+    @DisplayName("Concurrent writers lose no samples")
+    void testConcurrentRecording() throws Exception {
+        WindowedHistogram histogram = new WindowedHistogram();
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            final int offset = t;
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    histogram.record(offset * 1000L + i % 1000);
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        assertEquals(400_000, histogram.snapshot().getCount());
+        assertEquals(3999, histogram.snapshot().getMax());
+    }
+
+    @Test
+    @DisplayName("TickTimeStats reports p99.9 over the 5-minute window")
+    void testTickTimeStats() {
+        Metrics.TickTimeStats stats = new Metrics.TickTimeStats();
+        // 5 minutes at 20 TPS with a 40ms spike every 500 ticks (0.2% of ticks)
+        for (int i = 0; i < 6000; i++) {
+            stats.record(i % 500 == 499 ? 40_000 : 2_000);
+        }
+        assertEquals(6000, stats.getCount());
+        assertTrue(Math.abs(stats.getP99Micros() - 2_000) <= 2_000 / 32);
+        assertTrue(Math.abs(stats.getP999Micros() - 40_000) <= 40_000 / 32, "p99.9 = " + stats.getP999Micros());
+        assertEquals(40_000, stats.getMaxMicros());
+
+        Metrics.TickTimeStats village = new Metrics.TickTimeStats(false);
+        village.record(1500);
+        assertFalse(village.isWindowed());
+        assertEquals(1, village.getSnapshot(WindowedHistogram.Window.ONE_MINUTE).getCount());
+    }
+}
@@ -0,0 +1,114 @@
+package com.davisodom.villageoverhaul.obs;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for metric handles and the string compatibility API.
+ */
+class MetricsTest {
+
+    private static final Logger LOGGER = Logger.getLogger(MetricsTest.class.getName());
+
+    @Test
+    @DisplayName("Handles and string methods share the same metric")
+    void testHandlesShareState() {
+        Metrics metrics = new Metrics(LOGGER);
+        Metrics.Counter spawns = metrics.counter("npc.spawns");
+        assertSame(spawns, metrics.counter("npc.spawns"), "Handles should be interned by name");
+
+        spawns.inc();
+        metrics.increment("npc.spawns");
+        metrics.increment("npc.spawns", 3);
+        assertEquals(5, spawns.get());
+        assertEquals(5, metrics.getCounter("npc.spawns"));
+        assertEquals(Long.valueOf(5), metrics.getSnapshot().counters.get("npc.spawns"));
+
+        Metrics.Gauge depth = metrics.gauge("tick.work.queue_depth");
+        metrics.setGauge("tick.work.queue_depth", 42);
+        assertEquals(42, depth.get());
+        depth.set(7);
+        assertEquals(7, metrics.getGauge("tick.work.queue_depth"));
+
+        assertSame(metrics.timer("work"), metrics.getOrCreateTickTimeStats("work"));
+    }
+
+    @Test
+    @DisplayName("Concurrent increments are not lost")
+    void testConcurrentIncrements() throws InterruptedException {
+        Metrics metrics = new Metrics(LOGGER);
+        Metrics.Counter trades = metrics.counter("trade.completed");
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    trades.inc();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(800_000, metrics.getCounter("trade.completed"));
+    }
+
+    @Test
+    @DisplayName("Reset zeroes metrics without invalidating cached handles")
+    void testResetKeepsHandles() {
+        Metrics metrics = new Metrics(LOGGER);
+        Metrics.Counter spawns = metrics.counter("npc.spawns");
+        Metrics.Gauge profile = metrics.gauge("perf.profile");
+        spawns.add(10);
+        profile.set(2);
+
+        metrics.reset();
+        assertEquals(0, metrics.getCounter("npc.spawns"));
+        assertEquals(0, metrics.getGauge("perf.profile"));
+
+        spawns.inc();
+        assertEquals(1, metrics.getCounter("npc.spawns"), "Cached handle should still feed the registry");
+    }
+
+    @Test
+    @DisplayName("Resource stats record thread CPU time and allocated bytes")
+    void testResourceStats() {
+        Metrics metrics = new Metrics(LOGGER);
+        Metrics.ResourceStats placement = metrics.resources("placement");
+        assertSame(placement, metrics.resources("placement"));
+
+        ThreadResources.setEnabled(false);
+        placement.recordSince(ThreadResources.cpuNanos(), ThreadResources.allocatedBytes());
+        assertEquals(0, placement.getCount(), "Disabled measurement should be skipped");
+
+        if (!ThreadResources.setEnabled(true) || !ThreadResources.isAllocationEnabled()) {
+            return; // JVM without the HotSpot ThreadMXBean extension
+        }
+        try {
+            long cpu = ThreadResources.cpuNanos();
+            long alloc = ThreadResources.allocatedBytes();
+            List<long[]> garbage = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                garbage.add(new long[1024]); // ~512KB
+            }
+            placement.recordSince(cpu, alloc);
+            assertEquals(64, garbage.size());
+
+            assertEquals(1, placement.getAllocationSnapshot().getCount());
+            assertTrue(placement.getAllocationSnapshot().getSum() >= 64 * 1024 * 8,
+                    "Allocated bytes: " + placement.getAllocationSnapshot().getSum());
+            assertSame(placement, metrics.getSnapshot().resourceStats.get("placement"));
+
+            metrics.reset();
+            assertEquals(0, placement.getCount());
+        } finally {
+            ThreadResources.setEnabled(false);
+        }
+    }
+}
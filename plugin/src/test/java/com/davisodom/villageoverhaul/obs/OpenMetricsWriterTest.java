@@ -0,0 +1,118 @@
+package com.davisodom.villageoverhaul.obs;
+
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the OpenMetrics exposition written by the /metrics endpoint.
+ */
+class OpenMetricsWriterTest {
+
+    private static final Logger LOGGER = Logger.getLogger(OpenMetricsWriterTest.class.getName());
+
+    private String write(Metrics metrics) throws IOException {
+        StringWriter out = new StringWriter();
+        OpenMetricsWriter writer = new OpenMetricsWriter(out, LOGGER);
+        writer.writeMetrics(metrics);
+        writer.finish();
+        return out.toString();
+    }
+
+    @Test
+    @DisplayName("Counters, gauges and tick summaries use OpenMetrics families")
+    void testFamilies() throws IOException {
+        Metrics metrics = new Metrics(LOGGER);
+        metrics.increment("tick.work.steps", 3);
+        metrics.setGauge("perf.profile", 2);
+        for (int i = 1; i <= 100; i++) {
+            metrics.recordTickTime("tick", i * 100L);
+        }
+
+        String text = write(metrics);
+        assertTrue(text.contains("# TYPE vo_tick_work_steps counter\n"), text);
+        assertTrue(text.contains("vo_tick_work_steps_total 3\n"), text);
+        assertTrue(text.contains("# TYPE vo_perf_profile gauge\n"), text);
+        assertTrue(text.contains("vo_perf_profile 2\n"), text);
+        assertTrue(text.contains("# TYPE vo_tick_duration_seconds summary\n"), text);
+        assertTrue(text.contains("# UNIT vo_tick_duration_seconds seconds\n"), text);
+        assertTrue(text.contains("vo_tick_duration_seconds{subsystem=\"tick\",quantile=\"0.99\"} "), text);
+        assertTrue(text.contains("vo_tick_duration_seconds_count{subsystem=\"tick\"} 100\n"), text);
+        assertTrue(text.endsWith("# EOF\n"), "Exposition must end with the EOF marker");
+    }
+
+    @Test
+    @DisplayName("CPU time and allocations are exported per subsystem")
+    void testResourceFamilies() throws IOException {
+        Metrics metrics = new Metrics(LOGGER);
+        metrics.resources("npc").record(2_000_000L, 4096);
+        metrics.resources("npc").record(-1L, 1024);
+
+        String text = write(metrics);
+        assertTrue(text.contains("# UNIT vo_cpu_seconds seconds\n"), text);
+        assertTrue(text.contains("vo_cpu_seconds_count{subsystem=\"npc\"} 1\n"), text);
+        assertTrue(text.contains("vo_cpu_seconds_sum{subsystem=\"npc\"} 0.002\n"), text);
+        assertTrue(text.contains("# UNIT vo_allocated_bytes bytes\n"), text);
+        assertTrue(text.contains("vo_allocated_bytes_count{subsystem=\"npc\"} 2\n"), text);
+        assertTrue(text.contains("vo_allocated_bytes_sum{subsystem=\"npc\"} 5120\n"), text);
+    }
+
+    @Test
+    @DisplayName("Only the most expensive villages are exported individually")
+    void testVillageCardinality() throws IOException {
+        Metrics metrics = new Metrics(LOGGER);
+        UUID slowest = null;
+        for (int v = 0; v < 50; v++) {
+            UUID id = new UUID(0, v);
+            for (int i = 0; i < 20; i++) {
+                metrics.recordVillageTickTime(id, 100L + v * 10L);
+            }
+            slowest = id;
+        }
+
+        String text = write(metrics);
+        int labelled = 0;
+        for (String line : text.split("\n")) {
+            if (line.startsWith("vo_village_top_tick_p99_seconds{")) {
+                labelled++;
+            }
+        }
+        assertEquals(OpenMetricsWriter.TOP_VILLAGES, labelled);
+        assertTrue(text.contains("vo_village_top_tick_p99_seconds{village=\"" + slowest + "\"}"),
+                "Slowest village should be exported");
+        assertTrue(text.contains("vo_village_tick_duration_seconds_count 1000\n"), text);
+        assertTrue(text.contains("vo_village_tracked 50\n"), text);
+    }
+
+    @Test
+    @DisplayName("A family written twice is skipped and the scrape still ends with EOF")
+    void testDuplicateFamily() throws IOException {
+        Metrics metrics = new Metrics(LOGGER);
+        metrics.setGauge("village.backlog", 4);
+        StringWriter out = new StringWriter();
+        OpenMetricsWriter writer = new OpenMetricsWriter(out, LOGGER);
+        writer.writeMetrics(metrics);
+        writer.gauge("vo_village_backlog", "Backlog", 7);
+        writer.gauge("vo_villages", "Registered villages", 2);
+        writer.finish();
+
+        String text = out.toString();
+        assertEquals(text.indexOf("# TYPE vo_village_backlog gauge"), text.lastIndexOf("# TYPE vo_village_backlog gauge"));
+        assertTrue(text.contains("vo_village_backlog 4\n"));
+        assertFalse(text.contains("vo_village_backlog 7"));
+        assertTrue(text.contains("vo_villages 2\n"));
+        assertTrue(text.endsWith("# EOF\n"));
+    }
+
+    @Test
+    @DisplayName("Names are sanitized to the OpenMetrics character set")
+    void testSanitize() {
+        assertEquals("tick_work_steps", OpenMetricsWriter.sanitize("tick.work.steps"));
+        assertEquals("perf_profile_high_entered", OpenMetricsWriter.sanitize("perf.profile.high-entered"));
+    }
+}
@@ -0,0 +1,126 @@
+package com.davisodom.villageoverhaul.obs;
+
+import com.davisodom.villageoverhaul.core.ManualTickScheduler;
+import com.davisodom.villageoverhaul.core.TickEngine;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for per-village cost attribution.
+ */
+class VillageCostProfilerTest {
+
+    private static final Logger LOGGER = Logger.getLogger(VillageCostProfilerTest.class.getName());
+
+    @Test
+    @DisplayName("Top villages are ranked by total charged time")
+    void testTopRanking() {
+        VillageCostProfiler profiler = new VillageCostProfiler();
+        for (int v = 1; v <= 20; v++) {
+            UUID id = new UUID(0, v);
+            profiler.charge(id, VillageCostProfiler.Source.TICK, v * 1000L);
+            if (v == 3) {
+                profiler.charge(id, VillageCostProfiler.Source.PATH, 1_000_000L);
+            }
+        }
+
+        List<VillageCostProfiler.Entry> top = profiler.top(10);
+        assertEquals(10, top.size());
+        assertEquals(new UUID(0, 3), top.get(0).getVillageId(), "Path-heavy village should rank first");
+        assertEquals(VillageCostProfiler.Source.PATH, top.get(0).getDominantSource());
+        assertEquals(new UUID(0, 20), top.get(1).getVillageId());
+        for (int i = 1; i < top.size(); i++) {
+            assertTrue(top.get(i - 1).getTotalNanos() >= top.get(i).getTotalNanos(), "Ranking must be descending");
+        }
+        assertEquals(20, profiler.getTrackedVillages());
+
+        profiler.reset();
+        assertTrue(profiler.top(10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Sampled events are all counted but only some are timed")
+    void testSampling() {
+        VillageCostProfiler profiler = new VillageCostProfiler(4);
+        UUID id = new UUID(0, 1);
+        int sampled = 0;
+        for (int i = 0; i < 100; i++) {
+            long start = profiler.begin(VillageCostProfiler.Source.NPC);
+            if (start != VillageCostProfiler.NOT_SAMPLED) {
+                sampled++;
+            }
+            profiler.end(id, VillageCostProfiler.Source.NPC, start);
+        }
+        assertEquals(25, sampled);
+        assertEquals(100, profiler.get(id).getEvents(VillageCostProfiler.Source.NPC));
+
+        profiler.setEnabled(false);
+        profiler.end(id, VillageCostProfiler.Source.NPC, profiler.begin(VillageCostProfiler.Source.NPC));
+        assertEquals(100, profiler.get(id).getEvents(VillageCostProfiler.Source.NPC), "Disabled profiler must not count");
+    }
+
+    @Test
+    @DisplayName("Bracketed events are charged thread CPU time, not time spent blocked")
+    void testCpuTime() throws Exception {
+        boolean wasEnabled = ThreadResources.isEnabled();
+        ThreadResources.setEnabled(true);
+        try {
+            VillageCostProfiler profiler = new VillageCostProfiler();
+            UUID id = new UUID(0, 1);
+            long start = profiler.begin(VillageCostProfiler.Source.PATH);
+            Thread.sleep(50);
+            profiler.end(id, VillageCostProfiler.Source.PATH, start);
+
+            long charged = profiler.get(id).getNanos(VillageCostProfiler.Source.PATH);
+            if (ThreadResources.isCpuTimeEnabled()) {
+                assertTrue(charged < 25_000_000L, "Sleeping should not be charged, got " + charged + "ns");
+            } else {
+                assertTrue(charged >= 50_000_000L, "Without CPU time the wall time is charged, got " + charged + "ns");
+            }
+        } finally {
+            ThreadResources.setEnabled(wasEnabled);
+        }
+    }
+
+    @Test
+    @DisplayName("Village visits are charged to the village and checked against the budget")
+    void testTickEngineAttribution() {
+        Logger logger = Logger.getLogger("VillageCostProfilerTest-engine");
+        logger.setLevel(Level.SEVERE);
+        Metrics metrics = new Metrics(logger);
+        metrics.setVillageBudgetMicros(2000);
+
+        // Every clock read advances 1μs; the slow village burns 3ms per visit
+        long[] now = {0};
+        UUID slow = new UUID(0, 7);
+        List<UUID> villages = new ArrayList<>();
+        for (int v = 1; v <= 12; v++) {
+            villages.add(new UUID(0, v));
+        }
+        ManualTickScheduler scheduler = new ManualTickScheduler();
+        TickEngine engine = new TickEngine(logger, metrics, scheduler, () -> now[0] += 1000);
+        engine.setVillageSource(() -> villages);
+        engine.registerVillageSystem("village-test", (villageId, tick, elapsedTicks) -> {
+            if (villageId.equals(slow)) {
+                now[0] += 3_000_000;
+            }
+        });
+        engine.start();
+        scheduler.runTicks(50, 0);
+        engine.stop();
+
+        VillageCostProfiler.Entry top = metrics.getVillageCosts().top(1).get(0);
+        assertEquals(slow, top.getVillageId());
+        assertTrue(top.getEvents(VillageCostProfiler.Source.TICK) > 0);
+        assertTrue(metrics.getVillageTickTimeStats(slow).getMaxMicros() >= 3000);
+        assertTrue(metrics.getCounter("village.budget.exceeded") > 0, "Slow village should exceed the budget");
+        assertTrue(metrics.getVillageTickTimeStats(new UUID(0, 1)).getMaxMicros() < 2000);
+    }
+}
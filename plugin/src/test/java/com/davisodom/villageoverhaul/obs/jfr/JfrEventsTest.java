@@ -0,0 +1,120 @@
+package com.davisodom.villageoverhaul.obs.jfr;
+
+import com.davisodom.villageoverhaul.economy.WalletService;
+import com.davisodom.villageoverhaul.projects.Project;
+import com.davisodom.villageoverhaul.projects.ProjectService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the JFR event switch and the economy events.
+ */
+class JfrEventsTest {
+
+    private static final Logger LOGGER = Logger.getLogger(JfrEventsTest.class.getName());
+
+    @AfterEach
+    void disable() {
+        JfrEvents.setEnabled(false);
+    }
+
+    @Test
+    @DisplayName("Instrumented paths record nothing while disabled")
+    void testDisabledCreatesNothing() throws Exception {
+        JfrEvents.setEnabled(false);
+        WalletService wallets = new WalletService();
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        wallets.credit(alice, 500);
+
+        Path file = Files.createTempFile("vo-jfr", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(WalletTransferEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+            assertTrue(wallets.transfer(alice, bob, 200));
+            recording.stop();
+            recording.dump(file);
+        }
+        try {
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                assertNotEquals("villageoverhaul.WalletTransfer", event.getEventType().getName());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Wallet transfers and project contributions are recorded")
+    void testEconomyEventsRecorded() throws Exception {
+        JfrEvents.setEnabled(true);
+
+        WalletService wallets = new WalletService();
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        wallets.credit(alice, 500);
+
+        ProjectService projects = new ProjectService(LOGGER);
+        UUID villageId = UUID.randomUUID();
+        Project project = projects.createProject(villageId, "test_house", 1000, Collections.emptyList());
+        projects.activateProject(project.getId());
+
+        Path file = Files.createTempFile("vo-jfr", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(WalletTransferEvent.class).withThreshold(Duration.ZERO);
+            recording.enable(ProjectContributionEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+
+            assertTrue(wallets.transfer(alice, bob, 200));
+            assertFalse(wallets.transfer(bob, alice, 900), "Insufficient funds");
+            projects.contribute(project.getId(), alice, 1200);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> transfers = new ArrayList<>();
+        List<RecordedEvent> contributions = new ArrayList<>();
+        try {
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                String name = event.getEventType().getName();
+                if (name.equals("villageoverhaul.WalletTransfer")) {
+                    transfers.add(event);
+                } else if (name.equals("villageoverhaul.ProjectContribution")) {
+                    contributions.add(event);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        assertEquals(2, transfers.size());
+        RecordedEvent ok = transfers.get(0).getBoolean("success") ? transfers.get(0) : transfers.get(1);
+        RecordedEvent failed = ok == transfers.get(0) ? transfers.get(1) : transfers.get(0);
+        assertEquals(alice.toString(), ok.getString("from"));
+        assertEquals(bob.toString(), ok.getString("to"));
+        assertEquals(200, ok.getLong("amountMillz"));
+        assertFalse(failed.getBoolean("success"));
+
+        assertEquals(1, contributions.size());
+        RecordedEvent contribution = contributions.get(0);
+        assertEquals(villageId.toString(), contribution.getString("villageId"));
+        assertEquals(1200, contribution.getLong("attemptedMillz"));
+        assertEquals(1000, contribution.getLong("acceptedMillz"));
+        assertEquals(200, contribution.getLong("overflowMillz"));
+        assertTrue(contribution.getBoolean("completed"));
+    }
+}
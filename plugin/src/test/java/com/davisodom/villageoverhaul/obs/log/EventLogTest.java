@@ -0,0 +1,239 @@
+package com.davisodom.villageoverhaul.obs.log;
+
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the sampled event log and its async appender.
+ */
+class EventLogTest {
+
+    private Logger target;
+    private List<LogRecord> records;
+
+    @BeforeEach
+    void setUp() {
+        EventLog.reset();
+        records = Collections.synchronizedList(new ArrayList<>());
+        target = Logger.getLogger("villageoverhaul.test.eventlog");
+        target.setUseParentHandlers(false);
+        for (Handler handler : target.getHandlers()) {
+            target.removeHandler(handler);
+        }
+        target.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                records.add(record);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        target.setLevel(Level.INFO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        EventLog.reset();
+    }
+
+    @Test
+    @DisplayName("Debug messages are not built unless debug is enabled")
+    void testDebugDisabledSkipsSupplier() {
+        EventLogger log = EventLog.getLogger(LogCategory.PATHS, target);
+        AtomicInteger built = new AtomicInteger();
+
+        for (int i = 0; i < 10; i++) {
+            log.debug("astar.start", () -> "message " + built.incrementAndGet());
+        }
+
+        assertFalse(log.isDebugEnabled());
+        assertEquals(0, built.get(), "Supplier must not run while debug is off");
+        assertTrue(records.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debug events are sampled 1 in N and only sampled ones are built")
+    void testDebugSampling() {
+        target.setLevel(Level.FINE);
+        EventLog.configure(LogCategory.PATHS, new EventLog.CategorySettings(4, 0));
+        EventLogger log = EventLog.getLogger(LogCategory.PATHS, target);
+        AtomicInteger built = new AtomicInteger();
+
+        for (int i = 0; i < 20; i++) {
+            log.debug("astar.start", () -> "search " + built.incrementAndGet());
+        }
+
+        assertEquals(5, built.get());
+        assertEquals(5, records.size());
+        assertEquals(Level.FINE, records.get(0).getLevel());
+        assertEquals(15, EventLog.getSampledOut());
+    }
+
+    @Test
+    @DisplayName("Info events bypass sampling and rate limits")
+    void testInfoNeverDropped() {
+        EventLog.configure(LogCategory.STRUCTURES, new EventLog.CategorySettings(10, 1));
+        EventLogger log = EventLog.getLogger(LogCategory.STRUCTURES, target);
+
+        for (int i = 0; i < 50; i++) {
+            log.info("placement.begin", "[STRUCT] Begin placement");
+        }
+
+        assertEquals(50, records.size());
+        assertEquals(0, EventLog.getRateLimited());
+    }
+
+    @Test
+    @DisplayName("Rate limiter rejects past the cap and reports the suppressed count")
+    void testRateLimiter() {
+        RateLimiter limiter = new RateLimiter();
+        long t = 5_000_000_000L;
+
+        assertEquals(0, limiter.tryAcquire(3, t));
+        assertEquals(0, limiter.tryAcquire(3, t + 1));
+        assertEquals(0, limiter.tryAcquire(3, t + 2));
+        assertEquals(-1, limiter.tryAcquire(3, t + 3));
+        assertEquals(-1, limiter.tryAcquire(3, t + 4));
+
+        // Next window: first accepted event carries the suppressed count
+        assertEquals(2, limiter.tryAcquire(3, t + 1_000_000_000L));
+        assertEquals(0, limiter.tryAcquire(3, t + 1_000_000_001L));
+        assertEquals(0, limiter.tryAcquire(0, t), "0 = unlimited");
+    }
+
+    @Test
+    @DisplayName("Async appender delivers every event in order on its own thread")
+    void testAsyncDelivery() throws Exception {
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        LogSink sink = event -> {
+            threads.add(Thread.currentThread().getName());
+            messages.add(event.getMessage());
+        };
+        EventLog.start(new AsyncLogAppender(target, Collections.singletonList(sink), 1024, 10));
+        EventLogger log = EventLog.getLogger(LogCategory.STRUCTURES, target);
+
+        for (int i = 0; i < 500; i++) {
+            int n = i;
+            log.info("queue.progress", () -> "event " + n);
+        }
+        EventLog.shutdown();
+
+        assertEquals(500, messages.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals("event " + i, messages.get(i));
+        }
+        assertFalse(threads.contains(Thread.currentThread().getName()), "Sinks must run on the writer thread");
+        assertTrue(records.isEmpty(), "Only the configured sinks receive events");
+    }
+
+    @Test
+    @DisplayName("A full buffer drops events instead of blocking the caller")
+    void testFullBufferDrops() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch writing = new CountDownLatch(1);
+        AtomicInteger delivered = new AtomicInteger();
+        LogSink slowSink = event -> {
+            writing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            delivered.incrementAndGet();
+        };
+        AsyncLogAppender appender = new AsyncLogAppender(target, Collections.singletonList(slowSink), 8, 10);
+        EventLog.start(appender);
+        EventLogger log = EventLog.getLogger(LogCategory.STRUCTURES, target);
+
+        log.info("first", "first");
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) {
+            log.info("burst", "burst");
+        }
+        long dropped = appender.getDropped();
+        release.countDown();
+        EventLog.shutdown();
+
+        assertEquals(8, appender.getCapacity());
+        assertTrue(dropped >= 100 - 8, "Expected drops, got " + dropped);
+        assertEquals(101, delivered.get() + dropped);
+    }
+
+    @Test
+    @DisplayName("Severe events are published synchronously when the buffer is full")
+    void testSevereNotDroppedWhenFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch writing = new CountDownLatch(1);
+        LogSink blockedSink = event -> {
+            writing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        AsyncLogAppender appender = new AsyncLogAppender(target, Collections.singletonList(blockedSink), 8, 10);
+        EventLog.start(appender);
+        EventLogger log = EventLog.getLogger(LogCategory.STRUCTURES, target);
+
+        log.info("first", "first");
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 20; i++) {
+            log.info("burst", "burst");
+        }
+        assertEquals(8, appender.getPending(), "The ring should be full");
+        long dropped = appender.getDropped();
+        log.severe("failure", "still reported");
+        try {
+            assertEquals(dropped, appender.getDropped(), "A severe event should not count as dropped");
+            assertEquals(1, records.size(), "The severe event should bypass the full ring");
+            assertEquals(Level.SEVERE, records.get(0).getLevel());
+            assertTrue(records.get(0).getMessage().contains("still reported"), records.get(0).getMessage());
+        } finally {
+            release.countDown();
+            EventLog.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("JSON lines sink escapes messages and records the suppressed count")
+    void testJsonLinesSink() throws Exception {
+        File file = File.createTempFile("vo-events", ".jsonl");
+        try {
+            JsonLinesFileSink sink = new JsonLinesFileSink(file, 1024 * 1024);
+            sink.write(new LogEvent(0L, Level.WARNING, LogCategory.PATHS, "astar.failed",
+                    "[PATH] \"quoted\"\nnext", target, "Server thread", 3));
+            sink.close();
+
+            List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+            assertEquals(1, lines.size());
+            assertEquals("{\"ts\":\"1970-01-01T00:00:00Z\",\"level\":\"WARNING\",\"category\":\"paths\","
+                    + "\"event\":\"astar.failed\",\"thread\":\"Server thread\",\"logger\":\"villageoverhaul.test.eventlog\","
+                    + "\"msg\":\"[PATH] \\\"quoted\\\"\\nnext\",\"suppressed\":3}", lines.get(0));
+        } finally {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.davisodom.villageoverhaul.obs.stream;
+
+import com.davisodom.villageoverhaul.obs.Metrics;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for delta coalescing, domain event delivery and dropping slow subscribers.
+ */
+class LiveEventHubTest {
+
+    private static final Logger LOGGER = Logger.getLogger(LiveEventHubTest.class.getName());
+
+    @AfterEach
+    void uninstall() {
+        LiveEvents.setHub(null);
+    }
+
+    /**
+     * Run the subscriber's writer until its queue is empty, then return what it wrote
+     */
+    private static String drain(LiveSubscriber subscriber, ByteArrayOutputStream out) throws Exception {
+        Thread writer = new Thread(subscriber);
+        writer.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (subscriber.getQueued() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        subscriber.close("test");
+        writer.join(5000);
+        return out.toString(StandardCharsets.UTF_8.name());
+    }
+
+    private static List<String> eventTypes(String stream) {
+        List<String> types = new ArrayList<>();
+        for (String line : stream.split("\n")) {
+            if (line.startsWith("event: ")) {
+                types.add(line.substring("event: ".length()));
+            }
+        }
+        return types;
+    }
+
+    @Test
+    @DisplayName("Snapshot first, then only changed values and published events")
+    void testSnapshotThenDeltas() throws Exception {
+        Metrics metrics = new Metrics(LOGGER);
+        metrics.increment("villages.generated", 3);
+        metrics.setGauge("queue.depth", 5);
+        metrics.setGauge("npc.count", 40);
+        LiveEventHub hub = new LiveEventHub(LOGGER, metrics, LiveEventHub.Settings.defaults(), null);
+        LiveEvents.setHub(hub);
+        assertFalse(LiveEvents.isActive(), "No subscribers yet");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LiveSubscriber subscriber = hub.subscribe(out, null);
+        assertTrue(LiveEvents.isActive());
+        hub.flush();
+
+        metrics.increment("villages.generated", 2);
+        metrics.setGauge("queue.depth", 6);
+        LiveEvents.publish("project.completed", "projectId", "p-1", "costMillz", 500L);
+        hub.flush();
+        hub.flush(); // Nothing changed: no frame
+
+        String stream = drain(subscriber, out);
+        assertEquals(List.of("snapshot", "metrics", "project.completed"), eventTypes(stream), stream);
+        String[] frames = stream.split("\n\n");
+        assertTrue(frames[0].contains("\"villages.generated\":3"), frames[0]);
+        assertTrue(frames[0].contains("\"npc.count\":40"), frames[0]);
+        assertTrue(frames[1].contains("\"counters\":{\"villages.generated\":2}"), "Counter delta: " + frames[1]);
+        assertTrue(frames[1].contains("\"gauges\":{\"queue.depth\":6}"), "Only the changed gauge: " + frames[1]);
+        assertTrue(frames[2].contains("\"projectId\":\"p-1\""), frames[2]);
+        assertTrue(frames[2].contains("\"costMillz\":500"), frames[2]);
+        long lastId = 0;
+        for (String frame : frames) {
+            long id = Long.parseLong(frame.substring("id: ".length(), frame.indexOf('\n')));
+            assertTrue(id > lastId, "Event IDs increase: " + stream);
+            lastId = id;
+        }
+    }
+
+    @Test
+    @DisplayName("A subscriber that stops reading is dropped without blocking the hub")
+    void testSlowSubscriberDropped() throws Exception {
+        Metrics metrics = new Metrics(LOGGER);
+        LiveEventHub hub = new LiveEventHub(LOGGER, metrics, new LiveEventHub.Settings(50, 4, 2), null);
+        LiveEvents.setHub(hub);
+
+        // Never started: its queue fills up
+        LiveSubscriber stalled = hub.subscribe(new ByteArrayOutputStream(), null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LiveSubscriber healthy = hub.subscribe(out, null);
+        assertNull(hub.subscribe(new ByteArrayOutputStream(), null), "Subscriber limit reached");
+
+        Thread writer = new Thread(healthy);
+        writer.start();
+        for (int i = 0; i < 50; i++) {
+            LiveEvents.publish("village.generated", "buildings", i);
+            hub.flush();
+            Thread.sleep(2);
+        }
+
+        assertTrue(stalled.isClosed());
+        assertEquals("slow", stalled.getCloseReason());
+        assertEquals(1, hub.getDroppedSubscribers());
+        assertEquals(1, hub.getSubscribers().size());
+        assertFalse(healthy.isClosed(), "Reading subscriber keeps up");
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (healthy.getQueued() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        healthy.close("test");
+        writer.join(5000);
+        assertTrue(out.toString(StandardCharsets.UTF_8.name()).contains("\"buildings\":49"));
+        assertTrue(hub.getSubscribers().isEmpty(), "Closed writer unsubscribes itself");
+    }
+
+    @Test
+    @DisplayName("Dropping a subscriber releases a writer blocked on its socket")
+    void testDroppedWriterExits() throws Exception {
+        Metrics metrics = new Metrics(LOGGER);
+        LiveEventHub hub = new LiveEventHub(LOGGER, metrics, new LiveEventHub.Settings(50, 4, 2), null);
+        LiveEvents.setHub(hub);
+
+        // Stands in for a socket whose peer stopped reading: the first write never returns
+        CountDownLatch writing = new CountDownLatch(1);
+        OutputStream stuck = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                writing.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException("interrupted");
+                }
+            }
+        };
+        AtomicBoolean closed = new AtomicBoolean();
+        LiveSubscriber subscriber = hub.subscribe(stuck, () -> closed.set(true));
+        Thread writer = new Thread(subscriber);
+        writer.start();
+        hub.flush();
+        assertTrue(writing.await(5, TimeUnit.SECONDS), "Writer blocked on the first frame");
+
+        for (int i = 0; i < 10 && !subscriber.isClosed(); i++) {
+            LiveEvents.publish("village.generated", "buildings", i);
+            hub.flush();
+        }
+        assertEquals("slow", subscriber.getCloseReason());
+        writer.join(5000);
+        assertFalse(writer.isAlive(), "Blocked write gave up");
+        assertTrue(closed.get(), "Exchange closed");
+        assertTrue(hub.getSubscribers().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Publishing is a no-op without subscribers and bounded when backed up")
+    void testPublishBounded() {
+        Metrics metrics = new Metrics(LOGGER);
+        LiveEventHub hub = new LiveEventHub(LOGGER, metrics, LiveEventHub.Settings.defaults(), null);
+        LiveEvents.setHub(hub);
+        LiveEvents.publish("queue.finished", "status", "COMPLETE");
+        assertEquals(0, hub.getDroppedEvents());
+
+        hub.subscribe(new ByteArrayOutputStream(), null);
+        for (int i = 0; i < LiveEventHub.MAX_PENDING_EVENTS + 10; i++) {
+            LiveEvents.publish("queue.finished", "status", "COMPLETE");
+        }
+        assertEquals(10, hub.getDroppedEvents());
+        assertThrows(IllegalArgumentException.class, () -> LiveEvents.publish("x", "odd"));
+        assertThrows(IllegalArgumentException.class, () -> new LiveEventHub.Settings(10, 1, 1));
+    }
+}
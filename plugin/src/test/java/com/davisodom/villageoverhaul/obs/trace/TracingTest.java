@@ -0,0 +1,120 @@
+package com.davisodom.villageoverhaul.obs.trace;
+
+import org.junit.jupiter.api.*;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for span parenting across threads, the bounded buffer and the Chrome trace export.
+ */
+class TracingTest {
+
+    @AfterEach
+    void disable() {
+        Tracing.setTracer(null);
+    }
+
+    @Test
+    @DisplayName("Disabled tracing hands out the no-op span")
+    void testDisabledIsNoop() {
+        Tracing.setTracer(null);
+        Span span = Tracing.startTrace("village.generate");
+        assertSame(Span.NOOP, span);
+        assertFalse(span.isRecording());
+        try (Tracing.Scope scope = Tracing.activate(span)) {
+            assertSame(Span.NOOP, Tracing.current());
+        }
+        span.setAttribute("ignored", 1).end();
+    }
+
+    @Test
+    @DisplayName("Spans nest on one thread and keep their parent on another")
+    void testParentingAcrossThreads() throws Exception {
+        Tracer tracer = new Tracer(64);
+        Tracing.setTracer(tracer);
+
+        Span root = Tracing.startTrace("village.generate");
+        Span child;
+        try (Tracing.Scope scope = Tracing.activate(root)) {
+            child = Tracing.startSpan("village.site_search");
+            child.end();
+            assertSame(root, Tracing.current());
+        }
+        assertSame(Span.NOOP, Tracing.current(), "Scope should restore the previous span");
+
+        Span async = CompletableFuture.supplyAsync(() -> {
+            try (Tracing.Scope scope = Tracing.activate(root); Span span = Tracing.startSpan("queue.build")) {
+                return span;
+            }
+        }).get();
+        root.end();
+
+        assertEquals(root.getTraceId(), child.getTraceId());
+        assertEquals(root.getSpanId(), child.getParentId());
+        assertEquals(root.getTraceId(), async.getTraceId());
+        assertEquals(root.getSpanId(), async.getParentId());
+        assertNotEquals(root.getThreadId(), async.getThreadId());
+        assertEquals(0, root.getParentId());
+        assertTrue(async.getDurationNanos() >= 0);
+
+        assertEquals(3, tracer.getFinishedSpans().size());
+        assertTrue(tracer.getOpenSpans().isEmpty());
+    }
+
+    @Test
+    @DisplayName("end() is idempotent and the ring keeps the newest spans")
+    void testRingEviction() {
+        Tracer tracer = new Tracer(4);
+        Tracing.setTracer(tracer);
+
+        Span first = Tracing.startTrace("span.0");
+        first.end();
+        first.end();
+        assertEquals(1, tracer.getFinishedSpans().size());
+
+        for (int i = 1; i < 10; i++) {
+            Tracing.startTrace("span." + i).end();
+        }
+        List<Span> finished = tracer.getFinishedSpans();
+        assertEquals(4, finished.size());
+        assertEquals("span.6", finished.get(0).getName());
+        assertEquals("span.9", finished.get(3).getName());
+        assertEquals(6, tracer.getEvicted());
+    }
+
+    @Test
+    @DisplayName("Export is Chrome trace JSON with open spans and thread names")
+    void testChromeTraceExport() throws Exception {
+        Tracer tracer = new Tracer(16);
+        Tracing.setTracer(tracer);
+
+        Span root = Tracing.startTrace("village.generate");
+        Span step = Tracing.startSpan("placement.buildings", root);
+        step.setAttribute("tick", 42L).setAttribute("structure", "house \"small\"");
+        step.end();
+        Span other = Tracing.startTrace("village.generate");
+        other.end();
+
+        StringWriter all = new StringWriter();
+        ChromeTraceWriter.write(tracer, 0, all);
+        String json = all.toString();
+        assertTrue(json.startsWith("{\"displayTimeUnit\":\"ms\",\"traceEvents\":["), json);
+        assertTrue(json.contains("\"name\":\"placement.buildings\",\"cat\":\"placement\",\"ph\":\"X\""), json);
+        assertTrue(json.contains("\"parent\":\"" + Span.toHex(root.getSpanId()) + "\""), json);
+        assertTrue(json.contains("\"tick\":42"), json);
+        assertTrue(json.contains("\"structure\":\"house \\\"small\\\"\""), json);
+        assertTrue(json.contains("\"open\":true"), "Root is still open: " + json);
+        assertTrue(json.contains("\"ph\":\"M\""), json);
+        assertTrue(json.trim().endsWith("]}"), json);
+
+        StringWriter filtered = new StringWriter();
+        ChromeTraceWriter.write(tracer, root.getTraceId(), filtered);
+        assertFalse(filtered.toString().contains(other.getTraceIdHex()));
+        assertTrue(filtered.toString().contains(root.getTraceIdHex()));
+        root.end();
+    }
+}
@@ -0,0 +1,132 @@
+package com.davisodom.villageoverhaul.perf;
+
+import com.davisodom.villageoverhaul.obs.Metrics;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the adaptive performance profile controller.
+ *
+ * Load is fed through evaluate() directly (one call = one 1s evaluation), so the tests
+ * do not depend on server MSPT or wall-clock timings.
+ */
+class PerformanceControllerTest {
+
+    private static final Logger LOGGER = Logger.getLogger(PerformanceControllerTest.class.getName());
+
+    // Tighten after 2 checks over 45 mspt, loosen after 3 checks under 30, 5 ticks dwell
+    private static final PerformanceController.Settings SETTINGS =
+            new PerformanceController.Settings(45.0, 30.0, 8000, 4000, 2, 3, 5);
+
+    private List<PerformanceProfile> applied;
+    private Metrics metrics;
+    private PerformanceController controller;
+    private long tick;
+
+    @BeforeEach
+    void setUp() {
+        applied = new ArrayList<>();
+        metrics = new Metrics(LOGGER);
+        controller = new PerformanceController(LOGGER, metrics, () -> 0.0, () -> 0L, applied::add,
+                PerformanceProfile.MEDIUM, SETTINGS);
+        tick = 100;
+    }
+
+    private void evaluate(double mspt) {
+        tick += 20;
+        controller.evaluate(tick, mspt, 1000);
+    }
+
+    @Test
+    @DisplayName("Sustained pressure tightens one step at a time")
+    void testEscalation() {
+        assertEquals(Arrays.asList(PerformanceProfile.MEDIUM), applied, "Initial profile should be applied");
+
+        evaluate(50);
+        assertEquals(PerformanceProfile.MEDIUM, controller.getProfile(), "A single slow check should not switch");
+        evaluate(50);
+        assertEquals(PerformanceProfile.HIGH, controller.getProfile());
+
+        evaluate(50);
+        evaluate(50);
+        assertEquals(PerformanceProfile.HIGH, controller.getProfile(), "HIGH is the tightest profile");
+        assertEquals(1, metrics.getCounter("perf.profile.transitions"));
+        assertEquals(1, metrics.getCounter("perf.profile.high.entered"));
+        assertEquals(PerformanceProfile.HIGH.ordinal(), metrics.getGauge("perf.profile"));
+    }
+
+    @Test
+    @DisplayName("Load between the thresholds keeps the current profile")
+    void testHysteresis() {
+        evaluate(50);
+        evaluate(50);
+        assertEquals(PerformanceProfile.HIGH, controller.getProfile());
+
+        // Below the escalate threshold but above the relax threshold: no change either way
+        for (int i = 0; i < 10; i++) {
+            evaluate(40);
+        }
+        assertEquals(PerformanceProfile.HIGH, controller.getProfile());
+
+        // A relief streak broken by one slow check starts over
+        evaluate(20);
+        evaluate(20);
+        evaluate(40);
+        evaluate(20);
+        evaluate(20);
+        assertEquals(PerformanceProfile.HIGH, controller.getProfile());
+        evaluate(20);
+        assertEquals(PerformanceProfile.MEDIUM, controller.getProfile());
+
+        assertEquals(Arrays.asList(PerformanceProfile.MEDIUM, PerformanceProfile.HIGH, PerformanceProfile.MEDIUM),
+                applied);
+    }
+
+    @Test
+    @DisplayName("Transitions respect the minimum dwell time")
+    void testDwell() {
+        PerformanceController slow = new PerformanceController(LOGGER, null, () -> 0.0, () -> 0L, applied::add,
+                PerformanceProfile.LOW, new PerformanceController.Settings(45.0, 30.0, 8000, 4000, 1, 1, 100));
+        slow.evaluate(200, 50, 0);
+        assertEquals(PerformanceProfile.MEDIUM, slow.getProfile());
+        slow.evaluate(220, 50, 0);
+        assertEquals(PerformanceProfile.MEDIUM, slow.getProfile(), "Second change within the dwell time");
+        slow.evaluate(300, 50, 0);
+        assertEquals(PerformanceProfile.HIGH, slow.getProfile());
+    }
+
+    @Test
+    @DisplayName("Engine tick time alone can tighten the profile")
+    void testEnginePressure() {
+        tick += 20;
+        controller.evaluate(tick, 20, 9000);
+        tick += 20;
+        controller.evaluate(tick, 20, 9000);
+        assertEquals(PerformanceProfile.HIGH, controller.getProfile());
+    }
+
+    @Test
+    @DisplayName("A pinned profile ignores load until unpinned")
+    void testPinning() {
+        controller.pin(PerformanceProfile.LOW);
+        assertEquals(PerformanceProfile.LOW, controller.getProfile());
+        assertEquals(1, metrics.getGauge("perf.profile.pinned"));
+
+        for (int i = 0; i < 10; i++) {
+            evaluate(60);
+        }
+        assertEquals(PerformanceProfile.LOW, controller.getProfile(), "Pinned profile should not change");
+
+        controller.pin(null);
+        assertEquals(0, metrics.getGauge("perf.profile.pinned"));
+        evaluate(60);
+        evaluate(60);
+        assertEquals(PerformanceProfile.MEDIUM, controller.getProfile(), "Automatic control should resume");
+    }
+}
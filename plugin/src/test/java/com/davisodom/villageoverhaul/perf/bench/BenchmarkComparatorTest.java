@@ -0,0 +1,157 @@
+package com.davisodom.villageoverhaul.perf.bench;
+
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Mann-Whitney test, regression verdicts and the result file formats.
+ */
+class BenchmarkComparatorTest {
+
+    /**
+     * Lognormal-ish tick times around the given median (seeded, so the tests are stable)
+     */
+    private static double[] samples(long seed, int count, double median) {
+        Random random = new Random(seed);
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = median * Math.exp(random.nextGaussian() * 0.15);
+        }
+        return values;
+    }
+
+    private static BenchmarkRun run(String label, BenchmarkResult... results) {
+        BenchmarkRun run = new BenchmarkRun(label, "", Map.of("villages", "2000"));
+        for (BenchmarkResult result : results) {
+            run.add(result);
+        }
+        return run;
+    }
+
+    @Test
+    @DisplayName("Mann-Whitney matches the normal approximation with tie correction")
+    void testMannWhitney() {
+        double[] low = {1, 2, 3, 4, 5};
+        double[] high = {6, 7, 8, 9, 10};
+        MannWhitney.Result separated = MannWhitney.testGreater(low, high);
+        assertEquals(25.0, separated.getU(), 1e-9);
+        assertEquals(0.0061, separated.getPValue(), 0.0005);
+        assertTrue(MannWhitney.testGreater(high, low).getPValue() > 0.99);
+
+        MannWhitney.Result tied = MannWhitney.testGreater(new double[] {1, 2, 2, 3}, new double[] {2, 2, 3, 4});
+        assertEquals(11.5, tied.getU(), 1e-9, "Ties count half");
+
+        assertEquals(1.0, MannWhitney.testGreater(new double[] {5, 5}, new double[] {5, 5}).getPValue());
+        assertEquals(1.0, MannWhitney.testGreater(new double[0], high).getPValue());
+        assertEquals(0.975, MannWhitney.normalCdf(1.96), 1e-4);
+    }
+
+    @Test
+    @DisplayName("A 30% slower benchmark fails the gate, noise and small shifts do not")
+    void testVerdicts() {
+        BenchmarkRun baseline = run("main",
+                new BenchmarkResult("queue.commit", "ms", false, samples(1, 200, 4.0)),
+                new BenchmarkResult("sim.tick", "ms", false, samples(2, 200, 2.0)),
+                new BenchmarkResult("sim.village_tick", "us", false, samples(3, 200, 1.0)),
+                new BenchmarkResult("paths.search", "ops/s", true, samples(4, 200, 1000)),
+                new BenchmarkResult("removed", "ms", false, samples(5, 200, 1.0)));
+        BenchmarkRun current = run("pr",
+                new BenchmarkResult("queue.commit", "ms", false, samples(11, 200, 5.2)),
+                new BenchmarkResult("sim.tick", "ms", false, samples(12, 200, 2.0)),
+                new BenchmarkResult("sim.village_tick", "us", false, samples(13, 200, 1.04)),
+                new BenchmarkResult("paths.search", "ops/s", true, samples(14, 200, 1300)),
+                new BenchmarkResult("added", "ms", false, samples(15, 3, 1.0)));
+
+        BenchmarkComparator.Report report = new BenchmarkComparator(BenchmarkComparator.Settings.defaults())
+                .compare(baseline, current);
+        Map<String, BenchmarkComparator.Verdict> verdicts = new HashMap<>();
+        for (BenchmarkComparator.Comparison comparison : report.getComparisons()) {
+            verdicts.put(comparison.getName(), comparison.getVerdict());
+        }
+        assertEquals(BenchmarkComparator.Verdict.REGRESSION, verdicts.get("queue.commit"));
+        assertEquals(BenchmarkComparator.Verdict.PASS, verdicts.get("sim.tick"));
+        assertEquals(BenchmarkComparator.Verdict.PASS, verdicts.get("sim.village_tick"), "4% is under the threshold");
+        assertEquals(BenchmarkComparator.Verdict.IMPROVEMENT, verdicts.get("paths.search"), "Higher throughput");
+        assertEquals(BenchmarkComparator.Verdict.MISSING, verdicts.get("removed"));
+        assertEquals(BenchmarkComparator.Verdict.NEW, verdicts.get("added"));
+        assertFalse(report.isPassed());
+        assertTrue(report.toText().contains("FAILED: 1 regressed, 1 improved"), report.toText());
+
+        BenchmarkComparator.Comparison commit = report.getComparisons().get(0);
+        assertEquals(30.0, commit.getWorsePercent(), 5.0);
+        assertTrue(commit.getPValue() < 1e-3, "10 batch means per side, fully separated");
+
+        // A slowdown on too few samples cannot be tested
+        BenchmarkComparator.Report small = new BenchmarkComparator(BenchmarkComparator.Settings.defaults()).compare(
+                run("a", new BenchmarkResult("x", "ms", false, new double[] {1, 1, 1})),
+                run("b", new BenchmarkResult("x", "ms", false, new double[] {2, 2, 2})));
+        assertEquals(BenchmarkComparator.Verdict.INCONCLUSIVE, small.getComparisons().get(0).getVerdict());
+        assertTrue(small.isPassed());
+    }
+
+    @Test
+    @DisplayName("Long runs are tested as batch means, short ones as they are")
+    void testBatchMeans() {
+        BenchmarkComparator comparator = new BenchmarkComparator(new BenchmarkComparator.Settings(0.01, 10, 2, false, 3));
+        assertArrayEquals(new double[] {2, 5}, comparator.batchMeans(new double[] {1, 2, 3, 4, 5, 6, 7}), 1e-12,
+                "Trailing partial batch is dropped");
+        assertArrayEquals(new double[] {1, 2, 3, 4, 5}, comparator.batchMeans(new double[] {1, 2, 3, 4, 5}), 1e-12,
+                "Fewer than minSamples batches: raw samples");
+
+        BenchmarkComparator defaults = new BenchmarkComparator(BenchmarkComparator.Settings.defaults());
+        assertEquals(20, defaults.batchMeans(samples(1, 400, 2.0)).length, "400 ticks: one mean per second");
+        assertEquals(100, defaults.batchMeans(samples(1, 100, 2.0)).length, "Too short to batch");
+    }
+
+    @Test
+    @DisplayName("Runs round-trip through JSON, JMH output loads and the HTML diff is escaped")
+    void testFormats() throws Exception {
+        File file = Files.createTempFile("bench", ".json").toFile();
+        File jmh = Files.createTempFile("jmh", ".json").toFile();
+        try {
+            BenchmarkRun original = run("main", new BenchmarkResult("sim.tick", "ms", false, new double[] {1.5, 2.5, 2.0}));
+            original.write(file);
+            BenchmarkRun loaded = BenchmarkRun.read(file);
+            assertEquals("main", loaded.getLabel());
+            assertEquals("2000", loaded.getConfig().get("villages"));
+            assertArrayEquals(new double[] {1.5, 2.5, 2.0}, loaded.get("sim.tick").getSamples(), 1e-12);
+            assertEquals(2.0, loaded.get("sim.tick").getMedian(), 1e-12);
+
+            Files.write(jmh.toPath(), ("[{\"benchmark\":\"com.example.QueueBench.commit\",\"mode\":\"avgt\"," +
+                    "\"params\":{\"blocks\":\"512\"},\"primaryMetric\":{\"score\":2.0,\"scoreUnit\":\"ms/op\"," +
+                    "\"rawData\":[[1.0,2.0],[3.0]]}},{\"benchmark\":\"com.example.PathBench.search\",\"mode\":\"thrpt\"," +
+                    "\"primaryMetric\":{\"score\":900.0,\"scoreUnit\":\"ops/s\",\"rawData\":[[900.0]]}}]")
+                    .getBytes(StandardCharsets.UTF_8));
+            BenchmarkRun jmhRun = BenchmarkRun.read(jmh);
+            BenchmarkResult commit = jmhRun.get("com.example.QueueBench.commit:blocks=512");
+            assertNotNull(commit);
+            assertEquals(3, commit.getSampleCount(), "Iterations of all forks");
+            assertEquals("ms/op", commit.getUnit());
+            assertFalse(commit.isHigherBetter());
+            assertTrue(jmhRun.get("com.example.PathBench.search").isHigherBetter());
+
+            BenchmarkRun slower = new BenchmarkRun("<pr>", "", Map.of("villages", "4000"));
+            slower.add(new BenchmarkResult("sim.tick", "ms", false, new double[] {3.0, 3.5, 4.0}));
+            StringWriter html = new StringWriter();
+            HtmlReportWriter.write(new BenchmarkComparator(new BenchmarkComparator.Settings(0.01, 10, 2, false))
+                    .compare(loaded, slower), html);
+            String page = html.toString();
+            assertTrue(page.contains("&lt;pr&gt;"), "Labels are escaped");
+            assertTrue(page.contains("villages: baseline 2000, current 4000"), "Config mismatch is flagged");
+            assertTrue(page.contains("<svg"));
+            assertTrue(page.contains("worse"));
+        } finally {
+            file.delete();
+            jmh.delete();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.davisodom.villageoverhaul.persistence;
+
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the JSON and Smile encodings of versioned files.
+ */
+class JsonStoreTest {
+
+    public static class Sample {
+        public String name;
+        public long balanceMillz;
+        public List<Integer> values = new ArrayList<>();
+    }
+
+    private static Sample sample() {
+        Sample sample = new Sample();
+        sample.name = "Aldermoor";
+        sample.balanceMillz = 1_234_567L;
+        for (int i = 0; i < 200; i++) {
+            sample.values.add(i * 7);
+        }
+        return sample;
+    }
+
+    @Test
+    @DisplayName("Both formats round-trip and load without being told the format")
+    void testFormats() throws Exception {
+        File folder = Files.createTempDirectory("jsonstore").toFile();
+        JsonStore store = new JsonStore(folder, Logger.getLogger("JsonStoreTest"));
+
+        store.save("a.json", sample(), 1, StorageFormat.JSON, false);
+        store.save("a.smile", sample(), 1, StorageFormat.SMILE, false);
+        File json = new File(folder, "a.json");
+        File smile = new File(folder, "a.smile");
+        assertEquals('{', (char) Files.readAllBytes(json.toPath())[0]);
+        assertEquals(':', (char) Files.readAllBytes(smile.toPath())[0], "Smile header");
+        assertTrue(smile.length() * 4 < json.length() * 3, smile.length() + " vs " + json.length());
+
+        for (String name : new String[] {"a.json", "a.smile"}) {
+            Sample loaded = store.loadJson(name, Sample.class);
+            assertEquals("Aldermoor", loaded.name);
+            assertEquals(1_234_567L, loaded.balanceMillz);
+            assertEquals(200, loaded.values.size());
+        }
+
+        byte[] encoded = store.encode(sample(), 1, StorageFormat.SMILE);
+        assertEquals(StorageFormat.SMILE, StorageFormat.detect(encoded));
+        assertEquals(1393, store.decode(encoded, Sample.class, "memory").values.get(199).intValue());
+
+        // Without write-behind the async variant runs on the caller
+        assertTrue(store.saveAsync("b.smile", sample(), 1, StorageFormat.SMILE, false).isDone());
+        assertTrue(new File(folder, "b.smile").exists());
+        assertEquals(StorageFormat.SMILE, StorageFormat.fromConfig(" Smile "));
+        assertThrows(IllegalArgumentException.class, () -> StorageFormat.fromConfig("xml"));
+    }
+}
@@ -0,0 +1,185 @@
+package com.davisodom.villageoverhaul.persistence;
+
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for region files: in-place updates, sector reuse, table growth and checksums.
+ */
+class RegionFileTest {
+
+    private static byte[] blob(int size, int seed) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) (i * 31 + seed);
+        }
+        return data;
+    }
+
+    @Test
+    @DisplayName("Blobs round-trip and survive reopening")
+    void testRoundTrip() throws Exception {
+        Path path = Files.createTempDirectory("region").resolve("r.0.0.region");
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        try (RegionFile file = RegionFile.open(path)) {
+            file.write(a, blob(100, 1));
+            file.write(b, blob(10_000, 2));
+            assertNull(file.read(UUID.randomUUID()));
+            assertEquals(1 + 1 + 3, file.getSectorCount(), "Header, one sector for a, three for b");
+        }
+        assertEquals(5L * RegionFile.SECTOR_BYTES, Files.size(path));
+
+        try (RegionFile file = RegionFile.open(path)) {
+            assertEquals(2, file.size());
+            assertArrayEquals(blob(100, 1), file.read(a));
+            assertArrayEquals(blob(10_000, 2), file.read(b));
+        }
+    }
+
+    @Test
+    @DisplayName("Freed sectors are reused only after a force and free tail sectors are cut off")
+    void testSectorReuse() throws Exception {
+        Path path = Files.createTempDirectory("region").resolve("r.0.0.region");
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        UUID d = UUID.randomUUID();
+        try (RegionFile file = RegionFile.open(path)) {
+            file.write(a, blob(3 * RegionFile.SECTOR_BYTES, 1));
+            file.write(b, blob(100, 2));
+            assertEquals(5, file.getSectorCount());
+
+            // The smaller copy of a goes to the end; its old sectors wait for the next force
+            file.write(a, blob(200, 3));
+            assertEquals(6, file.getSectorCount());
+            file.write(c, blob(2 * RegionFile.SECTOR_BYTES, 4));
+            assertEquals(8, file.getSectorCount(), "a's old sectors are not reused before a force");
+            file.write(d, blob(2 * RegionFile.SECTOR_BYTES, 5));
+            assertEquals(8, file.getSectorCount(), "d goes into the gap a left");
+
+            assertTrue(file.delete(c));
+            assertFalse(file.delete(c));
+            assertEquals(8, file.getSectorCount());
+            file.force();
+            assertEquals(6, file.getSectorCount(), "Free sectors at the end are cut off");
+            assertArrayEquals(blob(200, 3), file.read(a));
+            assertArrayEquals(blob(100, 2), file.read(b));
+            assertArrayEquals(blob(2 * RegionFile.SECTOR_BYTES, 5), file.read(d));
+        }
+        try (RegionFile file = RegionFile.open(path)) {
+            assertFalse(file.contains(c));
+            assertEquals(3, file.size());
+        }
+    }
+
+    @Test
+    @DisplayName("The offset table grows past one sector and moves blobs out of its way")
+    void testTableGrowth() throws Exception {
+        Path path = Files.createTempDirectory("region").resolve("r.0.0.region");
+        List<UUID> keys = new ArrayList<>();
+        try (RegionFile file = RegionFile.open(path)) {
+            for (int i = 0; i < 300; i++) {
+                UUID key = UUID.randomUUID();
+                keys.add(key);
+                file.write(key, blob(50 + i, i));
+            }
+            assertEquals(300, file.size());
+        }
+        try (RegionFile file = RegionFile.open(path)) {
+            assertEquals(300, file.size());
+            for (int i = 0; i < keys.size(); i++) {
+                assertArrayEquals(blob(50 + i, i), file.read(keys.get(i)), "Blob " + i);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A damaged blob fails its checksum; other blobs still read")
+    void testChecksum() throws Exception {
+        Path path = Files.createTempDirectory("region").resolve("r.0.0.region");
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        try (RegionFile file = RegionFile.open(path)) {
+            file.write(a, blob(100, 1));
+            file.write(b, blob(100, 2));
+        }
+        try (RandomAccessFile raw = new RandomAccessFile(path.toFile(), "rw")) {
+            raw.seek(RegionFile.SECTOR_BYTES + 10);
+            raw.write(0x5A);
+        }
+        try (RegionFile file = RegionFile.open(path)) {
+            assertThrows(IOException.class, () -> file.read(a));
+            assertArrayEquals(blob(100, 2), file.read(b));
+        }
+
+        Path other = path.resolveSibling("not-a-region");
+        Files.write(other, blob(RegionFile.SECTOR_BYTES, 0));
+        assertThrows(IOException.class, () -> RegionFile.open(other));
+    }
+
+    @Test
+    @DisplayName("Reads during rewrites and table growth always return a whole blob")
+    void testConcurrentReads() throws Exception {
+        Path path = Files.createTempDirectory("region").resolve("r.0.0.region");
+        List<UUID> keys = new CopyOnWriteArrayList<>();
+        try (RegionFile file = RegionFile.open(path)) {
+            for (int i = 0; i < 20; i++) {
+                keys.add(UUID.randomUUID());
+                file.write(keys.get(i), versioned(0));
+            }
+            AtomicBoolean done = new AtomicBoolean();
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Thread reader = new Thread(() -> {
+                try {
+                    while (!done.get()) {
+                        for (UUID key : keys) {
+                            byte[] data = file.read(key);
+                            if (data != null) {
+                                assertArrayEquals(versioned(data[0]), data);
+                            }
+                        }
+                    }
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            });
+            reader.start();
+            for (int round = 1; round <= 40; round++) {
+                for (UUID key : keys) {
+                    file.write(key, versioned(round));
+                }
+                for (int i = 0; i < 5; i++) {
+                    UUID key = UUID.randomUUID();
+                    keys.add(key); // past 127 entries the table grows under the reader
+                    file.write(key, versioned(round));
+                }
+                file.force();
+            }
+            done.set(true);
+            reader.join();
+            assertNull(failure.get(), String.valueOf(failure.get()));
+        }
+    }
+
+    /**
+     * Blob whose first byte says how to rebuild it, with a size that changes per version
+     */
+    private static byte[] versioned(int version) {
+        byte[] data = blob(100 + (version % 5) * RegionFile.SECTOR_BYTES, version);
+        data[0] = (byte) version;
+        return data;
+    }
+}
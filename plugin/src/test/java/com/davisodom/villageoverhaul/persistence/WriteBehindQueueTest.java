@@ -0,0 +1,123 @@
+package com.davisodom.villageoverhaul.persistence;
+
+import com.davisodom.villageoverhaul.obs.Metrics;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for write-behind coalescing, backpressure and shutdown flushing.
+ */
+class WriteBehindQueueTest {
+
+    private final Logger logger = Logger.getLogger("WriteBehindQueueTest");
+
+    @Test
+    @DisplayName("Saves of one file within the window collapse into one write of the latest snapshot")
+    void testCoalescing() throws Exception {
+        Metrics metrics = new Metrics(logger);
+        WriteBehindQueue queue = new WriteBehindQueue(logger, new WriteBehindQueue.Settings(200, 16, 1000), metrics);
+        queue.start();
+        try {
+            List<String> written = new CopyOnWriteArrayList<>();
+            CompletableFuture<Void> first = null;
+            CompletableFuture<Void> last = null;
+            for (int i = 0; i < 10; i++) {
+                String snapshot = "v" + i;
+                last = queue.submit("wallets.json", () -> written.add(snapshot));
+                if (first == null) {
+                    first = last;
+                }
+            }
+            CompletableFuture<Void> other = queue.submit("projects.json", () -> written.add("p"));
+            assertSame(first, last, "Coalesced saves share one future");
+            assertFalse(first.isDone(), "Held for the coalescing window");
+
+            last.get(5, TimeUnit.SECONDS);
+            other.get(5, TimeUnit.SECONDS);
+            assertEquals(List.of("v9", "p"), written);
+            assertEquals(9, metrics.getCounter("persistence.coalesced"));
+            assertEquals(2, metrics.getCounter("persistence.writes"));
+
+            CompletableFuture<Void> failing = queue.submit("broken.json", () -> {
+                throw new IOException("disk full");
+            });
+            ExecutionException error = assertThrows(ExecutionException.class, () -> failing.get(5, TimeUnit.SECONDS));
+            assertEquals("disk full", error.getCause().getMessage());
+            assertEquals(1, metrics.getCounter("persistence.write_failures"));
+        } finally {
+            queue.shutdown(1000);
+        }
+    }
+
+    @Test
+    @DisplayName("A full queue blocks new files until the writer frees a slot")
+    void testBackpressure() throws Exception {
+        WriteBehindQueue queue = new WriteBehindQueue(logger, new WriteBehindQueue.Settings(60_000, 2, 1000), null);
+        queue.start();
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            queue.submit("a", () -> {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            queue.submit("b", () -> { }); // full: the writer skips the window and takes "a"
+            queue.submit("c", () -> { });
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+            AtomicBoolean queued = new AtomicBoolean();
+            Thread producer = new Thread(() -> {
+                queue.submit("d", () -> { });
+                queued.set(true);
+            });
+            producer.start();
+            producer.join(200);
+            assertFalse(queued.get(), "Blocked while b and c fill the queue");
+            queue.submit("b", () -> { }); // replacing a queued file never blocks
+
+            release.countDown();
+            producer.join(5000);
+            assertTrue(queued.get());
+            assertTrue(queue.flush(5000));
+            assertEquals(0, queue.getPending());
+        } finally {
+            release.countDown();
+            queue.shutdown(1000);
+        }
+    }
+
+    @Test
+    @DisplayName("Shutdown writes queued files without waiting out the window, then rejects saves")
+    void testShutdownFlushes() throws Exception {
+        WriteBehindQueue queue = new WriteBehindQueue(logger, new WriteBehindQueue.Settings(60_000, 16, 5000), null);
+        queue.start();
+        List<String> written = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> a = queue.submit("a", () -> written.add("a"));
+        CompletableFuture<Void> b = queue.submit("b", () -> written.add("b"));
+
+        long started = System.nanoTime();
+        assertTrue(queue.shutdown(5000));
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(5));
+        assertEquals(List.of("a", "b"), written);
+        assertTrue(a.isDone() && !a.isCompletedExceptionally());
+        assertTrue(b.isDone() && !b.isCompletedExceptionally());
+
+        assertTrue(queue.submit("c", () -> written.add("c")).isCompletedExceptionally());
+        assertFalse(queue.isRunning());
+    }
+}
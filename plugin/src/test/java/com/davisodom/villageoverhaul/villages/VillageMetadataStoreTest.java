@@ -0,0 +1,206 @@
+package com.davisodom.villageoverhaul.villages;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.ServerMock;
+import be.seeseemelk.mockbukkit.WorldMock;
+import com.davisodom.villageoverhaul.model.Building;
+import com.davisodom.villageoverhaul.model.PathNetwork;
+import com.davisodom.villageoverhaul.persistence.JsonStore;
+import com.davisodom.villageoverhaul.persistence.StorageFormat;
+import org.bukkit.Location;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for per-village persistence: only dirty villages are rewritten and a reload
+ * restores borders, buildings, main buildings and path networks.
+ */
+class VillageMetadataStoreTest {
+
+    private ServerMock server;
+    private WorldMock world;
+    private Plugin plugin;
+
+    @BeforeEach
+    void setUp() {
+        server = MockBukkit.mock();
+        world = server.addSimpleWorld("world");
+        plugin = MockBukkit.createMockPlugin();
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockBukkit.unmock();
+    }
+
+    private VillageMetadataStore newStore() {
+        return newStore(StorageFormat.JSON);
+    }
+
+    private VillageMetadataStore newStore(StorageFormat format) {
+        return new VillageMetadataStore(plugin, new JsonStore(plugin.getDataFolder(), plugin.getLogger()), format);
+    }
+
+    @Test
+    @DisplayName("Checkpoints write only villages changed since the last one")
+    void testIncrementalSave() throws Exception {
+        VillageMetadataStore store = newStore();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            store.registerVillage(id, "roman", new Location(world, i * 300, 64, 0), i);
+        }
+        assertEquals(50, store.saveAll());
+        assertEquals(0, store.saveAll(), "Nothing changed");
+
+        UUID changed = ids.get(7);
+        store.addBuilding(changed, new Building.Builder()
+                .buildingId(UUID.randomUUID()).villageId(changed).structureId("house")
+                .origin(new Location(world, 2105, 64, 5)).dimensions(7, 5, 9).placedTimestamp(1L).build());
+        store.removeVillage(ids.get(0));
+        assertEquals(2, store.getPendingCount());
+        assertEquals(1, store.saveAll());
+        assertEquals(0, store.getPendingCount());
+
+        assertEquals(49, store.getStoredCount(), "Removed village is deleted from its region");
+        assertFalse(store.getVillage(ids.get(0)).isPresent());
+    }
+
+    @Test
+    @DisplayName("Reload restores border, buildings, main building and paths and skips bad files")
+    void testRoundTrip() throws Exception {
+        VillageMetadataStore store = newStore();
+        UUID villageId = UUID.randomUUID();
+        UUID buildingId = UUID.randomUUID();
+        store.registerVillage(villageId, "roman", new Location(world, 100, 64, 100), 42L);
+        store.addBuilding(villageId, new Building.Builder()
+                .buildingId(buildingId).villageId(villageId).structureId("house")
+                .origin(new Location(world, 110, 64, 95)).dimensions(7, 5, 9).placedTimestamp(1L).build());
+        store.setMainBuilding(villageId, buildingId);
+        store.setPathNetwork(villageId, new PathNetwork.Builder()
+                .villageId(villageId).generatedTimestamp(2L)
+                .addSegment(new PathNetwork.PathSegment(new Location(world, 100, 64, 100), new Location(world, 110, 64, 95),
+                        List.of(world.getBlockAt(101, 63, 100), world.getBlockAt(102, 63, 99))))
+                .build());
+        store.saveAll();
+        Files.write(new File(plugin.getDataFolder(), "villages/broken.json").toPath(),
+                "{not json".getBytes(StandardCharsets.UTF_8));
+
+        VillageMetadataStore reloaded = newStore();
+        assertEquals(1, reloaded.loadAll());
+        assertEquals(0, reloaded.getPendingCount(), "Loaded villages are clean");
+
+        VillageMetadataStore.VillageBorder border = reloaded.getVillage(villageId).orElseThrow().getBorder();
+        assertEquals(100, border.getMinX());
+        assertEquals(116, border.getMaxX());
+        assertEquals(95, border.getMinZ());
+        assertEquals(103, border.getMaxZ());
+        assertEquals(42L, reloaded.getVillage(villageId).orElseThrow().getSeed());
+        assertEquals(buildingId, reloaded.getMainBuilding(villageId).orElseThrow());
+        assertEquals("house", reloaded.getVillageBuildings(villageId).get(0).getStructureId());
+
+        PathNetwork.PathSegment segment = reloaded.getPathNetwork(villageId).orElseThrow().getSegments().get(0);
+        assertEquals(2, segment.getBlocks().size());
+        assertEquals(102, segment.getBlocks().get(1).getX());
+        assertEquals(world, segment.getStart().getWorld());
+    }
+
+    @Test
+    @DisplayName("A village read while its world is not loaded keeps the world name")
+    void testUnloadedWorld() throws Exception {
+        UUID villageId = UUID.randomUUID();
+        VillageMetadataStore.VillageMetadata metadata = new VillageMetadataStore.VillageMetadata(
+                villageId, "roman", new Location(null, 100, 64, 100), "elsewhere", 7L, 1L,
+                new VillageMetadataStore.VillageBorder(100, 110, 100, 110), 0L);
+        assertFalse(metadata.isInWorld(world));
+        VillageRecord record = VillageRecord.of(metadata, List.of(), null, null);
+        assertEquals("elsewhere", record.origin.world, "World name is written back");
+        assertFalse(record.isWorldLoaded());
+    }
+
+    @Test
+    @DisplayName("Per-village files from older versions are moved into region files")
+    void testLegacyMigration() throws Exception {
+        UUID villageId = UUID.randomUUID();
+        VillageMetadataStore.VillageMetadata metadata = new VillageMetadataStore.VillageMetadata(
+                villageId, "roman", new Location(world, 100, 64, 100), 42L, 1L);
+        new File(plugin.getDataFolder(), "villages").mkdirs();
+        JsonStore jsonStore = new JsonStore(plugin.getDataFolder(), plugin.getLogger());
+        jsonStore.save("villages/" + villageId + ".json", VillageRecord.of(metadata, List.of(), null, null),
+                VillageRecord.SCHEMA_VERSION, StorageFormat.JSON, false);
+        File json = new File(plugin.getDataFolder(), "villages/" + villageId + ".json");
+
+        VillageMetadataStore store = newStore(StorageFormat.SMILE);
+        assertEquals(1, store.loadAll());
+        assertEquals(1, store.getPendingCount(), "Legacy file is queued for migration");
+        assertEquals(1, store.saveAll());
+        assertFalse(json.exists(), "Legacy file is removed once the region is written");
+        assertTrue(new File(plugin.getDataFolder(), "villages/world/r.0.0.region").exists());
+
+        VillageMetadataStore reloaded = newStore(StorageFormat.SMILE);
+        assertEquals(1, reloaded.loadAll());
+        assertEquals(0, reloaded.getPendingCount());
+        assertEquals(42L, reloaded.getVillage(villageId).orElseThrow().getSeed());
+    }
+
+    @Test
+    @DisplayName("Per-village files wait for their world to load before they are migrated")
+    void testLegacyMigrationWaitsForWorld() throws Exception {
+        UUID villageId = UUID.randomUUID();
+        VillageMetadataStore.VillageMetadata metadata = new VillageMetadataStore.VillageMetadata(
+                villageId, "roman", new Location(null, 100, 64, 100), "later", 42L, 1L,
+                new VillageMetadataStore.VillageBorder(100, 100, 100, 100), 0L);
+        new File(plugin.getDataFolder(), "villages").mkdirs();
+        new JsonStore(plugin.getDataFolder(), plugin.getLogger()).save("villages/" + villageId + ".json",
+                VillageRecord.of(metadata, List.of(), null, null), VillageRecord.SCHEMA_VERSION, StorageFormat.JSON, false);
+        File json = new File(plugin.getDataFolder(), "villages/" + villageId + ".json");
+
+        VillageMetadataStore store = newStore(StorageFormat.SMILE);
+        assertEquals(0, store.loadAll());
+        assertEquals(0, store.saveAll());
+        assertTrue(json.exists(), "File is kept while its world is not loaded");
+
+        WorldMock later = server.addSimpleWorld("later");
+        store.onWorldLoad(new WorldLoadEvent(later));
+        assertEquals(1, store.saveAll());
+        assertFalse(json.exists());
+        assertTrue(new File(plugin.getDataFolder(), "villages/later/r.0.0.region").exists());
+        assertEquals("later", store.getVillage(villageId).orElseThrow().getWorldName());
+    }
+
+    @Test
+    @DisplayName("Startup indexes regions without loading them; chunks load only their own region")
+    void testRegionLoading() throws Exception {
+        VillageMetadataStore store = newStore(StorageFormat.SMILE);
+        UUID near = UUID.randomUUID();
+        UUID far = UUID.randomUUID();
+        store.registerVillage(near, "roman", new Location(world, 100, 64, 100), 1L);
+        store.registerVillage(far, "roman", new Location(world, 5000, 64, -3000), 2L);
+        store.saveAll();
+
+        VillageMetadataStore reloaded = newStore(StorageFormat.SMILE);
+        assertEquals(2, reloaded.loadAll());
+        assertTrue(reloaded.getAllVillages().isEmpty(), "Nothing is read at startup");
+        assertTrue(reloaded.hasVillages(world), "The index knows which worlds have villages");
+
+        assertEquals(1, reloaded.loadChunk("world", 6, 6));
+        assertEquals(0, reloaded.loadChunk("world", 7, 7), "Region is already loaded");
+        assertEquals(1, reloaded.getAllVillages().size());
+        assertEquals(near, reloaded.getAllVillages().iterator().next().getVillageId());
+
+        // Villages outside loaded regions are still found by id
+        assertEquals(2L, reloaded.getVillage(far).orElseThrow().getSeed());
+        assertEquals(2, reloaded.getAllVillages().size());
+    }
+}